@@ -1,7 +1,7 @@
 package edu.ata.autonomous;
 
-import com.sun.squawk.microedition.io.FileConnection;
 import edu.ata.commands.ArcadeDrive;
+import edu.ata.commands.DriveArc;
 import edu.ata.commands.DriveDistance;
 import edu.ata.commands.SetAlignment;
 import edu.ata.commands.SetBitchBar;
@@ -13,6 +13,7 @@ import edu.ata.commands.SetSmartDashboard;
 import edu.ata.commands.SetWinch;
 import edu.ata.commands.SetWiper;
 import edu.ata.commands.TankDrive;
+import edu.ata.commands.TurnToAngle;
 import edu.ata.subsystems.AlignmentSystem;
 import edu.ata.subsystems.BitchBar;
 import edu.ata.subsystems.Compressor;
@@ -20,11 +21,14 @@ import edu.ata.subsystems.Drivetrain;
 import edu.ata.subsystems.GearShifters;
 import edu.ata.subsystems.Loader;
 import edu.ata.subsystems.MovementSystem;
+import edu.ata.subsystems.Odometry;
 import edu.ata.subsystems.ShooterWheel;
 import edu.ata.subsystems.SmartDashboardSender;
 import edu.ata.subsystems.Winch;
 import edu.ata.subsystems.WindshieldWiper;
+import edu.first.utils.Clock;
 import edu.first.utils.DriverstationInfo;
+import edu.first.utils.FileSystem;
 import edu.first.utils.Logger;
 import edu.gordian.Gordian;
 import edu.gordian.Variable;
@@ -34,9 +38,7 @@ import edu.gordian.method.NumberReturningMethod;
 import edu.gordian.method.RunningMethod;
 import edu.gordian.variable.BooleanInterface;
 import edu.gordian.variable.NumberInterface;
-import edu.wpi.first.wpilibj.Timer;
 import java.io.IOException;
-import javax.microedition.io.Connector;
 
 /**
  * Static class meant to keep Gordian in a state where it can run the current
@@ -57,6 +59,7 @@ public final class GordianAuto {
     private static GearShifters gearShifters;
     private static Loader loader;
     private static MovementSystem movementSystem;
+    private static Odometry odometry;
     private static ShooterWheel shooterWheel;
     private static SmartDashboardSender smartDashboardSender;
     private static Winch winch;
@@ -75,7 +78,7 @@ public final class GordianAuto {
         },
         new RunningMethod("delay") {
             public void run(Variable[] args) {
-                Timer.delay(((NumberInterface) args[0]).doubleValue());
+                Clock.delay(((NumberInterface) args[0]).doubleValue());
             }
         },
         new BooleanReturningMethod("isEnabled") {
@@ -153,6 +156,31 @@ public final class GordianAuto {
                 return winch.getPosition();
             }
         },
+        new BooleanReturningMethod("winchSettled") {
+            public boolean getBoolean() {
+                return winch.isSettled();
+            }
+        },
+        new BooleanReturningMethod("winchMoving") {
+            public boolean getBoolean() {
+                return winch.isMoving();
+            }
+        },
+        new NumberReturningMethod("getX") {
+            public double getDouble() {
+                return odometry.getX();
+            }
+        },
+        new NumberReturningMethod("getY") {
+            public double getDouble() {
+                return odometry.getY();
+            }
+        },
+        new NumberReturningMethod("getHeading") {
+            public double getDouble() {
+                return odometry.getHeading();
+            }
+        },
         new RunningMethod("arcade") {
             public void run(Variable[] args) {
                 new ArcadeDrive(drivetrain, ((NumberInterface) args[0]).doubleValue(), ((NumberInterface) args[1]).doubleValue(), false).run();
@@ -248,6 +276,21 @@ public final class GordianAuto {
                 new DriveDistance(movementSystem, ((NumberInterface) args[0]).doubleValue(), false).run();
             }
         },
+        new RunningMethod("turnToAngle") {
+            public void run(Variable[] args) {
+                new TurnToAngle(movementSystem, TurnToAngle.ABSOLUTE, ((NumberInterface) args[0]).doubleValue(), false).run();
+            }
+        },
+        new RunningMethod("turnByAngle") {
+            public void run(Variable[] args) {
+                new TurnToAngle(movementSystem, TurnToAngle.RELATIVE, ((NumberInterface) args[0]).doubleValue(), false).run();
+            }
+        },
+        new RunningMethod("driveArc") {
+            public void run(Variable[] args) {
+                new DriveArc(movementSystem, ((NumberInterface) args[0]).doubleValue(), ((NumberInterface) args[1]).doubleValue(), false).run();
+            }
+        },
         new RunningMethod("setShooter") {
             public void run(Variable[] args) {
                 new SetShooter(shooterWheel, ((NumberInterface) args[0]).doubleValue(), false).run();
@@ -294,9 +337,9 @@ public final class GordianAuto {
      */
     public static void ensureInit(AlignmentSystem alignmentSystem, BitchBar bitchBar,
             Compressor compressor, Drivetrain drivetrain, GearShifters gearShifters,
-            Loader loader, MovementSystem movementSystem, ShooterWheel shooterWheel,
-            SmartDashboardSender smartDashboardSender, Winch winch,
-            WindshieldWiper windshieldWiper) {
+            Loader loader, MovementSystem movementSystem, Odometry odometry,
+            ShooterWheel shooterWheel, SmartDashboardSender smartDashboardSender,
+            Winch winch, WindshieldWiper windshieldWiper) {
         if (!init) {
             init = true;
             GordianAuto.alignmentSystem = alignmentSystem;
@@ -306,6 +349,7 @@ public final class GordianAuto {
             GordianAuto.gearShifters = gearShifters;
             GordianAuto.loader = loader;
             GordianAuto.movementSystem = movementSystem;
+            GordianAuto.odometry = odometry;
             GordianAuto.shooterWheel = shooterWheel;
             GordianAuto.smartDashboardSender = smartDashboardSender;
             GordianAuto.winch = winch;
@@ -321,7 +365,7 @@ public final class GordianAuto {
      * @throws IOException thrown when accessing file fails
      */
     public static void run(String fileName) throws IOException {
-        FileConnection connection = (FileConnection) Connector.open("file:///" + fileName, Connector.READ);
+        FileSystem.File connection = FileSystem.open("file:///" + fileName, FileSystem.READ);
         String script = Logger.getTextFromFile(connection);
         connection.close();
         if (init) {
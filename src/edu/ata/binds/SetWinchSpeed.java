@@ -2,6 +2,7 @@ package edu.ata.binds;
 
 import edu.ata.subsystems.Winch;
 import edu.first.bindings.AxisBind;
+import edu.first.utils.LatencyMonitor;
 
 public final class SetWinchSpeed implements AxisBind {
 
@@ -12,6 +13,6 @@ public final class SetWinchSpeed implements AxisBind {
     }
 
     public void set(double axisValue) {
-        winch.move(axisValue);
+        winch.move(axisValue, LatencyMonitor.INSTANCE.getPacketTime());
     }
 }
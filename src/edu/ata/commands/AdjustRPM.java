@@ -2,6 +2,7 @@ package edu.ata.commands;
 
 import edu.ata.subsystems.ShooterWheel;
 import edu.first.identifiers.ReturnableNumber;
+import edu.first.utils.LatencyMonitor;
 
 public final class AdjustRPM extends ThreadableCommand {
 
@@ -21,7 +22,8 @@ public final class AdjustRPM extends ThreadableCommand {
     public Runnable getRunnable() {
         return new Runnable() {
             public void run() {
-                shooterWheel.setRPM(shooterWheel.getSetpointRPM() + adjustment.get());
+                shooterWheel.setRPM(shooterWheel.getSetpointRPM() + adjustment.get(),
+                        LatencyMonitor.INSTANCE.getPacketTime());
             }
         };
     }
@@ -0,0 +1,30 @@
+package edu.ata.commands;
+
+import edu.ata.subsystems.MovementSystem;
+import edu.first.identifiers.ReturnableNumber;
+
+public final class DriveArc extends ThreadableCommand {
+
+    private final MovementSystem movementSystem;
+    private final ReturnableNumber distance, angle;
+
+    public DriveArc(MovementSystem movementSystem, double distance, double angle, boolean newThread) {
+        this(movementSystem, new ReturnableNumber.Number(distance), new ReturnableNumber.Number(angle), newThread);
+    }
+
+    public DriveArc(MovementSystem movementSystem, ReturnableNumber distance, ReturnableNumber angle, boolean newThread) {
+        super(newThread);
+        this.movementSystem = movementSystem;
+        this.distance = distance;
+        this.angle = angle;
+    }
+
+    public Runnable getRunnable() {
+        return new Runnable() {
+            public void run() {
+                movementSystem.driveArc(distance.get(), angle.get());
+                movementSystem.waitUntilFinished();
+            }
+        };
+    }
+}
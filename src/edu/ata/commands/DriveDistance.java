@@ -22,6 +22,7 @@ public final class DriveDistance extends ThreadableCommand {
         return new Runnable() {
             public void run() {
                 movementSystem.driveToDistance(number.get());
+                movementSystem.waitUntilFinished();
             }
         };
     }
@@ -2,6 +2,7 @@ package edu.ata.commands;
 
 import edu.ata.subsystems.ShooterWheel;
 import edu.first.identifiers.ReturnableNumber;
+import edu.first.utils.LatencyMonitor;
 
 public final class SetShooter extends ThreadableCommand {
 
@@ -21,7 +22,7 @@ public final class SetShooter extends ThreadableCommand {
     public Runnable getRunnable() {
         return new Runnable() {
             public void run() {
-                shooterWheel.setRPM(rpm.get());
+                shooterWheel.setRPM(rpm.get(), LatencyMonitor.INSTANCE.getPacketTime());
             }
         };
     }
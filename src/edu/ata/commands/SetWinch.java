@@ -2,6 +2,7 @@ package edu.ata.commands;
 
 import edu.ata.subsystems.Winch;
 import edu.first.identifiers.ReturnableNumber;
+import edu.first.utils.LatencyMonitor;
 
 public final class SetWinch extends ThreadableCommand {
 
@@ -27,9 +28,9 @@ public final class SetWinch extends ThreadableCommand {
         return new Runnable() {
             public void run() {
                 if (type.equals(SPEED)) {
-                    winch.move(number.get());
+                    winch.move(number.get(), LatencyMonitor.INSTANCE.getPacketTime());
                 } else if (type.equals(POSITION)) {
-                    winch.set(number.get());
+                    winch.set(number.get(), LatencyMonitor.INSTANCE.getPacketTime());
                 } else if (type.equals(ZERO)) {
                     winch.setZero(number.get());
                 }
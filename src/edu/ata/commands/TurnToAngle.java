@@ -0,0 +1,56 @@
+package edu.ata.commands;
+
+import edu.ata.subsystems.MovementSystem;
+import edu.first.identifiers.ReturnableNumber;
+
+public final class TurnToAngle extends ThreadableCommand {
+
+    public static final TurnType ABSOLUTE = new TurnType(1);
+    public static final TurnType RELATIVE = new TurnType(2);
+    private final MovementSystem movementSystem;
+    private final TurnType type;
+    private final ReturnableNumber angle;
+
+    public TurnToAngle(MovementSystem movementSystem, TurnType type, double angle, boolean newThread) {
+        this(movementSystem, type, new ReturnableNumber.Number(angle), newThread);
+    }
+
+    public TurnToAngle(MovementSystem movementSystem, TurnType type, ReturnableNumber angle, boolean newThread) {
+        super(newThread);
+        this.movementSystem = movementSystem;
+        this.type = type;
+        this.angle = angle;
+    }
+
+    public Runnable getRunnable() {
+        return new Runnable() {
+            public void run() {
+                if (type.equals(ABSOLUTE)) {
+                    movementSystem.turnToAngle(angle.get());
+                } else if (type.equals(RELATIVE)) {
+                    movementSystem.turnByAngle(angle.get());
+                }
+                movementSystem.waitUntilFinished();
+            }
+        };
+    }
+
+    public static final class TurnType {
+
+        private final int type;
+
+        private TurnType(int type) {
+            this.type = type;
+        }
+
+        public int hashCode() {
+            int hash = 7;
+            hash = 71 * hash + this.type;
+            return hash;
+        }
+
+        public boolean equals(Object obj) {
+            return (obj instanceof TurnType) ? (type == ((TurnType) obj).type) : false;
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package edu.ata.modules;
 
 import edu.first.binding.Bindable;
+import edu.first.module.hardware.Hardware;
 import edu.first.module.joystick.BindableJoystick;
 import edu.wpi.first.wpilibj.Joystick;
 
@@ -70,6 +71,16 @@ public final class XboxController extends BindableJoystick {
         super(joystick);
     }
 
+    /**
+     * Constructs the object by using composition, using the given joystick
+     * (from any {@link Hardware}) to control methods in this class.
+     *
+     * @param joystick actual underlying object used
+     */
+    public XboxController(Hardware.Joystick joystick) {
+        super(joystick);
+    }
+
     public double getRawAxis(int port) {
         double v;
         if (port == RIGHT_FROM_MIDDLE) {
@@ -19,6 +19,7 @@ import edu.ata.subsystems.Driving;
 import edu.ata.subsystems.GearShifters;
 import edu.ata.subsystems.Loader;
 import edu.ata.subsystems.MovementSystem;
+import edu.ata.subsystems.Odometry;
 import edu.ata.subsystems.ShooterWheel;
 import edu.ata.subsystems.SmartDashboardSender;
 import edu.ata.subsystems.Winch;
@@ -32,30 +33,34 @@ import edu.first.module.sensor.GyroModule;
 import edu.first.module.sensor.HallEffectModule;
 import edu.first.module.sensor.PotentiometerModule;
 import edu.first.identifiers.Function;
+import edu.first.identifiers.ReturnableBoolean;
+import edu.first.identifiers.ReturnableNumber;
+import edu.first.module.Module;
 import edu.first.module.actuator.DualActionSolenoidModule;
+import edu.first.module.hardware.Hardware;
+import edu.first.module.hardware.WPILibHardware;
 import edu.first.module.joystick.BindableJoystick;
 import edu.first.module.speedcontroller.SpeedControllerModule;
 import edu.first.module.speedcontroller.SpikeRelayModule;
+import edu.first.module.subsystem.Subsystem;
 import edu.first.module.target.BangBangModule;
 import edu.first.robot.Robot;
 import edu.first.robot.RobotAdapter;
+import edu.first.utils.DashboardPublisher;
 import edu.first.utils.DriverstationInfo;
+import edu.first.utils.DriverstationRecorder;
+import edu.first.utils.FlightRecorder;
+import edu.first.utils.LatencyMonitor;
 import edu.first.utils.Logger;
-import edu.first.utils.TransferRateCalculator;
+import edu.first.utils.NetworkHealthMonitor;
+import edu.first.utils.TelemetryRecorder;
+import edu.first.utils.TelemetryRegistry;
 import edu.first.utils.preferences.DoublePreference;
+import edu.first.utils.preferences.Preference;
+import edu.first.utils.preferences.PreferenceStore;
 import edu.first.utils.preferences.StringPreference;
-import edu.wpi.first.wpilibj.AnalogChannel;
-import edu.wpi.first.wpilibj.DigitalInput;
 import edu.wpi.first.wpilibj.Encoder;
-import edu.wpi.first.wpilibj.Gyro;
-import edu.wpi.first.wpilibj.Joystick;
-import edu.wpi.first.wpilibj.Preferences;
-import edu.wpi.first.wpilibj.Relay;
-import edu.wpi.first.wpilibj.RobotDrive;
-import edu.wpi.first.wpilibj.Solenoid;
 import edu.wpi.first.wpilibj.SpeedController;
-import edu.wpi.first.wpilibj.Talon;
-import edu.wpi.first.wpilibj.Victor;
 
 /**
  * Our 2013 robot, Murdock. Our beginning and end.
@@ -74,13 +79,26 @@ public final class Murdock {
     private static final boolean reverseSpeed = false;
     private static final boolean reverseTurn = true;
     private static final boolean reverseShooter = false;
+    private static final long telemetryPeriod = 10L;
+    private static final long telemetryLogInterval = 5000L;
+    private static final int dashboardMaxPerPublish = 6;
+    private static final long dashboardRefresh = 5000L;
+    private static final long driverstationPeriod = 5L;
+    private static final int driverstationBlock = 250;
+    // Runs the drivetrain right after packets in teleop instead of on its timer
+    private static final boolean packetAlignedDriving = true;
     public static final int competitionPort = 1;
     public static final int smartDashboardPort = 2;
     // Important things //
     private static Murdock MURDOCK;
+    private static Hardware HARDWARE = WPILibHardware.INSTANCE;
     private final Robot murdock = new MurdockRobot();
     private final RobotMode normalMode = new NormalMode();
-    private long lastSave = System.currentTimeMillis();
+    private final PreferenceStore preferenceStore = new PreferenceStore(new ReturnableBoolean() {
+        public boolean get() {
+            return !DriverstationInfo.isEnabled();
+        }
+    });
     private DoublePreference Zero = new DoublePreference("Zero", 0);
     private StringPreference AUTOMODE = new StringPreference("AutonomousMode", defaultAuto);
     private DoublePreference ShooterRPM = new DoublePreference("ShooterRPM", defaultRPM);
@@ -94,33 +112,41 @@ public final class Murdock {
     private DoublePreference YRPM = new DoublePreference("YRPM", defaultRPM);
     // WPILIBJ //
     private final PortMapFile mapFile = PortMapFile.getInstance();
-    private final DigitalInput _psi120 = new DigitalInput(mapFile.getPort("psi120", 5));
-    private final DigitalInput _psi60 = new DigitalInput(mapFile.getPort("psi60", 6));
-    private final AnalogChannel _potentiometer = new AnalogChannel(mapFile.getPort("Pot", 1));
-    private final DigitalInput _hallEffect = new DigitalInput(mapFile.getPort("HallEffect", 1));
-    private final Encoder _encoder = new Encoder(mapFile.getPort("EncoderA", 2), mapFile.getPort("EncoderB", 3));
-    private final Gyro _gyro = new Gyro(mapFile.getPort("Gyro", 2));
-    private final Relay _compressorRelay = new Relay(mapFile.getPort("Compressor", 1));
-    private final Joystick _joystick1 = new Joystick(mapFile.getPort("Joystick1", 1));
-    private final Joystick _joystick2 = new Joystick(mapFile.getPort("Joystick2", 2));
-    private final Talon _shooter = new Talon(mapFile.getPort("Shooter", 1));
-    private final Victor _winchMotor = new Victor(mapFile.getPort("Winch", 2));
-    private final Victor _leftBack = new Victor(mapFile.getPort("LeftBack", 5));
-    private final Victor _leftFront = new Victor(mapFile.getPort("LeftFront", 6));
-    private final Victor _rightBack = new Victor(mapFile.getPort("RightBack", 3));
-    private final Victor _rightFront = new Victor(mapFile.getPort("RightFront", 4));
-    private final SpeedController _windshieldWiperMotor = new Victor(mapFile.getPort("WindshiedWiper", 7));
-    private final RobotDrive _drive = new RobotDrive(_leftFront, _leftBack, _rightFront, _rightBack);
-    private final Solenoid _loadIn = new Solenoid(mapFile.getPort("LoadIn", 8));
-    private final Solenoid _loadOut = new Solenoid(mapFile.getPort("LoadOut", 7));
-    private final Solenoid _bitchBarIn = new Solenoid(mapFile.getPort("BitchBarIn", 5));
-    private final Solenoid _bitchBarOut = new Solenoid(mapFile.getPort("BitchBarOut", 6));
-    private final Solenoid _gearUp = new Solenoid(mapFile.getPort("GearUp", 4));
-    private final Solenoid _gearDown = new Solenoid(mapFile.getPort("GearDown", 3));
-    private final Solenoid _backLeft = new Solenoid(mapFile.getPort("BackLeft", 2));
-    private final Solenoid _backRight = new Solenoid(mapFile.getPort("BackRight", 1));
+    private final Hardware hardware = HARDWARE;
+    private final Hardware.DigitalInput _psi120 = hardware.getDigitalInput(mapFile.getPort("psi120", PortMapFile.Type.DIGITAL, 5));
+    private final Hardware.DigitalInput _psi60 = hardware.getDigitalInput(mapFile.getPort("psi60", PortMapFile.Type.DIGITAL, 6));
+    private final Hardware.AnalogInput _potentiometer = hardware.getAnalogInput(mapFile.getPort("Pot", PortMapFile.Type.ANALOG, 1));
+    private final Hardware.Counter _hallEffect = hardware.getCounter(mapFile.getPort("HallEffect", PortMapFile.Type.DIGITAL, 1));
+    private final Hardware.Encoder _encoder = hardware.getEncoder(mapFile.getPort("EncoderA", PortMapFile.Type.DIGITAL, 2), mapFile.getPort("EncoderB", PortMapFile.Type.DIGITAL, 3));
+    private final Hardware.Gyro _gyro = hardware.getGyro(mapFile.getPort("Gyro", PortMapFile.Type.ANALOG, 2));
+    private final Hardware.Relay _compressorRelay = hardware.getRelay(mapFile.getPort("Compressor", PortMapFile.Type.RELAY, 1));
+    private final Hardware.Joystick _joystick1 = hardware.getJoystick(mapFile.getPort("Joystick1", PortMapFile.Type.JOYSTICK, 1));
+    private final Hardware.Joystick _joystick2 = hardware.getJoystick(mapFile.getPort("Joystick2", PortMapFile.Type.JOYSTICK, 2));
+    private final SpeedController _shooter = hardware.getTalon(mapFile.getPort("Shooter", PortMapFile.Type.PWM, 1));
+    private final SpeedController _winchMotor = hardware.getVictor(mapFile.getPort("Winch", PortMapFile.Type.PWM, 2));
+    private final SpeedController _leftBack = hardware.getVictor(mapFile.getPort("LeftBack", PortMapFile.Type.PWM, 5));
+    private final SpeedController _leftFront = hardware.getVictor(mapFile.getPort("LeftFront", PortMapFile.Type.PWM, 6));
+    private final SpeedController _rightBack = hardware.getVictor(mapFile.getPort("RightBack", PortMapFile.Type.PWM, 3));
+    private final SpeedController _rightFront = hardware.getVictor(mapFile.getPort("RightFront", PortMapFile.Type.PWM, 4));
+    private final SpeedController _windshieldWiperMotor = hardware.getVictor(mapFile.getPort("WindshiedWiper", PortMapFile.Type.PWM, 7));
+    private final Hardware.RobotDrive _drive = hardware.getRobotDrive(_leftFront, _leftBack, _rightFront, _rightBack);
+    private final Hardware.Solenoid _loadIn = hardware.getSolenoid(mapFile.getPort("LoadIn", PortMapFile.Type.SOLENOID, 8));
+    private final Hardware.Solenoid _loadOut = hardware.getSolenoid(mapFile.getPort("LoadOut", PortMapFile.Type.SOLENOID, 7));
+    private final Hardware.Solenoid _bitchBarIn = hardware.getSolenoid(mapFile.getPort("BitchBarIn", PortMapFile.Type.SOLENOID, 5));
+    private final Hardware.Solenoid _bitchBarOut = hardware.getSolenoid(mapFile.getPort("BitchBarOut", PortMapFile.Type.SOLENOID, 6));
+    private final Hardware.Solenoid _gearUp = hardware.getSolenoid(mapFile.getPort("GearUp", PortMapFile.Type.SOLENOID, 4));
+    private final Hardware.Solenoid _gearDown = hardware.getSolenoid(mapFile.getPort("GearDown", PortMapFile.Type.SOLENOID, 3));
+    private final Hardware.Solenoid _backLeft = hardware.getSolenoid(mapFile.getPort("BackLeft", PortMapFile.Type.SOLENOID, 2));
+    private final Hardware.Solenoid _backRight = hardware.getSolenoid(mapFile.getPort("BackRight", PortMapFile.Type.SOLENOID, 1));
+    private final DashboardPublisher dashboard = new DashboardPublisher(hardware.getDashboard(),
+            dashboardMaxPerPublish, dashboardRefresh);
+    private final TelemetryRecorder telemetry = new TelemetryRecorder("file:///telemetry.bin", 0L, 100);
+    private final TelemetryRegistry registry = new TelemetryRegistry(dashboard, telemetry, telemetryPeriod);
+    // Every port, so a replay works no matter how joysticks are mapped
+    private final DriverstationRecorder driverstationRecorder = new DriverstationRecorder("file:///driverstation.bin",
+            hardware.getDriverStation(), new Hardware.Joystick[]{hardware.getJoystick(1), hardware.getJoystick(2),
+        hardware.getJoystick(3), hardware.getJoystick(4)}, driverstationPeriod, driverstationBlock);
     // Robot //
-    private final TransferRateCalculator transferRate = new TransferRateCalculator();
     private final DigitalLimitSwitchModule psi120 = new DigitalLimitSwitchModule(_psi120);
     private final DigitalLimitSwitchModule psi60 = new DigitalLimitSwitchModule(_psi60);
     private final PotentiometerModule potentiometer = new PotentiometerModule(_potentiometer);
@@ -148,18 +174,37 @@ public final class Murdock {
     private final Driving driving = new Driving(drivetrain, joystick1, joystick2);
     private final GearShifters gearShifters = new GearShifters(_gearShifters);
     private final Loader loader = new Loader(_loader, shooterBangBang, potentiometer);
-    private final MovementSystem movementSystem = new MovementSystem(drive, encoder);
+    private final MovementSystem movementSystem = new MovementSystem(drivetrain, encoder, gyro);
+    private final Odometry odometry = new Odometry(encoder, gyro);
     private final ShooterWheel shooterWheel = new ShooterWheel(shooterBangBang);
-    private final Winch winch = new Winch(winchMotor, potentiometer);
+    private final Winch winch = new Winch(hardware, winchMotor, potentiometer);
     private final WindshieldWiper windshieldWiper = new WindshieldWiper(windshieldWiperMotor);
     private final SmartDashboardSender smartDashboardSender =
-            new SmartDashboardSender(shooterWheel, psi60, psi120, bitchBar, alignmentSystem, winch, gearShifters,
-            windshieldWiper, encoder, gyro, transferRate);
-    private final BindableJoystick BINDS = new BindableJoystick(new Joystick(8));
+            new SmartDashboardSender(registry, new Module[]{shooterWheel, psi60, psi120, bitchBar,
+        alignmentSystem, winch, gearShifters, windshieldWiper, encoder, gyro});
+    private final BindableJoystick BINDS = new BindableJoystick(hardware.getJoystick(8));
+
+    // Lets Murdock run on SimHardware - has to be called before getInstance()
+    public static void setHardware(Hardware hardware) {
+        if (hardware == null) {
+            throw new NullPointerException();
+        }
+        synchronized (Murdock.class) {
+            if (MURDOCK != null) {
+                throw new IllegalStateException("Murdock already constructed");
+            }
+            HARDWARE = hardware;
+        }
+        DriverstationInfo.setDriverStation(hardware.getDriverStation());
+        Logger.setLCD(hardware.getLCD());
+        Preference.setPreferences(hardware.getPreferences());
+    }
 
     public static Murdock getInstance() {
         synchronized (Murdock.class) {
             if (MURDOCK == null) {
+                // Before any of the final objects are made
+                Logger.log(Logger.Urgency.USERMESSAGE, "Initializing...");
                 MURDOCK = new Murdock();
             }
         }
@@ -167,6 +212,8 @@ public final class Murdock {
     }
 
     private Murdock() {
+        // Every port has been looked up by now
+        mapFile.report();
     }
 
     public Robot getRobot() {
@@ -177,17 +224,12 @@ public final class Murdock {
         return normalMode;
     }
 
-    // Static to appear before final objects made
-    static {
-        Logger.log(Logger.Urgency.USERMESSAGE, "Initializing...");
-    }
-
     private void init() {
         Logger.log(Logger.Urgency.USERMESSAGE, "IO " + competitionPort + " = Competition");
         Logger.log(Logger.Urgency.USERMESSAGE, "IO " + smartDashboardPort + " = SmartDashboard");
         if (DriverstationInfo.FMSattached()) {
             Logger.log(Logger.Urgency.USERMESSAGE, "FMS attached - reverting to competition mode");
-            DriverstationInfo.getDS().setDigitalOut(1, true);
+            DriverstationInfo.setDigitalOut(1, true);
         }
         Logger.log(Logger.Urgency.USERMESSAGE, DriverstationInfo.getAllianceName() + " "
                 + DriverstationInfo.getAllianceLocation());
@@ -215,18 +257,164 @@ public final class Murdock {
         XRPM.create();
         YSetpoint.create();
         YRPM.create();
+        // Saves whatever changes once disabled and nothing has changed for a bit
+        preferenceStore.start();
+        initTelemetry();
     }
 
-    private void disabled() {
-        // can only save every 30 seconds - prevents breakage
-        if (System.currentTimeMillis() - lastSave > 30000) {
-            lastSave = System.currentTimeMillis();
-            Logger.log(Logger.Urgency.USERMESSAGE, "Saving Preferences");
-            Preferences.getInstance().save();
-        }
+    private void initTelemetry() {
+        registry.addBoolean("PastSetpoint", new ReturnableBoolean() {
+            public boolean get() {
+                return shooterWheel.isPastSetpoint();
+            }
+        }, DashboardPublisher.Rate.CRITICAL, TelemetryRegistry.Visibility.COMPETITION);
+        registry.addBoolean("60 PSI", new ReturnableBoolean() {
+            public boolean get() {
+                return !psi60.isPushed();
+            }
+        }, DashboardPublisher.Rate.CRITICAL, TelemetryRegistry.Visibility.COMPETITION);
+        registry.addBoolean("120 PSI", new ReturnableBoolean() {
+            public boolean get() {
+                return !psi120.isPushed();
+            }
+        }, DashboardPublisher.Rate.CRITICAL, TelemetryRegistry.Visibility.COMPETITION);
+        registry.addBoolean("BBOut", new ReturnableBoolean() {
+            public boolean get() {
+                return !bitchBar.isOut();
+            }
+        }, DashboardPublisher.Rate.CRITICAL, TelemetryRegistry.Visibility.COMPETITION);
+        registry.addBoolean("AlignOut", new ReturnableBoolean() {
+            public boolean get() {
+                return alignmentSystem.isOut();
+            }
+        }, DashboardPublisher.Rate.CRITICAL, TelemetryRegistry.Visibility.COMPETITION);
+        registry.addNumber("Gear", new ReturnableNumber() {
+            public double get() {
+                return gearShifters.gear();
+            }
+        }, DashboardPublisher.Rate.CRITICAL, 0, TelemetryRegistry.Visibility.COMPETITION);
+        registry.addNumber("RPM", new ReturnableNumber() {
+            public double get() {
+                return shooterWheel.getRPM();
+            }
+        }, DashboardPublisher.Rate.NORMAL, 10, TelemetryRegistry.Visibility.COMPETITION);
+        registry.addNumber("ShooterPosition", new ReturnableNumber() {
+            public double get() {
+                return winch.getPosition();
+            }
+        }, DashboardPublisher.Rate.NORMAL, 0.01, TelemetryRegistry.Visibility.COMPETITION);
+        registry.addNumber("RealShooterPosition", new ReturnableNumber() {
+            public double get() {
+                return winch.getSensorPosition();
+            }
+        }, DashboardPublisher.Rate.NORMAL, 0.01, TelemetryRegistry.Visibility.COMPETITION);
+        registry.addNumber("Distance", encoder, DashboardPublisher.Rate.BACKGROUND, 0.5,
+                TelemetryRegistry.Visibility.TESTING);
+        registry.addNumber("Angle", gyro, DashboardPublisher.Rate.BACKGROUND, 0.5,
+                TelemetryRegistry.Visibility.TESTING);
+        registry.addNumber("PacketRate", new ReturnableNumber() {
+            public double get() {
+                return NetworkHealthMonitor.INSTANCE.getPacketRate();
+            }
+        }, DashboardPublisher.Rate.BACKGROUND, 0.5, TelemetryRegistry.Visibility.TESTING);
+        registry.addNumber("LongestGap", new ReturnableNumber() {
+            public double get() {
+                return NetworkHealthMonitor.INSTANCE.getLongestGap();
+            }
+        }, DashboardPublisher.Rate.BACKGROUND, 0, TelemetryRegistry.Visibility.TESTING);
+        registry.addNumber("MissedPackets", new ReturnableNumber() {
+            public double get() {
+                return NetworkHealthMonitor.INSTANCE.getMissedPackets();
+            }
+        }, DashboardPublisher.Rate.BACKGROUND, 0, TelemetryRegistry.Visibility.TESTING);
+        final LatencyMonitor.Output driveLatency = LatencyMonitor.INSTANCE.getOutput("Drive");
+        registry.addNumber("DriveLatency", new ReturnableNumber() {
+            public double get() {
+                return driveLatency.getAverage();
+            }
+        }, DashboardPublisher.Rate.BACKGROUND, 0.5, TelemetryRegistry.Visibility.TESTING);
+        registry.addNumber("DriveLatency95", new ReturnableNumber() {
+            public double get() {
+                return driveLatency.getPercentile(0.95);
+            }
+        }, DashboardPublisher.Rate.BACKGROUND, 0, TelemetryRegistry.Visibility.TESTING);
+        final LatencyMonitor.Output shooterLatency = LatencyMonitor.INSTANCE.getOutput("Shooter");
+        registry.addNumber("ShooterLatency", new ReturnableNumber() {
+            public double get() {
+                return shooterLatency.getAverage();
+            }
+        }, DashboardPublisher.Rate.BACKGROUND, 0.5, TelemetryRegistry.Visibility.TESTING);
+        final LatencyMonitor.Output winchLatency = LatencyMonitor.INSTANCE.getOutput("Winch");
+        registry.addNumber("WinchLatency", new ReturnableNumber() {
+            public double get() {
+                return winchLatency.getAverage();
+            }
+        }, DashboardPublisher.Rate.BACKGROUND, 0.5, TelemetryRegistry.Visibility.TESTING);
+        registry.addNumber("SkippedWrites", new ReturnableNumber() {
+            public double get() {
+                return shooter.getSuppressedWrites() + winchMotor.getSuppressedWrites()
+                        + windshieldWiperMotor.getSuppressedWrites() + compressorRelay.getSuppressedWrites()
+                        + _loader.getSuppressedWrites() + _bitchBar.getSuppressedWrites()
+                        + _gearShifters.getSuppressedWrites();
+            }
+        }, DashboardPublisher.Rate.BACKGROUND, 0, TelemetryRegistry.Visibility.TESTING);
+        registry.addNumber("PrefSaveTime", new ReturnableNumber() {
+            public double get() {
+                return preferenceStore.getLastSaveDuration();
+            }
+        }, DashboardPublisher.Rate.BACKGROUND, 0, TelemetryRegistry.Visibility.TESTING);
+        registry.addNumber("PrefBytesWritten", new ReturnableNumber() {
+            public double get() {
+                return preferenceStore.getTotalBytesWritten();
+            }
+        }, DashboardPublisher.Rate.BACKGROUND, 0, TelemetryRegistry.Visibility.TESTING);
+        registry.addNumber("ShooterSetpoint", shooterWheel, DashboardPublisher.Rate.BACKGROUND, 0,
+                TelemetryRegistry.Visibility.HIDDEN);
+        registry.addNumber("BangBangOutput", new ReturnableNumber() {
+            public double get() {
+                return shooterBangBang.getOutput();
+            }
+        }, DashboardPublisher.Rate.BACKGROUND, 0, TelemetryRegistry.Visibility.HIDDEN);
+        registry.addNumber("WinchOutput", new ReturnableNumber() {
+            public double get() {
+                return winch.getOutput();
+            }
+        }, DashboardPublisher.Rate.BACKGROUND, 0, TelemetryRegistry.Visibility.HIDDEN);
+        registry.addNumber("Battery", new ReturnableNumber() {
+            public double get() {
+                return DriverstationInfo.getBatteryVoltage();
+            }
+        }, DashboardPublisher.Rate.BACKGROUND, 0, TelemetryRegistry.Visibility.HIDDEN);
+
+        registry.record("RPM");
+        registry.record("ShooterSetpoint");
+        registry.record("BangBangOutput");
+        registry.record("ShooterPosition");
+        registry.record("WinchOutput");
+        registry.record("Battery");
+
+        registry.log("RPM");
+        registry.log("ShooterPosition");
+        registry.log("Battery");
+        registry.log("PacketRate");
+        registry.log("LongestGap");
+        registry.log("MissedPackets");
+        registry.log("DriveLatency");
+        registry.log("DriveLatency95");
+        registry.log("ShooterLatency");
+        registry.log("WinchLatency");
+        registry.setLogInterval(telemetryLogInterval);
+        registry.setFlightRecorder(FlightRecorder.INSTANCE);
+
+        registry.start();
+    }
 
+    private void disabled() {
         Logger.log(Logger.Urgency.LOG, "Disabling...");
 
+        telemetry.stop();
+        driverstationRecorder.stop();
+
         joystick1.disable();
         joystick2.disable();
         alignmentSystem.disable();
@@ -236,6 +424,7 @@ public final class Murdock {
         driving.disable();
         gearShifters.disable();
         loader.disable();
+        odometry.disable();
         shooterWheel.disable();
         smartDashboardSender.disable();
         winch.disable();
@@ -249,6 +438,12 @@ public final class Murdock {
         // End any teleop
         driving.disable();
 
+        // Pick up anything edited on the dashboard while disabled
+        Preference.reloadAll();
+
+        // Autonomous blocks the periodic methods, so the drivetrain needs its timer
+        drivetrain.setPacketAligned(false);
+
         alignmentSystem.enable();
         bitchBar.enable();
         compressor.enable();
@@ -256,6 +451,7 @@ public final class Murdock {
         gearShifters.enable();
         loader.enable();
         movementSystem.enable();
+        odometry.enable();
         shooterWheel.enable();
         smartDashboardSender.enable();
         winch.enable();
@@ -264,10 +460,16 @@ public final class Murdock {
         drive.setSafetyEnabled(false);
         encoder.reset();
         gyro.reset();
+        odometry.reset();
+        // A new file every period, even without disabled in between
+        telemetry.stop();
+        telemetry.start("file:///telemetry-auto.bin");
+        driverstationRecorder.stop();
+        driverstationRecorder.start("file:///driverstation-auto.bin");
 
         GordianAuto.ensureInit(alignmentSystem, bitchBar, compressor, drivetrain,
-                gearShifters, loader, movementSystem, shooterWheel, smartDashboardSender,
-                winch, windshieldWiper);
+                gearShifters, loader, movementSystem, odometry, shooterWheel,
+                smartDashboardSender, winch, windshieldWiper);
         try {
             String current = AUTOMODE.get();
             Logger.log(Logger.Urgency.USERMESSAGE, "Running auto/" + current + ".txt");
@@ -377,6 +579,11 @@ public final class Murdock {
             // End any autonomous
             movementSystem.disable();
 
+            // Pick up anything edited on the dashboard while disabled
+            Preference.reloadAll();
+
+            drivetrain.setPacketAligned(packetAlignedDriving);
+
             joystick1.enable();
             joystick2.enable();
             alignmentSystem.enable();
@@ -385,11 +592,19 @@ public final class Murdock {
             driving.enable();
             gearShifters.enable();
             loader.enable();
+            odometry.enable();
             shooterWheel.enable();
             smartDashboardSender.enable();
             winch.enable();
             windshieldWiper.enable();
 
+            // Pose starts over at the origin, from wherever the encoder and gyro are
+            odometry.reset();
+            // A new file every period, even without disabled in between
+            telemetry.stop();
+            telemetry.start("file:///telemetry-teleop.bin");
+            driverstationRecorder.stop();
+            driverstationRecorder.start("file:///driverstation-teleop.bin");
             shooterWheel.setRPM(0);
             drive.setSafetyEnabled(true);
 
@@ -398,6 +613,7 @@ public final class Murdock {
 
         public void teleopPeriodic() {
             BINDS.doBinds();
+            Subsystem.runAlignedSubsystems();
         }
     }
 
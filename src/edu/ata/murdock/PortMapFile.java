@@ -1,17 +1,27 @@
 package edu.ata.murdock;
 
-import com.sun.squawk.microedition.io.FileConnection;
-import com.sun.squawk.util.StringTokenizer;
+import edu.first.utils.Clock;
+import edu.first.utils.FileSystem;
 import edu.first.utils.Logger;
-import edu.wpi.first.wpilibj.Preferences;
-import edu.wpi.first.wpilibj.Timer;
 import java.io.IOException;
-import javax.microedition.io.Connector;
+import java.io.InputStream;
+import java.util.Enumeration;
+import java.util.Hashtable;
 
 /**
  * Singleton instance giving access to /PortMap.txt. Retrieves the information
  * when it is statically initialized.
  *
+ * <p> The file has "name=port" entries separated by whitespace. It is read
+ * once, straight from the file system (without waiting for
+ * {@link edu.wpi.first.wpilibj.Preferences}), and looked up by name from then
+ * on.
+ *
+ * <p> Problems are not logged one at a time. Names that are not in the file,
+ * names that are in the file twice, and two names that end up on the same
+ * channel of the same {@link Type} are collected, and logged together by
+ * {@link PortMapFile#report()}.
+ *
  * @author Joel Gallant <joelgallant236@gmail.com>
  */
 public final class PortMapFile {
@@ -21,34 +31,64 @@ public final class PortMapFile {
      */
     public static final String PATH = "file:///PortMap.txt";
     private static PortMapFile PORT_MAP_FILE;
-    private Port[] ports;
+    private final Hashtable ports = new Hashtable();
+    private final Hashtable used = new Hashtable();
+    private final StringBuffer missing = new StringBuffer();
+    private final StringBuffer problems = new StringBuffer();
 
-    private PortMapFile() {
-        long start = System.currentTimeMillis();
-        while (Preferences.getInstance().getKeys().size() < 1) {
-            System.out.println("Waiting for preferences...");
-            Timer.delay(0.02);
-            if (System.currentTimeMillis() - start > 10000) {
-                Logger.log(Logger.Urgency.USERMESSAGE, "Preferences took too long to initialize -  using default ports!!!");
-                ports = new Port[0];
-                return;
-            }
+    /**
+     * Class representing the kinds of channels on the robot. Ports of
+     * different types can share a number. Only the instances in this class are
+     * valid.
+     */
+    public static final class Type {
+
+        private final String name;
+
+        private Type(String name) {
+            this.name = name;
+        }
+
+        public String toString() {
+            return name;
         }
+        /**
+         * PWM outputs (speed controllers).
+         */
+        public static final Type PWM = new Type("PWM");
+        /**
+         * Digital inputs and outputs.
+         */
+        public static final Type DIGITAL = new Type("Digital");
+        /**
+         * Analog inputs.
+         */
+        public static final Type ANALOG = new Type("Analog");
+        /**
+         * Relay outputs.
+         */
+        public static final Type RELAY = new Type("Relay");
+        /**
+         * Solenoid outputs.
+         */
+        public static final Type SOLENOID = new Type("Solenoid");
+        /**
+         * Joysticks on the DriverStation.
+         */
+        public static final Type JOYSTICK = new Type("Joystick");
+    }
+
+    private PortMapFile() {
+        long start = Clock.currentTimeMillis();
         try {
-            String[] p = ports();
-            ports = new Port[p.length];
-            for (int x = 0; x < ports.length; x++) {
-                String name = p[x].substring(0, p[x].indexOf("=")).trim();
-                String num = p[x].substring(p[x].indexOf("=") + 1).trim();
-                Logger.log(Logger.Urgency.LOG, name + " is " + num);
-                ports[x] = new Port(name, Integer.parseInt(num));
-            }
+            parse(read());
         } catch (IOException ex) {
             ex.printStackTrace();
             Logger.log(Logger.Urgency.USERMESSAGE, "PortMap not found");
         }
 
-        Logger.log(Logger.Urgency.LOG, "Done loading port map");
+        Logger.log(Logger.Urgency.LOG, "Done loading port map - " + ports.size() + " ports in "
+                + (Clock.currentTimeMillis() - start) + "ms");
     }
 
     /**
@@ -58,8 +98,10 @@ public final class PortMapFile {
      * @return singleton instance
      */
     public static PortMapFile getInstance() {
-        if (PORT_MAP_FILE == null) {
-            PORT_MAP_FILE = new PortMapFile();
+        synchronized (PortMapFile.class) {
+            if (PORT_MAP_FILE == null) {
+                PORT_MAP_FILE = new PortMapFile();
+            }
         }
         return PORT_MAP_FILE;
     }
@@ -70,38 +112,133 @@ public final class PortMapFile {
      * @return all ports found
      */
     public Port[] getAllPorts() {
-        return ports;
+        synchronized (ports) {
+            Port[] all = new Port[ports.size()];
+            Enumeration names = ports.keys();
+            for (int x = 0; names.hasMoreElements(); x++) {
+                String name = (String) names.nextElement();
+                all[x] = new Port(name, ((Integer) ports.get(name)).intValue());
+            }
+            return all;
+        }
     }
 
     /**
-     * Returns the port number saved under a name.
+     * Returns the port number saved under a name. If it is not in the file,
+     * the default is used and the name is included in the next
+     * {@link PortMapFile#report()}.
      *
      * @param name string before "=" in the text file
+     * @param type kind of channel the port is used as
      * @param def default if the port does not exist
      * @return port number in the text file or the default given
      */
-    public int getPort(String name, int def) {
-        for (int x = 0; x < ports.length; x++) {
-            if (ports[x].name.equals(name)) {
-                Logger.log(Logger.Urgency.LOG, "Port " + name + " found - " + ports[x].port);
-                return ports[x].port;
+    public int getPort(String name, Type type, int def) {
+        synchronized (ports) {
+            Integer port = (Integer) ports.get(name);
+            int p;
+            if (port == null) {
+                if (missing.length() > 0) {
+                    missing.append(", ");
+                }
+                missing.append(name).append('=').append(def);
+                p = def;
+            } else {
+                p = port.intValue();
+            }
+            String channel = type + " " + p;
+            String other = (String) used.get(channel);
+            if (other != null && !other.equals(name)) {
+                problems.append(name).append(" and ").append(other)
+                        .append(" both use ").append(channel).append('\n');
+            } else {
+                used.put(channel, name);
             }
+            return p;
         }
-        Logger.log(Logger.Urgency.USERMESSAGE, "Port " + name + " was not found in PortMap.txt, using " + def);
-        return def;
     }
 
-    private String[] ports() throws IOException {
-        FileConnection connection = (FileConnection) Connector.open(PATH, Connector.READ);
-        String file = Logger.getTextFromFile(connection);
-        connection.close();
-        StringTokenizer tokenizer = new StringTokenizer(file);
-        String[] s = new String[tokenizer.countTokens()];
-        int x = 0;
-        while (tokenizer.hasMoreElements()) {
-            s[x++] = tokenizer.nextToken();
+    /**
+     * Logs every problem found since the last report, all at once. Should be
+     * called once every port has been looked up.
+     *
+     * @return if there were any problems
+     */
+    public boolean report() {
+        synchronized (ports) {
+            boolean any = missing.length() > 0 || problems.length() > 0;
+            if (missing.length() > 0) {
+                Logger.log(Logger.Urgency.USERMESSAGE, "Ports not in PortMap.txt (using defaults): " + missing);
+                missing.setLength(0);
+            }
+            if (problems.length() > 0) {
+                Logger.log(Logger.Urgency.USERMESSAGE, "PortMap conflicts:\n" + problems);
+                problems.setLength(0);
+            }
+            return any;
+        }
+    }
+
+    private void parse(String file) {
+        int end = 0;
+        while (true) {
+            int start = skip(file, end, true);
+            if (start == file.length()) {
+                break;
+            }
+            end = skip(file, start, false);
+            String entry = file.substring(start, end);
+            int equals = entry.indexOf('=');
+            int port;
+            try {
+                if (equals < 0) {
+                    throw new NumberFormatException();
+                }
+                port = Integer.parseInt(entry.substring(equals + 1));
+            } catch (NumberFormatException ex) {
+                problems.append("Bad entry \"").append(entry).append("\"\n");
+                continue;
+            }
+            String name = entry.substring(0, equals);
+            Integer old = (Integer) ports.get(name);
+            if (old != null) {
+                problems.append(name).append(" is in the file twice (")
+                        .append(old).append(" and ").append(port).append(")\n");
+            }
+            ports.put(name, new Integer(port));
+        }
+    }
+
+    // Skips whitespace (or everything but whitespace) and returns where it stopped
+    private static int skip(String text, int start, boolean whitespace) {
+        while (start < text.length() && (text.charAt(start) <= ' ') == whitespace) {
+            start++;
+        }
+        return start;
+    }
+
+    // Reads the whole file in blocks instead of a character at a time
+    private String read() throws IOException {
+        FileSystem.File connection = FileSystem.open(PATH, FileSystem.READ);
+        try {
+            InputStream stream = connection.openInputStream();
+            try {
+                byte[] data = new byte[(int) connection.fileSize()];
+                int read = 0;
+                while (read < data.length) {
+                    int r = stream.read(data, read, data.length - read);
+                    if (r < 0) {
+                        break;
+                    }
+                    read += r;
+                }
+                return new String(data, 0, read);
+            } finally {
+                stream.close();
+            }
+        } finally {
+            connection.close();
         }
-        return s;
     }
 
     /**
@@ -128,4 +265,4 @@ public final class PortMapFile {
             this.port = port;
         }
     }
-}
\ No newline at end of file
+}
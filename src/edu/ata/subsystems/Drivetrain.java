@@ -3,14 +3,18 @@ package edu.ata.subsystems;
 import edu.first.module.Module;
 import edu.first.module.driving.RobotDriveModule;
 import edu.first.module.subsystem.Subsystem;
+import edu.first.utils.LatencyMonitor;
+import edu.first.utils.Mailbox;
 
 public final class Drivetrain extends Subsystem {
 
     private static final long delay = 10L;
     private final RobotDriveModule drive;
-    private boolean arcade;
-    private double left, right;
-    private double forwards, turn;
+    private final LatencyMonitor.Output latency = LatencyMonitor.INSTANCE.getOutput("Drive");
+    // Teleop input, read in the same tick that drives - wins over commands while set
+    private volatile Driving driving;
+    // Latest value from everything else (autonomous, commands)
+    private final Mailbox command = new Mailbox(new Command(true, 0, 0, LatencyMonitor.NONE));
 
     public Drivetrain(RobotDriveModule drive) {
         super(new Module[]{drive});
@@ -22,33 +26,67 @@ public final class Drivetrain extends Subsystem {
     }
 
     public void run() {
-        synchronized (this) {
-            if (arcade) {
-                drive.arcadeDrive(forwards, turn);
+        Driving teleop = driving;
+        if (teleop != null) {
+            teleop.update();
+        } else {
+            Command latest = (Command) command.getSnapshot();
+            if (latest.arcade) {
+                arcadeOutput(latest.a, latest.b, latest.stamp);
             } else {
-                drive.tankDrive(left, right);
+                tankOutput(latest.a, latest.b, latest.stamp);
             }
         }
     }
 
     public void arcadeDrive(double forwards, double turn) {
-        synchronized (this) {
-            this.arcade = true;
-            this.forwards = forwards;
-            this.turn = turn;
-        }
+        arcadeDrive(forwards, turn, LatencyMonitor.NONE);
+    }
+
+    public void arcadeDrive(double forwards, double turn, long stamp) {
+        command.set(new Command(true, forwards, turn, stamp));
     }
 
     public void tankDrive(double left, double right) {
-        synchronized (this) {
-            this.arcade = false;
-            this.left = left;
-            this.right = right;
-        }
+        tankDrive(left, right, LatencyMonitor.NONE);
+    }
+
+    public void tankDrive(double left, double right, long stamp) {
+        command.set(new Command(false, left, right, stamp));
+    }
+
+    // Only from run()
+    void arcadeOutput(double forwards, double turn, long stamp) {
+        drive.arcadeDrive(forwards, turn);
+        latency.written(stamp);
+    }
+
+    // Only from run()
+    void tankOutput(double left, double right, long stamp) {
+        drive.tankDrive(left, right);
+        latency.written(stamp);
+    }
+
+    void setDriving(Driving driving) {
+        this.driving = driving;
     }
 
     protected boolean disableSubsystem() {
         arcadeDrive(0, 0);
         return true;
     }
-}
\ No newline at end of file
+
+    private static final class Command {
+
+        private final boolean arcade;
+        private final double a, b;
+        private final long stamp;
+
+        private Command(boolean arcade, double a, double b, long stamp) {
+            this.arcade = arcade;
+            this.a = a;
+            this.b = b;
+            this.stamp = stamp;
+        }
+    }
+}
@@ -4,6 +4,7 @@ import edu.ata.modules.XboxController;
 import edu.first.identifiers.Function;
 import edu.first.module.Module;
 import edu.first.module.subsystem.Subsystem;
+import edu.first.utils.LatencyMonitor;
 
 public final class Driving extends Subsystem {
 
@@ -12,7 +13,6 @@ public final class Driving extends Subsystem {
             return start != 0 ? (start * start * start + 0.12) : 0;
         }
     };
-    private static final long delay = 10L;
     private static final double secondControllerTurnSpeed = 0.5;
     private final Drivetrain drivetrain;
     private final XboxController controller;
@@ -25,20 +25,38 @@ public final class Driving extends Subsystem {
         this.secondController = secondController;
     }
 
+    // Takes over the drivetrain until disabled
+    protected boolean enableSubsystem() {
+        drivetrain.setDriving(this);
+        return true;
+    }
+
+    protected boolean disableSubsystem() {
+        drivetrain.setDriving(null);
+        return true;
+    }
+
     public void start() {
-        startAtFixedRate(delay);
+        // No thread needed - the drivetrain reads the controllers every tick
     }
 
     public void run() {
+        // No thread needed
+    }
+
+    // Called by the drivetrain, so reading and driving happen in one tick
+    void update() {
+        // Before reading, so the stamp is never newer than the values
+        long stamp = LatencyMonitor.INSTANCE.getPacketTime();
         if (!secondController.LeftJoystickButton()) {
-            drivetrain.arcadeDrive(DRIVE_FUNCTION.apply(controller.LeftDistanceFromMiddle()),
-                    controller.RightX());
+            drivetrain.arcadeOutput(DRIVE_FUNCTION.apply(controller.LeftDistanceFromMiddle()),
+                    controller.RightX(), stamp);
             // Switch out for tank drive
-            // drivetrain.tankDrive(DRIVE_FUNCTION.apply(controller.LeftDistanceFromMiddle()),
-            //      DRIVE_FUNCTION.apply(controller.RightDistanceFromMiddle()));
+            // drivetrain.tankOutput(DRIVE_FUNCTION.apply(controller.LeftDistanceFromMiddle()),
+            //      DRIVE_FUNCTION.apply(controller.RightDistanceFromMiddle()), stamp);
         } else {
-            drivetrain.arcadeDrive(0,
-                    secondController.RightY() * secondControllerTurnSpeed);
+            drivetrain.arcadeOutput(0,
+                    secondController.RightY() * secondControllerTurnSpeed, stamp);
         }
     }
 }
@@ -5,8 +5,8 @@ import edu.first.module.actuator.DualActionSolenoidModule;
 import edu.first.module.sensor.PotentiometerModule;
 import edu.first.module.subsystem.Subsystem;
 import edu.first.module.target.BangBangModule;
+import edu.first.utils.Clock;
 import edu.first.utils.Logger;
-import edu.wpi.first.wpilibj.Timer;
 
 public final class Loader extends Subsystem {
 
@@ -32,7 +32,7 @@ public final class Loader extends Subsystem {
     public void fire() {
         if (!solenoid.get()) {
             solenoid.setOut();
-            Timer.delay(0.5);
+            Clock.delay(0.5);
         }
         if (coastShots) {
             shooterWheel.setCoast(true);
@@ -43,7 +43,7 @@ public final class Loader extends Subsystem {
         Logger.log(Logger.Urgency.LOG, "Speed Before Shot - " + shooterWheel.getInput());
 
         solenoid.setIn();
-        Timer.delay(0.5);
+        Clock.delay(0.5);
         if (coastShots) {
             shooterWheel.setCoast(false);
         }
@@ -1,39 +1,198 @@
 package edu.ata.subsystems;
 
 import edu.first.module.Module;
-import edu.first.module.driving.RobotDriveModule;
 import edu.first.module.sensor.EncoderModule;
+import edu.first.module.sensor.GyroModule;
 import edu.first.module.subsystem.Subsystem;
+import edu.first.utils.Clock;
+import edu.first.utils.TrapezoidalProfile;
 
 public final class MovementSystem extends Subsystem {
 
-    private final RobotDriveModule drive;
+    private static final long delay = 10L;
+    // Encoder units (pulses) per second - tune on the robot
+    private static final double maxVelocity = 1500, maxAcceleration = 3000;
+    private static final double kV = 1.0 / 2000, kA = 0;
+    private static final double P = 0.002, I = 0, D = 0;
+    private static final double headingP = 0.03;
+    private static final double tolerance = 10;
+    // Degrees per second - tune on the robot
+    private static final double maxTurnVelocity = 180, maxTurnAcceleration = 360;
+    private static final double turnKV = 1.0 / 360;
+    private static final double turnP = 0.02, turnI = 0, turnD = 0;
+    private static final double angleTolerance = 2;
+    private static final double timeout = 2;
+    private final Drivetrain drivetrain;
     private final EncoderModule encoder;
-    
-    public MovementSystem(RobotDriveModule driveModule, EncoderModule encoder) {
-        super(new Module[] {driveModule, encoder});
-        this.drive = driveModule;
+    private final GyroModule gyro;
+    private final Object lock = new Object();
+    private TrapezoidalProfile profile;
+    private boolean turning;
+    private Runnable onFinished;
+    private long startTime;
+    private double startDistance, heading, sweep;
+    private double integral, prevError;
+
+    // The drivetrain is not one of the modules, so disabling this never disables it
+    public MovementSystem(Drivetrain drivetrain, EncoderModule encoder, GyroModule gyro) {
+        super(new Module[]{encoder, gyro});
+        this.drivetrain = drivetrain;
         this.encoder = encoder;
+        this.gyro = gyro;
     }
 
     public void start() {
+        startAtFixedRate(delay);
     }
 
     public void run() {
+        Runnable done = null;
+        synchronized (lock) {
+            if (profile == null) {
+                return;
+            }
+            double t = (Clock.currentTimeMillis() - startTime) / 1000.0;
+            boolean finished = turning ? turn(t) : drive(t);
+            if (finished || t > profile.getTotalTime() + timeout) {
+                drivetrain.arcadeDrive(0, 0);
+                done = finish();
+            }
+        }
+        if (done != null) {
+            done.run();
+        }
+    }
+
+    // Must hold lock - returns whether the move is done
+    private boolean drive(double t) {
+        double error = startDistance + profile.getPosition(t) - encoder.getDistance();
+        integral += error * delay / 1000.0;
+        double derivative = (error - prevError) / (delay / 1000.0);
+        prevError = error;
+
+        double speed = kV * profile.getVelocity(t) + kA * profile.getAcceleration(t)
+                + P * error + I * integral + D * derivative;
+        speed = Math.max(-1, Math.min(1, speed));
+
+        // Heading follows the arc - a straight drive has no sweep
+        double curvature = (sweep == 0) ? 0 : sweep / profile.getDistance();
+        double targetHeading = heading + curvature * profile.getPosition(t);
+        double turn = turnKV * curvature * profile.getVelocity(t)
+                + headingP * (targetHeading - gyro.getAngle());
+        turn = Math.max(-1, Math.min(1, turn));
+
+        if (profile.isFinished(t) && Math.abs(error) < tolerance) {
+            return true;
+        }
+        drivetrain.arcadeDrive(speed, turn);
+        return false;
+    }
+
+    // Must hold lock - returns whether the move is done
+    private boolean turn(double t) {
+        double error = heading + profile.getPosition(t) - gyro.getAngle();
+        integral += error * delay / 1000.0;
+        double derivative = (error - prevError) / (delay / 1000.0);
+        prevError = error;
+
+        double turn = turnKV * profile.getVelocity(t)
+                + turnP * error + turnI * integral + turnD * derivative;
+        turn = Math.max(-1, Math.min(1, turn));
+
+        if (profile.isFinished(t) && Math.abs(error) < angleTolerance) {
+            return true;
+        }
+        drivetrain.arcadeDrive(0, turn);
+        return false;
     }
 
     public void driveToDistance(double distance) {
-        while(Math.abs(encoder.getDistance() - distance) > 10) {
-            double p = 0.001 * (distance - encoder.getDistance());
-            
-            double speed = p;
-            if(Math.abs(speed) > 0.4) {
-                speed = speed > 0 ? 0.4 : -0.4;
-            } else if(Math.abs(speed) < 0.2) {
-                speed = speed > 0 ? 0.2 : -0.2;
+        driveToDistance(distance, null);
+    }
+
+    // Distance is where the encoder should end up, not how far to go from here
+    public void driveToDistance(double distance, Runnable onFinished) {
+        synchronized (lock) {
+            double current = encoder.getDistance();
+            begin(new TrapezoidalProfile(distance - current, maxVelocity, maxAcceleration), false, onFinished);
+        }
+    }
+
+    public void driveArc(double distance, double angle) {
+        driveArc(distance, angle, null);
+    }
+
+    // Distance is how far to go from here
+    public void driveArc(double distance, double angle, Runnable onFinished) {
+        synchronized (lock) {
+            begin(new TrapezoidalProfile(distance, maxVelocity, maxAcceleration), false, onFinished);
+            this.sweep = distance == 0 ? 0 : angle;
+        }
+    }
+
+    public void turnToAngle(double angle) {
+        turnToAngle(angle, null);
+    }
+
+    public void turnToAngle(double angle, Runnable onFinished) {
+        synchronized (lock) {
+            double current = gyro.getAngle();
+            begin(new TrapezoidalProfile(angle - current, maxTurnVelocity, maxTurnAcceleration), true, onFinished);
+        }
+    }
+
+    public void turnByAngle(double angle) {
+        turnToAngle(gyro.getAngle() + angle, null);
+    }
+
+    // Must hold lock
+    private void begin(TrapezoidalProfile profile, boolean turning, Runnable onFinished) {
+        this.profile = profile;
+        this.turning = turning;
+        this.onFinished = onFinished;
+        this.startTime = Clock.currentTimeMillis();
+        this.startDistance = encoder.getDistance();
+        this.heading = gyro.getAngle();
+        this.sweep = 0;
+        this.integral = 0;
+        this.prevError = 0;
+    }
+
+    public boolean isFinished() {
+        synchronized (lock) {
+            return profile == null;
+        }
+    }
+
+    public void waitUntilFinished() {
+        synchronized (lock) {
+            while (profile != null) {
+                try {
+                    lock.wait();
+                } catch (InterruptedException ex) {
+                    ex.printStackTrace();
+                    return;
+                }
             }
-            drive.arcadeDrive(speed, 0);
         }
-        drive.stopMotors();
     }
-}
\ No newline at end of file
+
+    protected boolean disableSubsystem() {
+        synchronized (lock) {
+            if (profile != null) {
+                drivetrain.arcadeDrive(0, 0);
+                finish();
+            }
+        }
+        return true;
+    }
+
+    // Must hold lock
+    private Runnable finish() {
+        Runnable r = onFinished;
+        profile = null;
+        onFinished = null;
+        lock.notifyAll();
+        return r;
+    }
+}
@@ -0,0 +1,149 @@
+package edu.ata.subsystems;
+
+import edu.first.module.Module;
+import edu.first.module.sensor.EncoderModule;
+import edu.first.module.sensor.GyroModule;
+import edu.first.module.subsystem.Subsystem;
+import edu.first.utils.Clock;
+
+public final class Odometry extends Subsystem {
+
+    private static final long delay = 10L;
+    // One second of history at the update rate
+    private static final int historySize = 100;
+    private final EncoderModule encoder;
+    private final GyroModule gyro;
+    private final Object lock = new Object();
+    private final long[] times = new long[historySize];
+    private final double[] xs = new double[historySize];
+    private final double[] ys = new double[historySize];
+    private final double[] headings = new double[historySize];
+    private int next, size;
+    private boolean seeded;
+    private double lastDistance, lastHeading;
+    private double x, y, heading;
+
+    public Odometry(EncoderModule encoder, GyroModule gyro) {
+        super(new Module[]{encoder, gyro});
+        this.encoder = encoder;
+        this.gyro = gyro;
+    }
+
+    public void start() {
+        startAtFixedRate(delay);
+    }
+
+    public void run() {
+        synchronized (lock) {
+            if (!encoder.isEnabled() || !gyro.isEnabled()) {
+                // Sensors were reset underneath us - start from where they are
+                seeded = false;
+                return;
+            }
+            double distance = encoder.getDistance();
+            double angle = gyro.getAngle();
+            if (!seeded) {
+                lastDistance = distance;
+                lastHeading = angle;
+                seeded = true;
+            }
+            double delta = distance - lastDistance;
+            // Use the heading halfway through the step
+            double h = Math.toRadians((angle + lastHeading) / 2);
+            x += delta * Math.cos(h);
+            y += delta * Math.sin(h);
+            heading = angle;
+            lastDistance = distance;
+            lastHeading = angle;
+            record(Clock.currentTimeMillis());
+        }
+    }
+
+    // Must hold lock
+    private void record(long time) {
+        times[next] = time;
+        xs[next] = x;
+        ys[next] = y;
+        headings[next] = heading;
+        next = (next + 1) % historySize;
+        if (size < historySize) {
+            size++;
+        }
+    }
+
+    public void reset() {
+        reset(0, 0);
+    }
+
+    public void reset(double x, double y) {
+        synchronized (lock) {
+            this.x = x;
+            this.y = y;
+            this.heading = gyro.getAngle();
+            this.seeded = false;
+            this.next = 0;
+            this.size = 0;
+        }
+    }
+
+    public double getX() {
+        synchronized (lock) {
+            return x;
+        }
+    }
+
+    public double getY() {
+        synchronized (lock) {
+            return y;
+        }
+    }
+
+    public double getHeading() {
+        synchronized (lock) {
+            return heading;
+        }
+    }
+
+    public double getXAt(long time) {
+        synchronized (lock) {
+            return lookup(xs, time, x);
+        }
+    }
+
+    public double getYAt(long time) {
+        synchronized (lock) {
+            return lookup(ys, time, y);
+        }
+    }
+
+    public double getHeadingAt(long time) {
+        synchronized (lock) {
+            return lookup(headings, time, heading);
+        }
+    }
+
+    // Must hold lock - interpolates between the two samples around the time
+    private double lookup(double[] values, long time, double current) {
+        if (size == 0) {
+            return current;
+        }
+        int newest = (next - 1 + historySize) % historySize;
+        if (time >= times[newest]) {
+            return values[newest];
+        }
+        for (int i = 1; i < size; i++) {
+            int older = (newest - i + historySize) % historySize;
+            if (times[older] <= time) {
+                int newer = (older + 1) % historySize;
+                long span = times[newer] - times[older];
+                if (span == 0) {
+                    return values[older];
+                }
+                double f = (double) (time - times[older]) / span;
+                return values[older] + f * (values[newer] - values[older]);
+            }
+        }
+        // Older than the history - oldest sample is the best guess
+        return values[(newest - size + 1 + historySize) % historySize];
+    }
+}
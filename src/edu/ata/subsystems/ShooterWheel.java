@@ -4,6 +4,7 @@ import edu.first.identifiers.ReturnableNumber;
 import edu.first.module.Module;
 import edu.first.module.subsystem.Subsystem;
 import edu.first.module.target.BangBangModule;
+import edu.first.utils.LatencyMonitor;
 
 public final class ShooterWheel extends Subsystem implements ReturnableNumber {
 
@@ -14,6 +15,7 @@ public final class ShooterWheel extends Subsystem implements ReturnableNumber {
         super(new Module[]{bangBang});
         this.bangBang = bangBang;
         this.bangBang.setPastSetpoint(shooterRPMTolerance);
+        this.bangBang.setLatencyOutput(LatencyMonitor.INSTANCE.getOutput("Shooter"));
     }
 
     public void start() {
@@ -29,8 +31,13 @@ public final class ShooterWheel extends Subsystem implements ReturnableNumber {
     }
 
     public void setRPM(double RPM) {
-        bangBang.setSetpoint(RPM);
+        setRPM(RPM, LatencyMonitor.NONE);
+    }
+
+    public void setRPM(double RPM, long stamp) {
+        // Before the setpoint, so the write that gets the stamp has both
         bangBang.setDefaultSpeed(defSpeed(RPM));
+        bangBang.setSetpoint(RPM, stamp);
     }
 
     public double getRPM() {
@@ -3,42 +3,76 @@ package edu.ata.subsystems;
 import edu.first.identifiers.ReturnableNumber;
 import edu.first.identifiers.SetteableNumber;
 import edu.first.module.Module;
+import edu.first.module.hardware.Hardware;
+import edu.first.module.hardware.WPILibHardware;
 import edu.first.module.sensor.AccelerometerModule;
 import edu.first.module.sensor.PotentiometerModule;
 import edu.first.module.speedcontroller.SpeedControllerModule;
 import edu.first.module.subsystem.Subsystem;
 import edu.first.module.target.PIDModule;
+import edu.first.utils.Clock;
+import edu.first.utils.LatencyMonitor;
 import edu.first.utils.Logger;
-import edu.wpi.first.wpilibj.PIDController;
 import edu.wpi.first.wpilibj.PIDOutput;
 import edu.wpi.first.wpilibj.PIDSource;
 
 public final class Winch extends Subsystem implements SetteableNumber, PIDOutput, PIDSource {
 
-    private static final double P = 8, I = 0, D = 0;
+    // Gains for each region of the arm, split at these positions - untuned, so
+    // every region uses the old gains until they are tuned on the robot
+    private static final double[] regions = {1.5, 3.5};
+    private static final double[][] gains = {{8, 0, 0}, {8, 0, 0}, {8, 0, 0}};
+    // Added to outputs to push through static friction - 0 until tuned
+    private static final double staticFriction = 0;
+    // Outputs this small are not written - lower it once staticFriction is tuned
+    private static final double deadband = 0.2;
     private static final double range = 0.01;
+    private static final long settleWindow = 100L;
+    // Moves that haven't settled by then are given up on, stopping the winch
+    private static final long settleTimeout = 3000L;
     private final SpeedControllerModule winchMotor;
     private final ReturnableNumber sensor;
-    private final PIDModule PID = new PIDModule(new PIDController(P, I, D, this, this));
+    private final PIDModule PID;
+    private final Object lock = new Object();
+    private final LatencyMonitor.Output latency = LatencyMonitor.INSTANCE.getOutput("Winch");
     private double ZERO;
-    
-    {
-        PID.setTolerance(range);
-    }
+    private volatile double output;
+    // Packet that the current setpoint came from
+    private volatile long stamp = LatencyMonitor.NONE;
+    private int region = 0;
+    private boolean settling, settled;
+    private long moveStart, onTargetSince, lastSettleTime = -1;
 
     public Winch(SpeedControllerModule winchMotor, PotentiometerModule potentiometer) {
+        this(WPILibHardware.INSTANCE, winchMotor, potentiometer);
+    }
+
+    public Winch(Hardware hardware, SpeedControllerModule winchMotor, PotentiometerModule potentiometer) {
         super(new Module[]{winchMotor, potentiometer});
         this.winchMotor = winchMotor;
         this.sensor = potentiometer;
+        this.PID = createPID(hardware);
     }
 
     public Winch(SpeedControllerModule winchMotor, AccelerometerModule accelerometer) {
+        this(WPILibHardware.INSTANCE, winchMotor, accelerometer);
+    }
+
+    public Winch(Hardware hardware, SpeedControllerModule winchMotor, AccelerometerModule accelerometer) {
         super(new Module[]{winchMotor, accelerometer});
         this.winchMotor = winchMotor;
         this.sensor = accelerometer;
+        this.PID = createPID(hardware);
+    }
+
+    private PIDModule createPID(Hardware hardware) {
+        PIDModule pid = new PIDModule(hardware.getPIDController(gains[0][0], gains[0][1], gains[0][2], this, this));
+        pid.setTolerance(range);
+        return pid;
     }
 
     protected boolean disableSubsystem() {
+        cancelSettle();
         return PID.disable();
     }
 
@@ -62,21 +96,44 @@ public final class Winch extends Subsystem implements SetteableNumber, PIDOutput
     }
 
     public void set(double value) {
+        set(value, LatencyMonitor.NONE);
+    }
+
+    public void set(double value, long stamp) {
+        synchronized (lock) {
+            settling = true;
+            settled = false;
+            moveStart = Clock.currentTimeMillis();
+            onTargetSince = 0;
+        }
         PID.enable();
         PID.setSetpoint(value);
+        // After the setpoint, so a write is never counted before it has the value
+        this.stamp = stamp;
     }
 
     public void stopMotor() {
         PID.disable();
+        cancelSettle();
         winchMotor.set(0);
+        output = 0;
     }
 
     public void move(double speed) {
+        move(speed, LatencyMonitor.NONE);
+    }
+
+    public void move(double speed, long stamp) {
         if (PID.isEnabled() && speed != 0) {
             PID.disable();
+            cancelSettle();
             winchMotor.set(speed);
+            output = speed;
+            latency.written(stamp);
         } else if (!PID.isEnabled()) {
             winchMotor.set(speed);
+            output = speed;
+            latency.written(stamp);
         }
     }
 
@@ -96,11 +153,92 @@ public final class Winch extends Subsystem implements SetteableNumber, PIDOutput
         return getPosition();
     }
 
+    public double getOutput() {
+        return output;
+    }
+
+    public boolean isSettled() {
+        synchronized (lock) {
+            return settled;
+        }
+    }
+
+    public boolean isMoving() {
+        synchronized (lock) {
+            return settling;
+        }
+    }
+
+    public long getLastSettleTime() {
+        synchronized (lock) {
+            return lastSettleTime;
+        }
+    }
+
     public void pidWrite(double output) {
-        if (Math.abs(output) > 0.2 && !PID.onTarget()) {
-            winchMotor.set(-output);
-        } else {
+        schedule(getPosition());
+        boolean onTarget = PID.onTarget();
+        double out = 0;
+        if (!onTarget && Math.abs(output) > deadband) {
+            // Push through static friction instead of stalling short of the setpoint
+            out = output + (output > 0 ? staticFriction : -staticFriction);
+            out = -Math.max(-1, Math.min(1, out));
+        }
+        winchMotor.set(out);
+        this.output = out;
+        latency.written(stamp);
+        if (updateSettle(onTarget)) {
+            // Gave up, instead of pushing against whatever stalled it
+            PID.disable();
             winchMotor.set(0);
+            this.output = 0;
+        }
+    }
+
+    private void schedule(double position) {
+        int r = 0;
+        while (r < regions.length && position > regions[r]) {
+            r++;
+        }
+        if (r != region) {
+            region = r;
+            PID.setPID(gains[r][0], gains[r][1], gains[r][2]);
+        }
+    }
+
+    // Returns whether the move was given up on
+    private boolean updateSettle(boolean onTarget) {
+        synchronized (lock) {
+            if (!settling) {
+                return false;
+            }
+            long now = Clock.currentTimeMillis();
+            if (!onTarget) {
+                onTargetSince = 0;
+            } else if (onTargetSince == 0) {
+                onTargetSince = now;
+            } else if (now - onTargetSince >= settleWindow) {
+                settling = false;
+                settled = true;
+                lastSettleTime = onTargetSince - moveStart;
+                Logger.log(Logger.Urgency.LOG, "Winch settled in " + lastSettleTime + "ms");
+                return false;
+            }
+            if (now - moveStart > settleTimeout) {
+                settling = false;
+                lastSettleTime = -1;
+                Logger.log(Logger.Urgency.LOG, "Winch did not settle in " + settleTimeout + "ms, stopping");
+                return true;
+            }
+            return false;
+        }
+    }
+
+    private void cancelSettle() {
+        synchronized (lock) {
+            // No longer held at the setpoint either way
+            settling = false;
+            settled = false;
         }
     }
 }
\ No newline at end of file
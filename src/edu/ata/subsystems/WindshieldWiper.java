@@ -3,13 +3,14 @@ package edu.ata.subsystems;
 import edu.first.module.Module;
 import edu.first.module.speedcontroller.SpeedControllerModule;
 import edu.first.module.subsystem.Subsystem;
+import edu.first.utils.Mailbox;
 
 public final class WindshieldWiper extends Subsystem {
 
     private static final long delay = 20L;
     private final SpeedControllerModule windshieldWiper;
-    private final Object wiperChanges = new Object();
-    private double speed;
+    private final Mailbox speed = new Mailbox();
+    private int lastSpeed = speed.getSequence();
 
     public WindshieldWiper(SpeedControllerModule windshieldWiper) {
         super(new Module[]{windshieldWiper});
@@ -21,25 +22,16 @@ public final class WindshieldWiper extends Subsystem {
     }
 
     public void run() {
-        try {
-            synchronized (wiperChanges) {
-                wiperChanges.wait();
-            }
+        // Only when changed - read before the value, so a newer one is caught next time
+        int sequence = speed.getSequence();
+        if (sequence != lastSpeed) {
+            lastSpeed = sequence;
             // Manual
-            windshieldWiper.set(speed);
-        } catch (InterruptedException ex) {
-            ex.printStackTrace();
-        }
-    }
-
-    private void update() {
-        synchronized (wiperChanges) {
-            wiperChanges.notify();
+            windshieldWiper.set(speed.getFirst());
         }
     }
 
     public void setSpeed(double speed) {
-        this.speed = speed;
-        update();
+        this.speed.set(speed);
     }
 }
\ No newline at end of file
@@ -1,13 +1,13 @@
 package edu.first.commands;
 
 import edu.first.command.Command;
-import edu.wpi.first.wpilibj.Timer;
+import edu.first.utils.Clock;
 
 /**
  * Command that waits for a certain amount of time. Uses
- * {@link Timer#delay(double)}.
+ * {@link Clock#delay(double)}.
  *
- * @see Timer#delay(double)
+ * @see Clock#delay(double)
  * @author Joel Gallant
  */
 public final class PauseCommand implements Command {
@@ -25,9 +25,9 @@ public final class PauseCommand implements Command {
 
     /**
      * Waits for a specific amount of time given in the constructor using
-     * {@link Timer#delay(double)}.
+     * {@link Clock#delay(double)}.
      */
     public void run() {
-        Timer.delay(pauseLength);
+        Clock.delay(pauseLength);
     }
 }
@@ -7,7 +7,12 @@ package edu.first.main;
 
 import edu.ata.murdock.Murdock;
 import edu.first.robot.Robot;
+import edu.first.utils.FileSystem;
+import edu.first.utils.FlightRecorder;
+import edu.first.utils.LatencyMonitor;
 import edu.first.utils.Logger;
+import edu.first.utils.NetworkHealthMonitor;
+import edu.first.utils.SquawkFileSystem;
 import edu.wpi.first.wpilibj.IterativeRobot;
 
 /**
@@ -16,6 +21,15 @@ import edu.wpi.first.wpilibj.IterativeRobot;
  * {@link GamePeriods#robot} object inside of this class, or use
  * {@link GamePeriods#setRobot(edu.first.main.Robot)}.
  *
+ * <p> Every periodic method stamps the packet for
+ * {@link LatencyMonitor#INSTANCE}, samples {@link NetworkHealthMonitor#INSTANCE}
+ * and checks the battery for {@link FlightRecorder#INSTANCE} before running
+ * the robot's method, since each one runs when a packet arrives. Every init
+ * method reseeds the network monitor afterwards, since ticks stop while it
+ * runs, and every init method clears the latency monitor's packet first,
+ * since nothing done in it responds to one. Anything thrown by the robot
+ * triggers {@link FlightRecorder#INSTANCE}.
+ *
  * <p> <b> The VM is configured to automatically run this class, and to call the
  * functions corresponding to each mode, as described in the IterativeRobot
  * documentation. If you change the name of this class or the package after
@@ -28,6 +42,11 @@ public final class GamePeriods extends IterativeRobot {
 
     private static Robot robot;
 
+    // Before any robot code can open a file
+    static {
+        FileSystem.setFileSystem(new SquawkFileSystem());
+    }
+
     {
         setRobot(Murdock.getInstance().getRobot());
     }
@@ -64,22 +83,28 @@ public final class GamePeriods extends IterativeRobot {
             robot.robotInit();
         } catch (Throwable t) {
             Logger.log(Logger.Urgency.USERMESSAGE, "ERROR - " + t.getClass().getName() + " - " + t.getMessage());
+            FlightRecorder.INSTANCE.trigger(t.getClass().getName() + " - " + t.getMessage());
             t.printStackTrace();
         }
     }
 
     /**
-     * Runs once before disabled mode. Anything thrown inside of
-     * {@link Robot#disabledInit() } are caught and logged as
+     * Runs once before disabled mode. Asks the logger to write its file, so
+     * that everything up to the end of the match is kept. Anything thrown
+     * inside of {@link Robot#disabledInit() } are caught and logged as
      * {@link Logger.Urgency#USERMESSAGE}.
      */
     public void disabledInit() {
+        Logger.flushFile();
+        LatencyMonitor.INSTANCE.clearPacket();
         try {
             robot.disabledInit();
         } catch (Throwable t) {
             Logger.log(Logger.Urgency.USERMESSAGE, "ERROR - " + t.getClass().getName() + " - " + t.getMessage());
+            FlightRecorder.INSTANCE.trigger(t.getClass().getName() + " - " + t.getMessage());
             t.printStackTrace();
         }
+        NetworkHealthMonitor.INSTANCE.reseed();
     }
 
     /**
@@ -88,10 +113,14 @@ public final class GamePeriods extends IterativeRobot {
      * {@link Logger.Urgency#USERMESSAGE}.
      */
     public void disabledPeriodic() {
+        LatencyMonitor.INSTANCE.packetArrived();
+        NetworkHealthMonitor.INSTANCE.sample();
+        FlightRecorder.INSTANCE.checkBattery();
         try {
             robot.disabledPeriodic();
         } catch (Throwable t) {
             Logger.log(Logger.Urgency.USERMESSAGE, "ERROR - " + t.getClass().getName() + " - " + t.getMessage());
+            FlightRecorder.INSTANCE.trigger(t.getClass().getName() + " - " + t.getMessage());
             t.printStackTrace();
         }
     }
@@ -102,12 +131,16 @@ public final class GamePeriods extends IterativeRobot {
      * {@link Logger.Urgency#USERMESSAGE}.
      */
     public void autonomousInit() {
+        Logger.flushFile();
+        LatencyMonitor.INSTANCE.clearPacket();
         try {
             robot.autonomousInit();
         } catch (Throwable t) {
             Logger.log(Logger.Urgency.USERMESSAGE, "ERROR - " + t.getClass().getName() + " - " + t.getMessage());
+            FlightRecorder.INSTANCE.trigger(t.getClass().getName() + " - " + t.getMessage());
             t.printStackTrace();
         }
+        NetworkHealthMonitor.INSTANCE.reseed();
     }
 
     /**
@@ -116,10 +149,14 @@ public final class GamePeriods extends IterativeRobot {
      * {@link Logger.Urgency#USERMESSAGE}.
      */
     public void autonomousPeriodic() {
+        LatencyMonitor.INSTANCE.packetArrived();
+        NetworkHealthMonitor.INSTANCE.sample();
+        FlightRecorder.INSTANCE.checkBattery();
         try {
             robot.autonomousPeriodic();
         } catch (Throwable t) {
             Logger.log(Logger.Urgency.USERMESSAGE, "ERROR - " + t.getClass().getName() + " - " + t.getMessage());
+            FlightRecorder.INSTANCE.trigger(t.getClass().getName() + " - " + t.getMessage());
             t.printStackTrace();
         }
     }
@@ -130,12 +167,16 @@ public final class GamePeriods extends IterativeRobot {
      * {@link Logger.Urgency#USERMESSAGE}.
      */
     public void teleopInit() {
+        Logger.flushFile();
+        LatencyMonitor.INSTANCE.clearPacket();
         try {
             robot.teleopInit();
         } catch (Throwable t) {
             Logger.log(Logger.Urgency.USERMESSAGE, "ERROR - " + t.getClass().getName() + " - " + t.getMessage());
+            FlightRecorder.INSTANCE.trigger(t.getClass().getName() + " - " + t.getMessage());
             t.printStackTrace();
         }
+        NetworkHealthMonitor.INSTANCE.reseed();
     }
 
     /**
@@ -144,10 +185,14 @@ public final class GamePeriods extends IterativeRobot {
      * {@link Logger.Urgency#USERMESSAGE}.
      */
     public void teleopPeriodic() {
+        LatencyMonitor.INSTANCE.packetArrived();
+        NetworkHealthMonitor.INSTANCE.sample();
+        FlightRecorder.INSTANCE.checkBattery();
         try {
             robot.teleopPeriodic();
         } catch (Throwable t) {
             Logger.log(Logger.Urgency.USERMESSAGE, "ERROR - " + t.getClass().getName() + " - " + t.getMessage());
+            FlightRecorder.INSTANCE.trigger(t.getClass().getName() + " - " + t.getMessage());
             t.printStackTrace();
         }
     }
@@ -158,12 +203,16 @@ public final class GamePeriods extends IterativeRobot {
      * {@link Logger.Urgency#USERMESSAGE}.
      */
     public void testInit() {
+        Logger.flushFile();
+        LatencyMonitor.INSTANCE.clearPacket();
         try {
             robot.testInit();
         } catch (Throwable t) {
             Logger.log(Logger.Urgency.USERMESSAGE, "ERROR - " + t.getClass().getName() + " - " + t.getMessage());
+            FlightRecorder.INSTANCE.trigger(t.getClass().getName() + " - " + t.getMessage());
             t.printStackTrace();
         }
+        NetworkHealthMonitor.INSTANCE.reseed();
     }
 
     /**
@@ -172,10 +221,14 @@ public final class GamePeriods extends IterativeRobot {
      * {@link Logger.Urgency#USERMESSAGE}.
      */
     public void testPeriodic() {
+        LatencyMonitor.INSTANCE.packetArrived();
+        NetworkHealthMonitor.INSTANCE.sample();
+        FlightRecorder.INSTANCE.checkBattery();
         try {
             robot.testPeriodic();
         } catch (Throwable t) {
             Logger.log(Logger.Urgency.USERMESSAGE, "ERROR - " + t.getClass().getName() + " - " + t.getMessage());
+            FlightRecorder.INSTANCE.trigger(t.getClass().getName() + " - " + t.getMessage());
             t.printStackTrace();
         }
     }
@@ -2,16 +2,30 @@ package edu.first.module.actuator;
 
 import edu.first.identifiers.ReturnableBoolean;
 import edu.first.module.Module;
+import edu.first.module.hardware.Hardware;
+import edu.first.module.hardware.WPILibHardware;
+import edu.first.utils.WriteCoalescer;
 import edu.wpi.first.wpilibj.Solenoid;
 
 /**
  * Subsystem to switch between in and out positions.
  *
+ * <p> Setting the position it is already in does not write to the solenoids,
+ * unless the refresh interval has passed (by default
+ * {@link DualActionSolenoidModule#defaultRefreshInterval}). Skipped writes are
+ * counted in {@link DualActionSolenoidModule#getSuppressedWrites()}.
+ *
  * @author Joel Gallant <joelgallant236@gmail.com>
  */
 public class DualActionSolenoidModule extends ForwardingDualActionSolenoid implements Module.DisableableModule {
 
+    /**
+     * Longest time that the same position is not written again, unless
+     * changed with {@link DualActionSolenoidModule#setRefreshInterval(long)}.
+     */
+    public static final long defaultRefreshInterval = 1000L;
     private boolean enabled;
+    private final WriteCoalescer writes = new WriteCoalescer(defaultRefreshInterval);
 
     /**
      * Constructs the system with the in and out solenoids to control the bar.
@@ -20,15 +34,29 @@ public class DualActionSolenoidModule extends ForwardingDualActionSolenoid imple
      * @param out solenoid to bring bar out
      */
     public DualActionSolenoidModule(Solenoid in, Solenoid out) {
+        super(WPILibHardware.wrap(in), WPILibHardware.wrap(out));
+    }
+
+    /**
+     * Constructs the system with the in and out solenoids (from any
+     * {@link Hardware}) to control the bar.
+     *
+     * @param in solenoid to bring bar in
+     * @param out solenoid to bring bar out
+     */
+    public DualActionSolenoidModule(Hardware.Solenoid in, Hardware.Solenoid out) {
         super(in, out);
     }
 
     public final boolean disable() {
+        // Always written, in case something else moved the solenoids
+        writes.reset();
         setIn();
         return !(enabled = false);
     }
 
     public final boolean enable() {
+        writes.reset();
         return (enabled = true);
     }
 
@@ -37,14 +65,40 @@ public class DualActionSolenoidModule extends ForwardingDualActionSolenoid imple
     }
 
     public final void set(boolean position) {
-        super.set(isEnabled() ? position : IN);
+        position = isEnabled() ? position : IN;
+        synchronized (writes) {
+            if (writes.shouldWrite(position ? 1 : 0)) {
+                super.set(position);
+            }
+        }
+    }
+
+    /**
+     * Sets the longest time that the same position is not written to the
+     * solenoids again.
+     *
+     * @param refreshInterval time between refreshes (milliseconds) - 0 writes
+     * every position
+     */
+    public final void setRefreshInterval(long refreshInterval) {
+        writes.setRefreshInterval(refreshInterval);
+    }
+
+    /**
+     * Returns how many positions were not written because the solenoids were
+     * already in them.
+     *
+     * @return amount of skipped writes
+     */
+    public final long getSuppressedWrites() {
+        return writes.getSuppressedWrites();
     }
 }
 
 class ForwardingDualActionSolenoid implements edu.first.module.actuator.Solenoid, ReturnableBoolean {
 
     public static boolean IN = false, OUT = true;
-    private final Solenoid in, out;
+    private final Hardware.Solenoid in, out;
     private boolean position;
 
     /**
@@ -53,7 +107,7 @@ class ForwardingDualActionSolenoid implements edu.first.module.actuator.Solenoid
      * @param in solenoid to bring bar in
      * @param out solenoid to bring bar out
      */
-    public ForwardingDualActionSolenoid(Solenoid in, Solenoid out) {
+    public ForwardingDualActionSolenoid(Hardware.Solenoid in, Hardware.Solenoid out) {
         this.in = in;
         this.out = out;
     }
@@ -1,6 +1,8 @@
 package edu.first.module.actuator;
 
 import edu.first.module.Module;
+import edu.first.module.hardware.Hardware;
+import edu.first.module.hardware.WPILibHardware;
 
 /**
  * Module representing solenoids. Useful for pneumatic systems. When disabled,
@@ -19,6 +21,16 @@ public class SolenoidModule extends ForwardingSolenoid implements Module.Disable
      * @param solenoid actual underlying object used
      */
     public SolenoidModule(edu.wpi.first.wpilibj.Solenoid solenoid) {
+        super(WPILibHardware.wrap(solenoid));
+    }
+
+    /**
+     * Constructs the object by using composition, using the given solenoid
+     * (from any {@link Hardware}) to control methods in this class.
+     *
+     * @param solenoid actual underlying object used
+     */
+    public SolenoidModule(Hardware.Solenoid solenoid) {
         super(solenoid);
     }
 
@@ -66,13 +78,13 @@ public class SolenoidModule extends ForwardingSolenoid implements Module.Disable
 
 /**
  * Forwarding class, as described in Effective Java: Second Edition, Item 16.
- * Forwards {@link edu.wpi.first.wpilibj.Solenoid}.
+ * Forwards {@link Hardware.Solenoid}.
  *
  * @author Joel Gallant
  */
 class ForwardingSolenoid implements Solenoid {
 
-    private final edu.wpi.first.wpilibj.Solenoid solenoid;
+    private final Hardware.Solenoid solenoid;
 
     /**
      * Constructs the object by using composition, using the given solenoid
@@ -80,7 +92,7 @@ class ForwardingSolenoid implements Solenoid {
      *
      * @param solenoid actual underlying object used
      */
-    ForwardingSolenoid(edu.wpi.first.wpilibj.Solenoid solenoid) {
+    ForwardingSolenoid(Hardware.Solenoid solenoid) {
         if(solenoid == null) {
             throw new NullPointerException();
         }
@@ -88,12 +100,11 @@ class ForwardingSolenoid implements Solenoid {
     }
 
     /**
-     * Returns the instance of the underlying
-     * {@link edu.wpi.first.wpilibj.Solenoid}.
+     * Returns the instance of the underlying {@link Hardware.Solenoid}.
      *
      * @return composition object under this one
      */
-    protected edu.wpi.first.wpilibj.Solenoid getSolenoid() {
+    protected Hardware.Solenoid getSolenoid() {
         return solenoid;
     }
 
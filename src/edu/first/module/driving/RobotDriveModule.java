@@ -2,6 +2,8 @@ package edu.first.module.driving;
 
 import edu.first.identifiers.Function;
 import edu.first.module.Module;
+import edu.first.module.hardware.Hardware;
+import edu.first.module.hardware.WPILibHardware;
 import edu.wpi.first.wpilibj.PIDOutput;
 import edu.wpi.first.wpilibj.RobotDrive;
 
@@ -37,6 +39,18 @@ public class RobotDriveModule extends ForwardingRobotDrive implements Module.Dis
      * @param reverseTurn if class should be reversed turn
      */
     public RobotDriveModule(RobotDrive drive, boolean reverseSpeed, boolean reverseTurn) {
+        super(WPILibHardware.wrap(drive), reverseSpeed, reverseTurn);
+    }
+
+    /**
+     * Constructs the object by using composition, using the given robot drive
+     * (from any {@link Hardware}) to control methods in this class.
+     *
+     * @param drive actual underlying object used
+     * @param reverseSpeed if class should be reversed speed
+     * @param reverseTurn if class should be reversed turn
+     */
+    public RobotDriveModule(Hardware.RobotDrive drive, boolean reverseSpeed, boolean reverseTurn) {
         super(drive, reverseSpeed, reverseTurn);
     }
 
@@ -85,13 +99,13 @@ public class RobotDriveModule extends ForwardingRobotDrive implements Module.Dis
 
 /**
  * Forwarding class, as described in Effective Java: Second Edition, Item 16.
- * Forwards {@link edu.wpi.first.wpilibj.RobotDrive}.
+ * Forwards {@link Hardware.RobotDrive}.
  *
  * @author Joel Gallant
  */
 class ForwardingRobotDrive implements edu.first.module.driving.RobotDrive {
 
-    private final edu.wpi.first.wpilibj.RobotDrive drive;
+    private final Hardware.RobotDrive drive;
     private Function function = new Function.DefaultFunction();
     private final boolean reverseSpeed, reverseTurn;
 
@@ -101,7 +115,7 @@ class ForwardingRobotDrive implements edu.first.module.driving.RobotDrive {
      *
      * @param drive actual underlying object used
      */
-    ForwardingRobotDrive(edu.wpi.first.wpilibj.RobotDrive drive, boolean reverseSpeed, boolean reverseTurn) {
+    ForwardingRobotDrive(Hardware.RobotDrive drive, boolean reverseSpeed, boolean reverseTurn) {
         if (drive == null) {
             throw new NullPointerException();
         }
@@ -110,7 +124,7 @@ class ForwardingRobotDrive implements edu.first.module.driving.RobotDrive {
         this.reverseTurn = reverseTurn;
     }
 
-    ForwardingRobotDrive(edu.wpi.first.wpilibj.RobotDrive drive, boolean reverseSpeed, boolean reverseTurn, Function function) {
+    ForwardingRobotDrive(Hardware.RobotDrive drive, boolean reverseSpeed, boolean reverseTurn, Function function) {
         if (drive == null) {
             throw new NullPointerException();
         }
@@ -121,12 +135,11 @@ class ForwardingRobotDrive implements edu.first.module.driving.RobotDrive {
     }
 
     /**
-     * Returns the instance of the underlying
-     * {@link edu.wpi.first.wpilibj.RobotDrive}.
+     * Returns the instance of the underlying {@link Hardware.RobotDrive}.
      *
      * @return composition object under this one
      */
-    protected final edu.wpi.first.wpilibj.RobotDrive getDrive() {
+    protected final Hardware.RobotDrive getDrive() {
         return drive;
     }
 
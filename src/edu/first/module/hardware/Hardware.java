@@ -0,0 +1,858 @@
+package edu.first.module.hardware;
+
+import edu.wpi.first.wpilibj.PIDOutput;
+import edu.wpi.first.wpilibj.PIDSource;
+import edu.wpi.first.wpilibj.SpeedController;
+
+/**
+ * Source of the hardware channels that modules are built on. Modules only ever
+ * talk to the interfaces in this class, so the same robot code can run on the
+ * cRIO ({@link WPILibHardware}) or anywhere else ({@link SimHardware}).
+ *
+ * <p> Channels are created through the methods in this interface, using the
+ * same channel numbers that would be given to the WPILib classes. Speed
+ * controllers use {@link SpeedController}, which is already an interface.
+ *
+ * @author Joel Gallant
+ */
+public interface Hardware {
+
+    /**
+     * Returns a Victor speed controller on a PWM channel.
+     *
+     * @param channel PWM channel
+     * @return speed controller on the channel
+     */
+    SpeedController getVictor(int channel);
+
+    /**
+     * Returns a Talon speed controller on a PWM channel.
+     *
+     * @param channel PWM channel
+     * @return speed controller on the channel
+     */
+    SpeedController getTalon(int channel);
+
+    /**
+     * Returns a robot drive of four speed controllers, with motor safety
+     * turned on. The right side is inverted, so that positive values drive
+     * every wheel forwards.
+     *
+     * @param frontLeft front left speed controller
+     * @param rearLeft rear left speed controller
+     * @param frontRight front right speed controller
+     * @param rearRight rear right speed controller
+     * @return drive using the speed controllers
+     */
+    RobotDrive getRobotDrive(SpeedController frontLeft, SpeedController rearLeft,
+            SpeedController frontRight, SpeedController rearRight);
+
+    /**
+     * Returns a PID controller that reads the source and writes the output
+     * every 50 milliseconds while it is enabled. It starts disabled.
+     *
+     * @param p proportional coefficient
+     * @param i integral coefficient
+     * @param d differential coefficient
+     * @param source input of the controller
+     * @param output where the result is written
+     * @return PID controller
+     */
+    PIDController getPIDController(double p, double i, double d, PIDSource source, PIDOutput output);
+
+    /**
+     * Returns a quadrature encoder on two digital channels.
+     *
+     * @param aChannel digital channel of the A signal
+     * @param bChannel digital channel of the B signal
+     * @return encoder on the channels
+     */
+    Encoder getEncoder(int aChannel, int bChannel);
+
+    /**
+     * Returns a gyroscope on an analog channel.
+     *
+     * @param channel analog channel
+     * @return gyro on the channel
+     */
+    Gyro getGyro(int channel);
+
+    /**
+     * Returns an analog input.
+     *
+     * @param channel analog channel
+     * @return input on the channel
+     */
+    AnalogInput getAnalogInput(int channel);
+
+    /**
+     * Returns a digital input.
+     *
+     * @param channel digital channel
+     * @return input on the channel
+     */
+    DigitalInput getDigitalInput(int channel);
+
+    /**
+     * Returns a counter of the pulses on a digital channel. Should not be used
+     * on a channel that is also used by {@link Hardware#getDigitalInput(int)}.
+     *
+     * @param channel digital channel
+     * @return counter on the channel
+     */
+    Counter getCounter(int channel);
+
+    /**
+     * Returns a solenoid.
+     *
+     * @param channel solenoid channel
+     * @return solenoid on the channel
+     */
+    Solenoid getSolenoid(int channel);
+
+    /**
+     * Returns a spike relay.
+     *
+     * @param channel relay channel
+     * @return relay on the channel
+     */
+    Relay getRelay(int channel);
+
+    /**
+     * Returns a joystick plugged into the driver station.
+     *
+     * @param port joystick port on the driver station (1 to 4)
+     * @return joystick on the port
+     */
+    Joystick getJoystick(int port);
+
+    /**
+     * Returns the driver station, which gives the game mode and everything
+     * else sent in its packets.
+     *
+     * @return the driver station
+     */
+    DriverStation getDriverStation();
+
+    /**
+     * Returns the user lines of the LCD on the driver station (the box on the
+     * right side).
+     *
+     * @return the driver station LCD
+     */
+    LCD getLCD();
+
+    /**
+     * Returns the preferences that are kept on the robot over reboots.
+     *
+     * @return the robot's preferences
+     */
+    Preferences getPreferences();
+
+    /**
+     * Returns the dashboard that values are shown on.
+     *
+     * @return the dashboard
+     */
+    Dashboard getDashboard();
+
+    /**
+     * Drive that turns joystick style inputs into motor outputs, like
+     * {@link edu.wpi.first.wpilibj.RobotDrive}. Every drive method feeds the
+     * motor safety, which stops the motors if nothing drives them for the
+     * expiration time while the robot is enabled.
+     */
+    public static interface RobotDrive {
+
+        /**
+         * Drives at a speed and curve. Curve is the rate of turn, constant for
+         * different speeds.
+         *
+         * @param outputMagnitude forward speed
+         * @param curve rate of turn
+         */
+        void drive(double outputMagnitude, double curve);
+
+        /**
+         * Drives each side separately.
+         *
+         * @param leftValue left side speed
+         * @param rightValue right side speed
+         * @param squaredInputs whether to square the inputs
+         */
+        void tankDrive(double leftValue, double rightValue, boolean squaredInputs);
+
+        /**
+         * Drives with a forwards and a turning speed.
+         *
+         * @param moveValue forwards speed
+         * @param rotateValue turning speed (positive is right)
+         * @param squaredInputs whether to square the inputs
+         */
+        void arcadeDrive(double moveValue, double rotateValue, boolean squaredInputs);
+
+        /**
+         * Drives mecanum wheels with x and y speeds.
+         *
+         * @param x sideways speed
+         * @param y forwards speed, inverted like a joystick
+         * @param rotation turning speed
+         * @param gyroAngle angle of the robot for field oriented driving
+         * (degrees)
+         */
+        void mecanumDrive_Cartesian(double x, double y, double rotation, double gyroAngle);
+
+        /**
+         * Drives mecanum wheels with a speed and direction.
+         *
+         * @param magnitude speed
+         * @param direction direction to drive (degrees)
+         * @param rotation turning speed
+         */
+        void mecanumDrive_Polar(double magnitude, double direction, double rotation);
+
+        /**
+         * Sets the outputs of each side directly.
+         *
+         * @param leftOutput left side output
+         * @param rightOutput right side output
+         */
+        void setLeftRightMotorOutputs(double leftOutput, double rightOutput);
+
+        /**
+         * Sets what every output is multiplied by.
+         *
+         * @param maxOutput scaling of the outputs
+         */
+        void setMaxOutput(double maxOutput);
+
+        /**
+         * Sets how long the motors can go without being driven.
+         *
+         * @param timeout expiration time (seconds)
+         */
+        void setExpiration(double timeout);
+
+        /**
+         * Returns how long the motors can go without being driven.
+         *
+         * @return expiration time (seconds)
+         */
+        double getExpiration();
+
+        /**
+         * Returns whether the motor safety is on.
+         *
+         * @return if motor safety is on
+         */
+        boolean isSafetyEnabled();
+
+        /**
+         * Turns the motor safety on or off.
+         *
+         * @param enabled if motor safety should be on
+         */
+        void setSafetyEnabled(boolean enabled);
+
+        /**
+         * Stops every motor.
+         */
+        void stopMotor();
+    }
+
+    /**
+     * PID controller running on its own, like
+     * {@link edu.wpi.first.wpilibj.PIDController}. Outputs are -1 to 1 unless
+     * set otherwise, and setpoints are limited to the input range once one is
+     * set.
+     */
+    public static interface PIDController {
+
+        /**
+         * Sets the coefficients.
+         *
+         * @param p proportional coefficient
+         * @param i integral coefficient
+         * @param d differential coefficient
+         * @param f feed forward coefficient
+         */
+        void setPID(double p, double i, double d, double f);
+
+        /**
+         * Returns the proportional coefficient.
+         *
+         * @return proportional coefficient
+         */
+        double getP();
+
+        /**
+         * Returns the integral coefficient.
+         *
+         * @return integral coefficient
+         */
+        double getI();
+
+        /**
+         * Returns the differential coefficient.
+         *
+         * @return differential coefficient
+         */
+        double getD();
+
+        /**
+         * Returns the feed forward coefficient.
+         *
+         * @return feed forward coefficient
+         */
+        double getF();
+
+        /**
+         * Sets the range expected from the input.
+         *
+         * @param minimumInput smallest input
+         * @param maximumInput largest input
+         */
+        void setInputRange(double minimumInput, double maximumInput);
+
+        /**
+         * Sets the range written to the output.
+         *
+         * @param minimumOutput smallest output
+         * @param maximumOutput largest output
+         */
+        void setOutputRange(double minimumOutput, double maximumOutput);
+
+        /**
+         * Sets the input to reach.
+         *
+         * @param setpoint input to reach
+         */
+        void setSetpoint(double setpoint);
+
+        /**
+         * Returns the input to reach.
+         *
+         * @return setpoint
+         */
+        double getSetpoint();
+
+        /**
+         * Returns the error of the last calculation.
+         *
+         * @return setpoint minus input
+         */
+        double getError();
+
+        /**
+         * Starts writing to the output.
+         */
+        void enable();
+
+        /**
+         * Stops writing to the output, after writing 0.
+         */
+        void disable();
+
+        /**
+         * Returns whether the controller is writing to the output.
+         *
+         * @return if controller is enabled
+         */
+        boolean isEnabled();
+    }
+
+    /**
+     * Quadrature encoder. Counts are scaled into distance by
+     * {@link Encoder#setDistancePerPulse(double)}.
+     */
+    public static interface Encoder {
+
+        /**
+         * Starts counting pulses.
+         */
+        void start();
+
+        /**
+         * Stops counting pulses. The count is not changed.
+         */
+        void stop();
+
+        /**
+         * Resets the count to zero.
+         */
+        void reset();
+
+        /**
+         * Sets the longest time between pulses before the encoder is
+         * considered stopped.
+         *
+         * @param maxPeriod longest time between pulses (seconds)
+         */
+        void setMaxPeriod(double maxPeriod);
+
+        /**
+         * Returns whether the encoder is considered stopped.
+         *
+         * @return if the encoder is stopped
+         */
+        boolean getStopped();
+
+        /**
+         * Returns the distance since the last reset.
+         *
+         * @return count scaled by the distance per pulse
+         */
+        double getDistance();
+
+        /**
+         * Returns the current rate.
+         *
+         * @return distance per second
+         */
+        double getRate();
+
+        /**
+         * Sets the scale from pulses to distance.
+         *
+         * @param distancePerPulse distance of one pulse
+         */
+        void setDistancePerPulse(double distancePerPulse);
+
+        /**
+         * Sets whether the direction of counting is reversed.
+         *
+         * @param reverseDirection if counting is reversed
+         */
+        void setReverseDirection(boolean reverseDirection);
+    }
+
+    /**
+     * Gyroscope measuring heading.
+     */
+    public static interface Gyro {
+
+        /**
+         * Returns the heading, which is continuous past 360 degrees.
+         *
+         * @return heading (degrees)
+         */
+        double getAngle();
+
+        /**
+         * Resets the heading to zero.
+         */
+        void reset();
+    }
+
+    /**
+     * Analog input measuring voltage.
+     */
+    public static interface AnalogInput {
+
+        /**
+         * Returns the voltage on the channel.
+         *
+         * @return voltage (volts)
+         */
+        double getVoltage();
+    }
+
+    /**
+     * Digital input that is on or off.
+     */
+    public static interface DigitalInput {
+
+        /**
+         * Returns the value on the channel.
+         *
+         * @return if the channel is high
+         */
+        boolean get();
+    }
+
+    /**
+     * Counter of the pulses on a digital channel.
+     */
+    public static interface Counter {
+
+        /**
+         * Starts counting pulses.
+         */
+        void start();
+
+        /**
+         * Stops counting pulses. The count is not changed.
+         */
+        void stop();
+
+        /**
+         * Resets the count to zero.
+         */
+        void reset();
+
+        /**
+         * Returns the amount of pulses counted.
+         *
+         * @return current count
+         */
+        int getCount();
+
+        /**
+         * Returns the time between the last two pulses.
+         *
+         * @return period of the last pulse (seconds)
+         */
+        double getPeriod();
+
+        /**
+         * Returns the current value of the channel being counted.
+         *
+         * @return if the channel is high
+         */
+        boolean getInput();
+    }
+
+    /**
+     * Solenoid that is on or off.
+     */
+    public static interface Solenoid {
+
+        /**
+         * Turns the solenoid on or off.
+         *
+         * @param on if solenoid is on
+         */
+        void set(boolean on);
+
+        /**
+         * Returns whether the solenoid is on.
+         *
+         * @return if solenoid is on
+         */
+        boolean get();
+    }
+
+    /**
+     * Spike relay. Uses the values and directions from
+     * {@link edu.wpi.first.wpilibj.Relay}.
+     */
+    public static interface Relay {
+
+        /**
+         * Sets the state of the relay.
+         *
+         * @param value how to set the relay
+         */
+        void set(edu.wpi.first.wpilibj.Relay.Value value);
+
+        /**
+         * Sets which directions the relay can be set to.
+         *
+         * @param direction directions allowed
+         */
+        void setDirection(edu.wpi.first.wpilibj.Relay.Direction direction);
+
+        /**
+         * Returns the state of the relay.
+         *
+         * @return what relay is set to
+         */
+        edu.wpi.first.wpilibj.Relay.Value get();
+    }
+
+    /**
+     * Joystick on the driver station. Uses the same axis and button numbers as
+     * {@link edu.wpi.first.wpilibj.Joystick}, starting at 1.
+     */
+    public static interface Joystick {
+
+        /**
+         * Returns the value of an axis.
+         *
+         * @param axis axis number
+         * @return position of the axis (-1 to +1)
+         */
+        double getRawAxis(int axis);
+
+        /**
+         * Returns whether a button is pressed.
+         *
+         * @param button button number
+         * @return if button is pressed
+         */
+        boolean getRawButton(int button);
+    }
+
+    /**
+     * Driver station that the robot gets its packets from. Everything returned
+     * is from the latest packet.
+     */
+    public static interface DriverStation {
+
+        /**
+         * Returns the number of the latest packet, which changes every time a
+         * new packet arrives.
+         *
+         * @return packet number
+         */
+        int getPacketNumber();
+
+        /**
+         * Returns whether the robot is enabled.
+         *
+         * @return if robot is enabled
+         */
+        boolean isEnabled();
+
+        /**
+         * Returns whether the robot is in autonomous mode.
+         *
+         * @return if in autonomous
+         */
+        boolean isAutonomous();
+
+        /**
+         * Returns whether the robot is in operator control mode. The robot is
+         * in operator control when it is not in autonomous or test.
+         *
+         * @return if in operator control
+         */
+        boolean isOperatorControl();
+
+        /**
+         * Returns whether the robot is in test mode.
+         *
+         * @return if in test
+         */
+        boolean isTest();
+
+        /**
+         * Returns whether the driver station is connected to a field.
+         *
+         * @return if attached to the FMS
+         */
+        boolean isFMSAttached();
+
+        /**
+         * Returns the battery voltage measured on the robot.
+         *
+         * @return battery voltage (volts)
+         */
+        double getBatteryVoltage();
+
+        /**
+         * Returns the approximate time since the start of the match.
+         *
+         * @return match time (seconds)
+         */
+        double getMatchTime();
+
+        /**
+         * Returns a digital input on the driver station.
+         *
+         * @param channel digital channel (1 to 8)
+         * @return value of the input
+         */
+        boolean getDigitalIn(int channel);
+
+        /**
+         * Sets a digital output on the driver station.
+         *
+         * @param channel digital channel (1 to 8)
+         * @param value value of the output
+         */
+        void setDigitalOut(int channel, boolean value);
+
+        /**
+         * Returns the location of the driver station on the alliance.
+         *
+         * @return location (1, 2 or 3)
+         */
+        int getLocation();
+
+        /**
+         * Returns the team number the driver station is set to.
+         *
+         * @return team number
+         */
+        int getTeamNumber();
+
+        /**
+         * Returns the name of the alliance.
+         *
+         * @return "Red", "Blue" or "invalid"
+         */
+        String getAllianceName();
+    }
+
+    /**
+     * User lines of the LCD on the driver station. Lines are changed with
+     * {@link LCD#println(int, java.lang.String)}, and only sent to the driver
+     * station with {@link LCD#update()}, which is slow.
+     */
+    public static interface LCD {
+
+        /**
+         * Amount of user lines.
+         */
+        int lines = 6;
+        /**
+         * Amount of characters that fit on a line.
+         */
+        int lineLength = 21;
+
+        /**
+         * Writes text on a line, starting at the first column. Text past
+         * {@link LCD#lineLength} is cut off.
+         *
+         * @param line user line (1 to {@link LCD#lines})
+         * @param text text to write
+         */
+        void println(int line, String text);
+
+        /**
+         * Sends every line to the driver station.
+         */
+        void update();
+    }
+
+    /**
+     * Preferences kept on the robot, by key. Works like
+     * {@link edu.wpi.first.wpilibj.Preferences}: every value can be read as
+     * any type, and the default is given back when the key doesn't exist.
+     */
+    public static interface Preferences {
+
+        /**
+         * Returns whether there is a value for the key.
+         *
+         * @param key key of the value
+         * @return if key exists
+         */
+        boolean containsKey(String key);
+
+        /**
+         * Returns a value as a string.
+         *
+         * @param key key of the value
+         * @param def value if the key doesn't exist
+         * @return value of the key
+         */
+        String getString(String key, String def);
+
+        /**
+         * Returns a value as an int.
+         *
+         * @param key key of the value
+         * @param def value if the key doesn't exist
+         * @return value of the key
+         */
+        int getInt(String key, int def);
+
+        /**
+         * Returns a value as a long.
+         *
+         * @param key key of the value
+         * @param def value if the key doesn't exist
+         * @return value of the key
+         */
+        long getLong(String key, long def);
+
+        /**
+         * Returns a value as a float.
+         *
+         * @param key key of the value
+         * @param def value if the key doesn't exist
+         * @return value of the key
+         */
+        float getFloat(String key, float def);
+
+        /**
+         * Returns a value as a double.
+         *
+         * @param key key of the value
+         * @param def value if the key doesn't exist
+         * @return value of the key
+         */
+        double getDouble(String key, double def);
+
+        /**
+         * Returns a value as a boolean.
+         *
+         * @param key key of the value
+         * @param def value if the key doesn't exist
+         * @return value of the key
+         */
+        boolean getBoolean(String key, boolean def);
+
+        /**
+         * Sets a string value.
+         *
+         * @param key key of the value
+         * @param value new value
+         */
+        void putString(String key, String value);
+
+        /**
+         * Sets an int value.
+         *
+         * @param key key of the value
+         * @param value new value
+         */
+        void putInt(String key, int value);
+
+        /**
+         * Sets a long value.
+         *
+         * @param key key of the value
+         * @param value new value
+         */
+        void putLong(String key, long value);
+
+        /**
+         * Sets a float value.
+         *
+         * @param key key of the value
+         * @param value new value
+         */
+        void putFloat(String key, float value);
+
+        /**
+         * Sets a double value.
+         *
+         * @param key key of the value
+         * @param value new value
+         */
+        void putDouble(String key, double value);
+
+        /**
+         * Sets a boolean value.
+         *
+         * @param key key of the value
+         * @param value new value
+         */
+        void putBoolean(String key, boolean value);
+    }
+
+    /**
+     * Dashboard showing values by key, like the SmartDashboard.
+     */
+    public static interface Dashboard {
+
+        /**
+         * Shows a number.
+         *
+         * @param key name on the dashboard
+         * @param value value to show
+         */
+        void putNumber(String key, double value);
+
+        /**
+         * Shows a boolean.
+         *
+         * @param key name on the dashboard
+         * @param value value to show
+         */
+        void putBoolean(String key, boolean value);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,1484 @@
+package edu.first.module.hardware;
+
+import edu.wpi.first.wpilibj.PIDOutput;
+import edu.wpi.first.wpilibj.PIDSource;
+import edu.wpi.first.wpilibj.SpeedController;
+import edu.wpi.first.wpilibj.networktables2.util.List;
+import edu.first.utils.Clock;
+import java.util.Hashtable;
+
+/**
+ * {@link Hardware} that only exists in memory, so that robot code can run on a
+ * normal computer. Does not use any WPILib classes other than the
+ * {@link SpeedController}, {@link PIDSource} and {@link PIDOutput} interfaces
+ * and the values in {@link edu.wpi.first.wpilibj.Relay}.
+ *
+ * <p> Asking for the same channel twice gives back the same object, so the
+ * simulation can get at the channels that the robot code is using. Actuators
+ * ({@link Motor}, {@link Solenoid}, {@link Relay}) just remember what they were
+ * set to. Sensors are set by the simulation: inputs directly, and things that
+ * accumulate ({@link Encoder}, {@link Gyro}, {@link Counter}) as a rate that is
+ * integrated every time simulated time moves forward. Driver station inputs
+ * ({@link Joystick}, {@link DriverStation}) are also set by the simulation.
+ * Whatever the robot writes to the {@link LCD}, {@link Preferences} or
+ * {@link Dashboard} is kept so that it can be read back.
+ *
+ * <p> {@link RobotDrive} and {@link PIDController} do the same math as
+ * WPILib's. The drive's motor safety is checked every step, stopping the
+ * motors like the cRIO would when the drive isn't updated in time. PID
+ * controllers calculate from their own {@link Clock} scheduler.
+ *
+ * <p> Sensors only move with {@link SimHardware#step(long)}, which can be
+ * called as fast as the simulation wants, or from a scheduler with
+ * {@link SimHardware#start(long)} to follow the {@link Clock}. The time itself
+ * is always the clock's.
+ *
+ * @author Joel Gallant
+ */
+public final class SimHardware implements Hardware {
+
+    private final Object lock = new Object();
+    private final Hashtable channels = new Hashtable();
+    private final List stepped = new List();
+    private final DriverStation driverStation = new DriverStation();
+    private final LCD lcd = new LCD();
+    private final Preferences preferences = new Preferences();
+    private final Dashboard dashboard = new Dashboard();
+    private Clock.Scheduler timer;
+
+    public SpeedController getVictor(int channel) {
+        return getMotor(channel);
+    }
+
+    public SpeedController getTalon(int channel) {
+        return getMotor(channel);
+    }
+
+    public Hardware.RobotDrive getRobotDrive(SpeedController frontLeft, SpeedController rearLeft,
+            SpeedController frontRight, SpeedController rearRight) {
+        RobotDrive drive = new RobotDrive(driverStation, frontLeft, rearLeft, frontRight, rearRight);
+        synchronized (lock) {
+            stepped.add(drive);
+        }
+        return drive;
+    }
+
+    public Hardware.PIDController getPIDController(double p, double i, double d,
+            PIDSource source, PIDOutput output) {
+        return new PIDController(p, i, d, source, output);
+    }
+
+    public Hardware.Encoder getEncoder(int aChannel, int bChannel) {
+        return getSimEncoder(aChannel);
+    }
+
+    public Hardware.Gyro getGyro(int channel) {
+        return getSimGyro(channel);
+    }
+
+    public Hardware.AnalogInput getAnalogInput(int channel) {
+        return getSimAnalogInput(channel);
+    }
+
+    public Hardware.DigitalInput getDigitalInput(int channel) {
+        return getSimDigitalInput(channel);
+    }
+
+    public Hardware.Counter getCounter(int channel) {
+        return getSimCounter(channel);
+    }
+
+    public Hardware.Solenoid getSolenoid(int channel) {
+        return getSimSolenoid(channel);
+    }
+
+    public Hardware.Relay getRelay(int channel) {
+        return getSimRelay(channel);
+    }
+
+    public Hardware.Joystick getJoystick(int port) {
+        return getSimJoystick(port);
+    }
+
+    public Hardware.DriverStation getDriverStation() {
+        return getSimDriverStation();
+    }
+
+    public Hardware.LCD getLCD() {
+        return getSimLCD();
+    }
+
+    public Hardware.Preferences getPreferences() {
+        return getSimPreferences();
+    }
+
+    public Hardware.Dashboard getDashboard() {
+        return getSimDashboard();
+    }
+
+    /**
+     * Returns the simulated speed controller on a PWM channel.
+     *
+     * @param channel PWM channel
+     * @return simulated speed controller
+     */
+    public Motor getMotor(int channel) {
+        synchronized (lock) {
+            Motor motor = (Motor) channels.get("PWM " + channel);
+            if (motor == null) {
+                motor = new Motor();
+                add("PWM " + channel, motor);
+            }
+            return motor;
+        }
+    }
+
+    /**
+     * Returns the simulated encoder whose A signal is on a digital channel.
+     *
+     * @param aChannel digital channel of the A signal
+     * @return simulated encoder
+     */
+    public Encoder getSimEncoder(int aChannel) {
+        synchronized (lock) {
+            Encoder encoder = (Encoder) channels.get("Encoder " + aChannel);
+            if (encoder == null) {
+                encoder = new Encoder();
+                add("Encoder " + aChannel, encoder);
+            }
+            return encoder;
+        }
+    }
+
+    /**
+     * Returns the simulated gyro on an analog channel.
+     *
+     * @param channel analog channel
+     * @return simulated gyro
+     */
+    public Gyro getSimGyro(int channel) {
+        synchronized (lock) {
+            Gyro gyro = (Gyro) channels.get("Gyro " + channel);
+            if (gyro == null) {
+                gyro = new Gyro();
+                add("Gyro " + channel, gyro);
+            }
+            return gyro;
+        }
+    }
+
+    /**
+     * Returns the simulated analog input on a channel.
+     *
+     * @param channel analog channel
+     * @return simulated analog input
+     */
+    public AnalogInput getSimAnalogInput(int channel) {
+        synchronized (lock) {
+            AnalogInput input = (AnalogInput) channels.get("Analog " + channel);
+            if (input == null) {
+                input = new AnalogInput();
+                add("Analog " + channel, input);
+            }
+            return input;
+        }
+    }
+
+    /**
+     * Returns the simulated digital input on a channel.
+     *
+     * @param channel digital channel
+     * @return simulated digital input
+     */
+    public DigitalInput getSimDigitalInput(int channel) {
+        synchronized (lock) {
+            DigitalInput input = (DigitalInput) channels.get("Digital " + channel);
+            if (input == null) {
+                input = new DigitalInput();
+                add("Digital " + channel, input);
+            }
+            return input;
+        }
+    }
+
+    /**
+     * Returns the simulated counter on a digital channel.
+     *
+     * @param channel digital channel
+     * @return simulated counter
+     */
+    public Counter getSimCounter(int channel) {
+        synchronized (lock) {
+            Counter counter = (Counter) channels.get("Counter " + channel);
+            if (counter == null) {
+                counter = new Counter();
+                add("Counter " + channel, counter);
+            }
+            return counter;
+        }
+    }
+
+    /**
+     * Returns the simulated solenoid on a channel.
+     *
+     * @param channel solenoid channel
+     * @return simulated solenoid
+     */
+    public Solenoid getSimSolenoid(int channel) {
+        synchronized (lock) {
+            Solenoid solenoid = (Solenoid) channels.get("Solenoid " + channel);
+            if (solenoid == null) {
+                solenoid = new Solenoid();
+                add("Solenoid " + channel, solenoid);
+            }
+            return solenoid;
+        }
+    }
+
+    /**
+     * Returns the simulated relay on a channel.
+     *
+     * @param channel relay channel
+     * @return simulated relay
+     */
+    public Relay getSimRelay(int channel) {
+        synchronized (lock) {
+            Relay relay = (Relay) channels.get("Relay " + channel);
+            if (relay == null) {
+                relay = new Relay();
+                add("Relay " + channel, relay);
+            }
+            return relay;
+        }
+    }
+
+    /**
+     * Returns the simulated joystick on a driver station port.
+     *
+     * @param port joystick port
+     * @return simulated joystick
+     */
+    public Joystick getSimJoystick(int port) {
+        synchronized (lock) {
+            Joystick joystick = (Joystick) channels.get("Joystick " + port);
+            if (joystick == null) {
+                joystick = new Joystick();
+                add("Joystick " + port, joystick);
+            }
+            return joystick;
+        }
+    }
+
+    /**
+     * Returns the simulated driver station. There is only ever one.
+     *
+     * @return simulated driver station
+     */
+    public DriverStation getSimDriverStation() {
+        return driverStation;
+    }
+
+    /**
+     * Returns the simulated driver station LCD. There is only ever one.
+     *
+     * @return simulated LCD
+     */
+    public LCD getSimLCD() {
+        return lcd;
+    }
+
+    /**
+     * Returns the simulated preferences. There is only ever one.
+     *
+     * @return simulated preferences
+     */
+    public Preferences getSimPreferences() {
+        return preferences;
+    }
+
+    /**
+     * Returns the simulated dashboard. There is only ever one.
+     *
+     * @return simulated dashboard
+     */
+    public Dashboard getSimDashboard() {
+        return dashboard;
+    }
+
+    // Must hold lock
+    private void add(String key, Object channel) {
+        channels.put(key, channel);
+        if (channel instanceof Stepped) {
+            stepped.add(channel);
+        }
+    }
+
+    /**
+     * Updates every sensor that accumulates, as if the time went by.
+     *
+     * @param millis time that went by (milliseconds)
+     */
+    public void step(long millis) {
+        synchronized (lock) {
+            double seconds = millis / 1000.0;
+            for (int x = 0; x < stepped.size(); x++) {
+                ((Stepped) stepped.get(x)).step(seconds);
+            }
+        }
+    }
+
+    /**
+     * Starts stepping along with the {@link Clock}. Does nothing if already
+     * started.
+     *
+     * @param period time between steps (milliseconds)
+     */
+    public void start(final long period) {
+        synchronized (lock) {
+            if (timer != null) {
+                return;
+            }
+            timer = Clock.newScheduler();
+            timer.scheduleAtFixedRate(new Runnable() {
+                public void run() {
+                    step(period);
+                }
+            }, period, period);
+        }
+    }
+
+    /**
+     * Stops stepping along with the {@link Clock}.
+     */
+    public void stop() {
+        synchronized (lock) {
+            if (timer != null) {
+                timer.cancel();
+                timer = null;
+            }
+        }
+    }
+
+    private static interface Stepped {
+
+        void step(double seconds);
+    }
+
+    /**
+     * Simulated speed controller. Remembers the last speed it was set to.
+     */
+    public static final class Motor implements SpeedController {
+
+        private volatile double speed;
+
+        private Motor() {
+        }
+
+        public void set(double speed, byte syncGroup) {
+            set(speed);
+        }
+
+        public void set(double speed) {
+            this.speed = Math.max(-1, Math.min(1, speed));
+        }
+
+        public double get() {
+            return speed;
+        }
+
+        public void disable() {
+            speed = 0;
+        }
+
+        public void pidWrite(double output) {
+            set(output);
+        }
+    }
+
+    /**
+     * Simulated robot drive, using the same math as
+     * {@link edu.wpi.first.wpilibj.RobotDrive}. The motor safety is checked
+     * every step, using the {@link Clock}'s time.
+     */
+    public static final class RobotDrive implements Hardware.RobotDrive, Stepped {
+
+        private static final double sensitivity = 0.5;
+        private static final double ln2 = 0.6931471805599453;
+        private final DriverStation driverStation;
+        private final SpeedController frontLeft, rearLeft, frontRight, rearRight;
+        private double maxOutput = 1;
+        private boolean safetyEnabled = true;
+        private long expiration = 100;
+        private long stopTime = Clock.currentTimeMillis();
+        private int timeouts;
+
+        private RobotDrive(DriverStation driverStation, SpeedController frontLeft, SpeedController rearLeft,
+                SpeedController frontRight, SpeedController rearRight) {
+            if (frontLeft == null || rearLeft == null || frontRight == null || rearRight == null) {
+                throw new NullPointerException();
+            }
+            this.driverStation = driverStation;
+            this.frontLeft = frontLeft;
+            this.rearLeft = rearLeft;
+            this.frontRight = frontRight;
+            this.rearRight = rearRight;
+            drive(0, 0);
+        }
+
+        /**
+         * Returns how many times the motor safety has stopped the motors.
+         *
+         * @return times the motors were not driven in time
+         */
+        public synchronized int getTimeouts() {
+            return timeouts;
+        }
+
+        public synchronized void step(double seconds) {
+            if (!safetyEnabled || !driverStation.isEnabled() || driverStation.isTest()) {
+                return;
+            }
+            if (stopTime < Clock.currentTimeMillis()) {
+                timeouts++;
+                stopMotor();
+            }
+        }
+
+        public synchronized void drive(double outputMagnitude, double curve) {
+            double leftOutput = outputMagnitude, rightOutput = outputMagnitude;
+            if (curve != 0) {
+                double value = log(Math.abs(curve));
+                double ratio = (value - sensitivity) / (value + sensitivity);
+                if (ratio == 0) {
+                    ratio = .0000000001;
+                }
+                if (curve < 0) {
+                    leftOutput = outputMagnitude / ratio;
+                } else {
+                    rightOutput = outputMagnitude / ratio;
+                }
+            }
+            setLeftRightMotorOutputs(leftOutput, rightOutput);
+        }
+
+        public synchronized void tankDrive(double leftValue, double rightValue, boolean squaredInputs) {
+            leftValue = limit(leftValue);
+            rightValue = limit(rightValue);
+            if (squaredInputs) {
+                leftValue = square(leftValue);
+                rightValue = square(rightValue);
+            }
+            setLeftRightMotorOutputs(leftValue, rightValue);
+        }
+
+        public synchronized void arcadeDrive(double moveValue, double rotateValue, boolean squaredInputs) {
+            moveValue = limit(moveValue);
+            rotateValue = limit(rotateValue);
+            if (squaredInputs) {
+                moveValue = square(moveValue);
+                rotateValue = square(rotateValue);
+            }
+            double leftOutput, rightOutput;
+            if (moveValue > 0) {
+                if (rotateValue > 0) {
+                    leftOutput = moveValue - rotateValue;
+                    rightOutput = Math.max(moveValue, rotateValue);
+                } else {
+                    leftOutput = Math.max(moveValue, -rotateValue);
+                    rightOutput = moveValue + rotateValue;
+                }
+            } else {
+                if (rotateValue > 0) {
+                    leftOutput = -Math.max(-moveValue, rotateValue);
+                    rightOutput = moveValue + rotateValue;
+                } else {
+                    leftOutput = moveValue - rotateValue;
+                    rightOutput = -Math.max(-moveValue, -rotateValue);
+                }
+            }
+            setLeftRightMotorOutputs(leftOutput, rightOutput);
+        }
+
+        public synchronized void mecanumDrive_Cartesian(double x, double y, double rotation, double gyroAngle) {
+            double radians = Math.toRadians(gyroAngle);
+            double cos = Math.cos(radians), sin = Math.sin(radians);
+            double xIn = x * cos + y * sin;
+            double yIn = x * sin - y * cos;
+            setWheels(xIn + yIn + rotation, -xIn + yIn - rotation,
+                    -xIn + yIn + rotation, xIn + yIn - rotation);
+        }
+
+        public synchronized void mecanumDrive_Polar(double magnitude, double direction, double rotation) {
+            magnitude = limit(magnitude) * Math.sqrt(2);
+            double radians = Math.toRadians(direction + 45);
+            double cos = Math.cos(radians), sin = Math.sin(radians);
+            setWheels(sin * magnitude + rotation, cos * magnitude - rotation,
+                    cos * magnitude + rotation, sin * magnitude - rotation);
+        }
+
+        public synchronized void setLeftRightMotorOutputs(double leftOutput, double rightOutput) {
+            frontLeft.set(limit(leftOutput) * maxOutput);
+            rearLeft.set(limit(leftOutput) * maxOutput);
+            frontRight.set(-limit(rightOutput) * maxOutput);
+            rearRight.set(-limit(rightOutput) * maxOutput);
+            feed();
+        }
+
+        public synchronized void setMaxOutput(double maxOutput) {
+            this.maxOutput = maxOutput;
+        }
+
+        public synchronized void setExpiration(double timeout) {
+            expiration = (long) (timeout * 1000);
+        }
+
+        public synchronized double getExpiration() {
+            return expiration / 1000.0;
+        }
+
+        public synchronized boolean isSafetyEnabled() {
+            return safetyEnabled;
+        }
+
+        public synchronized void setSafetyEnabled(boolean enabled) {
+            safetyEnabled = enabled;
+        }
+
+        public synchronized void stopMotor() {
+            frontLeft.disable();
+            rearLeft.disable();
+            frontRight.disable();
+            rearRight.disable();
+        }
+
+        // Must hold lock
+        private void setWheels(double frontLeftSpeed, double frontRightSpeed,
+                double rearLeftSpeed, double rearRightSpeed) {
+            double max = Math.max(Math.max(Math.abs(frontLeftSpeed), Math.abs(frontRightSpeed)),
+                    Math.max(Math.abs(rearLeftSpeed), Math.abs(rearRightSpeed)));
+            double scale = max > 1 ? maxOutput / max : maxOutput;
+            frontLeft.set(frontLeftSpeed * scale);
+            rearLeft.set(rearLeftSpeed * scale);
+            frontRight.set(-frontRightSpeed * scale);
+            rearRight.set(-rearRightSpeed * scale);
+            feed();
+        }
+
+        // Must hold lock
+        private void feed() {
+            stopTime = Clock.currentTimeMillis() + expiration;
+        }
+
+        private static double limit(double value) {
+            return Math.max(-1, Math.min(1, value));
+        }
+
+        private static double square(double value) {
+            return value >= 0 ? value * value : -(value * value);
+        }
+
+        // CLDC has no Math.log, ln(v) = 2 atanh((v - 1) / (v + 1)) is quick for 1 <= v <= 2
+        private static double log(double value) {
+            if (Double.isInfinite(value)) {
+                return value;
+            }
+            int exponent = 0;
+            while (value > 2) {
+                value /= 2;
+                exponent++;
+            }
+            while (value < 1) {
+                value *= 2;
+                exponent--;
+            }
+            double z = (value - 1) / (value + 1), z2 = z * z, term = z, sum = 0;
+            for (int x = 1; x < 40; x += 2) {
+                sum += term / x;
+                term *= z2;
+            }
+            return 2 * sum + exponent * ln2;
+        }
+    }
+
+    /**
+     * Simulated PID controller, using the same math as
+     * {@link edu.wpi.first.wpilibj.PIDController}. Calculates every 50
+     * milliseconds of the {@link Clock}'s time, from its own scheduler.
+     */
+    public static final class PIDController implements Hardware.PIDController {
+
+        private static final long period = 50L;
+        private final PIDSource source;
+        private final PIDOutput output;
+        private final Clock.Scheduler timer = Clock.newScheduler();
+        private double p, i, d, f;
+        private double minimumInput, maximumInput;
+        private double minimumOutput = -1, maximumOutput = 1;
+        private double setpoint, error, prevError, totalError;
+        private boolean enabled;
+
+        private PIDController(double p, double i, double d, PIDSource source, PIDOutput output) {
+            if (source == null || output == null) {
+                throw new NullPointerException();
+            }
+            this.p = p;
+            this.i = i;
+            this.d = d;
+            this.source = source;
+            this.output = output;
+            timer.scheduleAtFixedRate(new Runnable() {
+                public void run() {
+                    calculate();
+                }
+            }, 0, period);
+        }
+
+        // Source and output are used without the lock, they may call back in
+        private void calculate() {
+            synchronized (this) {
+                if (!enabled) {
+                    return;
+                }
+            }
+            double input = source.pidGet();
+            double result;
+            synchronized (this) {
+                error = setpoint - input;
+                double total = totalError + error;
+                if (total * i < maximumOutput && total * i > minimumOutput) {
+                    totalError = total;
+                }
+                result = p * error + i * totalError + d * (error - prevError) + setpoint * f;
+                prevError = error;
+                result = Math.max(minimumOutput, Math.min(maximumOutput, result));
+            }
+            output.pidWrite(result);
+        }
+
+        public synchronized void setPID(double p, double i, double d, double f) {
+            this.p = p;
+            this.i = i;
+            this.d = d;
+            this.f = f;
+        }
+
+        public synchronized double getP() {
+            return p;
+        }
+
+        public synchronized double getI() {
+            return i;
+        }
+
+        public synchronized double getD() {
+            return d;
+        }
+
+        public synchronized double getF() {
+            return f;
+        }
+
+        public synchronized void setInputRange(double minimumInput, double maximumInput) {
+            if (minimumInput > maximumInput) {
+                throw new IllegalArgumentException("Lower bound is greater than upper bound");
+            }
+            this.minimumInput = minimumInput;
+            this.maximumInput = maximumInput;
+            setSetpoint(setpoint);
+        }
+
+        public synchronized void setOutputRange(double minimumOutput, double maximumOutput) {
+            if (minimumOutput > maximumOutput) {
+                throw new IllegalArgumentException("Lower bound is greater than upper bound");
+            }
+            this.minimumOutput = minimumOutput;
+            this.maximumOutput = maximumOutput;
+        }
+
+        public synchronized void setSetpoint(double setpoint) {
+            if (maximumInput > minimumInput) {
+                setpoint = Math.max(minimumInput, Math.min(maximumInput, setpoint));
+            }
+            this.setpoint = setpoint;
+        }
+
+        public synchronized double getSetpoint() {
+            return setpoint;
+        }
+
+        public synchronized double getError() {
+            return error;
+        }
+
+        public synchronized void enable() {
+            enabled = true;
+        }
+
+        public void disable() {
+            output.pidWrite(0);
+            synchronized (this) {
+                enabled = false;
+            }
+        }
+
+        public synchronized boolean isEnabled() {
+            return enabled;
+        }
+    }
+
+    /**
+     * Simulated encoder. Counts pulses at the rate given by
+     * {@link Encoder#setPulseRate(double)} while it is started.
+     */
+    public static final class Encoder implements Hardware.Encoder, Stepped {
+
+        private double pulses;
+        private double pulseRate;
+        private double distancePerPulse = 1;
+        private double maxPeriod = 0.5;
+        private boolean reverse;
+        private boolean started;
+
+        private Encoder() {
+        }
+
+        /**
+         * Sets how fast pulses are counted. Negative rates count backwards.
+         *
+         * @param pulseRate pulses per second
+         */
+        public synchronized void setPulseRate(double pulseRate) {
+            this.pulseRate = pulseRate;
+        }
+
+        /**
+         * Returns the amount of pulses counted, before scaling or reversing.
+         *
+         * @return pulses since the last reset
+         */
+        public synchronized double getPulses() {
+            return pulses;
+        }
+
+        public synchronized void step(double seconds) {
+            if (started) {
+                pulses += pulseRate * seconds;
+            }
+        }
+
+        public synchronized void start() {
+            started = true;
+        }
+
+        public synchronized void stop() {
+            started = false;
+        }
+
+        public synchronized void reset() {
+            pulses = 0;
+        }
+
+        public synchronized void setMaxPeriod(double maxPeriod) {
+            this.maxPeriod = maxPeriod;
+        }
+
+        public synchronized boolean getStopped() {
+            return !started || Math.abs(pulseRate) < 1 / maxPeriod;
+        }
+
+        public synchronized double getDistance() {
+            return (reverse ? -pulses : pulses) * distancePerPulse;
+        }
+
+        public synchronized double getRate() {
+            return started ? (reverse ? -pulseRate : pulseRate) * distancePerPulse : 0;
+        }
+
+        public synchronized void setDistancePerPulse(double distancePerPulse) {
+            this.distancePerPulse = distancePerPulse;
+        }
+
+        public synchronized void setReverseDirection(boolean reverseDirection) {
+            this.reverse = reverseDirection;
+        }
+    }
+
+    /**
+     * Simulated gyro. Turns at the rate given by {@link Gyro#setRate(double)}.
+     */
+    public static final class Gyro implements Hardware.Gyro, Stepped {
+
+        private double angle;
+        private double rate;
+
+        private Gyro() {
+        }
+
+        /**
+         * Sets how fast the heading is changing.
+         *
+         * @param rate degrees per second
+         */
+        public synchronized void setRate(double rate) {
+            this.rate = rate;
+        }
+
+        /**
+         * Sets the heading right away.
+         *
+         * @param angle heading (degrees)
+         */
+        public synchronized void setAngle(double angle) {
+            this.angle = angle;
+        }
+
+        public synchronized void step(double seconds) {
+            angle += rate * seconds;
+        }
+
+        public synchronized double getAngle() {
+            return angle;
+        }
+
+        public synchronized void reset() {
+            angle = 0;
+        }
+    }
+
+    /**
+     * Simulated analog input. Reads whatever voltage it is given.
+     */
+    public static final class AnalogInput implements Hardware.AnalogInput {
+
+        private volatile double voltage;
+
+        private AnalogInput() {
+        }
+
+        /**
+         * Sets the voltage on the channel.
+         *
+         * @param voltage voltage (volts)
+         */
+        public void setVoltage(double voltage) {
+            this.voltage = voltage;
+        }
+
+        public double getVoltage() {
+            return voltage;
+        }
+    }
+
+    /**
+     * Simulated digital input. Reads whatever value it is given.
+     */
+    public static final class DigitalInput implements Hardware.DigitalInput {
+
+        private volatile boolean value;
+
+        private DigitalInput() {
+        }
+
+        /**
+         * Sets the value on the channel.
+         *
+         * @param value if channel is high
+         */
+        public void set(boolean value) {
+            this.value = value;
+        }
+
+        public boolean get() {
+            return value;
+        }
+    }
+
+    /**
+     * Simulated counter. Counts whole pulses at the rate given by
+     * {@link Counter#setPulseRate(double)} while it is started.
+     */
+    public static final class Counter implements Hardware.Counter, Stepped {
+
+        private int count;
+        private double phase;
+        private double pulseRate;
+        private double period;
+        private boolean started;
+
+        private Counter() {
+        }
+
+        /**
+         * Sets how fast pulses arrive.
+         *
+         * @param pulseRate pulses per second
+         */
+        public synchronized void setPulseRate(double pulseRate) {
+            this.pulseRate = Math.max(0, pulseRate);
+        }
+
+        public synchronized void step(double seconds) {
+            phase += pulseRate * seconds;
+            int pulses = (int) phase;
+            if (pulses > 0) {
+                phase -= pulses;
+                period = 1 / pulseRate;
+                if (started) {
+                    count += pulses;
+                }
+            }
+        }
+
+        public synchronized void start() {
+            started = true;
+        }
+
+        public synchronized void stop() {
+            started = false;
+        }
+
+        public synchronized void reset() {
+            count = 0;
+            period = 0;
+        }
+
+        public synchronized int getCount() {
+            return count;
+        }
+
+        public synchronized double getPeriod() {
+            return period;
+        }
+
+        public synchronized boolean getInput() {
+            // High for the first half of every pulse
+            return pulseRate > 0 && phase < 0.5;
+        }
+    }
+
+    /**
+     * Simulated solenoid. Remembers whether it was turned on.
+     */
+    public static final class Solenoid implements Hardware.Solenoid {
+
+        private volatile boolean on;
+
+        private Solenoid() {
+        }
+
+        public void set(boolean on) {
+            this.on = on;
+        }
+
+        public boolean get() {
+            return on;
+        }
+    }
+
+    /**
+     * Simulated relay. Remembers the value and direction it was set to.
+     */
+    public static final class Relay implements Hardware.Relay {
+
+        private volatile edu.wpi.first.wpilibj.Relay.Value value = edu.wpi.first.wpilibj.Relay.Value.kOff;
+        private volatile edu.wpi.first.wpilibj.Relay.Direction direction = edu.wpi.first.wpilibj.Relay.Direction.kBoth;
+
+        private Relay() {
+        }
+
+        public void set(edu.wpi.first.wpilibj.Relay.Value value) {
+            this.value = value;
+        }
+
+        public void setDirection(edu.wpi.first.wpilibj.Relay.Direction direction) {
+            this.direction = direction;
+        }
+
+        public edu.wpi.first.wpilibj.Relay.Value get() {
+            return value;
+        }
+
+        /**
+         * Returns which directions the relay was set to allow.
+         *
+         * @return directions allowed
+         */
+        public edu.wpi.first.wpilibj.Relay.Direction getDirection() {
+            return direction;
+        }
+    }
+
+    /**
+     * Simulated joystick. Has the same 6 axes and 16 buttons that the driver
+     * station sends, which are all released and centered until they are set.
+     */
+    public static final class Joystick implements Hardware.Joystick {
+
+        /**
+         * Amount of axes on a joystick.
+         */
+        public static final int axes = 6;
+        /**
+         * Amount of buttons on a joystick.
+         */
+        public static final int buttons = 16;
+        private final double[] axisValues = new double[axes];
+        private int buttonValues;
+
+        private Joystick() {
+        }
+
+        /**
+         * Sets the position of an axis. Axes that don't exist are ignored.
+         *
+         * @param axis axis number (1 to {@link Joystick#axes})
+         * @param value position of the axis (-1 to +1)
+         */
+        public synchronized void setAxis(int axis, double value) {
+            if (axis >= 1 && axis <= axes) {
+                axisValues[axis - 1] = Math.max(-1, Math.min(1, value));
+            }
+        }
+
+        /**
+         * Presses or releases a button. Buttons that don't exist are ignored.
+         *
+         * @param button button number (1 to {@link Joystick#buttons})
+         * @param pressed if button is pressed
+         */
+        public synchronized void setButton(int button, boolean pressed) {
+            if (button >= 1 && button <= buttons) {
+                if (pressed) {
+                    buttonValues |= 1 << (button - 1);
+                } else {
+                    buttonValues &= ~(1 << (button - 1));
+                }
+            }
+        }
+
+        public synchronized double getRawAxis(int axis) {
+            return axis >= 1 && axis <= axes ? axisValues[axis - 1] : 0;
+        }
+
+        public synchronized boolean getRawButton(int button) {
+            return button >= 1 && button <= buttons && (buttonValues & (1 << (button - 1))) != 0;
+        }
+    }
+
+    /**
+     * Simulated driver station. Starts out disabled, in operator control, with
+     * a full battery and no field attached. Robot code only sees a new packet
+     * when {@link DriverStation#setPacketNumber(int)} changes the number, so
+     * set everything else in the packet first.
+     */
+    public static final class DriverStation implements Hardware.DriverStation {
+
+        private int packetNumber;
+        private boolean enabled;
+        private boolean autonomous;
+        private boolean test;
+        private boolean fmsAttached;
+        private double batteryVoltage = 12;
+        private double matchTime;
+        private int digitalIn;
+        private int digitalOut;
+        private int location = 1;
+        private int teamNumber;
+        private String allianceName = "invalid";
+
+        private DriverStation() {
+        }
+
+        /**
+         * Sets the number of the latest packet.
+         *
+         * @param packetNumber packet number
+         */
+        public synchronized void setPacketNumber(int packetNumber) {
+            this.packetNumber = packetNumber;
+        }
+
+        /**
+         * Enables or disables the robot.
+         *
+         * @param enabled if robot is enabled
+         */
+        public synchronized void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        /**
+         * Sets whether the robot is in autonomous mode.
+         *
+         * @param autonomous if in autonomous
+         */
+        public synchronized void setAutonomous(boolean autonomous) {
+            this.autonomous = autonomous;
+        }
+
+        /**
+         * Sets whether the robot is in test mode.
+         *
+         * @param test if in test
+         */
+        public synchronized void setTest(boolean test) {
+            this.test = test;
+        }
+
+        /**
+         * Sets whether the driver station is connected to a field.
+         *
+         * @param fmsAttached if attached to the FMS
+         */
+        public synchronized void setFMSAttached(boolean fmsAttached) {
+            this.fmsAttached = fmsAttached;
+        }
+
+        /**
+         * Sets the battery voltage that the robot reports.
+         *
+         * @param batteryVoltage battery voltage (volts)
+         */
+        public synchronized void setBatteryVoltage(double batteryVoltage) {
+            this.batteryVoltage = batteryVoltage;
+        }
+
+        /**
+         * Sets the match time.
+         *
+         * @param matchTime match time (seconds)
+         */
+        public synchronized void setMatchTime(double matchTime) {
+            this.matchTime = matchTime;
+        }
+
+        /**
+         * Sets a digital input on the driver station. Channels that don't exist
+         * are ignored.
+         *
+         * @param channel digital channel (1 to 8)
+         * @param value value of the input
+         */
+        public synchronized void setDigitalIn(int channel, boolean value) {
+            if (channel >= 1 && channel <= 8) {
+                if (value) {
+                    digitalIn |= 1 << (channel - 1);
+                } else {
+                    digitalIn &= ~(1 << (channel - 1));
+                }
+            }
+        }
+
+        /**
+         * Sets which alliance and location the driver station is at.
+         *
+         * @param allianceName "Red", "Blue" or "invalid"
+         * @param location location (1, 2 or 3)
+         */
+        public synchronized void setAlliance(String allianceName, int location) {
+            if (allianceName == null) {
+                throw new NullPointerException();
+            }
+            this.allianceName = allianceName;
+            this.location = location;
+        }
+
+        /**
+         * Sets the team number.
+         *
+         * @param teamNumber team number
+         */
+        public synchronized void setTeamNumber(int teamNumber) {
+            this.teamNumber = teamNumber;
+        }
+
+        public synchronized int getPacketNumber() {
+            return packetNumber;
+        }
+
+        public synchronized boolean isEnabled() {
+            return enabled;
+        }
+
+        public synchronized boolean isAutonomous() {
+            return autonomous;
+        }
+
+        public synchronized boolean isOperatorControl() {
+            return !autonomous && !test;
+        }
+
+        public synchronized boolean isTest() {
+            return test;
+        }
+
+        public synchronized boolean isFMSAttached() {
+            return fmsAttached;
+        }
+
+        public synchronized double getBatteryVoltage() {
+            return batteryVoltage;
+        }
+
+        public synchronized double getMatchTime() {
+            return matchTime;
+        }
+
+        public synchronized boolean getDigitalIn(int channel) {
+            return channel >= 1 && channel <= 8 && (digitalIn & (1 << (channel - 1))) != 0;
+        }
+
+        public synchronized void setDigitalOut(int channel, boolean value) {
+            if (channel >= 1 && channel <= 8) {
+                if (value) {
+                    digitalOut |= 1 << (channel - 1);
+                } else {
+                    digitalOut &= ~(1 << (channel - 1));
+                }
+            }
+        }
+
+        /**
+         * Returns what the robot set a digital output on the driver station
+         * to.
+         *
+         * @param channel digital channel (1 to 8)
+         * @return value of the output
+         */
+        public synchronized boolean getDigitalOut(int channel) {
+            return channel >= 1 && channel <= 8 && (digitalOut & (1 << (channel - 1))) != 0;
+        }
+
+        public synchronized int getLocation() {
+            return location;
+        }
+
+        public synchronized int getTeamNumber() {
+            return teamNumber;
+        }
+
+        public synchronized String getAllianceName() {
+            return allianceName;
+        }
+    }
+
+    /**
+     * Simulated driver station LCD. Remembers the text on every line, and what
+     * was on the lines when they were last sent.
+     */
+    public static final class LCD implements Hardware.LCD {
+
+        private final String[] lines = new String[Hardware.LCD.lines];
+        private final String[] sent = new String[Hardware.LCD.lines];
+
+        private LCD() {
+            for (int x = 0; x < lines.length; x++) {
+                lines[x] = sent[x] = "";
+            }
+        }
+
+        public synchronized void println(int line, String text) {
+            if (line < 1 || line > lines.length) {
+                throw new IllegalArgumentException("Invalid LCD line " + line);
+            }
+            lines[line - 1] = text.length() > lineLength ? text.substring(0, lineLength) : text;
+        }
+
+        public synchronized void update() {
+            System.arraycopy(lines, 0, sent, 0, lines.length);
+        }
+
+        /**
+         * Returns the text on a line, as it was when the lines were last sent.
+         *
+         * @param line user line (1 to {@link Hardware.LCD#lines})
+         * @return text on the line
+         */
+        public synchronized String getLine(int line) {
+            return sent[line - 1];
+        }
+    }
+
+    /**
+     * Simulated preferences. Start out empty, or with the values from a
+     * preferences file given to {@link Preferences#load(java.lang.String)}.
+     * Values are kept as strings, like in the file, and values that can't be
+     * read as the type asked for give back the default.
+     */
+    public static final class Preferences implements Hardware.Preferences {
+
+        private final Hashtable values = new Hashtable();
+
+        private Preferences() {
+        }
+
+        /**
+         * Adds every value in the text of a preferences file
+         * ({@code key = value} lines, with strings in quotes).
+         *
+         * @param text contents of the file
+         */
+        public void load(String text) {
+            int start = 0;
+            while (start < text.length()) {
+                int end = text.indexOf('\n', start);
+                if (end < 0) {
+                    end = text.length();
+                }
+                String line = text.substring(start, end).trim();
+                int equals = line.indexOf('=');
+                if (equals > 0 && !line.startsWith("[") && !line.startsWith(";")) {
+                    String value = line.substring(equals + 1).trim();
+                    if (value.length() >= 2 && value.charAt(0) == '"' && value.charAt(value.length() - 1) == '"') {
+                        value = unescape(value.substring(1, value.length() - 1));
+                    }
+                    values.put(line.substring(0, equals).trim(), value);
+                }
+                start = end + 1;
+            }
+        }
+
+        private static String unescape(String value) {
+            StringBuffer buffer = new StringBuffer(value.length());
+            for (int x = 0; x < value.length(); x++) {
+                char c = value.charAt(x);
+                if (c == '\\' && x + 1 < value.length()) {
+                    c = value.charAt(++x);
+                }
+                buffer.append(c);
+            }
+            return buffer.toString();
+        }
+
+        public boolean containsKey(String key) {
+            return values.containsKey(key);
+        }
+
+        public String getString(String key, String def) {
+            String value = (String) values.get(key);
+            return value == null ? def : value;
+        }
+
+        public int getInt(String key, int def) {
+            try {
+                return Integer.parseInt(getString(key, String.valueOf(def)));
+            } catch (NumberFormatException ex) {
+                return def;
+            }
+        }
+
+        public long getLong(String key, long def) {
+            try {
+                return Long.parseLong(getString(key, String.valueOf(def)));
+            } catch (NumberFormatException ex) {
+                return def;
+            }
+        }
+
+        public float getFloat(String key, float def) {
+            try {
+                return Float.parseFloat(getString(key, String.valueOf(def)));
+            } catch (NumberFormatException ex) {
+                return def;
+            }
+        }
+
+        public double getDouble(String key, double def) {
+            try {
+                return Double.parseDouble(getString(key, String.valueOf(def)));
+            } catch (NumberFormatException ex) {
+                return def;
+            }
+        }
+
+        public boolean getBoolean(String key, boolean def) {
+            String value = getString(key, null);
+            if ("true".equals(value)) {
+                return true;
+            } else if ("false".equals(value)) {
+                return false;
+            }
+            return def;
+        }
+
+        public void putString(String key, String value) {
+            if (key == null || value == null) {
+                throw new NullPointerException();
+            }
+            values.put(key, value);
+        }
+
+        public void putInt(String key, int value) {
+            putString(key, String.valueOf(value));
+        }
+
+        public void putLong(String key, long value) {
+            putString(key, String.valueOf(value));
+        }
+
+        public void putFloat(String key, float value) {
+            putString(key, String.valueOf(value));
+        }
+
+        public void putDouble(String key, double value) {
+            putString(key, String.valueOf(value));
+        }
+
+        public void putBoolean(String key, boolean value) {
+            putString(key, String.valueOf(value));
+        }
+    }
+
+    /**
+     * Simulated dashboard. Remembers the last value put under every key.
+     */
+    public static final class Dashboard implements Hardware.Dashboard {
+
+        private final Hashtable values = new Hashtable();
+
+        private Dashboard() {
+        }
+
+        public void putNumber(String key, double value) {
+            values.put(key, new Double(value));
+        }
+
+        public void putBoolean(String key, boolean value) {
+            values.put(key, value ? Boolean.TRUE : Boolean.FALSE);
+        }
+
+        /**
+         * Returns whether anything was put under the key.
+         *
+         * @param key name on the dashboard
+         * @return if key was put
+         */
+        public boolean containsKey(String key) {
+            return values.containsKey(key);
+        }
+
+        /**
+         * Returns the last number put under the key.
+         *
+         * @param key name on the dashboard
+         * @param def value if no number was put
+         * @return number shown
+         */
+        public double getNumber(String key, double def) {
+            Object value = values.get(key);
+            return value instanceof Double ? ((Double) value).doubleValue() : def;
+        }
+
+        /**
+         * Returns the last boolean put under the key.
+         *
+         * @param key name on the dashboard
+         * @param def value if no boolean was put
+         * @return boolean shown
+         */
+        public boolean getBoolean(String key, boolean def) {
+            Object value = values.get(key);
+            return value instanceof Boolean ? ((Boolean) value).booleanValue() : def;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,611 @@
+package edu.first.module.hardware;
+
+import edu.wpi.first.wpilibj.AnalogChannel;
+import edu.wpi.first.wpilibj.DriverStationLCD;
+import edu.wpi.first.wpilibj.PIDOutput;
+import edu.wpi.first.wpilibj.PIDSource;
+import edu.wpi.first.wpilibj.SpeedController;
+import edu.wpi.first.wpilibj.Talon;
+import edu.wpi.first.wpilibj.Victor;
+import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
+
+/**
+ * {@link Hardware} on the cRIO, using the WPILib classes. Every method creates
+ * a new WPILib object, so each channel should only be asked for once.
+ *
+ * <p> The static {@code wrap} methods adapt WPILib objects that already exist.
+ * Modules use them in their WPILib constructors.
+ *
+ * @author Joel Gallant
+ */
+public final class WPILibHardware implements Hardware {
+
+    /**
+     * "Official" instance of WPILib hardware.
+     */
+    public static final WPILibHardware INSTANCE = new WPILibHardware();
+
+    private WPILibHardware() {
+    }
+
+    public SpeedController getVictor(int channel) {
+        return new Victor(channel);
+    }
+
+    public SpeedController getTalon(int channel) {
+        return new Talon(channel);
+    }
+
+    public Hardware.RobotDrive getRobotDrive(SpeedController frontLeft, SpeedController rearLeft,
+            SpeedController frontRight, SpeedController rearRight) {
+        return wrap(new edu.wpi.first.wpilibj.RobotDrive(frontLeft, rearLeft, frontRight, rearRight));
+    }
+
+    public Hardware.PIDController getPIDController(double p, double i, double d,
+            PIDSource source, PIDOutput output) {
+        return wrap(new edu.wpi.first.wpilibj.PIDController(p, i, d, source, output));
+    }
+
+    public Hardware.Encoder getEncoder(int aChannel, int bChannel) {
+        return wrap(new edu.wpi.first.wpilibj.Encoder(aChannel, bChannel));
+    }
+
+    public Hardware.Gyro getGyro(int channel) {
+        return wrap(new edu.wpi.first.wpilibj.Gyro(channel));
+    }
+
+    public Hardware.AnalogInput getAnalogInput(int channel) {
+        return wrap(new AnalogChannel(channel));
+    }
+
+    public Hardware.DigitalInput getDigitalInput(int channel) {
+        return wrap(new edu.wpi.first.wpilibj.DigitalInput(channel));
+    }
+
+    public Hardware.Counter getCounter(int channel) {
+        edu.wpi.first.wpilibj.DigitalInput input = new edu.wpi.first.wpilibj.DigitalInput(channel);
+        return wrap(input, new edu.wpi.first.wpilibj.Counter(input));
+    }
+
+    public Hardware.Solenoid getSolenoid(int channel) {
+        return wrap(new edu.wpi.first.wpilibj.Solenoid(channel));
+    }
+
+    public Hardware.Relay getRelay(int channel) {
+        return wrap(new edu.wpi.first.wpilibj.Relay(channel));
+    }
+
+    public Hardware.Joystick getJoystick(int port) {
+        return wrap(new edu.wpi.first.wpilibj.Joystick(port));
+    }
+
+    public Hardware.DriverStation getDriverStation() {
+        return wrap(edu.wpi.first.wpilibj.DriverStation.getInstance());
+    }
+
+    public Hardware.LCD getLCD() {
+        return wrap(DriverStationLCD.getInstance());
+    }
+
+    public Hardware.Preferences getPreferences() {
+        return wrap(edu.wpi.first.wpilibj.Preferences.getInstance());
+    }
+
+    public Hardware.Dashboard getDashboard() {
+        return new Hardware.Dashboard() {
+            public void putNumber(String key, double value) {
+                SmartDashboard.putNumber(key, value);
+            }
+
+            public void putBoolean(String key, boolean value) {
+                SmartDashboard.putBoolean(key, value);
+            }
+        };
+    }
+
+    /**
+     * Adapts a WPILib robot drive.
+     *
+     * @param drive drive to use
+     * @return hardware robot drive using it
+     */
+    public static Hardware.RobotDrive wrap(final edu.wpi.first.wpilibj.RobotDrive drive) {
+        if (drive == null) {
+            throw new NullPointerException();
+        }
+        return new Hardware.RobotDrive() {
+            public void drive(double outputMagnitude, double curve) {
+                drive.drive(outputMagnitude, curve);
+            }
+
+            public void tankDrive(double leftValue, double rightValue, boolean squaredInputs) {
+                drive.tankDrive(leftValue, rightValue, squaredInputs);
+            }
+
+            public void arcadeDrive(double moveValue, double rotateValue, boolean squaredInputs) {
+                drive.arcadeDrive(moveValue, rotateValue, squaredInputs);
+            }
+
+            public void mecanumDrive_Cartesian(double x, double y, double rotation, double gyroAngle) {
+                drive.mecanumDrive_Cartesian(x, y, rotation, gyroAngle);
+            }
+
+            public void mecanumDrive_Polar(double magnitude, double direction, double rotation) {
+                drive.mecanumDrive_Polar(magnitude, direction, rotation);
+            }
+
+            public void setLeftRightMotorOutputs(double leftOutput, double rightOutput) {
+                drive.setLeftRightMotorOutputs(leftOutput, rightOutput);
+            }
+
+            public void setMaxOutput(double maxOutput) {
+                drive.setMaxOutput(maxOutput);
+            }
+
+            public void setExpiration(double timeout) {
+                drive.setExpiration(timeout);
+            }
+
+            public double getExpiration() {
+                return drive.getExpiration();
+            }
+
+            public boolean isSafetyEnabled() {
+                return drive.isSafetyEnabled();
+            }
+
+            public void setSafetyEnabled(boolean enabled) {
+                drive.setSafetyEnabled(enabled);
+            }
+
+            public void stopMotor() {
+                drive.stopMotor();
+            }
+        };
+    }
+
+    /**
+     * Adapts a WPILib PID controller.
+     *
+     * @param controller controller to use
+     * @return hardware PID controller using it
+     */
+    public static Hardware.PIDController wrap(final edu.wpi.first.wpilibj.PIDController controller) {
+        if (controller == null) {
+            throw new NullPointerException();
+        }
+        return new Hardware.PIDController() {
+            public void setPID(double p, double i, double d, double f) {
+                controller.setPID(p, i, d, f);
+            }
+
+            public double getP() {
+                return controller.getP();
+            }
+
+            public double getI() {
+                return controller.getI();
+            }
+
+            public double getD() {
+                return controller.getD();
+            }
+
+            public double getF() {
+                return controller.getF();
+            }
+
+            public void setInputRange(double minimumInput, double maximumInput) {
+                controller.setInputRange(minimumInput, maximumInput);
+            }
+
+            public void setOutputRange(double minimumOutput, double maximumOutput) {
+                controller.setOutputRange(minimumOutput, maximumOutput);
+            }
+
+            public void setSetpoint(double setpoint) {
+                controller.setSetpoint(setpoint);
+            }
+
+            public double getSetpoint() {
+                return controller.getSetpoint();
+            }
+
+            public double getError() {
+                return controller.getError();
+            }
+
+            public void enable() {
+                controller.enable();
+            }
+
+            public void disable() {
+                controller.disable();
+            }
+
+            public boolean isEnabled() {
+                return controller.isEnable();
+            }
+        };
+    }
+
+    /**
+     * Adapts a WPILib encoder.
+     *
+     * @param encoder encoder to use
+     * @return hardware encoder using it
+     */
+    public static Hardware.Encoder wrap(final edu.wpi.first.wpilibj.Encoder encoder) {
+        if (encoder == null) {
+            throw new NullPointerException();
+        }
+        return new Hardware.Encoder() {
+            public void start() {
+                encoder.start();
+            }
+
+            public void stop() {
+                encoder.stop();
+            }
+
+            public void reset() {
+                encoder.reset();
+            }
+
+            public void setMaxPeriod(double maxPeriod) {
+                encoder.setMaxPeriod(maxPeriod);
+            }
+
+            public boolean getStopped() {
+                return encoder.getStopped();
+            }
+
+            public double getDistance() {
+                return encoder.getDistance();
+            }
+
+            public double getRate() {
+                return encoder.getRate();
+            }
+
+            public void setDistancePerPulse(double distancePerPulse) {
+                encoder.setDistancePerPulse(distancePerPulse);
+            }
+
+            public void setReverseDirection(boolean reverseDirection) {
+                encoder.setReverseDirection(reverseDirection);
+            }
+        };
+    }
+
+    /**
+     * Adapts a WPILib gyro.
+     *
+     * @param gyro gyro to use
+     * @return hardware gyro using it
+     */
+    public static Hardware.Gyro wrap(final edu.wpi.first.wpilibj.Gyro gyro) {
+        if (gyro == null) {
+            throw new NullPointerException();
+        }
+        return new Hardware.Gyro() {
+            public double getAngle() {
+                return gyro.getAngle();
+            }
+
+            public void reset() {
+                gyro.reset();
+            }
+        };
+    }
+
+    /**
+     * Adapts a WPILib analog channel.
+     *
+     * @param channel channel to use
+     * @return hardware analog input using it
+     */
+    public static Hardware.AnalogInput wrap(final AnalogChannel channel) {
+        if (channel == null) {
+            throw new NullPointerException();
+        }
+        return new Hardware.AnalogInput() {
+            public double getVoltage() {
+                return channel.getVoltage();
+            }
+        };
+    }
+
+    /**
+     * Adapts a WPILib digital input.
+     *
+     * @param input input to use
+     * @return hardware digital input using it
+     */
+    public static Hardware.DigitalInput wrap(final edu.wpi.first.wpilibj.DigitalInput input) {
+        if (input == null) {
+            throw new NullPointerException();
+        }
+        return new Hardware.DigitalInput() {
+            public boolean get() {
+                return input.get();
+            }
+        };
+    }
+
+    /**
+     * Adapts a WPILib counter and the input it counts.
+     *
+     * @param input input being counted
+     * @param counter counter to use
+     * @return hardware counter using them
+     */
+    public static Hardware.Counter wrap(final edu.wpi.first.wpilibj.DigitalInput input,
+            final edu.wpi.first.wpilibj.Counter counter) {
+        if (input == null || counter == null) {
+            throw new NullPointerException();
+        }
+        return new Hardware.Counter() {
+            public void start() {
+                counter.start();
+            }
+
+            public void stop() {
+                counter.stop();
+            }
+
+            public void reset() {
+                counter.reset();
+            }
+
+            public int getCount() {
+                return counter.get();
+            }
+
+            public double getPeriod() {
+                return counter.getPeriod();
+            }
+
+            public boolean getInput() {
+                return input.get();
+            }
+        };
+    }
+
+    /**
+     * Adapts a WPILib solenoid.
+     *
+     * @param solenoid solenoid to use
+     * @return hardware solenoid using it
+     */
+    public static Hardware.Solenoid wrap(final edu.wpi.first.wpilibj.Solenoid solenoid) {
+        if (solenoid == null) {
+            throw new NullPointerException();
+        }
+        return new Hardware.Solenoid() {
+            public void set(boolean on) {
+                solenoid.set(on);
+            }
+
+            public boolean get() {
+                return solenoid.get();
+            }
+        };
+    }
+
+    /**
+     * Adapts a WPILib relay.
+     *
+     * @param relay relay to use
+     * @return hardware relay using it
+     */
+    public static Hardware.Relay wrap(final edu.wpi.first.wpilibj.Relay relay) {
+        if (relay == null) {
+            throw new NullPointerException();
+        }
+        return new Hardware.Relay() {
+            public void set(edu.wpi.first.wpilibj.Relay.Value value) {
+                relay.set(value);
+            }
+
+            public void setDirection(edu.wpi.first.wpilibj.Relay.Direction direction) {
+                relay.setDirection(direction);
+            }
+
+            public edu.wpi.first.wpilibj.Relay.Value get() {
+                return relay.get();
+            }
+        };
+    }
+
+    /**
+     * Adapts a WPILib joystick.
+     *
+     * @param joystick joystick to use
+     * @return hardware joystick using it
+     */
+    public static Hardware.Joystick wrap(final edu.wpi.first.wpilibj.Joystick joystick) {
+        if (joystick == null) {
+            throw new NullPointerException();
+        }
+        return new Hardware.Joystick() {
+            public double getRawAxis(int axis) {
+                return joystick.getRawAxis(axis);
+            }
+
+            public boolean getRawButton(int button) {
+                return joystick.getRawButton(button);
+            }
+        };
+    }
+
+    /**
+     * Adapts the WPILib driver station.
+     *
+     * @param ds driver station to use
+     * @return hardware driver station using it
+     */
+    public static Hardware.DriverStation wrap(final edu.wpi.first.wpilibj.DriverStation ds) {
+        if (ds == null) {
+            throw new NullPointerException();
+        }
+        return new Hardware.DriverStation() {
+            public int getPacketNumber() {
+                return ds.getPacketNumber();
+            }
+
+            public boolean isEnabled() {
+                return ds.isEnabled();
+            }
+
+            public boolean isAutonomous() {
+                return ds.isAutonomous();
+            }
+
+            public boolean isOperatorControl() {
+                return ds.isOperatorControl();
+            }
+
+            public boolean isTest() {
+                return ds.isTest();
+            }
+
+            public boolean isFMSAttached() {
+                return ds.isFMSAttached();
+            }
+
+            public double getBatteryVoltage() {
+                return ds.getBatteryVoltage();
+            }
+
+            public double getMatchTime() {
+                return ds.getMatchTime();
+            }
+
+            public boolean getDigitalIn(int channel) {
+                return ds.getDigitalIn(channel);
+            }
+
+            public void setDigitalOut(int channel, boolean value) {
+                ds.setDigitalOut(channel, value);
+            }
+
+            public int getLocation() {
+                return ds.getLocation();
+            }
+
+            public int getTeamNumber() {
+                return ds.getTeamNumber();
+            }
+
+            public String getAllianceName() {
+                return ds.getAlliance().name;
+            }
+        };
+    }
+
+    /**
+     * Adapts the WPILib driver station LCD.
+     *
+     * @param lcd LCD to use
+     * @return hardware LCD using it
+     */
+    public static Hardware.LCD wrap(final DriverStationLCD lcd) {
+        if (lcd == null) {
+            throw new NullPointerException();
+        }
+        return new Hardware.LCD() {
+            public void println(int line, String text) {
+                lcd.println(userLine(line), 1, text);
+            }
+
+            public void update() {
+                lcd.updateLCD();
+            }
+        };
+    }
+
+    /**
+     * Adapts the WPILib preferences.
+     *
+     * @param preferences preferences to use
+     * @return hardware preferences using them
+     */
+    public static Hardware.Preferences wrap(final edu.wpi.first.wpilibj.Preferences preferences) {
+        if (preferences == null) {
+            throw new NullPointerException();
+        }
+        return new Hardware.Preferences() {
+            public boolean containsKey(String key) {
+                return preferences.containsKey(key);
+            }
+
+            public String getString(String key, String def) {
+                return preferences.getString(key, def);
+            }
+
+            public int getInt(String key, int def) {
+                return preferences.getInt(key, def);
+            }
+
+            public long getLong(String key, long def) {
+                return preferences.getLong(key, def);
+            }
+
+            public float getFloat(String key, float def) {
+                return preferences.getFloat(key, def);
+            }
+
+            public double getDouble(String key, double def) {
+                return preferences.getDouble(key, def);
+            }
+
+            public boolean getBoolean(String key, boolean def) {
+                return preferences.getBoolean(key, def);
+            }
+
+            public void putString(String key, String value) {
+                preferences.putString(key, value);
+            }
+
+            public void putInt(String key, int value) {
+                preferences.putInt(key, value);
+            }
+
+            public void putLong(String key, long value) {
+                preferences.putLong(key, value);
+            }
+
+            public void putFloat(String key, float value) {
+                preferences.putFloat(key, value);
+            }
+
+            public void putDouble(String key, double value) {
+                preferences.putDouble(key, value);
+            }
+
+            public void putBoolean(String key, boolean value) {
+                preferences.putBoolean(key, value);
+            }
+        };
+    }
+
+    private static DriverStationLCD.Line userLine(int line) {
+        switch (line) {
+            case 1:
+                return DriverStationLCD.Line.kUser1;
+            case 2:
+                return DriverStationLCD.Line.kUser2;
+            case 3:
+                return DriverStationLCD.Line.kUser3;
+            case 4:
+                return DriverStationLCD.Line.kUser4;
+            case 5:
+                return DriverStationLCD.Line.kUser5;
+            case 6:
+                return DriverStationLCD.Line.kUser6;
+            default:
+                throw new IllegalArgumentException("Invalid LCD line " + line);
+        }
+    }
+}
\ No newline at end of file
@@ -5,6 +5,7 @@ import edu.first.binding.Bindable;
 import edu.first.command.Command;
 import edu.first.identifiers.Function;
 import edu.first.module.Module;
+import edu.first.module.hardware.Hardware;
 import edu.first.module.joystick.BindableJoystick.Axis;
 
 /**
@@ -31,6 +32,16 @@ public class BindableJoystick extends Bindable implements Joystick, Module.Disab
         this.joystick = new JoystickModule(joystick);
     }
 
+    /**
+     * Constructs the joystick using composition to operate the class using a
+     * joystick from any {@link Hardware}.
+     *
+     * @param joystick object used to get input
+     */
+    public BindableJoystick(Hardware.Joystick joystick) {
+        this.joystick = new JoystickModule(joystick);
+    }
+
     /**
      * Turns off the joystick module, making all input return 0.
      *
@@ -1,6 +1,8 @@
 package edu.first.module.joystick;
 
 import edu.first.module.Module;
+import edu.first.module.hardware.Hardware;
+import edu.first.module.hardware.WPILibHardware;
 
 /**
  * Module designed to get input from the user. Has all of the elements from
@@ -20,6 +22,16 @@ public class JoystickModule extends ForwardingJoystick implements Module.Disable
      * @param joystick actual underlying object used
      */
     public JoystickModule(edu.wpi.first.wpilibj.Joystick joystick) {
+        super(WPILibHardware.wrap(joystick));
+    }
+
+    /**
+     * Constructs the object by using composition, using the given joystick
+     * (from any {@link Hardware}) to control methods in this class.
+     *
+     * @param joystick actual underlying object used
+     */
+    public JoystickModule(Hardware.Joystick joystick) {
         super(joystick);
     }
 
@@ -77,13 +89,13 @@ public class JoystickModule extends ForwardingJoystick implements Module.Disable
 
 /**
  * Forwarding class, as described in Effective Java: Second Edition, Item 16.
- * Forwards {@link edu.wpi.first.wpilibj.Joystick}.
+ * Forwards {@link Hardware.Joystick}.
  *
  * @author Joel Gallant
  */
 class ForwardingJoystick implements Joystick {
 
-    private final edu.wpi.first.wpilibj.Joystick joystick;
+    private final Hardware.Joystick joystick;
 
     /**
      * Constructs the object by using composition, using the given joystick
@@ -91,7 +103,7 @@ class ForwardingJoystick implements Joystick {
      *
      * @param joystick actual underlying object used
      */
-    ForwardingJoystick(edu.wpi.first.wpilibj.Joystick joystick) {
+    ForwardingJoystick(Hardware.Joystick joystick) {
         if (joystick == null) {
             throw new NullPointerException();
         }
@@ -99,12 +111,11 @@ class ForwardingJoystick implements Joystick {
     }
 
     /**
-     * Returns the instance of the underlying
-     * {@link edu.wpi.first.wpilibj.Joystick}.
+     * Returns the instance of the underlying {@link Hardware.Joystick}.
      *
      * @return composition object under this one
      */
-    protected final edu.wpi.first.wpilibj.Joystick getJoystick() {
+    protected final Hardware.Joystick getJoystick() {
         return joystick;
     }
 
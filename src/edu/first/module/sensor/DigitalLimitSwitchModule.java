@@ -1,6 +1,8 @@
 package edu.first.module.sensor;
 
 import edu.first.module.Module;
+import edu.first.module.hardware.Hardware;
+import edu.first.module.hardware.WPILibHardware;
 import edu.wpi.first.wpilibj.DigitalInput;
 
 /**
@@ -21,6 +23,16 @@ public class DigitalLimitSwitchModule extends ForwardingDigitalLimitSwitch imple
      * @param button actual underlying object used
      */
     public DigitalLimitSwitchModule(DigitalInput button) {
+        super(WPILibHardware.wrap(button));
+    }
+
+    /**
+     * Constructs the object by using composition, using the given digital input
+     * (from any {@link Hardware}) to control methods in this class.
+     *
+     * @param button actual underlying object used
+     */
+    public DigitalLimitSwitchModule(Hardware.DigitalInput button) {
         super(button);
     }
 
@@ -69,13 +81,13 @@ public class DigitalLimitSwitchModule extends ForwardingDigitalLimitSwitch imple
 
 /**
  * Forwarding class, as described in Effective Java: Second Edition, Item 16.
- * Forwards {@link edu.wpi.first.wpilibj.DigitalInput}.
+ * Forwards {@link Hardware.DigitalInput}.
  *
  * @author Joel Gallant
  */
 class ForwardingDigitalLimitSwitch implements DigitalLimitSwitch {
 
-    private final DigitalInput button;
+    private final Hardware.DigitalInput button;
 
     /**
      * Constructs the object by using composition, using the given digital input
@@ -83,7 +95,7 @@ class ForwardingDigitalLimitSwitch implements DigitalLimitSwitch {
      *
      * @param button actual underlying object used
      */
-    ForwardingDigitalLimitSwitch(DigitalInput button) {
+    ForwardingDigitalLimitSwitch(Hardware.DigitalInput button) {
         if (button == null) {
             throw new NullPointerException();
         }
@@ -91,12 +103,11 @@ class ForwardingDigitalLimitSwitch implements DigitalLimitSwitch {
     }
 
     /**
-     * Returns the instance of the underlying
-     * {@link edu.wpi.first.wpilibj.DigitalInput}.
+     * Returns the instance of the underlying {@link Hardware.DigitalInput}.
      *
      * @return composition object under this one
      */
-    protected final DigitalInput getSwitch() {
+    protected final Hardware.DigitalInput getSwitch() {
         return button;
     }
 
@@ -1,6 +1,8 @@
 package edu.first.module.sensor;
 
 import edu.first.module.Module;
+import edu.first.module.hardware.Hardware;
+import edu.first.module.hardware.WPILibHardware;
 import edu.wpi.first.wpilibj.Encoder;
 import edu.wpi.first.wpilibj.PIDSource;
 
@@ -33,7 +35,7 @@ public class EncoderModule extends ForwardingEncoder implements Module.Disableab
      * @param encoder actual underlying object used
      */
     public EncoderModule(Encoder encoder) {
-        super(encoder, DISTANCE);
+        super(WPILibHardware.wrap(encoder), DISTANCE);
     }
 
     /**
@@ -46,6 +48,19 @@ public class EncoderModule extends ForwardingEncoder implements Module.Disableab
      * @param pidSource source for PID (distance or rate)
      */
     public EncoderModule(Encoder encoder, Encoder.PIDSourceParameter pidSource) {
+        super(WPILibHardware.wrap(encoder), pidSource);
+    }
+
+    /**
+     * Constructs the object by using composition, using the given encoder
+     * channel (from any {@link Hardware}) to control methods in this class. Use
+     * {@link EncoderModule#DISTANCE} or {@link EncoderModule#RATE} as the PID
+     * source.
+     *
+     * @param encoder actual underlying object used
+     * @param pidSource source for PID (distance or rate)
+     */
+    public EncoderModule(Hardware.Encoder encoder, Encoder.PIDSourceParameter pidSource) {
         super(encoder, pidSource);
     }
 
@@ -95,35 +110,36 @@ public class EncoderModule extends ForwardingEncoder implements Module.Disableab
 
 /**
  * Forwarding class, as described in Effective Java: Second Edition, Item 16.
- * Forwards {@link edu.wpi.first.wpilibj.Encoder}.
+ * Forwards {@link Hardware.Encoder}.
  *
  * @author Joel Gallant
  */
 class ForwardingEncoder implements edu.first.module.sensor.Encoder {
 
-    private final edu.wpi.first.wpilibj.Encoder encoder;
+    private final Hardware.Encoder encoder;
+    private final edu.wpi.first.wpilibj.Encoder.PIDSourceParameter pidSource;
 
     /**
      * Constructs the object by using composition, using the given encoder
      * object to control methods in this class.
      *
      * @param encoder actual underlying object used
+     * @param pidSource source for PID (distance or rate)
      */
-    ForwardingEncoder(edu.wpi.first.wpilibj.Encoder encoder, edu.wpi.first.wpilibj.Encoder.PIDSourceParameter pidSource) {
+    ForwardingEncoder(Hardware.Encoder encoder, edu.wpi.first.wpilibj.Encoder.PIDSourceParameter pidSource) {
         if (encoder == null || pidSource == null) {
             throw new NullPointerException();
         }
         this.encoder = encoder;
-        encoder.setPIDSourceParameter(pidSource);
+        this.pidSource = pidSource;
     }
 
     /**
-     * Returns the instance of the underlying
-     * {@link edu.wpi.first.wpilibj.Encoder}.
+     * Returns the instance of the underlying {@link Hardware.Encoder}.
      *
      * @return composition object under this one
      */
-    protected final edu.wpi.first.wpilibj.Encoder getEncoder() {
+    protected final Hardware.Encoder getEncoder() {
         return encoder;
     }
 
@@ -209,7 +225,7 @@ class ForwardingEncoder implements edu.first.module.sensor.Encoder {
      * {@inheritDoc}
      */
     public final double pidGet() {
-        return encoder.pidGet();
+        return pidSource == EncoderModule.RATE ? encoder.getRate() : encoder.getDistance();
     }
 
     /**
@@ -1,6 +1,8 @@
 package edu.first.module.sensor;
 
 import edu.first.module.Module;
+import edu.first.module.hardware.Hardware;
+import edu.first.module.hardware.WPILibHardware;
 import edu.wpi.first.wpilibj.Gyro;
 
 /**
@@ -21,6 +23,16 @@ public class GyroModule extends ForwardingGyro implements Module.DisableableModu
      * @param gyro actual underlying object used
      */
     public GyroModule(Gyro gyro) {
+        super(WPILibHardware.wrap(gyro));
+    }
+
+    /**
+     * Constructs the object by using composition, using the given gyro channel
+     * (from any {@link Hardware}) to control methods in this class.
+     *
+     * @param gyro actual underlying object used
+     */
+    public GyroModule(Hardware.Gyro gyro) {
         super(gyro);
     }
 
@@ -74,13 +86,13 @@ public class GyroModule extends ForwardingGyro implements Module.DisableableModu
 
 /**
  * Forwarding class, as described in Effective Java: Second Edition, Item 16.
- * Forwards {@link edu.wpi.first.wpilibj.Gyro}.
+ * Forwards {@link Hardware.Gyro}.
  *
  * @author Joel Gallant
  */
 class ForwardingGyro implements edu.first.module.sensor.Gyro {
 
-    private final edu.wpi.first.wpilibj.Gyro gyro;
+    private final Hardware.Gyro gyro;
 
     /**
      * Constructs the object by using composition, using the given gyro object
@@ -88,7 +100,7 @@ class ForwardingGyro implements edu.first.module.sensor.Gyro {
      *
      * @param gyro actual underlying object used
      */
-    ForwardingGyro(edu.wpi.first.wpilibj.Gyro gyro) {
+    ForwardingGyro(Hardware.Gyro gyro) {
         if (gyro == null) {
             throw new NullPointerException();
         }
@@ -96,12 +108,11 @@ class ForwardingGyro implements edu.first.module.sensor.Gyro {
     }
 
     /**
-     * Returns the instance of the underlying
-     * {@link edu.wpi.first.wpilibj.Gyro}.
+     * Returns the instance of the underlying {@link Hardware.Gyro}.
      *
      * @return composition object under this one
      */
-    protected final edu.wpi.first.wpilibj.Gyro getGyro() {
+    protected final Hardware.Gyro getGyro() {
         return gyro;
     }
 
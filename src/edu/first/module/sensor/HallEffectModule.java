@@ -1,6 +1,10 @@
 package edu.first.module.sensor;
 
 import edu.first.module.Module;
+import edu.first.module.hardware.Hardware;
+import edu.first.module.hardware.WPILibHardware;
+import edu.first.utils.Clock;
+import edu.first.utils.MovingWindowFilter;
 import edu.wpi.first.wpilibj.Counter;
 import edu.wpi.first.wpilibj.DigitalInput;
 import edu.wpi.first.wpilibj.PIDSource;
@@ -10,6 +14,11 @@ import edu.wpi.first.wpilibj.PIDSource;
  * get the current rate use {@link HallEffectModule#getRate()} When enabled, can
  * receive input from the sensor, but otherwise will always return 0.
  *
+ * <p> The rate is not read straight from the counter. Every new pulse period is
+ * put through a {@link MovingWindowFilter} on a fixed cadence, and the result is
+ * what every caller sees until the next sample. If no pulses arrive for the
+ * stall timeout, the rate drops to 0.
+ *
  * @author Team 4334
  */
 public class HallEffectModule extends ForwardingHallEffectModule implements Module.DisableableModule {
@@ -23,7 +32,7 @@ public class HallEffectModule extends ForwardingHallEffectModule implements Modu
      * @param hallEffect actual underlying object used
      */
     public HallEffectModule(DigitalInput hallEffect) {
-        super(hallEffect);
+        super(WPILibHardware.wrap(hallEffect, new Counter(hallEffect)));
     }
 
     /**
@@ -34,7 +43,42 @@ public class HallEffectModule extends ForwardingHallEffectModule implements Modu
      * @param counter the counter object it uses
      */
     public HallEffectModule(DigitalInput hallEffect, Counter counter) {
-        super(hallEffect, counter);
+        super(WPILibHardware.wrap(hallEffect, counter));
+    }
+
+    /**
+     * Constructs the object by using composition, using the given digital input
+     * object and a custom filter to control methods in this class.
+     *
+     * @param hallEffect actual underlying object used
+     * @param filter filter that pulse rates are put through
+     * @param stallTimeout milliseconds without a pulse before the rate is 0
+     */
+    public HallEffectModule(DigitalInput hallEffect, MovingWindowFilter filter, long stallTimeout) {
+        super(WPILibHardware.wrap(hallEffect, new Counter(hallEffect)), defaultMaxPossible, filter, stallTimeout);
+    }
+
+    /**
+     * Constructs the object by using composition, using the given counter
+     * (from any {@link Hardware}) to control methods in this class.
+     *
+     * @param counter counter of the sensor's pulses
+     */
+    public HallEffectModule(Hardware.Counter counter) {
+        super(counter);
+    }
+
+    /**
+     * Constructs the object by using composition, using the given counter
+     * (from any {@link Hardware}) and a custom filter to control methods in
+     * this class.
+     *
+     * @param counter counter of the sensor's pulses
+     * @param filter filter that pulse rates are put through
+     * @param stallTimeout milliseconds without a pulse before the rate is 0
+     */
+    public HallEffectModule(Hardware.Counter counter, MovingWindowFilter filter, long stallTimeout) {
+        super(counter, defaultMaxPossible, filter, stallTimeout);
     }
 
     /**
@@ -80,7 +124,7 @@ public class HallEffectModule extends ForwardingHallEffectModule implements Modu
     }
 
     /**
-     * If the module is enabled, returns the current count from {@link Counter}.
+     * If the module is enabled, returns the current count from the counter.
      *
      * @return the current count from the Counter
      */
@@ -101,78 +145,131 @@ public class HallEffectModule extends ForwardingHallEffectModule implements Modu
 
 /**
  * Forwarding class, as described in Effective Java: Second Edition, Item 16.
- * Forwards
- * {@link edu.wpi.first.wpilibj.DigitalInput} & {@link edu.wpi.first.wpilibj.Counter}.
+ * Forwards {@link Hardware.Counter}.
  *
  * @author Denis Trailin
  */
 class ForwardingHallEffectModule implements HallEffect, PIDSource {
 
     public static final double defaultMaxPossible = 50000;
-    private final DigitalInput hallEffect;
-    private final Counter counter;
+    public static final int defaultWindow = 5;
+    public static final long defaultStallTimeout = 250L;
+    public static final long sampleRate = 5L;
+    private final Hardware.Counter counter;
     private final double maxPossible;
-    private double prev;
+    private final MovingWindowFilter filter;
+    private final Object lock = new Object();
+    private final Clock.Scheduler timer = Clock.newScheduler();
+    private long stallTimeout;
+    private boolean counting;
+    private int lastCount;
+    private long lastPulse;
+    private volatile double rate;
 
-    /**
-     * Constructs the object by using composition, using the given digital input
-     * object to control methods in this class.
-     *
-     * @param hallEffect underlying hallEffect object used
-     */
-    ForwardingHallEffectModule(DigitalInput hallEffect) {
-        this(hallEffect, defaultMaxPossible);
+    private class SampleTask implements Runnable {
+
+        public void run() {
+            synchronized (lock) {
+                if (!counting) {
+                    return;
+                }
+                long now = Clock.currentTimeMillis();
+                int count = counter.getCount();
+                if (count != lastCount) {
+                    lastCount = count;
+                    lastPulse = now;
+                    double r = 60 / counter.getPeriod();
+                    // Outliers never make it into the window
+                    if (r <= maxPossible) {
+                        filter.add(r);
+                    }
+                } else if (now - lastPulse > stallTimeout) {
+                    filter.reset();
+                }
+                rate = filter.get();
+            }
+        }
     }
 
     /**
-     * Constructs the object by using composition, using the given digital input
-     * object to control methods in this class.
+     * Constructs the object by using composition, using the given counter to
+     * control methods in this class.
      *
-     * @param hallEffect actual underlying object used
-     * @param maxPossible maximum acceptable value to allow getRate() to return
+     * @param counter counter of the sensor's pulses
      */
-    ForwardingHallEffectModule(DigitalInput hallEffect, double maxPossible) {
-        this(hallEffect, new Counter(hallEffect), maxPossible);
+    ForwardingHallEffectModule(Hardware.Counter counter) {
+        this(counter, defaultMaxPossible);
     }
 
     /**
-     * Constructs the object by using composition, using the given digital input
-     * object and a custom counter to control methods in this class.
+     * Constructs the object by using composition, using the given counter to
+     * control methods in this class.
      *
-     * @param hallEffect actual underlying object used
-     * @param counter the counter object it uses
+     * @param counter counter of the sensor's pulses
+     * @param maxPossible maximum acceptable value to allow getRate() to return
      */
-    ForwardingHallEffectModule(DigitalInput hallEffect, Counter counter) {
-        this(hallEffect, counter, defaultMaxPossible);
+    ForwardingHallEffectModule(Hardware.Counter counter, double maxPossible) {
+        this(counter, maxPossible,
+                new MovingWindowFilter(defaultWindow, MovingWindowFilter.Type.MEDIAN), defaultStallTimeout);
     }
 
     /**
-     * Constructs the object by using composition, using the given digital input
-     * object and a custom counter to control methods in this class.
+     * Constructs the object by using composition, using the given counter and
+     * a custom filter to control methods in this class. Begins sampling the
+     * counter every {@link #sampleRate} milliseconds.
      *
-     * @param hallEffect actual underlying object used
-     * @param counter the counter object it uses
-     * @param maxPossible maximum acceptable value to allow getRate() to return
+     * @param counter counter of the sensor's pulses
+     * @param maxPossible maximum acceptable value to put into the filter
+     * @param filter filter that pulse rates are put through
+     * @param stallTimeout milliseconds without a pulse before the rate is 0
      */
-    ForwardingHallEffectModule(DigitalInput hallEffect, Counter counter, double maxPossible) {
-        this.hallEffect = hallEffect;
+    ForwardingHallEffectModule(Hardware.Counter counter, double maxPossible,
+            MovingWindowFilter filter, long stallTimeout) {
+        if (counter == null || filter == null) {
+            throw new NullPointerException();
+        }
         this.counter = counter;
         this.maxPossible = maxPossible;
+        this.filter = filter;
+        this.stallTimeout = stallTimeout;
+        timer.scheduleAtFixedRate(new SampleTask(), 0L, sampleRate);
     }
 
     /**
      * Starts the the counter.
      */
     protected final void start() {
-        counter.start();
+        synchronized (lock) {
+            counter.start();
+            lastCount = counter.getCount();
+            lastPulse = Clock.currentTimeMillis();
+            counting = true;
+        }
     }
 
     /**
-     * Stops and resets the counter.
+     * Stops and resets the counter, and clears the filtered rate.
      */
     protected final void stop() {
-        counter.stop();
-        counter.reset();
+        synchronized (lock) {
+            counting = false;
+            counter.stop();
+            counter.reset();
+            filter.reset();
+            rate = 0;
+        }
+    }
+
+    /**
+     * Sets how long the sensor can go without a pulse before the rate is
+     * considered to be 0.
+     *
+     * @param stallTimeout time without pulses (milliseconds)
+     */
+    public final void setStallTimeout(long stallTimeout) {
+        synchronized (lock) {
+            this.stallTimeout = stallTimeout;
+        }
     }
 
     /**
@@ -181,17 +278,18 @@ class ForwardingHallEffectModule implements HallEffect, PIDSource {
      * @return current count of pulses
      */
     public int getCount() {
-        return counter.get();
+        return counter.getCount();
     }
 
     /**
-     * Returns the counter rate in rotations per minute.
+     * Returns the filtered counter rate in rotations per minute. This is the
+     * value from the last sample, so every caller sees the same rate until the
+     * next one.
      *
      * @return current counter rate
      */
     public double getRate() {
-        double rate = 60 / counter.getPeriod();
-        return (rate > maxPossible) ? prev : (prev = rate);
+        return rate;
     }
 
     /**
@@ -200,7 +298,7 @@ class ForwardingHallEffectModule implements HallEffect, PIDSource {
      * @return the hall effect sensor polarity
      */
     public boolean isPolarized() {
-        return hallEffect.get();
+        return counter.getInput();
     }
 
     /**
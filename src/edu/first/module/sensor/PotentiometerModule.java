@@ -1,6 +1,8 @@
 package edu.first.module.sensor;
 
 import edu.first.module.Module;
+import edu.first.module.hardware.Hardware;
+import edu.first.module.hardware.WPILibHardware;
 import edu.wpi.first.wpilibj.AnalogChannel;
 
 /**
@@ -22,6 +24,16 @@ public class PotentiometerModule extends ForwardingPotentiometer implements Modu
      * @param potentiometer actual underlying object used
      */
     public PotentiometerModule(AnalogChannel potentiometer) {
+        super(WPILibHardware.wrap(potentiometer));
+    }
+
+    /**
+     * Constructs the object by using composition, using the given analog input
+     * (from any {@link Hardware}) to control methods in this class.
+     *
+     * @param potentiometer actual underlying object used
+     */
+    public PotentiometerModule(Hardware.AnalogInput potentiometer) {
         super(potentiometer);
     }
 
@@ -71,13 +83,13 @@ public class PotentiometerModule extends ForwardingPotentiometer implements Modu
 
 /**
  * Forwarding class, as described in Effective Java: Second Edition, Item 16.
- * Forwards {@link edu.wpi.first.wpilibj.AnalogChannel}.
+ * Forwards {@link Hardware.AnalogInput}.
  *
  * @author Joel Gallant
  */
 class ForwardingPotentiometer implements Potentiometer {
 
-    private final AnalogChannel potentiometer;
+    private final Hardware.AnalogInput potentiometer;
 
     /**
      * Constructs the object by using composition, using the given analog
@@ -85,7 +97,7 @@ class ForwardingPotentiometer implements Potentiometer {
      *
      * @param potentiometer actual underlying object used
      */
-    ForwardingPotentiometer(AnalogChannel potentiometer) {
+    ForwardingPotentiometer(Hardware.AnalogInput potentiometer) {
         if (potentiometer == null) {
             throw new NullPointerException();
         }
@@ -93,12 +105,11 @@ class ForwardingPotentiometer implements Potentiometer {
     }
 
     /**
-     * Returns the instance of the underlying
-     * {@link edu.wpi.first.wpilibj.AnalogChannel}.
+     * Returns the instance of the underlying {@link Hardware.AnalogInput}.
      *
      * @return composition object under this one
      */
-    protected final AnalogChannel getPotentiometer() {
+    protected final Hardware.AnalogInput getPotentiometer() {
         return potentiometer;
     }
 
@@ -1,9 +1,9 @@
 package edu.first.module.sensor;
 
+import edu.first.utils.Clock;
 import edu.wpi.first.wpilibj.DigitalModule;
 import edu.wpi.first.wpilibj.I2C;
 import edu.wpi.first.wpilibj.SensorBase;
-import edu.wpi.first.wpilibj.Timer;
 import edu.wpi.first.wpilibj.livewindow.LiveWindowSendable;
 import edu.wpi.first.wpilibj.parsing.ISensor;
 import edu.wpi.first.wpilibj.tables.ITable;
@@ -86,7 +86,7 @@ public final class VexIntegratedMotorEncoder extends SensorBase implements ISens
         System.out.println("- Vex encoder info -");
         System.out.println("Device is " + (m_i2c.addressOnly() ? "not " : "") + "present at address 0x" + Integer.toHexString(kDefaultAddress));
         if (newAddress != kDefaultAddress) { // change address if not using the default address
-            Timer.delay(0.5); // put in a delay to see if we can get the second chain device to be connected
+            Clock.delay(0.5); // put in a delay to see if we can get the second chain device to be connected
             setAddress(newAddress);
             m_i2c.free(); // release the previously addressed object
             m_i2c = module.getI2C(m_address);
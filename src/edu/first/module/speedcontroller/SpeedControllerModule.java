@@ -2,6 +2,7 @@ package edu.first.module.speedcontroller;
 
 import edu.first.identifiers.SetteableNumber;
 import edu.first.module.Module;
+import edu.first.utils.WriteCoalescer;
 import edu.wpi.first.wpilibj.SpeedController;
 
 /**
@@ -10,12 +11,25 @@ import edu.wpi.first.wpilibj.SpeedController;
  * from {@link Module}. When it is enabled, it acts normally, but when disabled
  * it only sets the speed to 0.
  *
+ * <p> Setting the same speed again is not sent to the speed controller, unless
+ * the refresh interval has passed (by default
+ * {@link SpeedControllerModule#defaultRefreshInterval}), which keeps motor
+ * safety fed. Skipped writes are counted in
+ * {@link SpeedControllerModule#getSuppressedWrites()}.
+ *
  * @author Joel Gallant
  */
 public class SpeedControllerModule implements Module, SpeedController, SetteableNumber {
 
+    /**
+     * Longest time that the same speed is not sent again, unless changed with
+     * {@link SpeedControllerModule#setRefreshInterval(long)}. Half of the
+     * default motor safety expiration.
+     */
+    public static final long defaultRefreshInterval = 50L;
     private boolean enabled;
     private final SpeedController speedController;
+    private final WriteCoalescer writes = new WriteCoalescer(defaultRefreshInterval);
 
     /**
      * Constructs the wrapper object with the wrapped {@code SpeedController}.
@@ -35,6 +49,7 @@ public class SpeedControllerModule implements Module, SpeedController, Setteable
      * @return whether module was successfully enabled
      */
     public final boolean enable() {
+        writes.reset();
         return (enabled = true);
     }
 
@@ -53,7 +68,10 @@ public class SpeedControllerModule implements Module, SpeedController, Setteable
      * stops the motor when called.
      */
     public final void disable() {
-        speedController.set(0);
+        synchronized (writes) {
+            speedController.set(0);
+            writes.written(Double.doubleToLongBits(0));
+        }
         enabled = false;
     }
 
@@ -66,7 +84,12 @@ public class SpeedControllerModule implements Module, SpeedController, Setteable
      * UpdateSyncGroup(). If 0, update immediately.
      */
     public final void set(double speed, byte syncGroup) {
-        speedController.set(isEnabled() ? speed : 0, syncGroup);
+        speed = isEnabled() ? speed : 0;
+        // Always sent, so the sync group is updated
+        synchronized (writes) {
+            speedController.set(speed, syncGroup);
+            writes.written(Double.doubleToLongBits(speed));
+        }
     }
 
     /**
@@ -76,7 +99,12 @@ public class SpeedControllerModule implements Module, SpeedController, Setteable
      * @param speed The speed to set. Value should be between -1.0 and +1.0.
      */
     public final void set(double speed) {
-        speedController.set(isEnabled() ? speed : 0);
+        speed = isEnabled() ? speed : 0;
+        synchronized (writes) {
+            if (writes.shouldWrite(Double.doubleToLongBits(speed))) {
+                speedController.set(speed);
+            }
+        }
     }
 
     /**
@@ -88,6 +116,28 @@ public class SpeedControllerModule implements Module, SpeedController, Setteable
         return speedController.get();
     }
 
+    /**
+     * Sets the longest time that the same speed is not sent to the speed
+     * controller again. Should be shorter than the motor safety expiration if
+     * it is enabled.
+     *
+     * @param refreshInterval time between refreshes (milliseconds) - 0 sends
+     * every speed
+     */
+    public final void setRefreshInterval(long refreshInterval) {
+        writes.setRefreshInterval(refreshInterval);
+    }
+
+    /**
+     * Returns how many speeds were not sent because the speed controller
+     * already had them.
+     *
+     * @return amount of skipped writes
+     */
+    public final long getSuppressedWrites() {
+        return writes.getSuppressedWrites();
+    }
+
     /**
      * Calls {@link SpeedControllerModule#set(double)}.
      *
@@ -2,6 +2,9 @@ package edu.first.module.speedcontroller;
 
 import edu.first.identifiers.SetteableBoolean;
 import edu.first.module.Module;
+import edu.first.module.hardware.Hardware;
+import edu.first.module.hardware.WPILibHardware;
+import edu.first.utils.WriteCoalescer;
 import edu.wpi.first.wpilibj.Relay;
 import edu.wpi.first.wpilibj.Relay.Direction;
 import edu.wpi.first.wpilibj.Relay.Value;
@@ -10,11 +13,22 @@ import edu.wpi.first.wpilibj.Relay.Value;
  * Module that represents spike relays. When enabled, is capable of setting the
  * value of the relay, but when it is disabled, turns off.
  *
+ * <p> Setting the relay to the value it already has is skipped, unless the
+ * refresh interval has passed (by default
+ * {@link SpikeRelayModule#defaultRefreshInterval}). Skipped writes are counted
+ * in {@link SpikeRelayModule#getSuppressedWrites()}.
+ *
  * @author Joel Gallant
  */
 public class SpikeRelayModule extends ForwardingSpikeRelay implements Module.DisableableModule {
 
+    /**
+     * Longest time that the same value is not set again, unless changed with
+     * {@link SpikeRelayModule#setRefreshInterval(long)}.
+     */
+    public static final long defaultRefreshInterval = 500L;
     private boolean enabled;
+    private final WriteCoalescer writes = new WriteCoalescer(defaultRefreshInterval);
 
     /**
      * Constructs the object by using composition, using the given relay object
@@ -23,6 +37,16 @@ public class SpikeRelayModule extends ForwardingSpikeRelay implements Module.Dis
      * @param spikeRelay actual underlying object used
      */
     public SpikeRelayModule(Relay spikeRelay) {
+        super(WPILibHardware.wrap(spikeRelay));
+    }
+
+    /**
+     * Constructs the object by using composition, using the given relay (from
+     * any {@link Hardware}) to control methods in this class.
+     *
+     * @param spikeRelay actual underlying object used
+     */
+    public SpikeRelayModule(Hardware.Relay spikeRelay) {
         super(spikeRelay);
     }
 
@@ -32,7 +56,10 @@ public class SpikeRelayModule extends ForwardingSpikeRelay implements Module.Dis
      * @return if module was successfully disabled
      */
     public final boolean disable() {
-        super.set(OFF);
+        synchronized (writes) {
+            super.set(OFF);
+            writes.written(OFF.value);
+        }
         return !(enabled = false);
     }
 
@@ -42,6 +69,7 @@ public class SpikeRelayModule extends ForwardingSpikeRelay implements Module.Dis
      * @return if module was successfully enabled
      */
     public final boolean enable() {
+        writes.reset();
         return (enabled = true);
     }
 
@@ -72,20 +100,44 @@ public class SpikeRelayModule extends ForwardingSpikeRelay implements Module.Dis
      */
     public final void set(Value value) {
         if (isEnabled()) {
-            super.set(value);
+            synchronized (writes) {
+                if (writes.shouldWrite(value.value)) {
+                    super.set(value);
+                }
+            }
         }
     }
+
+    /**
+     * Sets the longest time that the same value is not set on the relay
+     * again.
+     *
+     * @param refreshInterval time between refreshes (milliseconds) - 0 sets
+     * every value
+     */
+    public final void setRefreshInterval(long refreshInterval) {
+        writes.setRefreshInterval(refreshInterval);
+    }
+
+    /**
+     * Returns how many values were not set because the relay already had them.
+     *
+     * @return amount of skipped writes
+     */
+    public final long getSuppressedWrites() {
+        return writes.getSuppressedWrites();
+    }
 }
 
 /**
  * Forwarding class, as described in Effective Java: Second Edition, Item 16.
- * Forwards {@link edu.wpi.first.wpilibj.Relay}.
+ * Forwards {@link Hardware.Relay}.
  *
  * @author Joel Gallant
  */
 class ForwardingSpikeRelay implements SpikeRelay, SetteableBoolean {
 
-    private final Relay spikeRelay;
+    private final Hardware.Relay spikeRelay;
 
     /**
      * Constructs the object by using composition, using the given relay object
@@ -93,7 +145,7 @@ class ForwardingSpikeRelay implements SpikeRelay, SetteableBoolean {
      *
      * @param spikeRelay actual underlying object used
      */
-    ForwardingSpikeRelay(Relay spikeRelay) {
+    ForwardingSpikeRelay(Hardware.Relay spikeRelay) {
         if(spikeRelay == null) {
             throw new NullPointerException();
         }
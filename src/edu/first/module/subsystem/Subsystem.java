@@ -1,25 +1,29 @@
 package edu.first.module.subsystem;
 
 import edu.first.module.Module;
+import edu.first.utils.Clock;
 import edu.wpi.first.wpilibj.networktables2.util.List;
-import java.util.Timer;
-import java.util.TimerTask;
 
 /**
  * A subsystem that contains modules and potentially a thread. Is basically
  * capable of doing anything. All subsystems should be final, since they are the
  * highest level you should work on.
  *
+ * <p> Subsystems that run repeatedly can be aligned to packets with
+ * {@link Subsystem#setPacketAligned(boolean)}. Instead of running on their own
+ * timer, they are run by {@link Subsystem#runAlignedSubsystems()} straight
+ * after a packet arrives, so that nothing waits for the next timer tick.
+ *
  * @author Joel Gallant
  */
 public abstract class Subsystem implements Runnable, Module.DisableableModule {
 
     private static final List subsystems = new List();
-    private final Subsystem instance = this;
+    private static final List aligned = new List();
     private final Module[] modules;
-    private Timer timer = new Timer();
-    private TimerTask task = new Task();
+    private Clock.Scheduler timer = Clock.newScheduler();
     private boolean started = false;
+    private boolean packetAligned = false;
 
     {
         subsystems.add(this);
@@ -51,12 +55,65 @@ public abstract class Subsystem implements Runnable, Module.DisableableModule {
      */
     public static void stopAllSubsystems() {
         for (int x = 0; x < subsystems.size(); x++) {
-            if (subsystems.get(x) instanceof Timer) {
-                ((Subsystem) subsystems.get(x)).stop();
+            ((Subsystem) subsystems.get(x)).stop();
+        }
+    }
+
+    /**
+     * Runs every started subsystem that is aligned to packets, in the order
+     * that they were aligned. Should be called from a periodic method, after
+     * anything that the subsystems depend on.
+     */
+    public static void runAlignedSubsystems() {
+        synchronized (aligned) {
+            for (int x = 0; x < aligned.size(); x++) {
+                Subsystem subsystem = (Subsystem) aligned.get(x);
+                if (subsystem.started) {
+                    subsystem.run();
+                }
             }
         }
     }
 
+    /**
+     * Sets whether the subsystem runs when packets arrive instead of on its own
+     * timer. Only affects subsystems started at a fixed delay or rate. If the
+     * subsystem is already started, it is restarted the new way.
+     *
+     * <p> Aligned subsystems run in the order they were aligned, so a subsystem
+     * that feeds another should be aligned first.
+     *
+     * @param packetAligned if the subsystem should run on packets
+     * @see Subsystem#runAlignedSubsystems()
+     */
+    public final void setPacketAligned(boolean packetAligned) {
+        synchronized (aligned) {
+            if (this.packetAligned == packetAligned) {
+                return;
+            }
+            this.packetAligned = packetAligned;
+            if (packetAligned) {
+                aligned.add(this);
+            } else {
+                aligned.remove(this);
+            }
+        }
+        if (started) {
+            stop();
+            start();
+        }
+    }
+
+    /**
+     * Returns whether the subsystem runs when packets arrive instead of on its
+     * own timer.
+     *
+     * @return if subsystem is aligned to packets
+     */
+    public final boolean isPacketAligned() {
+        return packetAligned;
+    }
+
     /**
      * Returns whether or not the subsystem has been started.
      *
@@ -79,8 +136,7 @@ public abstract class Subsystem implements Runnable, Module.DisableableModule {
     public final void stop() {
         timer.cancel();
         started = false;
-        timer = new Timer();
-        task = new Task();
+        timer = Clock.newScheduler();
     }
 
     /**
@@ -97,7 +153,7 @@ public abstract class Subsystem implements Runnable, Module.DisableableModule {
      */
     protected void startOnce(long delay) {
         if (!started) {
-            timer.schedule(task, delay);
+            timer.schedule(this, delay);
             started = true;
         }
     }
@@ -107,7 +163,7 @@ public abstract class Subsystem implements Runnable, Module.DisableableModule {
      * runs.
      *
      * @param fixedDelay delay between runs
-     * @see Timer#scheduleAtFixedRate(java.util.TimerTask, long, long)
+     * @see Clock.Scheduler#schedule(Runnable, long, long)
      */
     protected void startAtFixedDelay(long fixedDelay) {
         startAtFixedDelay(0, fixedDelay);
@@ -119,11 +175,13 @@ public abstract class Subsystem implements Runnable, Module.DisableableModule {
      *
      * @param delay time before starting
      * @param fixedDelay delay between runs
-     * @see Timer#scheduleAtFixedRate(java.util.TimerTask, long, long)
+     * @see Clock.Scheduler#schedule(Runnable, long, long)
      */
     protected void startAtFixedDelay(long delay, long fixedDelay) {
         if (!started) {
-            timer.schedule(task, delay, fixedDelay);
+            if (!packetAligned) {
+                timer.schedule(this, delay, fixedDelay);
+            }
             started = true;
         }
     }
@@ -132,7 +190,7 @@ public abstract class Subsystem implements Runnable, Module.DisableableModule {
      * Starts the subsystem if it's not started already at a fixed rate.
      *
      * @param fixedRate rate to run at
-     * @see Timer#scheduleAtFixedRate(java.util.TimerTask, long, long)
+     * @see Clock.Scheduler#scheduleAtFixedRate(Runnable, long, long)
      */
     protected void startAtFixedRate(long fixedRate) {
         startAtFixedRate(0, fixedRate);
@@ -143,11 +201,13 @@ public abstract class Subsystem implements Runnable, Module.DisableableModule {
      *
      * @param delay time before starting
      * @param fixedRate rate to run at
-     * @see Timer#scheduleAtFixedRate(java.util.TimerTask, long, long)
+     * @see Clock.Scheduler#scheduleAtFixedRate(Runnable, long, long)
      */
     protected void startAtFixedRate(long delay, long fixedRate) {
         if (!started) {
-            timer.scheduleAtFixedRate(task, delay, fixedRate);
+            if (!packetAligned) {
+                timer.scheduleAtFixedRate(this, delay, fixedRate);
+            }
             started = true;
         }
     }
@@ -225,11 +285,4 @@ public abstract class Subsystem implements Runnable, Module.DisableableModule {
     protected boolean subsystemEnabled() {
         return true;
     }
-
-    private final class Task extends TimerTask {
-
-        public void run() {
-            instance.run();
-        }
-    }
 }
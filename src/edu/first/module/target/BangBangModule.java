@@ -2,34 +2,51 @@ package edu.first.module.target;
 
 import edu.first.module.Module;
 import edu.first.module.speedcontroller.SpeedControllerModule;
+import edu.first.utils.Clock;
+import edu.first.utils.LatencyMonitor;
+import edu.first.utils.Mailbox;
 import edu.wpi.first.wpilibj.PIDOutput;
 import edu.wpi.first.wpilibj.PIDSource;
-import java.util.Timer;
-import java.util.TimerTask;
 
 /**
  * Module to control a bang-bang virtual controller. This follows the basic use
  * as http://www.chiefdelphi.com/media/papers/2663 and
  * http://en.wikipedia.org/wiki/Bang%E2%80%93bang_control.
  *
+ * <p> The controller runs on its own thread, which never waits on a lock. The
+ * setpoint is handed to it through a {@link Mailbox}, so setting it is never
+ * held up by a slow sensor read.
+ *
+ * <p> A setpoint can be given with the stamp of the packet it came from
+ * ({@link LatencyMonitor#getPacketTime()}). The stamp travels with the
+ * setpoint, and the first write after it is recorded in the
+ * {@link LatencyMonitor.Output} from
+ * {@link BangBangModule#setLatencyOutput(LatencyMonitor.Output)}.
+ *
  * @author Joel Gallant
  */
 public class BangBangModule implements Module.DisableableModule, BangBangController {
 
-    private boolean enabled;
-    private boolean coast;
-    private boolean reversed = false;
-    private double setpoint = 0;
-    private double maxSpeed = 1;
-    private double pastSetpoint;
-    private double defaultSpeed;
+    // Read by the task without locking - the lock is only between setters
+    private volatile boolean enabled;
+    private volatile boolean coast;
+    private volatile boolean reversed = false;
+    // Setpoint and the stamp of the packet it came from
+    private final Mailbox setpoint = new Mailbox(0, LatencyMonitor.NONE);
+    private volatile LatencyMonitor.Output latency;
+    private volatile double maxSpeed = 1;
+    private volatile double pastSetpoint;
+    private volatile double defaultSpeed;
+    private volatile double lastOutput;
     private final PIDSource source;
     private final PIDOutput output;
-    private Timer timer = new Timer();
-    private final TimerTask task = new BangBangTask();
+    private Clock.Scheduler timer = Clock.newScheduler();
+    private final Runnable task = new BangBangTask();
     private final Object lock = new Object();
 
-    private class BangBangTask extends TimerTask {
+    private class BangBangTask implements Runnable {
+
+        private final double[] pair = new double[2];
 
         public void run() {
             boolean e;
@@ -42,31 +59,37 @@ public class BangBangModule implements Module.DisableableModule, BangBangControl
             PIDOutput o;
 
             // Get snapshot of values.
-            synchronized (lock) {
-                e = enabled;
-                c = coast;
-                r = reversed;
-                i = source.pidGet();
-                m = maxSpeed;
-                d = defaultSpeed;
-                s = setpoint;
-                o = output;
-            }
+            e = enabled;
+            c = coast;
+            r = reversed;
+            m = maxSpeed;
+            d = defaultSpeed;
+            setpoint.get(pair);
+            s = pair[0];
+            o = output;
+            i = source.pidGet();
 
             if (e) {
+                double out;
                 if (c) {
-                    o.pidWrite(0);
+                    out = 0;
                 } else {
                     if (i >= s) {
                         if (s == 0) {
-                            o.pidWrite(0);
+                            out = 0;
                         } else {
-                            o.pidWrite(d * (r ? -1 : 1));
+                            out = d * (r ? -1 : 1);
                         }
                     } else {
-                        o.pidWrite(m * (r ? -1 : 1));
+                        out = m * (r ? -1 : 1);
                     }
                 }
+                o.pidWrite(out);
+                lastOutput = out;
+                LatencyMonitor.Output l = latency;
+                if (l != null) {
+                    l.written((long) pair[1]);
+                }
             }
         }
     };
@@ -179,9 +202,7 @@ public class BangBangModule implements Module.DisableableModule, BangBangControl
      * @return if module is enabled
      */
     public final boolean isEnabled() {
-        synchronized (lock) {
-            return enabled;
-        }
+        return enabled;
     }
 
     /**
@@ -190,9 +211,29 @@ public class BangBangModule implements Module.DisableableModule, BangBangControl
      * @param setpoint position / speed to stop going at
      */
     public final void setSetpoint(double setpoint) {
-        synchronized (lock) {
-            this.setpoint = setpoint;
-        }
+        setSetpoint(setpoint, LatencyMonitor.NONE);
+    }
+
+    /**
+     * Sets the speed / position that the controller is aiming for, in
+     * response to a packet.
+     *
+     * @param setpoint position / speed to stop going at
+     * @param stamp time of the packet (milliseconds), or
+     * {@link LatencyMonitor#NONE}
+     */
+    public final void setSetpoint(double setpoint, long stamp) {
+        this.setpoint.set(setpoint, stamp);
+    }
+
+    /**
+     * Sets where to record the latency of setpoints that have a stamp. Use
+     * null to stop recording.
+     *
+     * @param latency output of the actuator being controlled
+     */
+    public final void setLatencyOutput(LatencyMonitor.Output latency) {
+        this.latency = latency;
     }
 
     /**
@@ -201,9 +242,7 @@ public class BangBangModule implements Module.DisableableModule, BangBangControl
      * @return the current setpoint
      */
     public final double getSetpoint() {
-        synchronized (lock) {
-            return setpoint;
-        }
+        return setpoint.getFirst();
     }
 
     /**
@@ -214,9 +253,7 @@ public class BangBangModule implements Module.DisableableModule, BangBangControl
      * @return if input is higher than setpoint
      */
     public final boolean pastSetpoint() {
-        synchronized (lock) {
-            return source.pidGet() > (setpoint - pastSetpoint);
-        }
+        return source.pidGet() > (setpoint.getFirst() - pastSetpoint);
     }
 
     /**
@@ -295,6 +332,15 @@ public class BangBangModule implements Module.DisableableModule, BangBangControl
         }
     }
 
+    /**
+     * Returns the last value the controller wrote to the output.
+     *
+     * @return most recent output
+     */
+    public final double getOutput() {
+        return lastOutput;
+    }
+
     public final void set(double value) {
         setSetpoint(value);
     }
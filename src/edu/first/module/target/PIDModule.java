@@ -1,6 +1,8 @@
 package edu.first.module.target;
 
 import edu.first.module.Module;
+import edu.first.module.hardware.Hardware;
+import edu.first.module.hardware.WPILibHardware;
 import edu.wpi.first.wpilibj.PIDController;
 
 /**
@@ -19,6 +21,16 @@ public class PIDModule extends ForwardingPIDController implements Module.Disable
      * @param controller actual underlying object used
      */
     public PIDModule(PIDController controller) {
+        super(WPILibHardware.wrap(controller));
+    }
+
+    /**
+     * Constructs the object by using composition, using the given controller
+     * (from any {@link Hardware}) to control methods in this class.
+     *
+     * @param controller actual underlying object used
+     */
+    public PIDModule(Hardware.PIDController controller) {
         super(controller);
     }
 
@@ -40,7 +52,7 @@ public class PIDModule extends ForwardingPIDController implements Module.Disable
      * @return if controller is running
      */
     public boolean isEnabled() {
-        return getController().isEnable();
+        return getController().isEnabled();
     }
 
     /**
@@ -58,13 +70,13 @@ public class PIDModule extends ForwardingPIDController implements Module.Disable
 
 /**
  * Forwarding class, as described in Effective Java: Second Edition, Item 16.
- * Forwards {@link edu.wpi.first.wpilibj.PIDController}.
+ * Forwards {@link Hardware.PIDController}.
  *
  * @author Joel Gallant
  */
 class ForwardingPIDController implements edu.first.module.target.PIDController {
 
-    private final edu.wpi.first.wpilibj.PIDController controller;
+    private final Hardware.PIDController controller;
     private double tolerance = 0;
 
     /**
@@ -73,7 +85,7 @@ class ForwardingPIDController implements edu.first.module.target.PIDController {
      *
      * @param controller actual underlying object used
      */
-    ForwardingPIDController(edu.wpi.first.wpilibj.PIDController controller) {
+    ForwardingPIDController(Hardware.PIDController controller) {
         if (controller == null) {
             throw new NullPointerException();
         }
@@ -81,12 +93,11 @@ class ForwardingPIDController implements edu.first.module.target.PIDController {
     }
 
     /**
-     * Returns the instance of the underlying
-     * {@link edu.wpi.first.wpilibj.PIDController}.
+     * Returns the instance of the underlying {@link Hardware.PIDController}.
      *
      * @return composition object under this one
      */
-    protected edu.wpi.first.wpilibj.PIDController getController() {
+    protected Hardware.PIDController getController() {
         return controller;
     }
 
@@ -99,7 +110,7 @@ class ForwardingPIDController implements edu.first.module.target.PIDController {
      * @param d differential coefficient
      */
     public void setPID(double p, double i, double d) {
-        controller.setPID(p, i, d);
+        controller.setPID(p, i, d, getF());
     }
 
     /**
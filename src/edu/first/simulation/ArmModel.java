@@ -0,0 +1,94 @@
+package edu.first.simulation;
+
+import edu.first.identifiers.ReturnableNumber;
+import edu.first.module.hardware.SimHardware;
+import edu.wpi.first.wpilibj.SpeedController;
+
+/**
+ * Arm moved by a winch, measured by a potentiometer. Position is kept as the
+ * potentiometer's voltage. Is a first order model: the arm moves towards a
+ * speed proportional to the motor's output and the battery voltage, plus a
+ * constant speed from gravity, and stops at its limits.
+ *
+ * @author Joel Gallant
+ */
+public final class ArmModel implements PhysicsModel, ReturnableNumber {
+
+    private final SpeedController motor;
+    private final SimHardware.AnalogInput potentiometer;
+    private final double maxSpeed;
+    private final double timeConstant;
+    private final double min, max;
+    private double gravity;
+    private double position;
+    private double speed;
+
+    /**
+     * Constructs the model, starting at its lowest position.
+     *
+     * @param motor motor driving the winch
+     * @param potentiometer analog input of the potentiometer
+     * @param maxSpeed speed at full output and 12 volts (volts per second)
+     * @param timeConstant time to reach 63% of a change in speed (seconds)
+     * @param min lowest position (volts)
+     * @param max highest position (volts)
+     */
+    public ArmModel(SpeedController motor, SimHardware.AnalogInput potentiometer, double maxSpeed,
+            double timeConstant, double min, double max) {
+        if (motor == null || potentiometer == null) {
+            throw new NullPointerException();
+        }
+        this.motor = motor;
+        this.potentiometer = potentiometer;
+        this.maxSpeed = maxSpeed;
+        this.timeConstant = timeConstant;
+        this.min = min;
+        this.max = max;
+        this.position = min;
+        potentiometer.setVoltage(position);
+    }
+
+    /**
+     * Sets how fast the arm falls (or rises) on its own.
+     *
+     * @param gravity speed with no output (volts per second)
+     */
+    public synchronized void setGravity(double gravity) {
+        this.gravity = gravity;
+    }
+
+    /**
+     * Moves the arm to a position right away.
+     *
+     * @param position new position (volts)
+     */
+    public synchronized void setPosition(double position) {
+        this.position = Math.max(min, Math.min(max, position));
+        this.speed = 0;
+        potentiometer.setVoltage(this.position);
+    }
+
+    public synchronized void update(double seconds, double batteryVoltage) {
+        double target = motor.get() * maxSpeed * batteryVoltage / Simulation.nominalVoltage + gravity;
+        speed += (target - speed) * Math.min(1, seconds / timeConstant);
+        position += speed * seconds;
+        if (position < min || position > max) {
+            position = Math.max(min, Math.min(max, position));
+            speed = 0;
+        }
+        potentiometer.setVoltage(position);
+    }
+
+    /**
+     * Returns the actual position of the arm.
+     *
+     * @return position (volts)
+     */
+    public synchronized double getPosition() {
+        return position;
+    }
+
+    public double get() {
+        return getPosition();
+    }
+}
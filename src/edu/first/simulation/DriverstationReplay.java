@@ -0,0 +1,103 @@
+package edu.first.simulation;
+
+import edu.first.module.hardware.SimHardware;
+import edu.first.utils.DriverstationReader;
+import java.io.IOException;
+
+/**
+ * Plays a recording from {@link edu.first.utils.DriverstationRecorder} into a
+ * {@link Simulation}. Each packet is given to the simulated driver station and
+ * joysticks (starting at port 1) at the same time after the start as it was
+ * recorded, and the battery voltage of the simulation follows the recording.
+ *
+ * <p> The robot code should be run with an {@link IterativeRunner} on the same
+ * hardware, so that packets go through the same binds and subsystems as they
+ * did on the robot. The simulation needs a
+ * {@link edu.first.utils.VirtualClock}, since stepping it is what moves time
+ * forward, and then playing the same recording always gives the same outputs.
+ *
+ * @author Joel Gallant
+ */
+public final class DriverstationReplay {
+
+    private final DriverstationReader reader;
+    private final Simulation simulation;
+    private final long period;
+    private final long start;
+
+    /**
+     * Constructs the replay, starting at the current simulated time.
+     *
+     * @param reader recording to play
+     * @param simulation simulation to play into
+     * @param period longest step to take between packets (milliseconds)
+     */
+    public DriverstationReplay(DriverstationReader reader, Simulation simulation, long period) {
+        if (reader == null || simulation == null) {
+            throw new NullPointerException();
+        }
+        if (period < 1) {
+            throw new IllegalArgumentException("Invalid period " + period);
+        }
+        this.reader = reader;
+        this.simulation = simulation;
+        this.period = period;
+        this.start = simulation.getTime();
+    }
+
+    /**
+     * Steps the simulation to when the next packet arrived, and gives it to
+     * the robot.
+     *
+     * @return if there was another packet
+     * @throws IOException thrown when the recording cannot be read
+     */
+    public boolean next() throws IOException {
+        if (!reader.next()) {
+            return false;
+        }
+        long due = start + reader.getTime();
+        while (simulation.getTime() < due) {
+            simulation.step(Math.min(period, due - simulation.getTime()));
+        }
+        apply();
+        return true;
+    }
+
+    /**
+     * Returns the recording being played.
+     *
+     * @return recording with the latest packet
+     */
+    public DriverstationReader getReader() {
+        return reader;
+    }
+
+    private void apply() {
+        SimHardware hardware = simulation.getHardware();
+        SimHardware.DriverStation ds = hardware.getSimDriverStation();
+        ds.setEnabled(reader.isEnabled());
+        ds.setAutonomous(reader.isAutonomous());
+        ds.setTest(reader.isTest());
+        ds.setFMSAttached(reader.isFMSAttached());
+        ds.setBatteryVoltage(reader.getBatteryVoltage());
+        ds.setMatchTime(reader.getMatchTime());
+        for (int x = 1; x <= DriverstationReader.digitalInputs; x++) {
+            ds.setDigitalIn(x, reader.getDigitalIn(x));
+        }
+        for (int x = 0; x < reader.getJoystickCount(); x++) {
+            SimHardware.Joystick joystick = hardware.getSimJoystick(x + 1);
+            for (int axis = 1; axis <= DriverstationReader.axes; axis++) {
+                joystick.setAxis(axis, reader.getAxis(x, axis));
+            }
+            for (int button = 1; button <= DriverstationReader.buttons; button++) {
+                joystick.setButton(button, reader.getButton(x, button));
+            }
+        }
+        if (reader.getBatteryVoltage() > 0) {
+            simulation.setBatteryVoltage(reader.getBatteryVoltage());
+        }
+        // Last, so the robot sees the whole packet at once
+        ds.setPacketNumber(reader.getPacketNumber());
+    }
+}
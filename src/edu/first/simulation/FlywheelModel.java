@@ -0,0 +1,88 @@
+package edu.first.simulation;
+
+import edu.first.identifiers.ReturnableNumber;
+import edu.first.module.hardware.SimHardware;
+import edu.wpi.first.wpilibj.SpeedController;
+
+/**
+ * Flywheel driven by a motor, counted by a hall effect sensor. Is a first order
+ * model: the speed the motor would settle at is proportional to its output
+ * and the battery voltage, and the wheel moves towards it with a time constant
+ * that stands in for its inertia.
+ *
+ * <p> Shots are modeled by {@link FlywheelModel#shoot(double)}, which takes
+ * away part of the wheel's speed at once.
+ *
+ * @author Joel Gallant
+ */
+public final class FlywheelModel implements PhysicsModel, ReturnableNumber {
+
+    private final SpeedController motor;
+    private final SimHardware.Counter counter;
+    private final double freeSpeed;
+    private final double timeConstant;
+    private final double pulsesPerRevolution;
+    private double speed;
+
+    /**
+     * Constructs the model with a sensor that pulses once per revolution.
+     *
+     * @param motor motor driving the wheel
+     * @param counter counter of the hall effect sensor
+     * @param freeSpeed speed at full output and 12 volts (RPM)
+     * @param timeConstant time to reach 63% of a change in speed (seconds)
+     */
+    public FlywheelModel(SpeedController motor, SimHardware.Counter counter, double freeSpeed, double timeConstant) {
+        this(motor, counter, freeSpeed, timeConstant, 1);
+    }
+
+    /**
+     * Constructs the model.
+     *
+     * @param motor motor driving the wheel
+     * @param counter counter of the hall effect sensor
+     * @param freeSpeed speed at full output and 12 volts (RPM)
+     * @param timeConstant time to reach 63% of a change in speed (seconds)
+     * @param pulsesPerRevolution pulses the sensor sees every revolution
+     */
+    public FlywheelModel(SpeedController motor, SimHardware.Counter counter, double freeSpeed,
+            double timeConstant, double pulsesPerRevolution) {
+        if (motor == null || counter == null) {
+            throw new NullPointerException();
+        }
+        this.motor = motor;
+        this.counter = counter;
+        this.freeSpeed = freeSpeed;
+        this.timeConstant = timeConstant;
+        this.pulsesPerRevolution = pulsesPerRevolution;
+    }
+
+    public synchronized void update(double seconds, double batteryVoltage) {
+        double target = motor.get() * freeSpeed * batteryVoltage / Simulation.nominalVoltage;
+        speed += (target - speed) * Math.min(1, seconds / timeConstant);
+        counter.setPulseRate(Math.abs(speed) / 60 * pulsesPerRevolution);
+    }
+
+    /**
+     * Takes a fraction of the wheel's speed away, like a frisbee going through
+     * it.
+     *
+     * @param loss fraction of speed lost (0 to 1)
+     */
+    public synchronized void shoot(double loss) {
+        speed *= 1 - loss;
+    }
+
+    /**
+     * Returns the actual speed of the wheel.
+     *
+     * @return speed (RPM)
+     */
+    public synchronized double getSpeed() {
+        return speed;
+    }
+
+    public double get() {
+        return getSpeed();
+    }
+}
@@ -0,0 +1,186 @@
+package edu.first.simulation;
+
+import edu.first.module.hardware.Hardware;
+import edu.first.robot.Robot;
+import edu.first.utils.Clock;
+
+/**
+ * Runs a {@link Robot} the way {@link edu.wpi.first.wpilibj.IterativeRobot}
+ * does, for when there is no cRIO. The robot gets its own thread, which calls
+ * {@link Robot#robotInit()}, and then waits for packets from a
+ * {@link Hardware.DriverStation}. Every new packet calls the periodic method
+ * of the current mode, after the init method if the mode just changed.
+ *
+ * <p> Waiting is done on {@link Clock#getClock()}, checking for a new packet
+ * every millisecond. On a {@link edu.first.utils.VirtualClock}, this means the
+ * robot answers a packet exactly one millisecond after it is given.
+ * {@link IterativeRunner#start()} returns once {@code robotInit()} is done,
+ * since stepping the clock doesn't wait for a thread that hasn't slept yet, so
+ * {@code robotInit()} must not wait on the clock itself.
+ *
+ * <p> Anything thrown by the robot is printed and counted in
+ * {@link IterativeRunner#getErrors()}, and the robot keeps running.
+ *
+ * @author Joel Gallant
+ */
+public final class IterativeRunner {
+
+    private static final int NONE = 0, DISABLED = 1, AUTONOMOUS = 2, TELEOP = 3, TEST = 4;
+    private final Robot robot;
+    private final Hardware.DriverStation ds;
+    private final Object lock = new Object();
+    private Thread thread;
+    private boolean running;
+    private boolean initialized;
+    private long errors;
+
+    /**
+     * Constructs the runner.
+     *
+     * @param robot robot to run
+     * @param ds where packets come from
+     */
+    public IterativeRunner(Robot robot, Hardware.DriverStation ds) {
+        if (robot == null || ds == null) {
+            throw new NullPointerException();
+        }
+        this.robot = robot;
+        this.ds = ds;
+    }
+
+    /**
+     * Starts the robot's thread, and waits for {@link Robot#robotInit()} to
+     * finish. Does nothing if already started.
+     */
+    public void start() {
+        synchronized (lock) {
+            if (thread != null) {
+                return;
+            }
+            running = true;
+            initialized = false;
+            thread = new Thread(new Loop());
+            thread.start();
+            try {
+                while (!initialized) {
+                    lock.wait();
+                }
+            } catch (InterruptedException ex) {
+            }
+        }
+    }
+
+    /**
+     * Stops running the robot. The thread finishes the next time it checks for
+     * a packet.
+     */
+    public void stop() {
+        synchronized (lock) {
+            running = false;
+            thread = null;
+        }
+    }
+
+    /**
+     * Returns how many times the robot threw something.
+     *
+     * @return amount of errors
+     */
+    public long getErrors() {
+        synchronized (lock) {
+            return errors;
+        }
+    }
+
+    private boolean isRunning(Thread current) {
+        synchronized (lock) {
+            return running && thread == current;
+        }
+    }
+
+    // Same order of checks as IterativeRobot
+    private int getMode() {
+        if (!ds.isEnabled()) {
+            return DISABLED;
+        } else if (ds.isTest()) {
+            return TEST;
+        } else if (ds.isAutonomous()) {
+            return AUTONOMOUS;
+        } else {
+            return TELEOP;
+        }
+    }
+
+    private void call(int mode, boolean init) {
+        try {
+            switch (mode) {
+                case DISABLED:
+                    if (init) {
+                        robot.disabledInit();
+                    } else {
+                        robot.disabledPeriodic();
+                    }
+                    break;
+                case AUTONOMOUS:
+                    if (init) {
+                        robot.autonomousInit();
+                    } else {
+                        robot.autonomousPeriodic();
+                    }
+                    break;
+                case TELEOP:
+                    if (init) {
+                        robot.teleopInit();
+                    } else {
+                        robot.teleopPeriodic();
+                    }
+                    break;
+                case TEST:
+                    if (init) {
+                        robot.testInit();
+                    } else {
+                        robot.testPeriodic();
+                    }
+                    break;
+                default:
+                    robot.robotInit();
+            }
+        } catch (Throwable t) {
+            synchronized (lock) {
+                errors++;
+            }
+            t.printStackTrace();
+        }
+    }
+
+    private final class Loop implements Runnable {
+
+        public void run() {
+            Thread current = Thread.currentThread();
+            call(NONE, true);
+            int mode = NONE;
+            // Before start() returns, so the next packet is never missed
+            int last = ds.getPacketNumber();
+            synchronized (lock) {
+                initialized = true;
+                lock.notifyAll();
+            }
+            while (isRunning(current)) {
+                // Sleeps first, so a packet given right after start() is also
+                // answered a millisecond later instead of whenever this runs
+                Clock.getClock().sleep(1);
+                int number = ds.getPacketNumber();
+                if (number == last) {
+                    continue;
+                }
+                last = number;
+                int now = getMode();
+                if (now != mode) {
+                    mode = now;
+                    call(mode, true);
+                }
+                call(mode, false);
+            }
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package edu.first.simulation;
+
+/**
+ * Model of a mechanism, reading simulated actuators and moving simulated
+ * sensors. Models are updated by {@link Simulation} every time simulated time
+ * moves forward.
+ *
+ * @author Joel Gallant
+ */
+public interface PhysicsModel {
+
+    /**
+     * Moves the mechanism forward in time, using what its actuators are
+     * currently set to.
+     *
+     * @param seconds time since the last update (seconds)
+     * @param batteryVoltage voltage that actuators are getting (volts)
+     */
+    void update(double seconds, double batteryVoltage);
+}
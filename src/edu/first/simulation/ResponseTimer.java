@@ -0,0 +1,106 @@
+package edu.first.simulation;
+
+import edu.first.identifiers.ReturnableNumber;
+
+/**
+ * Measures how a value responds to a new target: how long it takes to first
+ * get there (rise time), how long until it gets there and stays (settle time),
+ * and how far it goes past. Works for spin-up (target changed) and recovery
+ * (value knocked away from the target) alike - both start the timer.
+ *
+ * <p> Times are in whatever time {@link ResponseTimer#update(long)} is given,
+ * usually {@link Simulation#getTime()}.
+ *
+ * @author Joel Gallant
+ */
+public final class ResponseTimer {
+
+    private final ReturnableNumber value;
+    private final double tolerance;
+    private double target;
+    private long start, rise = -1, entered = -1;
+    private double direction;
+    private double overshoot;
+
+    /**
+     * Constructs the timer with the value to watch.
+     *
+     * @param value value that is responding
+     * @param tolerance how close to the target counts as there
+     */
+    public ResponseTimer(ReturnableNumber value, double tolerance) {
+        if (value == null) {
+            throw new NullPointerException();
+        }
+        this.value = value;
+        this.tolerance = tolerance;
+    }
+
+    /**
+     * Starts timing a response to a target. Anything measured before is
+     * forgotten.
+     *
+     * @param time current time
+     * @param target what the value should get to
+     */
+    public synchronized void start(long time, double target) {
+        this.target = target;
+        this.start = time;
+        this.rise = -1;
+        this.entered = -1;
+        this.overshoot = 0;
+        double v = value.get();
+        this.direction = target >= v ? 1 : -1;
+        update(time);
+    }
+
+    /**
+     * Reads the value. Should be called every time simulated time moves.
+     *
+     * @param time current time
+     */
+    public synchronized void update(long time) {
+        double error = value.get() - target;
+        if (Math.abs(error) <= tolerance) {
+            if (rise < 0) {
+                rise = time - start;
+            }
+            if (entered < 0) {
+                entered = time;
+            }
+        } else {
+            entered = -1;
+        }
+        if (rise >= 0) {
+            overshoot = Math.max(overshoot, error * direction);
+        }
+    }
+
+    /**
+     * Returns how long the value took to first get within tolerance.
+     *
+     * @return rise time, or -1 if it hasn't yet
+     */
+    public synchronized long getRiseTime() {
+        return rise;
+    }
+
+    /**
+     * Returns how long the value took to get within tolerance without leaving
+     * again.
+     *
+     * @return settle time, or -1 if it is not within tolerance
+     */
+    public synchronized long getSettleTime() {
+        return entered < 0 ? -1 : entered - start;
+    }
+
+    /**
+     * Returns how far the value went past the target after first reaching it.
+     *
+     * @return largest overshoot (0 if none)
+     */
+    public synchronized double getOvershoot() {
+        return overshoot;
+    }
+}
@@ -0,0 +1,154 @@
+package edu.first.simulation;
+
+import edu.first.module.hardware.SimHardware;
+import edu.first.utils.Clock;
+import edu.first.utils.RealClock;
+import edu.first.utils.VirtualClock;
+import edu.wpi.first.wpilibj.networktables2.util.List;
+
+/**
+ * Runs {@link PhysicsModel} models on top of {@link SimHardware}. Every step
+ * updates the models from the actuators, and then moves the hardware's
+ * simulated time forward so that sensors follow. If the simulation has a
+ * {@link VirtualClock}, it is stepped last, running the robot code that was
+ * due.
+ *
+ * <p> Use {@link Simulation#step(long)} or {@link Simulation#start(long)}
+ * instead of the methods on {@link SimHardware}, so that the models are not
+ * skipped. Simulated time is the time of the {@link Clock}.
+ *
+ * @author Joel Gallant
+ */
+public final class Simulation {
+
+    /**
+     * Voltage that models are rated at.
+     */
+    public static final double nominalVoltage = 12;
+    private final SimHardware hardware;
+    private final VirtualClock clock;
+    private final List models = new List();
+    private final Object lock = new Object();
+    private double batteryVoltage = nominalVoltage;
+    private Clock.Scheduler timer;
+
+    /**
+     * Constructs the simulation with the hardware that models use. Robot code
+     * runs on its own time.
+     *
+     * @param hardware simulated hardware
+     */
+    public Simulation(SimHardware hardware) {
+        this(hardware, null);
+    }
+
+    /**
+     * Constructs the simulation with the hardware that models use and the
+     * clock that robot code runs on. The clock should already be set with
+     * {@link edu.first.utils.Clock#setClock(edu.first.utils.Clock)}.
+     *
+     * @param hardware simulated hardware
+     * @param clock clock to step along with the simulation (can be null)
+     */
+    public Simulation(SimHardware hardware, VirtualClock clock) {
+        if (hardware == null) {
+            throw new NullPointerException();
+        }
+        this.hardware = hardware;
+        this.clock = clock;
+    }
+
+    /**
+     * Returns the hardware that the simulation moves.
+     *
+     * @return simulated hardware
+     */
+    public SimHardware getHardware() {
+        return hardware;
+    }
+
+    /**
+     * Adds a model to update every step.
+     *
+     * @param model model to add
+     */
+    public void add(PhysicsModel model) {
+        if (model == null) {
+            throw new NullPointerException();
+        }
+        synchronized (lock) {
+            models.add(model);
+        }
+    }
+
+    /**
+     * Sets the voltage that models get. Lower voltage makes everything slower,
+     * like a drained battery.
+     *
+     * @param batteryVoltage battery voltage (volts)
+     */
+    public void setBatteryVoltage(double batteryVoltage) {
+        synchronized (lock) {
+            this.batteryVoltage = batteryVoltage;
+        }
+    }
+
+    /**
+     * Updates every model and moves simulated time forward.
+     *
+     * @param millis time to move forward (milliseconds)
+     */
+    public void step(long millis) {
+        synchronized (lock) {
+            double seconds = millis / 1000.0;
+            for (int x = 0; x < models.size(); x++) {
+                ((PhysicsModel) models.get(x)).update(seconds, batteryVoltage);
+            }
+            hardware.step(millis);
+        }
+        if (clock != null) {
+            clock.step(millis);
+        }
+    }
+
+    /**
+     * Returns the simulated time, which is the time of the {@link Clock}.
+     *
+     * @return simulated time (milliseconds)
+     */
+    public long getTime() {
+        return Clock.currentTimeMillis();
+    }
+
+    /**
+     * Starts stepping along with real time. Does nothing if already started.
+     *
+     * @param period time between steps (milliseconds)
+     */
+    public void start(final long period) {
+        synchronized (lock) {
+            if (timer != null) {
+                return;
+            }
+            // A virtual clock only moves when stepped, so it can't step itself
+            timer = clock != null ? new RealClock().createScheduler() : Clock.newScheduler();
+            timer.scheduleAtFixedRate(new Runnable() {
+                public void run() {
+                    step(period);
+                }
+            }, period, period);
+        }
+    }
+
+    /**
+     * Stops stepping along with real time.
+     */
+    public void stop() {
+        synchronized (lock) {
+            if (timer != null) {
+                timer.cancel();
+                timer = null;
+            }
+        }
+    }
+}
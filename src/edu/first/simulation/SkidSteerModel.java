@@ -0,0 +1,163 @@
+package edu.first.simulation;
+
+import edu.first.module.hardware.SimHardware;
+import edu.wpi.first.wpilibj.SpeedController;
+
+/**
+ * Skid steer drivetrain, measured by encoders and a gyro. Each side is a first
+ * order model: it moves towards a speed proportional to the average output of
+ * its motors and the battery voltage. The difference between the sides turns
+ * the robot.
+ *
+ * <p> By default the right side is reversed, the way
+ * {@link edu.wpi.first.wpilibj.RobotDrive} drives it. Headings are in degrees,
+ * clockwise, like a gyro.
+ *
+ * @author Joel Gallant
+ */
+public final class SkidSteerModel implements PhysicsModel {
+
+    private final SpeedController[] left, right;
+    private final double maxSpeed;
+    private final double timeConstant;
+    private final double trackWidth;
+    private boolean leftReversed, rightReversed = true;
+    private SimHardware.Encoder leftEncoder, rightEncoder;
+    private double pulsesPerDistance = 1;
+    private SimHardware.Gyro gyro;
+    private double leftSpeed, rightSpeed;
+    private double x, y, heading;
+
+    /**
+     * Constructs the model.
+     *
+     * @param left motors on the left side
+     * @param right motors on the right side
+     * @param maxSpeed speed at full output and 12 volts (distance per second)
+     * @param timeConstant time to reach 63% of a change in speed (seconds)
+     * @param trackWidth distance between the left and right wheels
+     */
+    public SkidSteerModel(SpeedController[] left, SpeedController[] right, double maxSpeed,
+            double timeConstant, double trackWidth) {
+        if (left == null || right == null) {
+            throw new NullPointerException();
+        }
+        this.left = left;
+        this.right = right;
+        this.maxSpeed = maxSpeed;
+        this.timeConstant = timeConstant;
+        this.trackWidth = trackWidth;
+    }
+
+    /**
+     * Sets which sides are driven backwards by the robot code.
+     *
+     * @param left if left side is reversed
+     * @param right if right side is reversed
+     */
+    public synchronized void setReversed(boolean left, boolean right) {
+        this.leftReversed = left;
+        this.rightReversed = right;
+    }
+
+    /**
+     * Sets the encoders measuring each side. Either can be null.
+     *
+     * @param left encoder on the left side
+     * @param right encoder on the right side
+     * @param pulsesPerDistance pulses for every unit of distance
+     */
+    public synchronized void setEncoders(SimHardware.Encoder left, SimHardware.Encoder right, double pulsesPerDistance) {
+        this.leftEncoder = left;
+        this.rightEncoder = right;
+        this.pulsesPerDistance = pulsesPerDistance;
+    }
+
+    /**
+     * Sets the gyro measuring heading. Can be null.
+     *
+     * @param gyro gyro on the robot
+     */
+    public synchronized void setGyro(SimHardware.Gyro gyro) {
+        this.gyro = gyro;
+    }
+
+    public synchronized void update(double seconds, double batteryVoltage) {
+        double scale = maxSpeed * batteryVoltage / Simulation.nominalVoltage;
+        double leftTarget = average(left) * (leftReversed ? -scale : scale);
+        double rightTarget = average(right) * (rightReversed ? -scale : scale);
+        double response = Math.min(1, seconds / timeConstant);
+        leftSpeed += (leftTarget - leftSpeed) * response;
+        rightSpeed += (rightTarget - rightSpeed) * response;
+
+        double turnRate = Math.toDegrees((leftSpeed - rightSpeed) / trackWidth);
+        double speed = (leftSpeed + rightSpeed) / 2;
+        double radians = Math.toRadians(heading + turnRate * seconds / 2);
+        x += speed * Math.sin(radians) * seconds;
+        y += speed * Math.cos(radians) * seconds;
+        heading += turnRate * seconds;
+
+        if (leftEncoder != null) {
+            leftEncoder.setPulseRate(leftSpeed * pulsesPerDistance);
+        }
+        if (rightEncoder != null) {
+            rightEncoder.setPulseRate(rightSpeed * pulsesPerDistance);
+        }
+        if (gyro != null) {
+            gyro.setRate(turnRate);
+        }
+    }
+
+    private double average(SpeedController[] motors) {
+        double sum = 0;
+        for (int i = 0; i < motors.length; i++) {
+            sum += motors[i].get();
+        }
+        return motors.length == 0 ? 0 : sum / motors.length;
+    }
+
+    /**
+     * Returns how far the robot is to the right of where it started.
+     *
+     * @return sideways position
+     */
+    public synchronized double getX() {
+        return x;
+    }
+
+    /**
+     * Returns how far the robot is forward of where it started.
+     *
+     * @return forward position
+     */
+    public synchronized double getY() {
+        return y;
+    }
+
+    /**
+     * Returns the actual heading of the robot.
+     *
+     * @return heading (degrees)
+     */
+    public synchronized double getHeading() {
+        return heading;
+    }
+
+    /**
+     * Returns the actual speed of the left side.
+     *
+     * @return speed (distance per second)
+     */
+    public synchronized double getLeftSpeed() {
+        return leftSpeed;
+    }
+
+    /**
+     * Returns the actual speed of the right side.
+     *
+     * @return speed (distance per second)
+     */
+    public synchronized double getRightSpeed() {
+        return rightSpeed;
+    }
+}
@@ -0,0 +1,260 @@
+package edu.first.utils;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * Writes recordings to a file in blocks, for {@link TelemetryRecorder} and
+ * {@link DriverstationRecorder}. Samples go into a preallocated block, and a
+ * full block is handed to a low priority thread that writes it while sampling
+ * continues into a second one. If the thread falls behind, the newest block is
+ * thrown away and counted.
+ *
+ * <p> Blocks are whatever the recorder's {@link Format} makes. Everything is
+ * guarded by the recorder's lock, which has to be held to call anything other
+ * than {@link BlockWriter#finishWriting()}.
+ *
+ * @author Joel Gallant
+ */
+final class BlockWriter {
+
+    private final Object lock;
+    private final Format format;
+    private final String failure;
+    private String path;
+    private Object filling, writing, spare;
+    private long droppedBlocks;
+    private boolean recording;
+    private Clock.Scheduler timer;
+    private Thread writer;
+
+    /**
+     * How a recorder's blocks are made and written.
+     */
+    static interface Format {
+
+        /**
+         * Returns a new, empty block.
+         *
+         * @return block to fill
+         */
+        Object newBlock();
+
+        /**
+         * Returns whether a block from an earlier recording can be used for
+         * the next one.
+         *
+         * @param block block from {@link Format#newBlock()}
+         * @return if the block still fits what is recorded
+         */
+        boolean canReuse(Object block);
+
+        /**
+         * Empties a block.
+         *
+         * @param block block to empty
+         */
+        void clear(Object block);
+
+        /**
+         * Writes what goes at the start of the file.
+         *
+         * @param stream file being written
+         * @throws IOException thrown when writing fails
+         */
+        void writeHeader(DataOutputStream stream) throws IOException;
+
+        /**
+         * Writes a block, which is not touched by sampling until this returns.
+         *
+         * @param stream file being written
+         * @param block block to write
+         * @throws IOException thrown when writing fails
+         */
+        void writeBlock(DataOutputStream stream, Object block) throws IOException;
+    }
+
+    /**
+     * Constructs the writer.
+     *
+     * @param lock lock of the recorder
+     * @param format how blocks are made and written
+     * @param path file to write to (ex. "file:///telemetry.bin")
+     * @param failure logged before the reason when the file can't be written
+     */
+    BlockWriter(Object lock, Format format, String path, String failure) {
+        if (lock == null || format == null || path == null || failure == null) {
+            throw new NullPointerException();
+        }
+        this.lock = lock;
+        this.format = format;
+        this.path = path;
+        this.failure = failure;
+    }
+
+    /**
+     * Waits for the last recording to be written, so that its blocks can be
+     * used again. Does nothing while recording. Must not hold the lock.
+     */
+    void finishWriting() {
+        Thread old;
+        synchronized (lock) {
+            if (recording) {
+                return;
+            }
+            old = writer;
+        }
+        if (old != null) {
+            try {
+                old.join();
+            } catch (InterruptedException ex) {
+                ex.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * Starts a new recording, replacing the file. Should only be called when
+     * not recording, after {@link BlockWriter#finishWriting()}.
+     *
+     * @param path file to write to, or null for the last one
+     * @param period time between samples (milliseconds), or 0 to not sample
+     * on a timer
+     * @param sample what takes a sample
+     */
+    void start(String path, long period, Runnable sample) {
+        if (path != null) {
+            this.path = path;
+        }
+        if (filling == null || !format.canReuse(filling)) {
+            filling = format.newBlock();
+            spare = format.newBlock();
+        }
+        format.clear(filling);
+        writing = null;
+        recording = true;
+        writer = new Thread(new Writer());
+        writer.setPriority(Thread.MIN_PRIORITY);
+        writer.start();
+        if (period > 0) {
+            timer = Clock.newScheduler();
+            timer.scheduleAtFixedRate(sample, 0L, period);
+        }
+    }
+
+    /**
+     * Stops recording. Whatever has been sampled is written before the file is
+     * closed.
+     */
+    void stop() {
+        if (!recording) {
+            return;
+        }
+        if (timer != null) {
+            timer.cancel();
+            timer = null;
+        }
+        recording = false;
+        lock.notifyAll();
+    }
+
+    boolean isRecording() {
+        return recording;
+    }
+
+    long getDroppedBlocks() {
+        return droppedBlocks;
+    }
+
+    /**
+     * Returns the block that samples go into.
+     *
+     * @return block being filled
+     */
+    Object getFilling() {
+        return filling;
+    }
+
+    /**
+     * Hands the filled block to the writing thread, or throws it away if the
+     * thread is still writing the last one.
+     */
+    void blockFull() {
+        if (writing == null) {
+            writing = filling;
+            filling = spare;
+            spare = null;
+            lock.notifyAll();
+        } else {
+            droppedBlocks++;
+        }
+        format.clear(filling);
+    }
+
+    private final class Writer implements Runnable {
+
+        public void run() {
+            FileSystem.File connection = null;
+            DataOutputStream stream = null;
+            try {
+                String file;
+                synchronized (lock) {
+                    file = path;
+                }
+                connection = FileSystem.open(file, FileSystem.READ_WRITE);
+                if (connection.exists()) {
+                    connection.delete();
+                    connection.close();
+                    connection = FileSystem.open(file, FileSystem.READ_WRITE);
+                }
+                connection.create();
+                stream = new DataOutputStream(connection.openOutputStream());
+                format.writeHeader(stream);
+                while (true) {
+                    Object b;
+                    synchronized (lock) {
+                        while (writing == null && recording) {
+                            lock.wait();
+                        }
+                        if (writing == null) {
+                            // Stopped - write the partial block that's left
+                            b = filling;
+                        } else {
+                            b = writing;
+                        }
+                    }
+                    format.writeBlock(stream, b);
+                    stream.flush();
+                    synchronized (lock) {
+                        if (b == filling) {
+                            format.clear(b);
+                            break;
+                        }
+                        writing = null;
+                        spare = b;
+                    }
+                }
+            } catch (Exception ex) {
+                Logger.log(Logger.Urgency.LOG, failure + " - " + ex.getMessage());
+                synchronized (lock) {
+                    stop();
+                    if (spare == null) {
+                        spare = writing;
+                        writing = null;
+                    }
+                }
+            } finally {
+                try {
+                    if (stream != null) {
+                        stream.close();
+                    }
+                    if (connection != null) {
+                        connection.close();
+                    }
+                } catch (IOException ex) {
+                    ex.printStackTrace();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package edu.first.utils;
+
+/**
+ * Source of time for the whole robot. Everything that needs the time, needs to
+ * wait, or needs to run something later should go through the clock instead of
+ * {@link System#currentTimeMillis()},
+ * {@link edu.wpi.first.wpilibj.Timer#delay(double)} or {@link java.util.Timer}.
+ *
+ * <p> On the robot the clock is a {@link RealClock}. Simulations and tests can
+ * use a {@link VirtualClock} instead, which only moves when it is stepped, so
+ * that 15 seconds of autonomous can run in milliseconds and timing is the same
+ * every run. The clock has to be changed with {@link Clock#setClock(Clock)}
+ * before anything uses it, since schedulers belong to the clock that created
+ * them.
+ *
+ * @author Joel Gallant
+ */
+public abstract class Clock {
+
+    private static volatile Clock CLOCK = new RealClock();
+
+    /**
+     * Returns the clock currently being used.
+     *
+     * @return current clock
+     */
+    public static Clock getClock() {
+        return CLOCK;
+    }
+
+    /**
+     * Changes the clock used by everything. Should only be called at startup,
+     * before anything else uses the clock.
+     *
+     * @param clock clock to use
+     */
+    public static void setClock(Clock clock) {
+        if (clock == null) {
+            throw new NullPointerException();
+        }
+        CLOCK = clock;
+    }
+
+    /**
+     * Returns the current time of the current clock. Use instead of
+     * {@link System#currentTimeMillis()}.
+     *
+     * @return current time (milliseconds)
+     */
+    public static long currentTimeMillis() {
+        return CLOCK.getTime();
+    }
+
+    /**
+     * Waits using the current clock. Use instead of
+     * {@link edu.wpi.first.wpilibj.Timer#delay(double)}.
+     *
+     * @param seconds time to wait (seconds)
+     */
+    public static void delay(double seconds) {
+        CLOCK.sleep((long) (seconds * 1000));
+    }
+
+    /**
+     * Returns a new scheduler from the current clock. Use instead of
+     * {@link java.util.Timer}.
+     *
+     * @return new scheduler
+     */
+    public static Scheduler newScheduler() {
+        return CLOCK.createScheduler();
+    }
+
+    /**
+     * Returns the time of this clock.
+     *
+     * @return current time (milliseconds)
+     */
+    public abstract long getTime();
+
+    /**
+     * Blocks the calling thread until this clock has moved forward by the
+     * given time. Returns early if the thread is interrupted.
+     *
+     * @param millis time to wait (milliseconds)
+     */
+    public abstract void sleep(long millis);
+
+    /**
+     * Creates a scheduler that runs tasks on this clock's time.
+     *
+     * @return new scheduler
+     */
+    public abstract Scheduler createScheduler();
+
+    /**
+     * Runs tasks later, or repeatedly. Works like {@link java.util.Timer}: the
+     * tasks of one scheduler run one after another, and once it is cancelled
+     * it can't be used again.
+     */
+    public static interface Scheduler {
+
+        /**
+         * Runs a task once, after a delay.
+         *
+         * @param task task to run
+         * @param delay time before running (milliseconds)
+         */
+        void schedule(Runnable task, long delay);
+
+        /**
+         * Runs a task repeatedly, waiting a fixed time after each run finishes.
+         *
+         * @param task task to run
+         * @param delay time before the first run (milliseconds)
+         * @param period time between runs (milliseconds)
+         */
+        void schedule(Runnable task, long delay, long period);
+
+        /**
+         * Runs a task repeatedly at a fixed rate, no matter how long each run
+         * takes.
+         *
+         * @param task task to run
+         * @param delay time before the first run (milliseconds)
+         * @param period time between the start of runs (milliseconds)
+         */
+        void scheduleAtFixedRate(Runnable task, long delay, long period);
+
+        /**
+         * Stops every task in the scheduler. A task that is running is
+         * finished.
+         */
+        void cancel();
+    }
+}
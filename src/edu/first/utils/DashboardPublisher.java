@@ -0,0 +1,327 @@
+package edu.first.utils;
+
+import edu.first.module.hardware.Hardware;
+import edu.first.module.hardware.WPILibHardware;
+import java.util.Hashtable;
+
+/**
+ * Publishes values to the SmartDashboard only when they change. Every key
+ * remembers the last value that was sent, and a new value is only sent when it
+ * differs by more than the key's epsilon. Every key is sent again after
+ * {@link DashboardPublisher#getRefreshInterval()} even if it has not changed,
+ * so that a dashboard that reconnects catches up.
+ *
+ * <p> Keys have to be added before they are used, with a {@link Rate}. The rate
+ * decides both how often the key can be sent, and which keys are sent first.
+ * Values given by {@link DashboardPublisher#putNumber(String, double)} are held
+ * until {@link DashboardPublisher#publish()}, which sends at most
+ * {@link DashboardPublisher#getMaxPerPublish()} keys. Keys that did not fit
+ * are sent the next time, so low value data can never crowd out critical
+ * indicators.
+ *
+ * <p> Putting values and publishing does not create any garbage after the keys
+ * are added.
+ *
+ * @author Joel Gallant
+ */
+public final class DashboardPublisher {
+
+    private static final int maxKeys = 64;
+    private static final int NUMBER = 0, BOOLEAN = 1;
+    private final Object lock = new Object();
+    private final Hardware.Dashboard dashboard;
+    private final Hashtable indexes = new Hashtable();
+    private final String[] keys = new String[maxKeys];
+    private final int[] types = new int[maxKeys];
+    private final Rate[] rates = new Rate[maxKeys];
+    private final double[] epsilons = new double[maxKeys];
+    private final double[] pending = new double[maxKeys];
+    private final double[] sent = new double[maxKeys];
+    private final boolean[] hasPending = new boolean[maxKeys];
+    private final boolean[] everSent = new boolean[maxKeys];
+    private final long[] lastSent = new long[maxKeys];
+    private int size;
+    private int maxPerPublish;
+    private long refreshInterval;
+    private long sentCount, suppressedCount;
+
+    /**
+     * Class representing how often a key is sent, and how important it is
+     * compared to other keys. Only the instances in this class are valid.
+     */
+    public static final class Rate {
+
+        private final long period;
+        private final int priority;
+
+        private Rate(long period, int priority) {
+            this.period = period;
+            this.priority = priority;
+        }
+
+        /**
+         * Returns the shortest time allowed between two sends of a key.
+         *
+         * @return minimum time between sends (milliseconds)
+         */
+        public long getPeriod() {
+            return period;
+        }
+        /**
+         * Indicators the drivers need right away. Sent whenever they change,
+         * before any other key.
+         */
+        public static final Rate CRITICAL = new Rate(0, 0);
+        /**
+         * Values that are watched, but can be slightly late. Sent at most
+         * every quarter second.
+         */
+        public static final Rate NORMAL = new Rate(250, 1);
+        /**
+         * Debugging information. Sent at most once a second, after everything
+         * else.
+         */
+        public static final Rate BACKGROUND = new Rate(1000, 2);
+        private static final int priorities = 3;
+    }
+
+    /**
+     * Constructs the publisher for the SmartDashboard, with how many keys to
+     * send every time it publishes, and how often to send every key again.
+     *
+     * @param maxPerPublish maximum amount of keys sent by each publish
+     * @param refreshInterval time until unchanged keys are sent again
+     * (milliseconds)
+     */
+    public DashboardPublisher(int maxPerPublish, long refreshInterval) {
+        this(WPILibHardware.INSTANCE.getDashboard(), maxPerPublish, refreshInterval);
+    }
+
+    /**
+     * Constructs the publisher with the dashboard to send to, how many keys to
+     * send every time it publishes, and how often to send every key again.
+     *
+     * @param dashboard dashboard that keys are sent to
+     * @param maxPerPublish maximum amount of keys sent by each publish
+     * @param refreshInterval time until unchanged keys are sent again
+     * (milliseconds)
+     */
+    public DashboardPublisher(Hardware.Dashboard dashboard, int maxPerPublish, long refreshInterval) {
+        if (dashboard == null) {
+            throw new NullPointerException();
+        }
+        if (maxPerPublish < 1) {
+            throw new IllegalArgumentException("Invalid maximum " + maxPerPublish);
+        }
+        this.dashboard = dashboard;
+        this.maxPerPublish = maxPerPublish;
+        this.refreshInterval = refreshInterval;
+    }
+
+    /**
+     * Adds a number key.
+     *
+     * @param key name on the dashboard
+     * @param rate how often and how early it is sent
+     * @param epsilon smallest change that is worth sending
+     */
+    public void addNumber(String key, Rate rate, double epsilon) {
+        add(key, NUMBER, rate, epsilon);
+    }
+
+    /**
+     * Adds a boolean key.
+     *
+     * @param key name on the dashboard
+     * @param rate how often and how early it is sent
+     */
+    public void addBoolean(String key, Rate rate) {
+        add(key, BOOLEAN, rate, 0);
+    }
+
+    private void add(String key, int type, Rate rate, double epsilon) {
+        if (key == null || rate == null) {
+            throw new NullPointerException();
+        }
+        synchronized (lock) {
+            if (indexes.containsKey(key)) {
+                throw new IllegalArgumentException(key + " was already added");
+            }
+            if (size == maxKeys) {
+                throw new IllegalStateException("Too many keys");
+            }
+            keys[size] = key;
+            types[size] = type;
+            rates[size] = rate;
+            epsilons[size] = Math.abs(epsilon);
+            indexes.put(key, new Integer(size));
+            size++;
+        }
+    }
+
+    /**
+     * Gives a new value for a number key. It is sent on a later
+     * {@link DashboardPublisher#publish()} if it changed enough.
+     *
+     * @param key name of an added number key
+     * @param value current value
+     * @throws IllegalArgumentException when key was not added as a number
+     */
+    public void putNumber(String key, double value) {
+        synchronized (lock) {
+            int i = indexOf(key, NUMBER);
+            pending[i] = value;
+            hasPending[i] = true;
+        }
+    }
+
+    /**
+     * Gives a new value for a boolean key. It is sent on a later
+     * {@link DashboardPublisher#publish()} if it changed.
+     *
+     * @param key name of an added boolean key
+     * @param value current value
+     * @throws IllegalArgumentException when key was not added as a boolean
+     */
+    public void putBoolean(String key, boolean value) {
+        synchronized (lock) {
+            int i = indexOf(key, BOOLEAN);
+            pending[i] = value ? 1 : 0;
+            hasPending[i] = true;
+        }
+    }
+
+    // Must hold lock
+    private int indexOf(String key, int type) {
+        Integer i = (Integer) indexes.get(key);
+        if (i == null || types[i.intValue()] != type) {
+            throw new IllegalArgumentException(key + " was not added as a "
+                    + (type == NUMBER ? "number" : "boolean"));
+        }
+        return i.intValue();
+    }
+
+    /**
+     * Sends keys that changed, in order of their rate's importance, up to the
+     * maximum amount per publish.
+     *
+     * @return amount of keys sent
+     */
+    public int publish() {
+        synchronized (lock) {
+            long now = Clock.currentTimeMillis();
+            int count = 0;
+            for (int p = 0; p < Rate.priorities && count < maxPerPublish; p++) {
+                for (int i = 0; i < size && count < maxPerPublish; i++) {
+                    if (rates[i].priority != p || !hasPending[i]) {
+                        continue;
+                    }
+                    long since = now - lastSent[i];
+                    if (everSent[i] && since < rates[i].period) {
+                        continue;
+                    }
+                    if (everSent[i] && since < refreshInterval
+                            && Math.abs(pending[i] - sent[i]) <= epsilons[i]) {
+                        hasPending[i] = false;
+                        suppressedCount++;
+                        continue;
+                    }
+                    if (types[i] == NUMBER) {
+                        dashboard.putNumber(keys[i], pending[i]);
+                    } else {
+                        dashboard.putBoolean(keys[i], pending[i] != 0);
+                    }
+                    sent[i] = pending[i];
+                    everSent[i] = true;
+                    lastSent[i] = now;
+                    hasPending[i] = false;
+                    count++;
+                }
+            }
+            sentCount += count;
+            return count;
+        }
+    }
+
+    /**
+     * Makes every key be sent on the next publishes, whether or not it
+     * changed. Useful when the dashboard has not been receiving values for a
+     * while.
+     */
+    public void refresh() {
+        synchronized (lock) {
+            for (int i = 0; i < size; i++) {
+                everSent[i] = false;
+            }
+        }
+    }
+
+    /**
+     * Returns the maximum amount of keys sent every publish.
+     *
+     * @return maximum keys per publish
+     */
+    public int getMaxPerPublish() {
+        synchronized (lock) {
+            return maxPerPublish;
+        }
+    }
+
+    /**
+     * Sets the maximum amount of keys sent every publish.
+     *
+     * @param maxPerPublish maximum keys per publish
+     */
+    public void setMaxPerPublish(int maxPerPublish) {
+        if (maxPerPublish < 1) {
+            throw new IllegalArgumentException("Invalid maximum " + maxPerPublish);
+        }
+        synchronized (lock) {
+            this.maxPerPublish = maxPerPublish;
+        }
+    }
+
+    /**
+     * Returns the time until unchanged keys are sent again.
+     *
+     * @return refresh time (milliseconds)
+     */
+    public long getRefreshInterval() {
+        synchronized (lock) {
+            return refreshInterval;
+        }
+    }
+
+    /**
+     * Sets the time until unchanged keys are sent again.
+     *
+     * @param refreshInterval refresh time (milliseconds)
+     */
+    public void setRefreshInterval(long refreshInterval) {
+        synchronized (lock) {
+            this.refreshInterval = refreshInterval;
+        }
+    }
+
+    /**
+     * Returns how many values have been sent to the dashboard.
+     *
+     * @return amount of sends
+     */
+    public long getSentCount() {
+        synchronized (lock) {
+            return sentCount;
+        }
+    }
+
+    /**
+     * Returns how many values were not sent because they had not changed.
+     *
+     * @return amount of skipped sends
+     */
+    public long getSuppressedCount() {
+        synchronized (lock) {
+            return suppressedCount;
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package edu.first.utils;
 
+import edu.first.module.hardware.Hardware;
+import edu.first.module.hardware.WPILibHardware;
 import edu.wpi.first.wpilibj.DriverStation;
 import edu.wpi.first.wpilibj.DriverStationEnhancedIO;
 
@@ -12,12 +14,17 @@ import edu.wpi.first.wpilibj.DriverStationEnhancedIO;
  * This is a convenience utility class with static methods referencing that
  * class.</b>
  *
+ * <p> Other than {@link DriverstationInfo#getDS()} and
+ * {@link DriverstationInfo#getIO()}, everything comes from the
+ * {@link Hardware.DriverStation} given to
+ * {@link DriverstationInfo#setDriverStation(Hardware.DriverStation)}, which is
+ * the real driver station unless a simulated or replayed one is set.
+ *
  * @author Joel Gallant
  */
 public final class DriverstationInfo {
 
-    private static final DriverStation DS = DriverStation.getInstance();
-    private static final DriverStationEnhancedIO IO = DS.getEnhancedIO();
+    private static volatile Hardware.DriverStation DS;
     /**
      * Disabled mode. Used in {@link DriverstationInfo#getGamePeriod()}.
      */
@@ -39,12 +46,34 @@ public final class DriverstationInfo {
     }
 
     /**
-     * Returns the singleton instance of the Driverstation.
+     * Sets where information about the driver station comes from. Should be
+     * done before robot code starts.
+     *
+     * @param ds driver station to use
+     */
+    public static void setDriverStation(Hardware.DriverStation ds) {
+        if (ds == null) {
+            throw new NullPointerException();
+        }
+        DS = ds;
+    }
+
+    // Only touches the real driver station when nothing else was set
+    private static Hardware.DriverStation ds() {
+        Hardware.DriverStation ds = DS;
+        if (ds == null) {
+            DS = ds = WPILibHardware.INSTANCE.getDriverStation();
+        }
+        return ds;
+    }
+
+    /**
+     * Returns the singleton instance of the real Driverstation.
      *
      * @return driverstation with all features
      */
     public static DriverStation getDS() {
-        return DS;
+        return DriverStation.getInstance();
     }
 
     /**
@@ -54,7 +83,7 @@ public final class DriverstationInfo {
      * station
      */
     public static DriverStationEnhancedIO getIO() {
-        return IO;
+        return getDS().getEnhancedIO();
     }
 
     /**
@@ -63,7 +92,7 @@ public final class DriverstationInfo {
      * @return the location of the team's driver station controls: 1, 2, or 3
      */
     public static int getAllianceLocation() {
-        return DS.getLocation();
+        return ds().getLocation();
     }
 
     /**
@@ -72,7 +101,7 @@ public final class DriverstationInfo {
      * @return the team number
      */
     public static int getTeamNumber() {
-        return DS.getTeamNumber();
+        return ds().getTeamNumber();
     }
 
     /**
@@ -83,7 +112,7 @@ public final class DriverstationInfo {
      * @return the DS packet number.
      */
     public static int getPacketCount() {
-        return DS.getPacketNumber();
+        return ds().getPacketNumber();
     }
 
     /**
@@ -94,7 +123,7 @@ public final class DriverstationInfo {
      * Management System
      */
     public static boolean FMSattached() {
-        return DS.isFMSAttached();
+        return ds().isFMSAttached();
     }
 
     /**
@@ -106,7 +135,7 @@ public final class DriverstationInfo {
      * @return the battery voltage.
      */
     public static double getBatteryVoltage() {
-        return DS.getBatteryVoltage();
+        return ds().getBatteryVoltage();
     }
 
     /**
@@ -123,7 +152,7 @@ public final class DriverstationInfo {
      * @return match time in seconds since the beginning of autonomous
      */
     public static double getMatchTime() {
-        return DS.getMatchTime();
+        return ds().getMatchTime();
     }
 
     /**
@@ -134,8 +163,9 @@ public final class DriverstationInfo {
      * {@link DriverstationInfo#DISABLED}.
      */
     public static String getGamePeriod() {
-        return DS.isEnabled() ? (DS.isOperatorControl() ? TELEOP
-                : (DS.isAutonomous() ? AUTONOMOUS : DISABLED)) : DISABLED;
+        Hardware.DriverStation ds = ds();
+        return ds.isEnabled() ? (ds.isOperatorControl() ? TELEOP
+                : (ds.isAutonomous() ? AUTONOMOUS : DISABLED)) : DISABLED;
     }
 
     /**
@@ -145,7 +175,7 @@ public final class DriverstationInfo {
      * @return if the robot is enabled
      */
     public static boolean isEnabled() {
-        return DS.isEnabled();
+        return ds().isEnabled();
     }
 
     /**
@@ -156,6 +186,26 @@ public final class DriverstationInfo {
      * @return Alliance name
      */
     public static String getAllianceName() {
-        return DS.getAlliance().name;
+        return ds().getAllianceName();
+    }
+
+    /**
+     * Returns the value of a digital input on the driver station.
+     *
+     * @param channel digital channel (1 to 8)
+     * @return value of the input
+     */
+    public static boolean getDigitalIn(int channel) {
+        return ds().getDigitalIn(channel);
+    }
+
+    /**
+     * Sets a digital output on the driver station.
+     *
+     * @param channel digital channel (1 to 8)
+     * @param value value of the output
+     */
+    public static void setDigitalOut(int channel, boolean value) {
+        ds().setDigitalOut(channel, value);
     }
 }
\ No newline at end of file
@@ -0,0 +1,235 @@
+package edu.first.utils;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Reads files written by {@link DriverstationRecorder}, one packet at a time.
+ * Only uses streams, so it works the same on the robot and on a desktop (see
+ * tools/ReplayMatch.java).
+ *
+ * <p> Axes are stored the way the driver station sends them, as one signed
+ * byte, so reading a recording gives back exactly what the joysticks returned
+ * on the robot.
+ *
+ * @author Joel Gallant
+ */
+public final class DriverstationReader {
+
+    /**
+     * Identifies a driver station recording. Lives here instead of in
+     * {@link DriverstationRecorder} so that the reader has no dependencies on
+     * the robot libraries.
+     */
+    public static final int MAGIC = 0x44534943;
+    /**
+     * Version of the file format.
+     */
+    public static final int VERSION = 1;
+    /**
+     * Amount of axes recorded on every joystick.
+     */
+    public static final int axes = 6;
+    /**
+     * Amount of buttons recorded on every joystick.
+     */
+    public static final int buttons = 16;
+    /**
+     * Amount of digital inputs recorded from the driver station.
+     */
+    public static final int digitalInputs = 8;
+    static final int ENABLED = 1, AUTONOMOUS = 2, TEST = 4, FMS_ATTACHED = 8;
+    private final DataInputStream stream;
+    private final int joysticks;
+    private final byte[] sticks;
+    private int time;
+    private int packetNumber;
+    private int flags;
+    private int digital;
+    private double batteryVoltage;
+    private double matchTime;
+
+    /**
+     * Constructs the reader and reads the start of the file.
+     *
+     * @param input stream of the recording
+     * @throws IOException thrown when the stream is not a recording or cannot
+     * be read
+     */
+    public DriverstationReader(InputStream input) throws IOException {
+        stream = new DataInputStream(input);
+        if (stream.readInt() != MAGIC) {
+            throw new IOException("Not a driver station recording");
+        }
+        int version = stream.readInt();
+        if (version != VERSION) {
+            throw new IOException("Unknown recording version " + version);
+        }
+        joysticks = stream.readInt();
+        if (joysticks < 0) {
+            throw new IOException("Invalid joystick count " + joysticks);
+        }
+        sticks = new byte[joysticks * stickSize()];
+    }
+
+    /**
+     * Reads the next packet. A packet cut off at the end of the file (ex. from
+     * a brownout) is ignored.
+     *
+     * @return if there was another packet
+     * @throws IOException thrown when the stream cannot be read
+     */
+    public boolean next() throws IOException {
+        try {
+            time = stream.readInt();
+            packetNumber = stream.readInt();
+            flags = stream.readUnsignedByte();
+            digital = stream.readUnsignedByte();
+            batteryVoltage = stream.readUnsignedShort() / 100.0;
+            matchTime = stream.readUnsignedShort() / 10.0;
+            stream.readFully(sticks);
+            return true;
+        } catch (EOFException ex) {
+            return false;
+        }
+    }
+
+    /**
+     * Returns how many joysticks are in every packet. They were recorded from
+     * ports 1 and up, in order.
+     *
+     * @return amount of joysticks
+     */
+    public int getJoystickCount() {
+        return joysticks;
+    }
+
+    /**
+     * Returns when the packet was recorded.
+     *
+     * @return milliseconds since recording started
+     */
+    public int getTime() {
+        return time;
+    }
+
+    /**
+     * Returns the driver station's number for the packet.
+     *
+     * @return packet number
+     */
+    public int getPacketNumber() {
+        return packetNumber;
+    }
+
+    /**
+     * Returns whether the robot was enabled.
+     *
+     * @return if robot was enabled
+     */
+    public boolean isEnabled() {
+        return (flags & ENABLED) != 0;
+    }
+
+    /**
+     * Returns whether the robot was in autonomous mode.
+     *
+     * @return if in autonomous
+     */
+    public boolean isAutonomous() {
+        return (flags & AUTONOMOUS) != 0;
+    }
+
+    /**
+     * Returns whether the robot was in test mode.
+     *
+     * @return if in test
+     */
+    public boolean isTest() {
+        return (flags & TEST) != 0;
+    }
+
+    /**
+     * Returns whether the driver station was connected to a field.
+     *
+     * @return if attached to the FMS
+     */
+    public boolean isFMSAttached() {
+        return (flags & FMS_ATTACHED) != 0;
+    }
+
+    /**
+     * Returns a digital input on the driver station.
+     *
+     * @param channel digital channel (1 to {@link DriverstationReader#digitalInputs})
+     * @return value of the input
+     */
+    public boolean getDigitalIn(int channel) {
+        return channel >= 1 && channel <= digitalInputs && (digital & (1 << (channel - 1))) != 0;
+    }
+
+    /**
+     * Returns the battery voltage, to the hundredth of a volt.
+     *
+     * @return battery voltage (volts)
+     */
+    public double getBatteryVoltage() {
+        return batteryVoltage;
+    }
+
+    /**
+     * Returns the match time, to the tenth of a second.
+     *
+     * @return match time (seconds)
+     */
+    public double getMatchTime() {
+        return matchTime;
+    }
+
+    /**
+     * Returns the position of an axis.
+     *
+     * @param joystick joystick number (0 is the first joystick recorded)
+     * @param axis axis number (1 to {@link DriverstationReader#axes})
+     * @return position of the axis (-1 to +1)
+     */
+    public double getAxis(int joystick, int axis) {
+        if (axis < 1 || axis > axes) {
+            return 0;
+        }
+        return decodeAxis(sticks[joystick * stickSize() + axis - 1]);
+    }
+
+    /**
+     * Returns whether a button was pressed.
+     *
+     * @param joystick joystick number (0 is the first joystick recorded)
+     * @param button button number (1 to {@link DriverstationReader#buttons})
+     * @return if button was pressed
+     */
+    public boolean getButton(int joystick, int button) {
+        if (button < 1 || button > buttons) {
+            return false;
+        }
+        int i = joystick * stickSize() + axes;
+        int bits = ((sticks[i] & 0xFF) << 8) | (sticks[i + 1] & 0xFF);
+        return (bits & (1 << (button - 1))) != 0;
+    }
+
+    // Every axis is a byte, and the buttons are a short
+    static int stickSize() {
+        return axes + 2;
+    }
+
+    // Same scale as the driver station, which divides by 128 below zero
+    static byte encodeAxis(double value) {
+        int raw = (int) Math.floor(value * (value < 0 ? 128 : 127) + 0.5);
+        return (byte) Math.max(-128, Math.min(127, raw));
+    }
+
+    static double decodeAxis(byte raw) {
+        return raw < 0 ? raw / 128.0 : raw / 127.0;
+    }
+}
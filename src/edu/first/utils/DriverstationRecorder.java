@@ -0,0 +1,289 @@
+package edu.first.utils;
+
+import edu.first.module.hardware.Hardware;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * Records everything the driver station sends into a compact binary file, so
+ * that a match can be played back on a desktop (see tools/ReplayMatch.java).
+ * Every time a new packet arrives, the mode, digital inputs, battery voltage,
+ * match time and every axis and button of the joysticks are recorded.
+ *
+ * <p> Joysticks are recorded below any {@link edu.first.module.joystick.JoystickModule}
+ * or {@link edu.first.module.joystick.BindableJoystick}, so playing them back
+ * goes through the same binds and subsystems that the driver used.
+ *
+ * <p> Packets go into preallocated blocks, so recording does not create any
+ * garbage. Full blocks are written by a low priority thread, the same way as
+ * {@link TelemetryRecorder}. If the writer falls behind, the newest block is
+ * thrown away and counted in {@link DriverstationRecorder#getDroppedBlocks()}.
+ *
+ * <p> Once the file would grow past
+ * {@link DriverstationRecorder#setMaxFileSize(long)}, recording stops by
+ * itself, so a recording that is never stopped can't fill the flash memory.
+ *
+ * <p> The file format is read by {@link DriverstationReader}. It starts with a
+ * header:
+ *
+ * <pre>
+ * int     DriverstationReader.MAGIC
+ * int     DriverstationReader.VERSION
+ * int     joystick count
+ * </pre>
+ *
+ * followed by any number of packets:
+ *
+ * <pre>
+ * int     milliseconds since recording started
+ * int     packet number
+ * byte    mode (1 enabled, 2 autonomous, 4 test, 8 FMS attached)
+ * byte    digital inputs (bit 0 is channel 1)
+ * short   battery voltage (hundredths of a volt)
+ * short   match time (tenths of a second)
+ * byte    axis position (for each axis, scaled by 127 or 128 below 0)
+ * short   buttons (bit 0 is button 1)
+ * </pre>
+ *
+ * with the axes and buttons repeated for each joystick.
+ *
+ * @author Joel Gallant
+ */
+public final class DriverstationRecorder {
+
+    private static final int fileHeader = 12;
+    private static final int packetHeader = 14;
+    private final Hardware.DriverStation ds;
+    private final Hardware.Joystick[] joysticks;
+    private final long period;
+    private final int packetSize;
+    private final int blockPackets;
+    private final Object lock = new Object();
+    private final BlockWriter blocks;
+    private long startTime;
+    private int lastPacket;
+    private boolean sampled;
+    private long fileSize, maxFileSize = 512 * 1024;
+
+    private static final class Block {
+
+        private final byte[] bytes;
+        private int length;
+
+        private Block(int size) {
+            this.bytes = new byte[size];
+        }
+    }
+
+    /**
+     * Constructs the recorder with what to record, where to write and how
+     * often to check for packets.
+     *
+     * @param path file to write to (ex. "file:///driverstation.bin")
+     * @param ds driver station to record
+     * @param joysticks joysticks to record, in order of port starting at 1
+     * @param period time between checks for a new packet (milliseconds). If 0,
+     * only checks when {@link DriverstationRecorder#sample()} is called.
+     * @param blockPackets amount of packets to write at once
+     */
+    public DriverstationRecorder(String path, Hardware.DriverStation ds, Hardware.Joystick[] joysticks,
+            long period, int blockPackets) {
+        if (path == null || ds == null || joysticks == null) {
+            throw new NullPointerException();
+        }
+        if (blockPackets < 1) {
+            throw new IllegalArgumentException("Invalid block size " + blockPackets);
+        }
+        this.ds = ds;
+        this.joysticks = joysticks;
+        this.period = period;
+        this.packetSize = packetHeader + joysticks.length * DriverstationReader.stickSize();
+        this.blockPackets = blockPackets;
+        this.blocks = new BlockWriter(lock, new Format(), path, "Driver station could not be recorded");
+    }
+
+    /**
+     * Starts a new recording, replacing the file. Does nothing if already
+     * recording.
+     */
+    public void start() {
+        start(null);
+    }
+
+    /**
+     * Starts a new recording into a different file, replacing it. The file is
+     * used for every recording after this one too. Does nothing if already
+     * recording.
+     *
+     * @param path file to write to (ex. "file:///driverstation.bin")
+     */
+    public void start(String path) {
+        // Let the last recording finish writing before reusing its blocks
+        blocks.finishWriting();
+        synchronized (lock) {
+            if (blocks.isRecording()) {
+                return;
+            }
+            sampled = false;
+            fileSize = fileHeader;
+            startTime = Clock.currentTimeMillis();
+            blocks.start(path, period, new Runnable() {
+                public void run() {
+                    sample();
+                }
+            });
+        }
+    }
+
+    /**
+     * Stops recording. Whatever has been recorded is written before the file
+     * is closed.
+     */
+    public void stop() {
+        synchronized (lock) {
+            blocks.stop();
+        }
+    }
+
+    /**
+     * Sets how big a recording can get. Recording stops once the next packet
+     * would not fit.
+     *
+     * @param maxFileSize maximum size of the file (bytes)
+     */
+    public void setMaxFileSize(long maxFileSize) {
+        synchronized (lock) {
+            this.maxFileSize = maxFileSize;
+        }
+    }
+
+    /**
+     * Returns whether packets are being recorded.
+     *
+     * @return if recording
+     */
+    public boolean isRecording() {
+        synchronized (lock) {
+            return blocks.isRecording();
+        }
+    }
+
+    /**
+     * Returns how many blocks were thrown away because they could not be
+     * written quickly enough.
+     *
+     * @return amount of lost blocks
+     */
+    public long getDroppedBlocks() {
+        synchronized (lock) {
+            return blocks.getDroppedBlocks();
+        }
+    }
+
+    /**
+     * Records the latest packet if it has not been recorded yet. Is called
+     * automatically at the rate given in the constructor while recording,
+     * unless that rate is 0. Does nothing when not recording.
+     */
+    public void sample() {
+        synchronized (lock) {
+            if (!blocks.isRecording()) {
+                return;
+            }
+            int number = ds.getPacketNumber();
+            if (sampled && number == lastPacket) {
+                return;
+            }
+            sampled = true;
+            lastPacket = number;
+            if (fileSize + packetSize > maxFileSize) {
+                Logger.log(Logger.Urgency.LOG, "Driver station recording full at " + fileSize + " bytes");
+                blocks.stop();
+                return;
+            }
+            fileSize += packetSize;
+
+            Block b = (Block) blocks.getFilling();
+            byte[] d = b.bytes;
+            int i = b.length;
+            i = putInt(d, i, (int) (Clock.currentTimeMillis() - startTime));
+            i = putInt(d, i, number);
+            d[i++] = (byte) ((ds.isEnabled() ? DriverstationReader.ENABLED : 0)
+                    | (ds.isAutonomous() ? DriverstationReader.AUTONOMOUS : 0)
+                    | (ds.isTest() ? DriverstationReader.TEST : 0)
+                    | (ds.isFMSAttached() ? DriverstationReader.FMS_ATTACHED : 0));
+            int digital = 0;
+            for (int x = 0; x < DriverstationReader.digitalInputs; x++) {
+                if (ds.getDigitalIn(x + 1)) {
+                    digital |= 1 << x;
+                }
+            }
+            d[i++] = (byte) digital;
+            i = putShort(d, i, scale(ds.getBatteryVoltage(), 100));
+            i = putShort(d, i, scale(ds.getMatchTime(), 10));
+            for (int x = 0; x < joysticks.length; x++) {
+                Hardware.Joystick joystick = joysticks[x];
+                for (int axis = 1; axis <= DriverstationReader.axes; axis++) {
+                    d[i++] = DriverstationReader.encodeAxis(joystick.getRawAxis(axis));
+                }
+                int buttons = 0;
+                for (int button = 1; button <= DriverstationReader.buttons; button++) {
+                    if (joystick.getRawButton(button)) {
+                        buttons |= 1 << (button - 1);
+                    }
+                }
+                i = putShort(d, i, buttons);
+            }
+            b.length = i;
+
+            if (b.length == d.length) {
+                blocks.blockFull();
+            }
+        }
+    }
+
+    // Fits into an unsigned short
+    private static int scale(double value, double scale) {
+        return Math.max(0, Math.min(0xFFFF, (int) (value * scale + 0.5)));
+    }
+
+    private static int putInt(byte[] d, int i, int value) {
+        d[i] = (byte) (value >>> 24);
+        d[i + 1] = (byte) (value >>> 16);
+        d[i + 2] = (byte) (value >>> 8);
+        d[i + 3] = (byte) value;
+        return i + 4;
+    }
+
+    private static int putShort(byte[] d, int i, int value) {
+        d[i] = (byte) (value >>> 8);
+        d[i + 1] = (byte) value;
+        return i + 2;
+    }
+
+    private final class Format implements BlockWriter.Format {
+
+        public Object newBlock() {
+            return new Block(packetSize * blockPackets);
+        }
+
+        public boolean canReuse(Object block) {
+            return true;
+        }
+
+        public void clear(Object block) {
+            ((Block) block).length = 0;
+        }
+
+        public void writeHeader(DataOutputStream stream) throws IOException {
+            stream.writeInt(DriverstationReader.MAGIC);
+            stream.writeInt(DriverstationReader.VERSION);
+            stream.writeInt(joysticks.length);
+        }
+
+        public void writeBlock(DataOutputStream stream, Object block) throws IOException {
+            Block b = (Block) block;
+            stream.write(b.bytes, 0, b.length);
+        }
+    }
+}
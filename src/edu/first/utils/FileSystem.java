@@ -0,0 +1,164 @@
+package edu.first.utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Source of files for the whole robot. Everything that reads or writes a file
+ * should open it through the file system instead of
+ * {@link javax.microedition.io.Connector}, using the same {@code file:///}
+ * paths.
+ *
+ * <p> On the robot the file system is a {@link SquawkFileSystem}, which is set
+ * by {@link edu.first.main.GamePeriods} before any robot code runs.
+ * Simulations and tests can use a {@link MemoryFileSystem} instead, so that
+ * robot code runs without the cRIO's flash memory (or Squawk). Until a file
+ * system is set, opening a file throws an {@link IOException}, which everything
+ * using files already has to handle.
+ *
+ * @author Joel Gallant
+ */
+public abstract class FileSystem {
+
+    /**
+     * Mode to open files that are only read.
+     */
+    public static final int READ = 1;
+    /**
+     * Mode to open files that are read, written, created, deleted or renamed.
+     */
+    public static final int READ_WRITE = 3;
+    private static volatile FileSystem FILE_SYSTEM;
+
+    /**
+     * Returns the file system currently being used.
+     *
+     * @return current file system, or null if none was set
+     */
+    public static FileSystem getFileSystem() {
+        return FILE_SYSTEM;
+    }
+
+    /**
+     * Changes the file system used by everything. Should only be called at
+     * startup, before anything else opens a file.
+     *
+     * @param fileSystem file system to use
+     */
+    public static void setFileSystem(FileSystem fileSystem) {
+        if (fileSystem == null) {
+            throw new NullPointerException();
+        }
+        FILE_SYSTEM = fileSystem;
+    }
+
+    /**
+     * Opens a file in the current file system. Use instead of
+     * {@link javax.microedition.io.Connector#open(java.lang.String, int)}. The
+     * file does not need to exist yet.
+     *
+     * @param path path of the file ({@code file:///name})
+     * @param mode {@link FileSystem#READ} or {@link FileSystem#READ_WRITE}
+     * @return file at the path, which needs to be closed
+     * @throws IOException thrown when the file can't be opened, or there is no
+     * file system
+     */
+    public static File open(String path, int mode) throws IOException {
+        FileSystem fileSystem = FILE_SYSTEM;
+        if (fileSystem == null) {
+            throw new IOException("No file system");
+        }
+        return fileSystem.openFile(path, mode);
+    }
+
+    /**
+     * Opens a file in this file system.
+     *
+     * @param path path of the file ({@code file:///name})
+     * @param mode {@link FileSystem#READ} or {@link FileSystem#READ_WRITE}
+     * @return file at the path
+     * @throws IOException thrown when the file can't be opened
+     */
+    public abstract File openFile(String path, int mode) throws IOException;
+
+    /**
+     * File that has been opened. Works like
+     * {@link com.sun.squawk.microedition.io.FileConnection}: the file is not
+     * created by opening it, and after {@link File#delete()} it has to be
+     * opened again before it can be used.
+     */
+    public static interface File {
+
+        /**
+         * Returns whether the file exists.
+         *
+         * @return if file exists
+         */
+        boolean exists();
+
+        /**
+         * Returns the size of the file.
+         *
+         * @return size of the file (bytes)
+         * @throws IOException thrown when the file doesn't exist
+         */
+        long fileSize() throws IOException;
+
+        /**
+         * Creates the file, empty.
+         *
+         * @throws IOException thrown when the file already exists
+         */
+        void create() throws IOException;
+
+        /**
+         * Deletes the file.
+         *
+         * @throws IOException thrown when the file doesn't exist
+         */
+        void delete() throws IOException;
+
+        /**
+         * Renames the file, in the same directory.
+         *
+         * @param newName new file name, without a directory
+         * @throws IOException thrown when the file doesn't exist, or another
+         * file already has the name
+         */
+        void rename(String newName) throws IOException;
+
+        /**
+         * Opens a stream reading the file from the start.
+         *
+         * @return stream of the file's contents
+         * @throws IOException thrown when the file doesn't exist
+         */
+        InputStream openInputStream() throws IOException;
+
+        /**
+         * Opens a stream writing over the file from the start.
+         *
+         * @return stream writing the file
+         * @throws IOException thrown when the file doesn't exist
+         */
+        OutputStream openOutputStream() throws IOException;
+
+        /**
+         * Opens a stream writing over the file from an offset. Writing past
+         * the end makes the file longer.
+         *
+         * @param offset where to start writing (bytes)
+         * @return stream writing the file
+         * @throws IOException thrown when the file doesn't exist
+         */
+        OutputStream openOutputStream(long offset) throws IOException;
+
+        /**
+         * Closes the file. Streams that were opened should be closed first.
+         *
+         * @throws IOException thrown when closing fails
+         */
+        void close() throws IOException;
+    }
+}
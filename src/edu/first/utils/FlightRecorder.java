@@ -0,0 +1,286 @@
+package edu.first.utils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Keeps the last few seconds of samples and log messages in memory, so that
+ * when something goes wrong there is a record of what led up to it. Nothing is
+ * written until the recorder is triggered, at which point it freezes and dumps
+ * everything it has to a file.
+ *
+ * <p> All memory is allocated when the recorder is constructed. Samples come
+ * from a {@link TelemetryRegistry} (see
+ * {@link TelemetryRegistry#setFlightRecorder(FlightRecorder)}), which copies
+ * values it already read, and every message given to {@link Logger} is kept by
+ * reference. Neither creates garbage.
+ *
+ * <p> The recorder can be triggered by:
+ * <ul>
+ * <li> Anything thrown inside of {@link edu.first.main.GamePeriods}.
+ * <li> The battery dropping below {@link FlightRecorder#setBatteryThreshold(double)}
+ * (checked by {@link FlightRecorder#checkBattery()}).
+ * <li> Calling {@link FlightRecorder#trigger(String)}.
+ * </ul>
+ * While a dump is being written, and for a short while after, new triggers are
+ * ignored. Dumps are written to files numbered from 0 up to the maximum, and
+ * then start over at 0.
+ *
+ * @author Joel Gallant
+ */
+public final class FlightRecorder {
+
+    /**
+     * "Official" flight recorder, triggered by
+     * {@link edu.first.main.GamePeriods} and fed by {@link Logger}. Holds 5
+     * seconds of samples at 10 milliseconds, and the last 64 messages.
+     */
+    public static final FlightRecorder INSTANCE = new FlightRecorder("file:///flight", 5, 500, 32, 64);
+    private static final double batteryHysteresis = 0.5;
+    // Keeps a repeating error from overwriting the dump of its first time
+    private static final long triggerHoldoff = 10000L;
+    private final String path;
+    private final int maxDumps;
+    private final int maxChannels;
+    private final Object lock = new Object();
+    private final int[] sampleTimes;
+    private final float[][] samples;
+    private final long[] messageTimes;
+    private final String[] messages;
+    private String[] names;
+    private int channels;
+    private int nextSample, sampleCount;
+    private int nextMessage, messageCount;
+    private int dumps;
+    private long startTime = Clock.currentTimeMillis();
+    private double batteryThreshold = 7.5;
+    private boolean batteryLow;
+    private boolean frozen;
+    private long lastTrigger = -triggerHoldoff;
+    private String reason;
+
+    /**
+     * Constructs the recorder with where to dump to and how much to keep.
+     *
+     * @param path start of the dump file names (ex. "file:///flight" writes
+     * "file:///flight0.txt")
+     * @param maxDumps amount of dump files to keep
+     * @param rows amount of samples to keep
+     * @param maxChannels most values kept in each sample
+     * @param messages amount of log messages to keep
+     */
+    public FlightRecorder(String path, int maxDumps, int rows, int maxChannels, int messages) {
+        if (path == null) {
+            throw new NullPointerException();
+        }
+        this.path = path;
+        this.maxDumps = maxDumps;
+        this.maxChannels = maxChannels;
+        this.sampleTimes = new int[rows];
+        this.samples = new float[rows][maxChannels];
+        this.messageTimes = new long[messages];
+        this.messages = new String[messages];
+    }
+
+    /**
+     * Sets the names of the values in each sample. Is called by
+     * {@link TelemetryRegistry}, which keeps filling the array as channels are
+     * added.
+     *
+     * @param names names of each value (array is used directly, not copied)
+     */
+    void setNames(String[] names) {
+        synchronized (lock) {
+            this.names = names;
+        }
+    }
+
+    /**
+     * Keeps a sample. Older samples are replaced once the recorder is full.
+     * Does nothing while frozen.
+     *
+     * @param time when the values were read
+     * @param values values of the sample
+     * @param count amount of values in the array to keep
+     */
+    public void sample(long time, double[] values, int count) {
+        synchronized (lock) {
+            if (frozen) {
+                return;
+            }
+            int c = Math.min(count, maxChannels);
+            float[] row = samples[nextSample];
+            for (int x = 0; x < c; x++) {
+                row[x] = (float) values[x];
+            }
+            sampleTimes[nextSample] = (int) (time - startTime);
+            channels = Math.max(channels, c);
+            nextSample = (nextSample + 1) % samples.length;
+            if (sampleCount < samples.length) {
+                sampleCount++;
+            }
+        }
+    }
+
+    /**
+     * Keeps a log message. Older messages are replaced once the recorder is
+     * full. Does nothing while frozen.
+     *
+     * @param message message that was logged
+     */
+    public void log(String message) {
+        synchronized (lock) {
+            if (frozen) {
+                return;
+            }
+            addMessage(message);
+        }
+    }
+
+    // Must hold lock
+    private void addMessage(String message) {
+        messages[nextMessage] = message;
+        messageTimes[nextMessage] = Clock.currentTimeMillis() - startTime;
+        nextMessage = (nextMessage + 1) % messages.length;
+        if (messageCount < messages.length) {
+            messageCount++;
+        }
+    }
+
+    /**
+     * Sets the battery voltage that triggers the recorder. It will not trigger
+     * again until the battery comes back up past this.
+     *
+     * @param batteryThreshold lowest voltage before triggering (volts)
+     */
+    public void setBatteryThreshold(double batteryThreshold) {
+        synchronized (lock) {
+            this.batteryThreshold = batteryThreshold;
+        }
+    }
+
+    /**
+     * Triggers the recorder if the battery has dipped below the threshold.
+     * Should be called periodically.
+     */
+    public void checkBattery() {
+        double voltage = DriverstationInfo.getBatteryVoltage();
+        boolean dip = false;
+        synchronized (lock) {
+            // No reading yet is not a dip
+            if (!batteryLow && voltage > 0 && voltage < batteryThreshold) {
+                batteryLow = true;
+                dip = true;
+            } else if (batteryLow && voltage > batteryThreshold + batteryHysteresis) {
+                batteryLow = false;
+            }
+        }
+        if (dip) {
+            trigger("Battery dipped to " + voltage + "V");
+        }
+    }
+
+    /**
+     * Freezes the recorder and writes everything in it to the next dump file
+     * in a low priority thread. Recording starts again once it is written.
+     * Does nothing if a dump is being written, or if the last trigger was less
+     * than 10 seconds ago.
+     *
+     * @param reason why the recorder was triggered, written in the file
+     */
+    public void trigger(String reason) {
+        synchronized (lock) {
+            long now = Clock.currentTimeMillis();
+            if (frozen || now - lastTrigger < triggerHoldoff) {
+                return;
+            }
+            lastTrigger = now;
+            addMessage("TRIGGER - " + reason);
+            this.reason = reason;
+            frozen = true;
+        }
+        Thread dump = new Thread(new Dump());
+        dump.setPriority(Thread.MIN_PRIORITY);
+        dump.start();
+    }
+
+    /**
+     * Returns whether the recorder is frozen while writing a dump.
+     *
+     * @return if a dump is being written
+     */
+    public boolean isFrozen() {
+        synchronized (lock) {
+            return frozen;
+        }
+    }
+
+    private final class Dump implements Runnable {
+
+        public void run() {
+            // Nothing is changed while frozen, so the buffers can be read freely
+            String file = path + dumps + ".txt";
+            FileSystem.File connection = null;
+            OutputStream stream = null;
+            try {
+                connection = FileSystem.open(file, FileSystem.READ_WRITE);
+                if (connection.exists()) {
+                    connection.delete();
+                    connection.close();
+                    connection = FileSystem.open(file, FileSystem.READ_WRITE);
+                }
+                connection.create();
+                stream = connection.openOutputStream();
+                write(stream, "Flight recorder triggered - " + reason + "\n\n");
+
+                int oldest = (nextMessage - messageCount + messages.length) % messages.length;
+                for (int x = 0; x < messageCount; x++) {
+                    int i = (oldest + x) % messages.length;
+                    write(stream, messageTimes[i] + ": " + messages[i] + "\n");
+                }
+
+                StringBuffer line = new StringBuffer("\ntime");
+                for (int x = 0; x < channels; x++) {
+                    line.append(',').append(names == null || names[x] == null ? "?" : names[x]);
+                }
+                write(stream, line.append('\n').toString());
+                oldest = (nextSample - sampleCount + samples.length) % samples.length;
+                for (int x = 0; x < sampleCount; x++) {
+                    int i = (oldest + x) % samples.length;
+                    line.setLength(0);
+                    line.append(sampleTimes[i]);
+                    for (int c = 0; c < channels; c++) {
+                        line.append(',').append(samples[i][c]);
+                    }
+                    write(stream, line.append('\n').toString());
+                }
+                Logger.log(Logger.Urgency.LOG, "Flight recorder written to " + file);
+            } catch (IOException ex) {
+                Logger.log(Logger.Urgency.LOG, "Flight recorder could not be written - " + ex.getMessage());
+            } finally {
+                try {
+                    if (stream != null) {
+                        stream.close();
+                    }
+                    if (connection != null) {
+                        connection.close();
+                    }
+                } catch (IOException ex) {
+                    ex.printStackTrace();
+                }
+                synchronized (lock) {
+                    dumps = (dumps + 1) % maxDumps;
+                    nextSample = 0;
+                    sampleCount = 0;
+                    nextMessage = 0;
+                    messageCount = 0;
+                    frozen = false;
+                }
+            }
+        }
+
+        private void write(OutputStream stream, String text) throws IOException {
+            stream.write(text.getBytes());
+        }
+    }
+}
@@ -0,0 +1,267 @@
+package edu.first.utils;
+
+import java.util.Enumeration;
+import java.util.Hashtable;
+
+/**
+ * Measures how long it takes from a packet arriving from the DriverStation to
+ * something being done about it. {@link LatencyMonitor#packetArrived()} stamps
+ * the time that the latest packet arrived, and code that reads the joysticks
+ * keeps that stamp with what it read (from
+ * {@link LatencyMonitor#getPacketTime()}). When the value finally gets written
+ * to an actuator, the stamp is given to that actuator's
+ * {@link LatencyMonitor.Output}, which keeps a histogram of latencies.
+ *
+ * <p> An output only records the first write of every stamp, because writing
+ * the same value again later is not a response to the packet. This means the
+ * histogram shows the delay of every packet that reached the actuator.
+ *
+ * <p> Times are in milliseconds from {@link Clock}, so latency from work done
+ * directly after the packet shows up as 0.
+ *
+ * <p> {@link LatencyMonitor#clearPacket()} forgets the packet before init
+ * methods, so values set by something that is not a response to a packet
+ * (like an autonomous script) are not stamped with an old one.
+ *
+ * @author Joel Gallant
+ */
+public final class LatencyMonitor {
+
+    /**
+     * "Official" latency monitor, stamped by {@link edu.first.main.GamePeriods}.
+     * This does not prevent someone from creating a different instance for
+     * different uses.
+     */
+    public static final LatencyMonitor INSTANCE = new LatencyMonitor();
+    /**
+     * Stamp that means there is no packet behind a value (like in autonomous).
+     * Outputs ignore it.
+     */
+    public static final long NONE = -1;
+    // Upper limits of each latency bucket - the last bucket has no limit
+    private static final long[] bucketLimits = {1, 2, 5, 10, 20, 50};
+    private final Object lock = new Object();
+    private final Hashtable outputs = new Hashtable();
+    private long packetTime = NONE;
+    private int lastCount;
+    private boolean seeded;
+
+    /**
+     * Stamps the time that the current packet arrived. Should be called once
+     * every periodic tick, as early as possible. Does nothing if the packet is
+     * the same as the last one.
+     */
+    public void packetArrived() {
+        long now = Clock.currentTimeMillis();
+        int count = DriverstationInfo.getPacketCount();
+        synchronized (lock) {
+            if (seeded && count == lastCount) {
+                return;
+            }
+            seeded = true;
+            lastCount = count;
+            packetTime = now;
+        }
+    }
+
+    /**
+     * Forgets the latest packet, so that {@link LatencyMonitor#getPacketTime()}
+     * returns {@link LatencyMonitor#NONE} until the next one is stamped. Called
+     * before every init method, since they do not respond to a packet.
+     */
+    public void clearPacket() {
+        synchronized (lock) {
+            seeded = false;
+            packetTime = NONE;
+        }
+    }
+
+    /**
+     * Returns when the latest packet arrived. Should be read before the
+     * joysticks, so that the stamp is never newer than the values.
+     *
+     * @return time of the packet (milliseconds), or {@link LatencyMonitor#NONE}
+     */
+    public long getPacketTime() {
+        synchronized (lock) {
+            return packetTime;
+        }
+    }
+
+    /**
+     * Returns the output with the name, creating it if it does not exist yet.
+     * Outputs should be kept instead of looked up every time.
+     *
+     * @param name name of the actuator
+     * @return output that keeps the actuator's latencies
+     */
+    public Output getOutput(String name) {
+        synchronized (lock) {
+            Output output = (Output) outputs.get(name);
+            if (output == null) {
+                output = new Output(name);
+                outputs.put(name, output);
+            }
+            return output;
+        }
+    }
+
+    /**
+     * Forgets every latency of every output.
+     */
+    public void reset() {
+        synchronized (lock) {
+            seeded = false;
+            packetTime = NONE;
+            Enumeration e = outputs.elements();
+            while (e.hasMoreElements()) {
+                ((Output) e.nextElement()).reset();
+            }
+        }
+    }
+
+    /**
+     * Returns how many buckets the latency histograms have.
+     *
+     * @return amount of buckets
+     */
+    public static int getBucketCount() {
+        return bucketLimits.length + 1;
+    }
+
+    /**
+     * Returns the longest latency that falls into a bucket. The last bucket
+     * has no limit, and returns {@link Long#MAX_VALUE}.
+     *
+     * @param bucket index of the bucket
+     * @return upper limit of the bucket (milliseconds)
+     */
+    public static long getBucketLimit(int bucket) {
+        return bucket < bucketLimits.length ? bucketLimits[bucket] : Long.MAX_VALUE;
+    }
+
+    private static int bucketOf(long latency) {
+        for (int x = 0; x < bucketLimits.length; x++) {
+            if (latency <= bucketLimits[x]) {
+                return x;
+            }
+        }
+        return bucketLimits.length;
+    }
+
+    /**
+     * Latencies of one actuator, from packets arriving to it being written.
+     */
+    public static final class Output {
+
+        private final String name;
+        private final int[] buckets = new int[bucketLimits.length + 1];
+        private long lastStamp = NONE;
+        private long count, total, max;
+
+        private Output(String name) {
+            this.name = name;
+        }
+
+        /**
+         * Returns the name of the actuator.
+         *
+         * @return name given to {@link LatencyMonitor#getOutput(String)}
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Records that a value was just written to the actuator. Should be
+         * called right after the write, with the stamp of the packet that the
+         * value came from.
+         *
+         * @param stamp time of the packet (milliseconds), or
+         * {@link LatencyMonitor#NONE}
+         */
+        public synchronized void written(long stamp) {
+            if (stamp == NONE || stamp == lastStamp) {
+                return;
+            }
+            lastStamp = stamp;
+            long latency = Math.max(0, Clock.currentTimeMillis() - stamp);
+            buckets[bucketOf(latency)]++;
+            count++;
+            total += latency;
+            max = Math.max(max, latency);
+        }
+
+        /**
+         * Forgets every latency.
+         */
+        public synchronized void reset() {
+            lastStamp = NONE;
+            count = 0;
+            total = 0;
+            max = 0;
+            for (int x = 0; x < buckets.length; x++) {
+                buckets[x] = 0;
+            }
+        }
+
+        /**
+         * Returns how many packets reached the actuator since the last reset.
+         *
+         * @return amount of latencies recorded
+         */
+        public synchronized long getCount() {
+            return count;
+        }
+
+        /**
+         * Returns the average latency since the last reset.
+         *
+         * @return average latency (milliseconds)
+         */
+        public synchronized double getAverage() {
+            return count == 0 ? 0 : total / (double) count;
+        }
+
+        /**
+         * Returns the longest latency since the last reset.
+         *
+         * @return longest latency (milliseconds)
+         */
+        public synchronized long getMax() {
+            return max;
+        }
+
+        /**
+         * Returns how many latencies fell into a bucket.
+         *
+         * @param bucket index of the bucket
+         * @return amount of latencies
+         * @see LatencyMonitor#getBucketLimit(int)
+         */
+        public synchronized int getLatencyCount(int bucket) {
+            return buckets[bucket];
+        }
+
+        /**
+         * Returns the upper limit of the bucket that a percentage of latencies
+         * are within. For example, {@code getPercentile(0.95)} gives a time
+         * that 95% of packets reached the actuator in.
+         *
+         * @param fraction fraction of latencies (0 to 1)
+         * @return upper limit of the bucket (milliseconds), or 0 if nothing
+         * has been recorded
+         */
+        public synchronized long getPercentile(double fraction) {
+            long needed = (long) Math.ceil(count * fraction);
+            long seen = 0;
+            for (int x = 0; x < buckets.length; x++) {
+                seen += buckets[x];
+                if (seen >= needed && seen > 0) {
+                    return Math.min(getBucketLimit(x), max);
+                }
+            }
+            return 0;
+        }
+    }
+}
@@ -1,11 +1,11 @@
 package edu.first.utils;
 
-import com.sun.squawk.microedition.io.FileConnection;
-import edu.wpi.first.wpilibj.DriverStationLCD;
+import edu.first.module.hardware.Hardware;
+import edu.first.module.hardware.WPILibHardware;
 import java.io.DataInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import javax.microedition.io.Connector;
+import java.io.OutputStream;
 
 /**
  * Static utility class used to access the various forms of logging that are
@@ -19,14 +19,52 @@ import javax.microedition.io.Connector;
  *
  * <p> To retrieve the log file contents, use FTP or {@link Logger#getLog()}.
  *
+ * <p> Logging never blocks the caller on output. Messages are put into a
+ * fixed-size ring buffer and a low priority background thread sends them to
+ * the console and DriverStation. If messages come in faster than they can be
+ * sent, the oldest ones are dropped and counted in
+ * {@link Logger#getDroppedMessages()}.
+ *
+ * <p> The same thread appends messages to the log file in large blocks. A block
+ * is written once enough text has built up, once it has waited long enough, or
+ * when {@link Logger#flushFile()} is called (usually on mode changes). When the
+ * file grows past {@link Logger#setMaxFileSize(long)}, it is moved to
+ * {@link Logger#OLD_PATH} and a new one is started.
+ *
+ * <p> User messages go to the LCD given to {@link Logger#setLCD(Hardware.LCD)},
+ * which is the real driver station's unless a simulated one is set.
+ *
+ * <p> Every message is also kept by {@link FlightRecorder#INSTANCE}. A message
+ * that fails to be sent is printed and skipped, so nothing can stop logging.
+ * The thread is started by the first message and runs for the life of the
+ * robot. There are no daemon threads in CLDC, so desktop tools call
+ * {@link Logger#shutdown()} to finish logging before the JVM exits.
+ *
  * @author Joel Gallant
  */
 public final class Logger {
 
     private static final String PATH = "file:///log.txt";
+    /**
+     * Where the previous log file is kept after it gets too big.
+     */
+    public static final String OLD_PATH = "file:///log.old.txt";
+    private static final int capacity = 256;
+    private static final int blockSize = 4096;
+    private static final long writeInterval = 10000L;
+    private static final Object lock = new Object();
+    private static final String[] messages = new String[capacity];
+    private static final Urgency[] urgencies = new Urgency[capacity];
+    private static int head, size;
+    private static long dropped;
+    private static boolean draining;
+    private static boolean drainRunning;
+    private static boolean stopping;
+    private static boolean flushFile;
+    private static long maxFileSize = 512 * 1024;
     private static boolean fileLoggingOn = true;
     private static int lineNum = 1;
-    private static FileConnection logFile;
+    private static volatile Hardware.LCD LCD;
 
     // cannot be subclassed or instantiated
     private Logger() throws IllegalAccessException {
@@ -57,6 +95,28 @@ public final class Logger {
         public final static Urgency LOG = new Urgency();
     }
 
+    /**
+     * Sets where user messages are displayed. Should be done before anything
+     * is logged.
+     *
+     * @param lcd driver station LCD to use
+     */
+    public static void setLCD(Hardware.LCD lcd) {
+        if (lcd == null) {
+            throw new NullPointerException();
+        }
+        LCD = lcd;
+    }
+
+    // Only touches the real LCD when nothing else was set
+    private static Hardware.LCD lcd() {
+        Hardware.LCD lcd = LCD;
+        if (lcd == null) {
+            LCD = lcd = WPILibHardware.INSTANCE.getLCD();
+        }
+        return lcd;
+    }
+
     /**
      * Logs the message according to the urgency. There are three different ways
      * to log messages:
@@ -65,14 +125,16 @@ public final class Logger {
      * 1. Send to the console (netbeans console that code was deployed on
      *
      * 2. Send to the DriverStation console (box on the right side)
+     *
+     * 3. Append to the log file, if {@link Logger#isFileLoggingOn()}
      * </pre>
      *
      * The urgency and logging methods are as follows:
      *
      * <pre>
-     * {@link Urgency#USERMESSAGE} - 1, 2
+     * {@link Urgency#USERMESSAGE} - 1, 2, 3
      *
-     * {@link Urgency#LOG} - 1
+     * {@link Urgency#LOG} - 1, 3
      * </pre>
      *
      * <p> Use a null urgency to just send the message to log file and console.
@@ -81,21 +143,259 @@ public final class Logger {
      * @param msg message to log
      */
     public static void log(Urgency urgency, String msg) {
-        String usrMsg = msg;
-        if (urgency == Urgency.USERMESSAGE) {
-            displayLCDMessage(usrMsg, true);
+        FlightRecorder.INSTANCE.log(msg);
+        synchronized (lock) {
+            if (size == capacity) {
+                // Drop oldest
+                head = (head + 1) % capacity;
+                size--;
+                dropped++;
+            }
+            int tail = (head + size) % capacity;
+            messages[tail] = msg;
+            urgencies[tail] = urgency;
+            size++;
+            if (!drainRunning && !stopping) {
+                // Only the first message, the thread never stops on its own
+                drainRunning = true;
+                Thread drain = new Thread(new Drain());
+                drain.setPriority(Thread.MIN_PRIORITY);
+                drain.start();
+            }
+            lock.notifyAll();
+        }
+    }
+
+    /**
+     * Returns how many messages have been thrown away because the buffer was
+     * full.
+     *
+     * @return amount of dropped messages since the robot started
+     */
+    public static long getDroppedMessages() {
+        synchronized (lock) {
+            return dropped;
+        }
+    }
+
+    /**
+     * Waits until every message logged so far has been sent. Should not be
+     * used anywhere time matters.
+     */
+    public static void flush() {
+        synchronized (lock) {
+            while (size > 0 || draining) {
+                try {
+                    lock.wait(10);
+                } catch (InterruptedException ex) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Asks for everything waiting to go to the log file to be written as soon
+     * as possible. Does not wait for the write to happen, so it is safe to call
+     * from anywhere.
+     */
+    public static void flushFile() {
+        synchronized (lock) {
+            flushFile = true;
+            lock.notifyAll();
+        }
+    }
+
+    /**
+     * Sends and writes everything logged so far, and stops the logging thread
+     * so that a desktop JVM can exit. Only for tools - the robot logs until it
+     * is turned off. Messages logged afterwards are only kept by
+     * {@link FlightRecorder#INSTANCE}.
+     */
+    public static void shutdown() {
+        synchronized (lock) {
+            stopping = true;
+            lock.notifyAll();
+            while (drainRunning) {
+                try {
+                    lock.wait(10);
+                } catch (InterruptedException ex) {
+                    return;
+                }
+            }
         }
-        System.out.println(msg);
     }
 
-    private static FileConnection logFileInput() throws IOException {
-        if (logFile == null) {
-            logFile = (FileConnection) Connector.open(PATH, Connector.READ);
-            logFile.create();
+    /**
+     * Sets how big the log file can get before it is moved to
+     * {@link Logger#OLD_PATH} and a new one is started.
+     *
+     * @param maxFileSize maximum size of the log file (bytes)
+     */
+    public static void setMaxFileSize(long maxFileSize) {
+        synchronized (lock) {
+            Logger.maxFileSize = maxFileSize;
+        }
+    }
+
+    private static final class Drain implements Runnable {
+
+        private final String[] batchMessages = new String[capacity];
+        private final Urgency[] batchUrgencies = new Urgency[capacity];
+        private final StringBuffer pending = new StringBuffer(blockSize * 2);
+        private long lastWrite = Clock.currentTimeMillis();
+
+        public void run() {
+            while (true) {
+                int count;
+                boolean flush;
+                boolean stop;
+                long max;
+                synchronized (lock) {
+                    boolean waited = false;
+                    while (size == 0 && !flushFile && !stopping && !writeDue()) {
+                        if (waited) {
+                            // Waited the whole interval, even if the clock is not moving
+                            flushFile = true;
+                            break;
+                        }
+                        try {
+                            if (pending.length() > 0) {
+                                // Wake up in time to write whatever is pending
+                                lock.wait(writeInterval);
+                                waited = true;
+                            } else {
+                                lock.wait();
+                            }
+                        } catch (InterruptedException ex) {
+                            ex.printStackTrace();
+                        }
+                    }
+                    count = size;
+                    for (int x = 0; x < count; x++) {
+                        int i = (head + x) % capacity;
+                        batchMessages[x] = messages[i];
+                        batchUrgencies[x] = urgencies[i];
+                        messages[i] = null;
+                    }
+                    head = (head + count) % capacity;
+                    size = 0;
+                    stop = stopping;
+                    flush = flushFile || stop;
+                    flushFile = false;
+                    max = maxFileSize;
+                    draining = true;
+                }
+                try {
+                    send(count);
+                    if (pending.length() > 0 && (flush || pending.length() >= blockSize || writeDue())) {
+                        writeFile(max);
+                    }
+                } catch (Throwable t) {
+                    // Never let one failure stop logging
+                    t.printStackTrace();
+                } finally {
+                    synchronized (lock) {
+                        draining = false;
+                    }
+                }
+                if (stop) {
+                    synchronized (lock) {
+                        drainRunning = false;
+                        lock.notifyAll();
+                    }
+                    return;
+                }
+            }
+        }
+
+        private void send(int count) {
+            boolean lcd = false;
+            boolean file = isFileLoggingOn();
+            for (int x = 0; x < count; x++) {
+                try {
+                    if (batchUrgencies[x] == Urgency.USERMESSAGE) {
+                        lcd = true;
+                        writeLCDMessage(batchMessages[x], true);
+                    }
+                    System.out.println(batchMessages[x]);
+                    if (file) {
+                        pending.append(batchMessages[x]).append('\n');
+                    }
+                } catch (Throwable t) {
+                    t.printStackTrace();
+                }
+                batchMessages[x] = null;
+                batchUrgencies[x] = null;
+            }
+            if (lcd) {
+                lcd().update();
+            }
+        }
+
+        private boolean writeDue() {
+            return pending.length() > 0 && Clock.currentTimeMillis() - lastWrite >= writeInterval;
+        }
+
+        private void writeFile(long max) {
+            byte[] bytes = pending.toString().getBytes();
+            pending.setLength(0);
+            lastWrite = Clock.currentTimeMillis();
+            try {
+                boolean full;
+                FileSystem.File connection = FileSystem.open(PATH, FileSystem.READ_WRITE);
+                try {
+                    if (!connection.exists()) {
+                        connection.create();
+                    }
+                    long length = connection.fileSize();
+                    full = length > 0 && length + bytes.length > max;
+                    if (full) {
+                        rotate(connection);
+                    } else {
+                        append(connection, length, bytes);
+                    }
+                } finally {
+                    connection.close();
+                }
+                if (full) {
+                    connection = FileSystem.open(PATH, FileSystem.READ_WRITE);
+                    try {
+                        connection.create();
+                        append(connection, 0, bytes);
+                    } finally {
+                        connection.close();
+                    }
+                }
+            } catch (IOException ex) {
+                System.out.println("Could not write to log file - " + ex.getMessage());
+            }
+        }
+
+        private void append(FileSystem.File connection, long offset, byte[] bytes) throws IOException {
+            OutputStream stream = connection.openOutputStream(offset);
+            try {
+                stream.write(bytes);
+            } finally {
+                stream.close();
+            }
+        }
+
+        private void rotate(FileSystem.File connection) throws IOException {
+            FileSystem.File old = FileSystem.open(OLD_PATH, FileSystem.READ_WRITE);
+            try {
+                if (old.exists()) {
+                    old.delete();
+                }
+            } finally {
+                old.close();
+            }
+            // rename() only takes the new file name
+            connection.rename(OLD_PATH.substring(OLD_PATH.lastIndexOf('/') + 1));
         }
-        return logFile;
     }
 
+
     /**
      * Returns the full text from the log file.
      *
@@ -105,7 +405,12 @@ public final class Logger {
      * @return text in the log file
      */
     public static String getLog() throws IOException {
-        return getTextFromFile(logFileInput());
+        FileSystem.File connection = FileSystem.open(PATH, FileSystem.READ);
+        try {
+            return connection.exists() ? getTextFromFile(connection) : "";
+        } finally {
+            connection.close();
+        }
     }
 
     /**
@@ -120,7 +425,7 @@ public final class Logger {
      * @return text from the file
      * @throws IOException thrown when error occurs
      */
-    public static synchronized String getTextFromFile(FileConnection connection) throws IOException {
+    public static synchronized String getTextFromFile(FileSystem.File connection) throws IOException {
         if (connection == null) {
             throw new NullPointerException();
         }
@@ -134,9 +439,9 @@ public final class Logger {
     }
 
     /**
-     * Displays a string on the {@link DriverStationLCD}. This is the box on the
-     * DriverStation on the right side. <b> Messages cannot be over
-     * {@link DriverStationLCD#kLineLength}.</b> Messages are displayed on the
+     * Displays a string on the driver station LCD. This is the box on the
+     * DriverStation on the right side. Messages over
+     * {@link Hardware.LCD#lineLength} continue on the next line. Messages are displayed on the
      * next line, meaning that if the previous message was displayed on line
      * <i>x</i>, the next message by convention is displayed on line <i>x+1</i>,
      * etc.
@@ -145,51 +450,26 @@ public final class Logger {
      * @param blank if a blank line should be added after the line
      */
     public static void displayLCDMessage(String msg, boolean blank) {
+        writeLCDMessage(msg, blank);
+        lcd().update();
+    }
+
+    // Writes lines without sending them - updateLCD() is slow
+    private static synchronized void writeLCDMessage(String msg, boolean blank) {
         if (msg == null) {
             throw new NullPointerException();
         }
-        if (msg.length() > DriverStationLCD.kLineLength) {
-            displayLCDMessage(msg.substring(0, DriverStationLCD.kLineLength), false);
-            displayLCDMessage(msg.substring(DriverStationLCD.kLineLength), true);
+        if (msg.length() > Hardware.LCD.lineLength) {
+            writeLCDMessage(msg.substring(0, Hardware.LCD.lineLength), false);
+            writeLCDMessage(msg.substring(Hardware.LCD.lineLength), true);
             return;
         }
-        DriverStationLCD.Line line;
-        DriverStationLCD.Line blankLine;
-        switch (lineNum) {
-            case (1):
-                line = DriverStationLCD.Line.kUser1;
-                blankLine = DriverStationLCD.Line.kUser2;
-                break;
-            case (2):
-                line = DriverStationLCD.Line.kUser2;
-                blankLine = DriverStationLCD.Line.kUser3;
-                break;
-            case (3):
-                line = DriverStationLCD.Line.kUser3;
-                blankLine = DriverStationLCD.Line.kUser4;
-                break;
-            case (4):
-                line = DriverStationLCD.Line.kUser4;
-                blankLine = DriverStationLCD.Line.kUser5;
-                break;
-            case (5):
-                line = DriverStationLCD.Line.kUser5;
-                blankLine = DriverStationLCD.Line.kUser6;
-                break;
-            case (6):
-                line = DriverStationLCD.Line.kUser6;
-                blankLine = DriverStationLCD.Line.kUser1;
-                break;
-            default:
-                line = DriverStationLCD.Line.kUser1;
-                blankLine = DriverStationLCD.Line.kUser2;
-        }
-        DriverStationLCD.getInstance().println(line, 1, msg + "                      ");
+        Hardware.LCD lcd = lcd();
+        lcd.println(lineNum, msg + "                      ");
         if (blank) {
-            DriverStationLCD.getInstance().println(blankLine, 1, "^---^                ");
+            lcd.println(lineNum % Hardware.LCD.lines + 1, "^---^                ");
         }
-        DriverStationLCD.getInstance().updateLCD();
-        if (++lineNum > 6) {
+        if (++lineNum > Hardware.LCD.lines) {
             lineNum = 1;
         }
     }
@@ -0,0 +1,171 @@
+package edu.first.utils;
+
+/**
+ * Hands the latest value from one thread to others, without readers ever
+ * waiting on a lock. Holds either a pair of doubles, or a reference to an
+ * immutable snapshot (an object that is never changed after being written).
+ * Writing replaces whatever was there, so readers only ever see the latest
+ * value, never a queue.
+ *
+ * <p> Every write changes the sequence number, so readers can keep the number
+ * they last saw and check if there is something new with
+ * {@link Mailbox#hasChanged(int)}, or tell that a value is stale because it
+ * has not changed in a while.
+ *
+ * <p> Pairs are read with {@link Mailbox#get(double[])}, which always gets two
+ * values from the same write. It checks the sequence number before and after
+ * reading, and reads again if a write happened in between. Writers only lock
+ * against each other, so a reader running a control loop is never held up by
+ * a slow writer. Meant for one writer, but more than one is safe.
+ *
+ * @author Joel Gallant
+ */
+public final class Mailbox {
+
+    // Tries before a read waits for the writer to finish
+    private static final int readAttempts = 4;
+    // Odd while a write is happening
+    private volatile int sequence;
+    private volatile double first, second;
+    private volatile Object snapshot;
+
+    /**
+     * Constructs the mailbox holding a pair of zeros.
+     */
+    public Mailbox() {
+        this(0, 0);
+    }
+
+    /**
+     * Constructs the mailbox holding a pair of values.
+     *
+     * @param first first value of the pair
+     * @param second second value of the pair
+     */
+    public Mailbox(double first, double second) {
+        this.first = first;
+        this.second = second;
+    }
+
+    /**
+     * Constructs the mailbox holding a snapshot.
+     *
+     * @param snapshot object that will not be changed
+     */
+    public Mailbox(Object snapshot) {
+        this.snapshot = snapshot;
+    }
+
+    /**
+     * Replaces the pair of values.
+     *
+     * @param first first value of the pair
+     * @param second second value of the pair
+     */
+    public synchronized void set(double first, double second) {
+        sequence++;
+        this.first = first;
+        this.second = second;
+        sequence++;
+    }
+
+    /**
+     * Replaces the value, when only one is used. The second value of the pair
+     * is set to 0.
+     *
+     * @param value first value of the pair
+     */
+    public void set(double value) {
+        set(value, 0);
+    }
+
+    /**
+     * Replaces the snapshot. The object must never be changed after this.
+     *
+     * @param snapshot object that will not be changed
+     */
+    public synchronized void set(Object snapshot) {
+        sequence++;
+        this.snapshot = snapshot;
+        sequence++;
+    }
+
+    /**
+     * Reads both values of the pair from the same write. The array is given
+     * so that reading does not create any garbage.
+     *
+     * @param pair array of at least two to put the first and second value in
+     * @return sequence number of the write that was read
+     */
+    public int get(double[] pair) {
+        for (int x = 0; x < readAttempts; x++) {
+            int before = sequence;
+            if ((before & 1) == 0) {
+                double f = first;
+                double s = second;
+                if (sequence == before) {
+                    pair[0] = f;
+                    pair[1] = s;
+                    return before;
+                }
+            }
+            Thread.yield();
+        }
+        // Writer keeps getting in the way - wait for it instead
+        synchronized (this) {
+            pair[0] = first;
+            pair[1] = second;
+            return sequence;
+        }
+    }
+
+    /**
+     * Returns the first value of the pair. Use {@link Mailbox#get(double[])}
+     * if the second value needs to match it.
+     *
+     * @return first value of the latest pair
+     */
+    public double getFirst() {
+        return first;
+    }
+
+    /**
+     * Returns the second value of the pair. Use {@link Mailbox#get(double[])}
+     * if the first value needs to match it.
+     *
+     * @return second value of the latest pair
+     */
+    public double getSecond() {
+        return second;
+    }
+
+    /**
+     * Returns the latest snapshot.
+     *
+     * @return object given to {@link Mailbox#set(Object)}
+     */
+    public Object getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Returns the sequence number, which changes every time something is
+     * written. Starts at 0.
+     *
+     * @return current sequence number
+     */
+    public int getSequence() {
+        return sequence;
+    }
+
+    /**
+     * Returns whether anything was written since the sequence number was read.
+     *
+     * @param sequence number from {@link Mailbox#getSequence()} or
+     * {@link Mailbox#get(double[])}
+     * @return if there is a newer value
+     */
+    public boolean hasChanged(int sequence) {
+        return this.sequence != sequence;
+    }
+}
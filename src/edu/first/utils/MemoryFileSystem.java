@@ -0,0 +1,176 @@
+package edu.first.utils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Hashtable;
+
+/**
+ * {@link FileSystem} that only exists in memory, so that robot code can read
+ * and write files on a normal computer without touching real ones. Files can
+ * be put in before the robot code starts (like the port map or autonomous
+ * scripts), and read back out afterwards.
+ *
+ * <p> Written data shows up in the file when its stream is flushed or closed.
+ *
+ * @author Joel Gallant
+ */
+public final class MemoryFileSystem extends FileSystem {
+
+    private final Hashtable files = new Hashtable();
+
+    public FileSystem.File openFile(String path, int mode) throws IOException {
+        if (path == null) {
+            throw new NullPointerException();
+        }
+        return new File(path, mode == FileSystem.READ_WRITE);
+    }
+
+    /**
+     * Puts a file into the file system, replacing any file that was there.
+     *
+     * @param path path of the file ({@code file:///name})
+     * @param contents contents of the file
+     */
+    public void put(String path, byte[] contents) {
+        if (path == null || contents == null) {
+            throw new NullPointerException();
+        }
+        byte[] copy = new byte[contents.length];
+        System.arraycopy(contents, 0, copy, 0, copy.length);
+        synchronized (files) {
+            files.put(path, copy);
+        }
+    }
+
+    /**
+     * Returns the contents of a file.
+     *
+     * @param path path of the file ({@code file:///name})
+     * @return copy of the contents, or null if the file doesn't exist
+     */
+    public byte[] get(String path) {
+        synchronized (files) {
+            byte[] contents = (byte[]) files.get(path);
+            if (contents == null) {
+                return null;
+            }
+            byte[] copy = new byte[contents.length];
+            System.arraycopy(contents, 0, copy, 0, copy.length);
+            return copy;
+        }
+    }
+
+    // Must hold files
+    private byte[] contents(String path) throws IOException {
+        byte[] contents = (byte[]) files.get(path);
+        if (contents == null) {
+            throw new IOException(path + " does not exist");
+        }
+        return contents;
+    }
+
+    private final class File implements FileSystem.File {
+
+        private final String path;
+        private final boolean write;
+
+        private File(String path, boolean write) {
+            this.path = path;
+            this.write = write;
+        }
+
+        private void checkWrite() throws IOException {
+            if (!write) {
+                throw new IOException(path + " is open for reading");
+            }
+        }
+
+        public boolean exists() {
+            synchronized (files) {
+                return files.containsKey(path);
+            }
+        }
+
+        public long fileSize() throws IOException {
+            synchronized (files) {
+                return contents(path).length;
+            }
+        }
+
+        public void create() throws IOException {
+            checkWrite();
+            synchronized (files) {
+                if (files.containsKey(path)) {
+                    throw new IOException(path + " already exists");
+                }
+                files.put(path, new byte[0]);
+            }
+        }
+
+        public void delete() throws IOException {
+            checkWrite();
+            synchronized (files) {
+                contents(path);
+                files.remove(path);
+            }
+        }
+
+        public void rename(String newName) throws IOException {
+            checkWrite();
+            String newPath = path.substring(0, path.lastIndexOf('/') + 1) + newName;
+            synchronized (files) {
+                byte[] contents = contents(path);
+                if (files.containsKey(newPath)) {
+                    throw new IOException(newPath + " already exists");
+                }
+                files.remove(path);
+                files.put(newPath, contents);
+            }
+        }
+
+        public InputStream openInputStream() throws IOException {
+            synchronized (files) {
+                return new ByteArrayInputStream(contents(path));
+            }
+        }
+
+        public OutputStream openOutputStream() throws IOException {
+            return openOutputStream(0);
+        }
+
+        public OutputStream openOutputStream(final long offset) throws IOException {
+            checkWrite();
+            synchronized (files) {
+                contents(path);
+            }
+            return new ByteArrayOutputStream() {
+                private int flushed;
+
+                public synchronized void flush() throws IOException {
+                    if (count == flushed) {
+                        return;
+                    }
+                    synchronized (files) {
+                        byte[] old = contents(path);
+                        int start = (int) Math.min(offset, old.length);
+                        byte[] contents = new byte[Math.max(old.length, start + count)];
+                        System.arraycopy(old, 0, contents, 0, old.length);
+                        System.arraycopy(buf, 0, contents, start, count);
+                        files.put(path, contents);
+                    }
+                    flushed = count;
+                }
+
+                public void close() throws IOException {
+                    flush();
+                }
+            };
+        }
+
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package edu.first.utils;
+
+/**
+ * Filter that keeps the last few samples of a signal in a fixed-size ring
+ * buffer and returns a filtered value from them. All storage is allocated when
+ * the filter is constructed, so adding samples and reading the output never
+ * creates garbage.
+ *
+ * <p> Filter types are available in {@link Type}, in an enum-like format.
+ * {@link Type#MEDIAN} is the best choice for noisy sensors that occasionally
+ * give wild readings, since a single bad sample can never move the output.
+ *
+ * <p> This class is not thread-safe. Callers that share a filter between
+ * threads have to synchronize around it themselves.
+ *
+ * @author Joel Gallant
+ */
+public final class MovingWindowFilter {
+
+    private final double[] samples;
+    private final double[] sorted;
+    private final Type type;
+    private final int trim;
+    private int next;
+    private int size;
+
+    /**
+     * Class representing the way samples are combined into one value. Only
+     * the instances in this class are valid.
+     */
+    public static final class Type {
+
+        private Type() {
+        }
+        /**
+         * Average of every sample in the window.
+         */
+        public static final Type MEAN = new Type();
+        /**
+         * Middle sample of the window. With an even amount of samples, the
+         * average of the two middle samples is used.
+         */
+        public static final Type MEDIAN = new Type();
+        /**
+         * Average of the window after the highest and lowest samples are
+         * thrown out.
+         */
+        public static final Type TRIMMED_MEAN = new Type();
+    }
+
+    /**
+     * Constructs the filter with the amount of samples to hold and the way to
+     * combine them. Trimmed means drop one sample from each end.
+     *
+     * @param window maximum amount of samples used in the output
+     * @param type how to combine the samples
+     */
+    public MovingWindowFilter(int window, Type type) {
+        this(window, type, 1);
+    }
+
+    /**
+     * Constructs the filter with the amount of samples to hold and the way to
+     * combine them.
+     *
+     * @param window maximum amount of samples used in the output
+     * @param type how to combine the samples
+     * @param trim amount of samples to drop from each end when using
+     * {@link Type#TRIMMED_MEAN}
+     */
+    public MovingWindowFilter(int window, Type type, int trim) {
+        if (type == null) {
+            throw new NullPointerException();
+        }
+        if (window < 1 || trim < 0) {
+            throw new IllegalArgumentException("Invalid window " + window + " / trim " + trim);
+        }
+        this.samples = new double[window];
+        this.sorted = new double[window];
+        this.type = type;
+        this.trim = trim;
+    }
+
+    /**
+     * Adds a sample to the window. If the window is full, the oldest sample is
+     * replaced.
+     *
+     * @param sample newest value of the signal
+     */
+    public void add(double sample) {
+        samples[next] = sample;
+        next = (next + 1) % samples.length;
+        if (size < samples.length) {
+            size++;
+        }
+    }
+
+    /**
+     * Removes every sample from the window.
+     */
+    public void reset() {
+        next = 0;
+        size = 0;
+    }
+
+    /**
+     * Returns how many samples are currently in the window.
+     *
+     * @return amount of samples held
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the maximum amount of samples held.
+     *
+     * @return size of the window
+     */
+    public int getWindow() {
+        return samples.length;
+    }
+
+    /**
+     * Returns the filtered value of the samples in the window. If there are no
+     * samples, returns 0.
+     *
+     * @return filtered value
+     */
+    public double get() {
+        if (size == 0) {
+            return 0;
+        }
+        if (type == Type.MEAN) {
+            double sum = 0;
+            for (int x = 0; x < size; x++) {
+                sum += samples[x];
+            }
+            return sum / size;
+        }
+        sort();
+        if (type == Type.MEDIAN) {
+            int middle = size / 2;
+            return (size % 2 == 1) ? sorted[middle] : (sorted[middle - 1] + sorted[middle]) / 2;
+        }
+        // Never trim the window down to nothing
+        int t = Math.min(trim, (size - 1) / 2);
+        double sum = 0;
+        for (int x = t; x < size - t; x++) {
+            sum += sorted[x];
+        }
+        return sum / (size - 2 * t);
+    }
+
+    // Insertion sort - windows are small, and java.util.Arrays is not available
+    private void sort() {
+        for (int x = 0; x < size; x++) {
+            double v = samples[x];
+            int y = x - 1;
+            while (y >= 0 && sorted[y] > v) {
+                sorted[y + 1] = sorted[y];
+                y--;
+            }
+            sorted[y + 1] = v;
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package edu.first.utils;
+
+/**
+ * Keeps statistics about how packets from the DriverStation are arriving. This
+ * can be useful if the robot seems to be lagging or losing packets.
+ *
+ * <p> {@link NetworkHealthMonitor#sample()} should be called once every
+ * periodic tick (every time a packet is expected). Everything else only reads
+ * the statistics, so any amount of callers can use them without affecting
+ * each other.
+ *
+ * <p> Statistics are kept over a window of the most recent ticks in primitive
+ * ring buffers, except for {@link NetworkHealthMonitor#getMissedPackets()},
+ * which counts since the last reset.
+ *
+ * @author Joel Gallant
+ */
+public final class NetworkHealthMonitor {
+
+    // Upper limits of each gap bucket - the last bucket has no limit. Before
+    // INSTANCE, which uses it while the class is initialized
+    private static final long[] bucketLimits = {25, 50, 100, 250, 500};
+    /**
+     * "Official" network monitor, sampled by
+     * {@link edu.first.main.GamePeriods}. This does not prevent someone from
+     * creating a different instance for different uses.
+     */
+    public static final NetworkHealthMonitor INSTANCE = new NetworkHealthMonitor(50, 20);
+    private final Object lock = new Object();
+    private final long expectedGap;
+    private final long[] times;
+    private final int[] counts;
+    private final long[] gaps;
+    private final int[] buckets = new int[bucketLimits.length + 1];
+    private int next, size;
+    private int nextGap, gapSize;
+    private int lastCount;
+    private long lastPacketTime;
+    private long missed;
+    private boolean seeded;
+
+    /**
+     * Constructs the monitor with how many ticks to keep statistics over.
+     *
+     * @param window amount of ticks in the window
+     * @param expectedGap normal time between packets (milliseconds)
+     */
+    public NetworkHealthMonitor(int window, long expectedGap) {
+        if (window < 2 || expectedGap < 1) {
+            throw new IllegalArgumentException("Invalid window " + window + " / gap " + expectedGap);
+        }
+        this.times = new long[window];
+        this.counts = new int[window];
+        this.gaps = new long[window];
+        this.expectedGap = expectedGap;
+    }
+
+    /**
+     * Records the current packet count. Should be called once every periodic
+     * tick.
+     */
+    public void sample() {
+        long now = Clock.currentTimeMillis();
+        int count = DriverstationInfo.getPacketCount();
+        synchronized (lock) {
+            times[next] = now;
+            counts[next] = count;
+            next = (next + 1) % times.length;
+            if (size < times.length) {
+                size++;
+            }
+
+            if (!seeded) {
+                lastCount = count;
+                lastPacketTime = now;
+                seeded = true;
+                return;
+            }
+            if (count != lastCount) {
+                long gap = now - lastPacketTime;
+                addGap(gap);
+                // Round to the nearest amount of packets that should have come
+                long expected = (gap + expectedGap / 2) / expectedGap;
+                int arrived = packetsBetween(lastCount, count);
+                if (expected > arrived) {
+                    missed += expected - arrived;
+                }
+                lastCount = count;
+                lastPacketTime = now;
+            }
+        }
+    }
+
+    // Packet numbers are 16 bits, and wrap about every 22 minutes
+    private static int packetsBetween(int from, int to) {
+        return (to - from) & 0xFFFF;
+    }
+
+    // Must hold lock
+    private void addGap(long gap) {
+        if (gapSize == gaps.length) {
+            buckets[bucketOf(gaps[nextGap])]--;
+        } else {
+            gapSize++;
+        }
+        gaps[nextGap] = gap;
+        buckets[bucketOf(gap)]++;
+        nextGap = (nextGap + 1) % gaps.length;
+    }
+
+    private static int bucketOf(long gap) {
+        for (int x = 0; x < bucketLimits.length; x++) {
+            if (gap <= bucketLimits[x]) {
+                return x;
+            }
+        }
+        return bucketLimits.length;
+    }
+
+    /**
+     * Starts measuring again from the next sample, without forgetting the gaps
+     * and missed packets seen so far. Should be called after ticks stopped on
+     * purpose (like a mode change, or an autonomous that runs inside its init
+     * method), so that the pause is not counted as lost packets.
+     */
+    public void reseed() {
+        synchronized (lock) {
+            next = 0;
+            size = 0;
+            seeded = false;
+        }
+    }
+
+    /**
+     * Forgets every statistic and starts over.
+     */
+    public void reset() {
+        synchronized (lock) {
+            next = 0;
+            size = 0;
+            nextGap = 0;
+            gapSize = 0;
+            missed = 0;
+            seeded = false;
+            for (int x = 0; x < buckets.length; x++) {
+                buckets[x] = 0;
+            }
+        }
+    }
+
+    /**
+     * Returns how many packets arrived per second over the window. Ideally
+     * this is 50 (one every 20 milliseconds).
+     *
+     * @return packets per second
+     */
+    public double getPacketRate() {
+        synchronized (lock) {
+            if (size < 2) {
+                return 0;
+            }
+            int newest = (next - 1 + times.length) % times.length;
+            int oldest = (next - size + times.length) % times.length;
+            long time = times[newest] - times[oldest];
+            if (time == 0) {
+                return 0;
+            }
+            return packetsBetween(counts[oldest], counts[newest]) * 1000.0 / time;
+        }
+    }
+
+    /**
+     * Returns the longest time between two packets in the window.
+     *
+     * @return longest gap (milliseconds)
+     */
+    public long getLongestGap() {
+        synchronized (lock) {
+            long longest = 0;
+            for (int x = 0; x < gapSize; x++) {
+                longest = Math.max(longest, gaps[x]);
+            }
+            return longest;
+        }
+    }
+
+    /**
+     * Returns how many packets should have arrived, but didn't, since the last
+     * reset.
+     *
+     * @return amount of missed packets
+     */
+    public long getMissedPackets() {
+        synchronized (lock) {
+            return missed;
+        }
+    }
+
+    /**
+     * Returns how many buckets the gap histogram has.
+     *
+     * @return amount of buckets
+     */
+    public int getBucketCount() {
+        return buckets.length;
+    }
+
+    /**
+     * Returns the longest gap that falls into a bucket. The last bucket has no
+     * limit, and returns {@link Long#MAX_VALUE}.
+     *
+     * @param bucket index of the bucket
+     * @return upper limit of the bucket (milliseconds)
+     */
+    public long getBucketLimit(int bucket) {
+        return bucket < bucketLimits.length ? bucketLimits[bucket] : Long.MAX_VALUE;
+    }
+
+    /**
+     * Returns how many gaps between packets in the window fell into a bucket.
+     *
+     * @param bucket index of the bucket
+     * @return amount of gaps
+     */
+    public int getGapCount(int bucket) {
+        synchronized (lock) {
+            return buckets[bucket];
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package edu.first.utils;
+
+import java.util.Timer;
+import java.util.TimerTask;
+
+/**
+ * {@link Clock} that follows real time, using {@link System#currentTimeMillis()},
+ * {@link Thread#sleep(long)} and {@link Timer}. Is the default clock.
+ *
+ * @author Joel Gallant
+ */
+public final class RealClock extends Clock {
+
+    public long getTime() {
+        return System.currentTimeMillis();
+    }
+
+    public void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ex) {
+        }
+    }
+
+    public Clock.Scheduler createScheduler() {
+        return new RealScheduler();
+    }
+
+    private static final class RealScheduler implements Clock.Scheduler {
+
+        private final Timer timer = new Timer();
+
+        public void schedule(Runnable task, long delay) {
+            timer.schedule(toTimerTask(task), delay);
+        }
+
+        public void schedule(Runnable task, long delay, long period) {
+            timer.schedule(toTimerTask(task), delay, period);
+        }
+
+        public void scheduleAtFixedRate(Runnable task, long delay, long period) {
+            timer.scheduleAtFixedRate(toTimerTask(task), delay, period);
+        }
+
+        public void cancel() {
+            timer.cancel();
+        }
+
+        private TimerTask toTimerTask(final Runnable task) {
+            if (task instanceof TimerTask) {
+                return (TimerTask) task;
+            }
+            return new TimerTask() {
+                public void run() {
+                    task.run();
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package edu.first.utils;
+
+import com.sun.squawk.microedition.io.FileConnection;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import javax.microedition.io.Connector;
+
+/**
+ * {@link FileSystem} on the cRIO, using {@link Connector} and
+ * {@link FileConnection}. Only this class uses them, so that code going through
+ * {@link FileSystem} builds without Squawk.
+ *
+ * @author Joel Gallant
+ */
+public final class SquawkFileSystem extends FileSystem {
+
+    public FileSystem.File openFile(String path, int mode) throws IOException {
+        final FileConnection connection = (FileConnection) Connector.open(path,
+                mode == FileSystem.READ ? Connector.READ : Connector.READ_WRITE);
+        return new FileSystem.File() {
+            public boolean exists() {
+                return connection.exists();
+            }
+
+            public long fileSize() throws IOException {
+                return connection.fileSize();
+            }
+
+            public void create() throws IOException {
+                connection.create();
+            }
+
+            public void delete() throws IOException {
+                connection.delete();
+            }
+
+            public void rename(String newName) throws IOException {
+                connection.rename(newName);
+            }
+
+            public InputStream openInputStream() throws IOException {
+                return connection.openInputStream();
+            }
+
+            public OutputStream openOutputStream() throws IOException {
+                return connection.openOutputStream();
+            }
+
+            public OutputStream openOutputStream(long offset) throws IOException {
+                return connection.openOutputStream(offset);
+            }
+
+            public void close() throws IOException {
+                connection.close();
+            }
+        };
+    }
+}
@@ -0,0 +1,93 @@
+package edu.first.utils;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+
+/**
+ * Turns files written by {@link TelemetryRecorder} into CSV text. The first
+ * line has the column names, starting with "time" in milliseconds. Only uses
+ * streams, so it works the same on the robot and on a desktop (see
+ * tools/TelemetryToCSV.java).
+ *
+ * @author Joel Gallant
+ */
+public final class TelemetryDecoder {
+
+    /**
+     * Identifies a telemetry file. Lives here instead of in
+     * {@link TelemetryRecorder} so that the decoder has no dependencies on the
+     * robot libraries.
+     */
+    public static final int MAGIC = 0x54454C45;
+    /**
+     * Version of the file format.
+     */
+    public static final int VERSION = 1;
+
+    // cannot be subclassed or instantiated
+    private TelemetryDecoder() throws IllegalAccessException {
+        throw new IllegalAccessException();
+    }
+
+    /**
+     * Reads a whole telemetry file and prints it as CSV. A block cut off at the
+     * end of the file (ex. from a brownout) is ignored.
+     *
+     * @param input stream of the telemetry file
+     * @param output where to print CSV lines
+     * @return amount of rows printed
+     * @throws IOException thrown when the stream is not a telemetry file or
+     * cannot be read
+     */
+    public static int decode(InputStream input, PrintStream output) throws IOException {
+        DataInputStream stream = new DataInputStream(input);
+        if (stream.readInt() != MAGIC) {
+            throw new IOException("Not a telemetry file");
+        }
+        int version = stream.readInt();
+        if (version != VERSION) {
+            throw new IOException("Unknown telemetry version " + version);
+        }
+        int channels = stream.readInt();
+        StringBuffer line = new StringBuffer("time");
+        for (int x = 0; x < channels; x++) {
+            line.append(',').append(stream.readUTF());
+        }
+        output.println(line.toString());
+
+        int total = 0;
+        while (true) {
+            int rows;
+            try {
+                rows = stream.readInt();
+            } catch (EOFException ex) {
+                break;
+            }
+            int[] times = new int[rows];
+            float[] values = new float[rows * channels];
+            try {
+                for (int r = 0; r < rows; r++) {
+                    times[r] = stream.readInt();
+                }
+                for (int i = 0; i < values.length; i++) {
+                    values[i] = stream.readFloat();
+                }
+            } catch (EOFException ex) {
+                break;
+            }
+            for (int r = 0; r < rows; r++) {
+                line.setLength(0);
+                line.append(times[r]);
+                for (int x = 0; x < channels; x++) {
+                    line.append(',').append(values[r * channels + x]);
+                }
+                output.println(line.toString());
+            }
+            total += rows;
+        }
+        return total;
+    }
+}
@@ -0,0 +1,227 @@
+package edu.first.utils;
+
+import edu.first.identifiers.ReturnableNumber;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * Records a set of channels at a high, fixed rate into a compact binary file.
+ * Channels are any {@link ReturnableNumber}, and have to be added before
+ * recording starts.
+ *
+ * <p> Samples go into preallocated columns, so sampling does not create any
+ * garbage. When a block of samples is full it is handed to a low priority
+ * thread that writes it to the file, while sampling continues into a second
+ * block. If the writer falls behind, the newest block is thrown away and
+ * counted in {@link TelemetryRecorder#getDroppedBlocks()}.
+ *
+ * <p> The file format is read by {@link TelemetryDecoder}. It starts with a
+ * header:
+ *
+ * <pre>
+ * int     TelemetryDecoder.MAGIC
+ * int     TelemetryDecoder.VERSION
+ * int     channel count
+ * UTF     channel name (for each channel)
+ * </pre>
+ *
+ * followed by any number of blocks:
+ *
+ * <pre>
+ * int     row count
+ * int     milliseconds since recording started (for each row)
+ * float   channel value (every channel in order, then the next row)
+ * </pre>
+ *
+ * @author Joel Gallant
+ */
+public final class TelemetryRecorder {
+
+    private static final int maxChannels = 32;
+    private final long period;
+    private final int blockRows;
+    private final String[] names = new String[maxChannels];
+    private final ReturnableNumber[] sources = new ReturnableNumber[maxChannels];
+    private final Object lock = new Object();
+    private final BlockWriter blocks;
+    private int channels;
+    private long startTime;
+
+    private static final class Block {
+
+        private final int[] times;
+        private final double[][] columns;
+        private int rows;
+
+        private Block(int channels, int rows) {
+            this.times = new int[rows];
+            this.columns = new double[channels][rows];
+        }
+    }
+
+    /**
+     * Constructs the recorder with where to write and how fast to sample.
+     *
+     * @param path file to write to (ex. "file:///telemetry.bin")
+     * @param period time between samples (milliseconds). If 0, samples are
+     * only taken when {@link TelemetryRecorder#sample()} is called.
+     * @param blockRows amount of samples to write at once
+     */
+    public TelemetryRecorder(String path, long period, int blockRows) {
+        if (path == null) {
+            throw new NullPointerException();
+        }
+        this.period = period;
+        this.blockRows = blockRows;
+        this.blocks = new BlockWriter(lock, new Format(), path, "Telemetry could not be written");
+    }
+
+    /**
+     * Adds a channel to record. Has to be done before
+     * {@link TelemetryRecorder#start()}.
+     *
+     * @param name name of the channel in the file
+     * @param source where to get values from
+     */
+    public void addChannel(String name, ReturnableNumber source) {
+        synchronized (lock) {
+            if (blocks.isRecording()) {
+                throw new IllegalStateException("Cannot add channels while recording");
+            }
+            if (channels == maxChannels) {
+                throw new IllegalStateException("Too many channels");
+            }
+            names[channels] = name;
+            sources[channels] = source;
+            channels++;
+        }
+    }
+
+    /**
+     * Starts a new recording, replacing the file. Does nothing if already
+     * recording.
+     */
+    public void start() {
+        start(null);
+    }
+
+    /**
+     * Starts a new recording into a different file, replacing it. The file is
+     * used for every recording after this one too. Does nothing if already
+     * recording.
+     *
+     * @param path file to write to (ex. "file:///telemetry.bin")
+     */
+    public void start(String path) {
+        // Let the last recording finish writing before reusing its blocks
+        blocks.finishWriting();
+        synchronized (lock) {
+            if (blocks.isRecording()) {
+                return;
+            }
+            startTime = Clock.currentTimeMillis();
+            blocks.start(path, period, new Runnable() {
+                public void run() {
+                    sample();
+                }
+            });
+        }
+    }
+
+    /**
+     * Stops recording. Whatever has been sampled is written before the file is
+     * closed.
+     */
+    public void stop() {
+        synchronized (lock) {
+            blocks.stop();
+        }
+    }
+
+    /**
+     * Returns whether samples are being recorded.
+     *
+     * @return if recording
+     */
+    public boolean isRecording() {
+        synchronized (lock) {
+            return blocks.isRecording();
+        }
+    }
+
+    /**
+     * Returns how many blocks were thrown away because they could not be
+     * written quickly enough.
+     *
+     * @return amount of lost blocks
+     */
+    public long getDroppedBlocks() {
+        synchronized (lock) {
+            return blocks.getDroppedBlocks();
+        }
+    }
+
+    /**
+     * Takes one sample of every channel. Is called automatically at the rate
+     * given in the constructor while recording, unless that rate is 0. Does
+     * nothing when not recording.
+     */
+    public void sample() {
+        synchronized (lock) {
+            if (!blocks.isRecording()) {
+                return;
+            }
+            Block b = (Block) blocks.getFilling();
+            int row = b.rows;
+            b.times[row] = (int) (Clock.currentTimeMillis() - startTime);
+            for (int x = 0; x < channels; x++) {
+                b.columns[x][row] = sources[x].get();
+            }
+            b.rows = row + 1;
+            if (b.rows == blockRows) {
+                blocks.blockFull();
+            }
+        }
+    }
+
+    private final class Format implements BlockWriter.Format {
+
+        public Object newBlock() {
+            return new Block(channels, blockRows);
+        }
+
+        public boolean canReuse(Object block) {
+            return ((Block) block).columns.length == channels;
+        }
+
+        public void clear(Object block) {
+            ((Block) block).rows = 0;
+        }
+
+        public void writeHeader(DataOutputStream stream) throws IOException {
+            stream.writeInt(TelemetryDecoder.MAGIC);
+            stream.writeInt(TelemetryDecoder.VERSION);
+            synchronized (lock) {
+                stream.writeInt(channels);
+                for (int x = 0; x < channels; x++) {
+                    stream.writeUTF(names[x]);
+                }
+            }
+        }
+
+        public void writeBlock(DataOutputStream stream, Object block) throws IOException {
+            Block b = (Block) block;
+            int rows = b.rows;
+            int c = b.columns.length;
+            stream.writeInt(rows);
+            for (int r = 0; r < rows; r++) {
+                stream.writeInt(b.times[r]);
+            }
+            for (int r = 0; r < rows; r++) {
+                for (int x = 0; x < c; x++) {
+                    stream.writeFloat((float) b.columns[x][r]);
+                }
+            }
+        }
+    }
+}
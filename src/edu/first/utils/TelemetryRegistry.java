@@ -0,0 +1,361 @@
+package edu.first.utils;
+
+import edu.first.identifiers.ReturnableBoolean;
+import edu.first.identifiers.ReturnableNumber;
+import java.util.Hashtable;
+
+/**
+ * Central list of every value the robot reports. Any {@link ReturnableNumber}
+ * or {@link ReturnableBoolean} can be added under a key, with a
+ * {@link DashboardPublisher.Rate} and a {@link Visibility}.
+ *
+ * <p> While started, a single sampler reads every channel once per tick and
+ * keeps the value. That one reading serves every consumer:
+ * <ul>
+ * <li> The dashboard, through {@link TelemetryRegistry#publish(boolean)}.
+ * <li> A {@link TelemetryRecorder}, for channels given to
+ * {@link TelemetryRegistry#record(String)}.
+ * <li> The {@link Logger}, for channels given to
+ * {@link TelemetryRegistry#log(String)}.
+ * <li> A {@link FlightRecorder}, which keeps every channel.
+ * </ul>
+ * Consumers never call the sources themselves. A channel is read when it is
+ * recorded, or when its rate allows it to be sent again.
+ *
+ * @author Joel Gallant
+ */
+public final class TelemetryRegistry {
+
+    private static final int maxChannels = 64;
+    private final DashboardPublisher publisher;
+    private final TelemetryRecorder recorder;
+    private final long period;
+    private final Object lock = new Object();
+    private final Hashtable indexes = new Hashtable();
+    private final String[] keys = new String[maxChannels];
+    private final ReturnableNumber[] numbers = new ReturnableNumber[maxChannels];
+    private final ReturnableBoolean[] booleans = new ReturnableBoolean[maxChannels];
+    private final ReturnableNumber[] channels = new ReturnableNumber[maxChannels];
+    private final DashboardPublisher.Rate[] rates = new DashboardPublisher.Rate[maxChannels];
+    private final Visibility[] visibilities = new Visibility[maxChannels];
+    private final double[] values = new double[maxChannels];
+    private final long[] lastRead = new long[maxChannels];
+    private final boolean[] recorded = new boolean[maxChannels];
+    private final boolean[] logged = new boolean[maxChannels];
+    private final StringBuffer logLine = new StringBuffer();
+    private int size;
+    private long logInterval, lastLog;
+    private FlightRecorder flightRecorder;
+    private Clock.Scheduler timer;
+
+    /**
+     * Class representing where a channel is shown. Only the instances in this
+     * class are valid.
+     */
+    public static final class Visibility {
+
+        private Visibility() {
+        }
+        /**
+         * Always shown on the dashboard.
+         */
+        public static final Visibility COMPETITION = new Visibility();
+        /**
+         * Only shown on the dashboard when not in competition.
+         */
+        public static final Visibility TESTING = new Visibility();
+        /**
+         * Never shown on the dashboard. Useful for values that are only
+         * recorded or logged.
+         */
+        public static final Visibility HIDDEN = new Visibility();
+    }
+
+    /**
+     * Constructs the registry with where to send values and how often to
+     * sample.
+     *
+     * @param publisher where dashboard values go
+     * @param recorder where recorded values go (can be null if nothing is
+     * recorded). Should be constructed with a period of 0, since it is sampled
+     * by this registry.
+     * @param period time between samples (milliseconds)
+     */
+    public TelemetryRegistry(DashboardPublisher publisher, TelemetryRecorder recorder, long period) {
+        if (publisher == null) {
+            throw new NullPointerException();
+        }
+        this.publisher = publisher;
+        this.recorder = recorder;
+        this.period = period;
+    }
+
+    /**
+     * Adds a number channel.
+     *
+     * @param key name of the channel
+     * @param source where to get values from
+     * @param rate how often the value is sent to the dashboard
+     * @param epsilon smallest change worth sending to the dashboard
+     * @param visibility when the channel is shown on the dashboard
+     */
+    public void addNumber(String key, ReturnableNumber source, DashboardPublisher.Rate rate,
+            double epsilon, Visibility visibility) {
+        if (source == null) {
+            throw new NullPointerException();
+        }
+        int i = add(key, rate, visibility);
+        if (visibility != Visibility.HIDDEN) {
+            publisher.addNumber(key, rate, epsilon);
+        }
+        numbers[i] = source;
+        commit();
+    }
+
+    /**
+     * Adds a boolean channel. It is recorded and logged as 1 or 0.
+     *
+     * @param key name of the channel
+     * @param source where to get values from
+     * @param rate how often the value is sent to the dashboard
+     * @param visibility when the channel is shown on the dashboard
+     */
+    public void addBoolean(String key, ReturnableBoolean source, DashboardPublisher.Rate rate,
+            Visibility visibility) {
+        if (source == null) {
+            throw new NullPointerException();
+        }
+        int i = add(key, rate, visibility);
+        if (visibility != Visibility.HIDDEN) {
+            publisher.addBoolean(key, rate);
+        }
+        booleans[i] = source;
+        commit();
+    }
+
+    private int add(String key, DashboardPublisher.Rate rate, Visibility visibility) {
+        if (key == null || rate == null || visibility == null) {
+            throw new NullPointerException();
+        }
+        synchronized (lock) {
+            if (indexes.containsKey(key)) {
+                throw new IllegalArgumentException(key + " was already added");
+            }
+            if (size == maxChannels) {
+                throw new IllegalStateException("Too many channels");
+            }
+            keys[size] = key;
+            rates[size] = rate;
+            visibilities[size] = visibility;
+            channels[size] = new Channel(size);
+            return size;
+        }
+    }
+
+    private void commit() {
+        synchronized (lock) {
+            indexes.put(keys[size], new Integer(size));
+            size++;
+        }
+    }
+
+    private int indexOf(String key) {
+        synchronized (lock) {
+            Integer i = (Integer) indexes.get(key);
+            if (i == null) {
+                throw new IllegalArgumentException(key + " was not added");
+            }
+            return i.intValue();
+        }
+    }
+
+    /**
+     * Gives the channel to the recorder. The channel is sampled every tick
+     * from then on.
+     *
+     * @param key name of an added channel
+     * @throws IllegalStateException when there is no recorder
+     */
+    public void record(String key) {
+        if (recorder == null) {
+            throw new IllegalStateException("No recorder to record " + key);
+        }
+        int i = indexOf(key);
+        recorder.addChannel(key, channels[i]);
+        synchronized (lock) {
+            recorded[i] = true;
+        }
+    }
+
+    /**
+     * Gives every channel to a flight recorder each time they are sampled.
+     *
+     * @param flightRecorder where to keep recent samples (null to stop)
+     */
+    public void setFlightRecorder(FlightRecorder flightRecorder) {
+        if (flightRecorder != null) {
+            flightRecorder.setNames(keys);
+        }
+        synchronized (lock) {
+            this.flightRecorder = flightRecorder;
+        }
+    }
+
+    /**
+     * Adds the channel to the line written to the log every
+     * {@link TelemetryRegistry#setLogInterval(long)}.
+     *
+     * @param key name of an added channel
+     */
+    public void log(String key) {
+        int i = indexOf(key);
+        synchronized (lock) {
+            logged[i] = true;
+        }
+    }
+
+    /**
+     * Sets how often logged channels are written to the log. 0 turns logging
+     * off.
+     *
+     * @param logInterval time between log lines (milliseconds)
+     */
+    public void setLogInterval(long logInterval) {
+        synchronized (lock) {
+            this.logInterval = logInterval;
+        }
+    }
+
+    /**
+     * Returns the last sampled value of a channel. Does not read the source.
+     *
+     * @param key name of an added channel
+     * @return last sampled value
+     */
+    public double get(String key) {
+        int i = indexOf(key);
+        synchronized (lock) {
+            return values[i];
+        }
+    }
+
+    /**
+     * Returns a {@link ReturnableNumber} that gives the last sampled value of a
+     * channel. Does not read the source.
+     *
+     * @param key name of an added channel
+     * @return sampled value of the channel
+     */
+    public ReturnableNumber getChannel(String key) {
+        return channels[indexOf(key)];
+    }
+
+    /**
+     * Starts sampling. Does nothing if already started.
+     */
+    public void start() {
+        synchronized (lock) {
+            if (timer != null) {
+                return;
+            }
+            timer = Clock.newScheduler();
+            timer.scheduleAtFixedRate(new Runnable() {
+                public void run() {
+                    sample();
+                }
+            }, 0L, period);
+        }
+    }
+
+    /**
+     * Stops sampling. Values stay at what they were last sampled as.
+     */
+    public void stop() {
+        synchronized (lock) {
+            if (timer != null) {
+                timer.cancel();
+                timer = null;
+            }
+        }
+    }
+
+    /**
+     * Reads every channel that is due once, then hands the values to the
+     * recorder and the logger. Is called automatically while started.
+     */
+    public void sample() {
+        synchronized (lock) {
+            long now = Clock.currentTimeMillis();
+            for (int i = 0; i < size; i++) {
+                if (recorded[i] || now - lastRead[i] >= rates[i].getPeriod()) {
+                    values[i] = numbers[i] != null ? numbers[i].get() : (booleans[i].get() ? 1 : 0);
+                    lastRead[i] = now;
+                }
+            }
+            if (flightRecorder != null) {
+                flightRecorder.sample(now, values, size);
+            }
+            if (logInterval > 0 && now - lastLog >= logInterval) {
+                lastLog = now;
+                logLine.setLength(0);
+                for (int i = 0; i < size; i++) {
+                    if (logged[i]) {
+                        logLine.append(keys[i]).append('=').append(values[i]).append(' ');
+                    }
+                }
+                if (logLine.length() > 0) {
+                    Logger.log(Logger.Urgency.LOG, logLine.toString());
+                }
+            }
+        }
+        if (recorder != null) {
+            recorder.sample();
+        }
+    }
+
+    /**
+     * Gives the last sampled values to the dashboard, and publishes the ones
+     * that changed.
+     *
+     * @param testing whether channels only used for testing are shown
+     * @return amount of keys sent
+     */
+    public int publish(boolean testing) {
+        synchronized (lock) {
+            for (int i = 0; i < size; i++) {
+                Visibility v = visibilities[i];
+                if (v == Visibility.HIDDEN || (v == Visibility.TESTING && !testing)) {
+                    continue;
+                }
+                if (numbers[i] != null) {
+                    publisher.putNumber(keys[i], values[i]);
+                } else {
+                    publisher.putBoolean(keys[i], values[i] != 0);
+                }
+            }
+        }
+        return publisher.publish();
+    }
+
+    /**
+     * Makes every dashboard key be sent again on the next publishes.
+     */
+    public void refreshDashboard() {
+        publisher.refresh();
+    }
+
+    private final class Channel implements ReturnableNumber {
+
+        private final int index;
+
+        private Channel(int index) {
+            this.index = index;
+        }
+
+        public double get() {
+            synchronized (lock) {
+                return values[index];
+            }
+        }
+    }
+}
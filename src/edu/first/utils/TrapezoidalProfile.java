@@ -0,0 +1,144 @@
+package edu.first.utils;
+
+/**
+ * Motion profile that accelerates at a constant rate, cruises at a maximum
+ * velocity and decelerates at the same rate to stop exactly at the target.
+ * When the distance is too short to reach the maximum velocity, the cruise
+ * section is skipped and the profile becomes a triangle.
+ *
+ * <p> Everything is computed when the profile is constructed, so looking up a
+ * setpoint is just a few multiplications. Units are whatever the caller uses
+ * for distance, and time is in seconds.
+ *
+ * @author Joel Gallant
+ */
+public final class TrapezoidalProfile {
+
+    private final double distance;
+    private final double sign;
+    private final double acceleration;
+    private final double peakVelocity;
+    private final double accelTime;
+    private final double cruiseTime;
+    private final double totalTime;
+    private final double accelDistance;
+
+    /**
+     * Constructs and precomputes the profile. Negative distances move
+     * backwards.
+     *
+     * @param distance total distance to move
+     * @param maxVelocity maximum velocity (distance per second)
+     * @param acceleration acceleration and deceleration (distance per second
+     * squared)
+     */
+    public TrapezoidalProfile(double distance, double maxVelocity, double acceleration) {
+        if (maxVelocity <= 0 || acceleration <= 0) {
+            throw new IllegalArgumentException("Velocity and acceleration must be positive");
+        }
+        this.sign = distance < 0 ? -1 : 1;
+        this.distance = Math.abs(distance);
+        this.acceleration = acceleration;
+        if (this.distance < maxVelocity * maxVelocity / acceleration) {
+            // Triangle - never gets to max velocity
+            peakVelocity = Math.sqrt(this.distance * acceleration);
+        } else {
+            peakVelocity = maxVelocity;
+        }
+        accelTime = peakVelocity / acceleration;
+        accelDistance = peakVelocity * accelTime / 2;
+        cruiseTime = (this.distance - 2 * accelDistance) / peakVelocity;
+        totalTime = 2 * accelTime + cruiseTime;
+    }
+
+    /**
+     * Returns how long the profile takes from start to finish.
+     *
+     * @return total time (seconds)
+     */
+    public double getTotalTime() {
+        return totalTime;
+    }
+
+    /**
+     * Returns the total distance of the profile, including its direction.
+     *
+     * @return distance to the target
+     */
+    public double getDistance() {
+        return sign * distance;
+    }
+
+    /**
+     * Returns whether the profile has reached the target at the given time.
+     *
+     * @param time seconds since the profile started
+     * @return if setpoints are at the target
+     */
+    public boolean isFinished(double time) {
+        return time >= totalTime;
+    }
+
+    /**
+     * Returns where the profile should be at the given time.
+     *
+     * @param time seconds since the profile started
+     * @return position setpoint
+     */
+    public double getPosition(double time) {
+        double p;
+        if (time <= 0) {
+            p = 0;
+        } else if (time < accelTime) {
+            p = acceleration * time * time / 2;
+        } else if (time < accelTime + cruiseTime) {
+            p = accelDistance + peakVelocity * (time - accelTime);
+        } else if (time < totalTime) {
+            double left = totalTime - time;
+            p = distance - acceleration * left * left / 2;
+        } else {
+            p = distance;
+        }
+        return sign * p;
+    }
+
+    /**
+     * Returns how fast the profile should be moving at the given time.
+     *
+     * @param time seconds since the profile started
+     * @return velocity setpoint
+     */
+    public double getVelocity(double time) {
+        double v;
+        if (time <= 0 || time >= totalTime) {
+            v = 0;
+        } else if (time < accelTime) {
+            v = acceleration * time;
+        } else if (time < accelTime + cruiseTime) {
+            v = peakVelocity;
+        } else {
+            v = acceleration * (totalTime - time);
+        }
+        return sign * v;
+    }
+
+    /**
+     * Returns the acceleration of the profile at the given time.
+     *
+     * @param time seconds since the profile started
+     * @return acceleration setpoint
+     */
+    public double getAcceleration(double time) {
+        double a;
+        if (time <= 0 || time >= totalTime) {
+            a = 0;
+        } else if (time < accelTime) {
+            a = acceleration;
+        } else if (time < accelTime + cruiseTime) {
+            a = 0;
+        } else {
+            a = -acceleration;
+        }
+        return sign * a;
+    }
+}
@@ -0,0 +1,327 @@
+package edu.first.utils;
+
+import edu.wpi.first.wpilibj.networktables2.util.List;
+
+/**
+ * {@link Clock} that only moves when {@link VirtualClock#step(long)} is called.
+ * Used to run robot code faster than real time, and the same way every time.
+ *
+ * <p> Stepping moves through every event on the way, in order of time:
+ * <ul>
+ * <li> Scheduled tasks are run by the thread calling {@code step}, at exactly
+ * the time they were due. Tasks due at the same time run in the order they
+ * were scheduled.
+ * <li> Threads in {@link VirtualClock#sleep(long)} are woken once their time
+ * comes, and stepping waits until they sleep again or finish before going on.
+ * A woken thread that blocks on anything else holds up stepping for at most
+ * {@link VirtualClock#wakeTimeout} of real time.
+ * </ul>
+ *
+ * <p> The clock only sees threads through {@code sleep}, so a thread that was
+ * just started, or that is still running after the timeout, can race the
+ * events after it. Where thread states can be seen (a desktop JVM), an
+ * {@link Activity} can be given instead: stepping then waits for it at the
+ * start and after every event, and doesn't wait on threads that are blocked.
+ *
+ * <p> Anything thrown by a task is thrown out of {@code step}.
+ *
+ * @author Joel Gallant
+ */
+public final class VirtualClock extends Clock {
+
+    /**
+     * Longest real time that stepping waits for a woken thread (milliseconds).
+     */
+    public static final long wakeTimeout = 100L;
+    private final Object lock = new Object();
+    private final List entries = new List();
+    private final List sleepers = new List();
+    private final List running = new List();
+    private final Activity activity;
+    private long time;
+
+    /**
+     * Constructs the clock at time 0.
+     */
+    public VirtualClock() {
+        this(0);
+    }
+
+    /**
+     * Constructs the clock at a starting time.
+     *
+     * @param time starting time (milliseconds)
+     */
+    public VirtualClock(long time) {
+        this(time, null);
+    }
+
+    /**
+     * Constructs the clock at a starting time, waiting for threads that the
+     * activity says are running as well as the ones stepping woke.
+     *
+     * @param time starting time (milliseconds)
+     * @param activity what tells stepping that threads are running, or null
+     */
+    public VirtualClock(long time, Activity activity) {
+        this.time = time;
+        this.activity = activity;
+    }
+
+    public long getTime() {
+        synchronized (lock) {
+            return time;
+        }
+    }
+
+    public void sleep(long millis) {
+        synchronized (lock) {
+            Thread thread = Thread.currentThread();
+            running.remove(thread);
+            Sleeper sleeper = new Sleeper(thread, time + Math.max(0, millis));
+            sleepers.add(sleeper);
+            // Stepping might be waiting for this thread
+            lock.notifyAll();
+            try {
+                while (time < sleeper.wake) {
+                    lock.wait();
+                }
+            } catch (InterruptedException ex) {
+            } finally {
+                sleepers.remove(sleeper);
+            }
+        }
+    }
+
+    public Clock.Scheduler createScheduler() {
+        return new VirtualScheduler();
+    }
+
+    /**
+     * Moves the clock forward, running every task and waking every thread that
+     * is due on the way.
+     *
+     * @param millis time to move forward (milliseconds)
+     */
+    public void step(long millis) {
+        long target;
+        synchronized (lock) {
+            target = time + millis;
+            waitForActivity();
+        }
+        while (true) {
+            Entry due;
+            synchronized (lock) {
+                due = nextEntry(target);
+                long next = nextWake(target);
+                if (due != null && due.next <= next) {
+                    next = due.next;
+                } else {
+                    due = null;
+                }
+                // Tasks that fell behind run now, time never goes backwards
+                time = Math.max(time, next);
+                wakeSleepers();
+                if (due != null) {
+                    if (due.period <= 0) {
+                        entries.remove(due);
+                    } else if (due.fixedRate) {
+                        due.next += due.period;
+                    }
+                } else if (time >= target) {
+                    return;
+                }
+            }
+            if (due != null) {
+                due.task.run();
+                synchronized (lock) {
+                    if (due.period > 0 && !due.fixedRate) {
+                        due.next = time + due.period;
+                    }
+                    waitForActivity();
+                }
+            }
+        }
+    }
+
+    // Must hold lock
+    private Entry nextEntry(long target) {
+        Entry next = null;
+        for (int x = 0; x < entries.size(); x++) {
+            Entry e = (Entry) entries.get(x);
+            if (e.next <= target && (next == null || e.next < next.next)) {
+                next = e;
+            }
+        }
+        return next;
+    }
+
+    // Must hold lock
+    private long nextWake(long target) {
+        long next = target;
+        for (int x = 0; x < sleepers.size(); x++) {
+            Sleeper s = (Sleeper) sleepers.get(x);
+            if (s.wake > time && s.wake < next) {
+                next = s.wake;
+            }
+        }
+        return Math.max(next, time);
+    }
+
+    // Must hold lock
+    private void wakeSleepers() {
+        boolean woke = false;
+        for (int x = 0; x < sleepers.size(); x++) {
+            Sleeper s = (Sleeper) sleepers.get(x);
+            if (s.wake <= time && !s.woken) {
+                s.woken = true;
+                running.add(s.thread);
+                woke = true;
+            }
+        }
+        if (!woke) {
+            return;
+        }
+        lock.notifyAll();
+        if (activity != null) {
+            running.clear();
+            waitForActivity();
+            return;
+        }
+        long deadline = System.currentTimeMillis() + wakeTimeout;
+        try {
+            while (true) {
+                for (int x = running.size() - 1; x >= 0; x--) {
+                    if (!((Thread) running.get(x)).isAlive()) {
+                        running.remove(x);
+                    }
+                }
+                long left = deadline - System.currentTimeMillis();
+                if (running.isEmpty() || left <= 0) {
+                    break;
+                }
+                // Threads that finish don't notify, so check every so often
+                lock.wait(Math.min(left, 1));
+            }
+        } catch (InterruptedException ex) {
+        }
+        running.clear();
+    }
+
+    // Must hold lock
+    private void waitForActivity() {
+        if (activity == null) {
+            return;
+        }
+        Thread stepper = Thread.currentThread();
+        try {
+            while (isWaking() || activity.isRunning(stepper)) {
+                // Threads that block or finish don't notify, so check every so often
+                lock.wait(1);
+            }
+        } catch (InterruptedException ex) {
+        }
+    }
+
+    // Must hold lock
+    private boolean isWaking() {
+        for (int x = 0; x < sleepers.size(); x++) {
+            if (((Sleeper) sleepers.get(x)).woken) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Tells stepping whether threads other than its own are running, as
+     * opposed to waiting or blocked. Stepping waits for as long as any are, so
+     * the activity is what has to give up on a thread that never stops.
+     */
+    public static interface Activity {
+
+        /**
+         * Returns whether any thread, other than the one stepping, is running.
+         * Called while the clock is locked, so it shouldn't wait on the clock.
+         *
+         * @param stepper thread that is stepping the clock
+         * @return if another thread is running
+         */
+        boolean isRunning(Thread stepper);
+    }
+
+    private static final class Sleeper {
+
+        private final Thread thread;
+        private final long wake;
+        private boolean woken;
+
+        private Sleeper(Thread thread, long wake) {
+            this.thread = thread;
+            this.wake = wake;
+        }
+    }
+
+    private static final class Entry {
+
+        private final VirtualScheduler owner;
+        private final Runnable task;
+        private final long period;
+        private final boolean fixedRate;
+        private long next;
+
+        private Entry(VirtualScheduler owner, Runnable task, long next, long period, boolean fixedRate) {
+            this.owner = owner;
+            this.task = task;
+            this.next = next;
+            this.period = period;
+            this.fixedRate = fixedRate;
+        }
+    }
+
+    private final class VirtualScheduler implements Clock.Scheduler {
+
+        private boolean cancelled;
+
+        public void schedule(Runnable task, long delay) {
+            add(task, delay, 0, false);
+        }
+
+        public void schedule(Runnable task, long delay, long period) {
+            if (period <= 0) {
+                throw new IllegalArgumentException("Non-positive period");
+            }
+            add(task, delay, period, false);
+        }
+
+        public void scheduleAtFixedRate(Runnable task, long delay, long period) {
+            if (period <= 0) {
+                throw new IllegalArgumentException("Non-positive period");
+            }
+            add(task, delay, period, true);
+        }
+
+        private void add(Runnable task, long delay, long period, boolean fixedRate) {
+            if (task == null) {
+                throw new NullPointerException();
+            }
+            synchronized (lock) {
+                if (cancelled) {
+                    throw new IllegalStateException("Scheduler already cancelled");
+                }
+                entries.add(new Entry(this, task, time + Math.max(0, delay), period, fixedRate));
+            }
+        }
+
+        public void cancel() {
+            synchronized (lock) {
+                cancelled = true;
+                for (int x = entries.size() - 1; x >= 0; x--) {
+                    if (((Entry) entries.get(x)).owner == this) {
+                        entries.remove(x);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package edu.first.utils;
+
+/**
+ * Decides whether a value needs to be written to hardware, by remembering the
+ * last value that was. Writing the same value again is skipped, unless the
+ * refresh interval has passed since the last real write. The refresh keeps
+ * things like motor safety fed, and fixes anything that changed the hardware
+ * without going through here.
+ *
+ * <p> Values are given as a {@code long}, so any type can be used: bits of a
+ * double from {@link Double#doubleToLongBits(double)}, 0 or 1 for booleans, or
+ * the number of an enumeration. To keep the check and the write together when
+ * more than one thread writes, callers should hold the coalescer's lock:
+ *
+ * <pre>
+ * synchronized (writes) {
+ *     if (writes.shouldWrite(value)) {
+ *         hardware.set(value);
+ *     }
+ * }
+ * </pre>
+ *
+ * @author Joel Gallant
+ */
+public final class WriteCoalescer {
+
+    private long refreshInterval;
+    private boolean written;
+    private long lastValue;
+    private long lastWrite;
+    private long writes, suppressed;
+
+    /**
+     * Constructs the coalescer. The first value is always written.
+     *
+     * @param refreshInterval longest time to skip writing the same value
+     * (milliseconds) - 0 writes everything
+     */
+    public WriteCoalescer(long refreshInterval) {
+        setRefreshInterval(refreshInterval);
+    }
+
+    /**
+     * Returns whether the value should be written. If it should, it is
+     * remembered as written, so the write must happen.
+     *
+     * @param value value about to be written
+     * @return if the value is new or needs to be refreshed
+     */
+    public synchronized boolean shouldWrite(long value) {
+        long now = Clock.currentTimeMillis();
+        if (written && value == lastValue && now - lastWrite < refreshInterval) {
+            suppressed++;
+            return false;
+        }
+        written = true;
+        lastValue = value;
+        lastWrite = now;
+        writes++;
+        return true;
+    }
+
+    /**
+     * Remembers a value that was written without asking first, like when it
+     * has to be written no matter what.
+     *
+     * @param value value that was written
+     */
+    public synchronized void written(long value) {
+        written = true;
+        lastValue = value;
+        lastWrite = Clock.currentTimeMillis();
+        writes++;
+    }
+
+    /**
+     * Forgets the last value, so the next value is written no matter what.
+     * Should be called whenever the hardware might have been changed some
+     * other way.
+     */
+    public synchronized void reset() {
+        written = false;
+    }
+
+    /**
+     * Sets the longest time that the same value is not written again. Use 0 to
+     * write every value, or {@link Long#MAX_VALUE} to never write the same
+     * value twice.
+     *
+     * @param refreshInterval time between refreshes (milliseconds)
+     */
+    public synchronized void setRefreshInterval(long refreshInterval) {
+        if (refreshInterval < 0) {
+            throw new IllegalArgumentException("Invalid refresh interval " + refreshInterval);
+        }
+        this.refreshInterval = refreshInterval;
+    }
+
+    /**
+     * Returns the longest time that the same value is not written again.
+     *
+     * @return time between refreshes (milliseconds)
+     */
+    public synchronized long getRefreshInterval() {
+        return refreshInterval;
+    }
+
+    /**
+     * Returns how many values were written.
+     *
+     * @return amount of writes
+     */
+    public synchronized long getWrites() {
+        return writes;
+    }
+
+    /**
+     * Returns how many values were skipped because they were already written.
+     *
+     * @return amount of suppressed writes
+     */
+    public synchronized long getSuppressedWrites() {
+        return suppressed;
+    }
+}
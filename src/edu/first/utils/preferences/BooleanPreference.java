@@ -12,6 +12,8 @@ import edu.first.utils.Logger;
 public final class BooleanPreference extends Preference implements SetteableBoolean, ReturnableBoolean {
     
     private final boolean defaultValue;
+    private volatile boolean value;
+    private volatile boolean loaded;
 
     /**
      * Constructs the preference with its key used to access it in
@@ -26,22 +28,31 @@ public final class BooleanPreference extends Preference implements SetteableBool
     }
 
     /**
-     * Sets the value of the preference. Will not save over reboot.
+     * Sets the value of the preference. Only the local value changes, until
+     * a {@link PreferenceStore} saves it over reboot.
      *
      * @param value new value of preference
      */
     public void set(boolean value) {
         Logger.log(Logger.Urgency.LOG, "Setting " + getKey() + " to " + value);
-        PREFERENCES.putBoolean(getKey(), value);
+        synchronized (lock) {
+            this.value = value;
+            loaded = true;
+            markDirty();
+        }
     }
 
     /**
-     * Returns the current value of the preference.
+     * Returns the current value of the preference. Does not go to
+     * {@link Preferences} unless the value has never been read.
      *
      * @return value of preference
      */
     public boolean get() {
-        return PREFERENCES.getBoolean(getKey(), defaultValue);
+        if (!loaded) {
+            reload();
+        }
+        return value;
     }
 
     /**
@@ -51,6 +62,24 @@ public final class BooleanPreference extends Preference implements SetteableBool
     public void create() {
         if (!exists()) {
             set(defaultValue);
+            writeNow();
         }
     }
+
+    void writeBack() {
+        preferences().putBoolean(getKey(), value);
+    }
+
+    void reload() {
+        value = preferences().getBoolean(getKey(), defaultValue);
+        loaded = true;
+    }
+
+    boolean isLoaded() {
+        return loaded;
+    }
+
+    String toFileValue() {
+        return String.valueOf(value);
+    }
 }
@@ -12,6 +12,8 @@ import edu.wpi.first.wpilibj.Preferences;
 public final class FloatPreference extends Preference implements SetteableNumber {
 
     private final float defaultValue;
+    private volatile float value;
+    private volatile boolean loaded;
 
     /**
      * Constructs the preference with its key used to access it in
@@ -26,13 +28,18 @@ public final class FloatPreference extends Preference implements SetteableNumber
     }
 
     /**
-     * Sets the value of the preference. Will not save over reboot.
+     * Sets the value of the preference. Only the local value changes, until
+     * a {@link PreferenceStore} saves it over reboot.
      *
      * @param value new value of preference
      */
     public void set(float value) {
         Logger.log(Logger.Urgency.LOG, "Setting " + getKey() + " to " + value);
-        PREFERENCES.putFloat(getKey(), value);
+        synchronized (lock) {
+            this.value = value;
+            loaded = true;
+            markDirty();
+        }
     }
 
     public void set(double value) {
@@ -40,12 +47,16 @@ public final class FloatPreference extends Preference implements SetteableNumber
     }
 
     /**
-     * Returns the current value of the preference.
+     * Returns the current value of the preference. Does not go to
+     * {@link Preferences} unless the value has never been read.
      *
      * @return value of preference
      */
     public float get() {
-        return PREFERENCES.getFloat(getKey(), defaultValue);
+        if (!loaded) {
+            reload();
+        }
+        return value;
     }
 
     /**
@@ -55,6 +66,24 @@ public final class FloatPreference extends Preference implements SetteableNumber
     public void create() {
         if (!exists()) {
             set(defaultValue);
+            writeNow();
         }
     }
+
+    void writeBack() {
+        preferences().putFloat(getKey(), value);
+    }
+
+    void reload() {
+        value = preferences().getFloat(getKey(), defaultValue);
+        loaded = true;
+    }
+
+    boolean isLoaded() {
+        return loaded;
+    }
+
+    String toFileValue() {
+        return String.valueOf(value);
+    }
 }
@@ -10,6 +10,8 @@ import edu.first.utils.Logger;
 public final class LongPreference extends Preference {
 
     private final long defaultValue;
+    private volatile long value;
+    private volatile boolean loaded;
 
     /**
      * Constructs the preference with its key used to access it in
@@ -24,22 +26,31 @@ public final class LongPreference extends Preference {
     }
 
     /**
-     * Sets the value of the preference. Will not save over reboot.
+     * Sets the value of the preference. Only the local value changes, until
+     * a {@link PreferenceStore} saves it over reboot.
      *
      * @param value new value of preference
      */
     public void set(long value) {
         Logger.log(Logger.Urgency.LOG, "Setting " + getKey() + " to " + value);
-        PREFERENCES.putLong(getKey(), value);
+        synchronized (lock) {
+            this.value = value;
+            loaded = true;
+            markDirty();
+        }
     }
 
     /**
-     * Returns the current value of the preference.
+     * Returns the current value of the preference. Does not go to
+     * {@link Preferences} unless the value has never been read.
      *
      * @return value of preference
      */
     public long get() {
-        return PREFERENCES.getLong(getKey(), defaultValue);
+        if (!loaded) {
+            reload();
+        }
+        return value;
     }
 
     /**
@@ -49,6 +60,24 @@ public final class LongPreference extends Preference {
     public void create() {
         if (!exists()) {
             set(defaultValue);
+            writeNow();
         }
     }
+
+    void writeBack() {
+        preferences().putLong(getKey(), value);
+    }
+
+    void reload() {
+        value = preferences().getLong(getKey(), defaultValue);
+        loaded = true;
+    }
+
+    boolean isLoaded() {
+        return loaded;
+    }
+
+    String toFileValue() {
+        return String.valueOf(value);
+    }
 }
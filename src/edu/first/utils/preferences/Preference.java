@@ -1,23 +1,148 @@
 package edu.first.utils.preferences;
 
+import edu.first.module.hardware.Hardware;
+import edu.first.module.hardware.WPILibHardware;
+import edu.first.utils.Clock;
 import edu.wpi.first.wpilibj.Preferences;
+import edu.wpi.first.wpilibj.networktables2.util.List;
 
 /**
  * General class to represent preferences that interact with
  * {@link Preferences}. Only atalibj classes should extend this one.
  *
+ * <p> Every preference keeps its value locally, so reading it is just a field
+ * load. The value is read from {@link Preferences} the first time it is used,
+ * and again on {@link Preference#reloadAll()}. Setting a preference only
+ * changes the local value and marks it as dirty. Dirty values stay dirty until
+ * a {@link PreferenceStore} puts them back into {@link Preferences} and saves
+ * them to the file at a safe time (like disabled mode). Values edited from the
+ * SmartDashboard are noticed by the store and saved the same way.
+ *
+ * <p> The values come from the {@link Hardware.Preferences} given to
+ * {@link Preference#setPreferences(Hardware.Preferences)}, which are the real
+ * {@link Preferences} unless simulated ones are set.
+ *
  * @author Joel Gallant
  */
-public class Preference {
+public abstract class Preference {
 
-    /**
-     * Static singleton instance of {@link Preferences}.
-     */
-    protected static final Preferences PREFERENCES = Preferences.getInstance();
+    private static volatile Hardware.Preferences PREFERENCES;
+    // Guards local values and whether they are dirty
+    static final Object lock = new Object();
+    private static final List preferences = new List();
+    private static final List dirty = new List();
+    private static long lastChange;
     private final String key;
+    private boolean isDirty;
 
     Preference(String key) {
         this.key = key;
+        synchronized (lock) {
+            preferences.add(this);
+        }
+    }
+
+    /**
+     * Sets where every preference is read from and written to. Should be done
+     * before any preference is used.
+     *
+     * @param preferences preferences to use
+     */
+    public static void setPreferences(Hardware.Preferences preferences) {
+        if (preferences == null) {
+            throw new NullPointerException();
+        }
+        PREFERENCES = preferences;
+    }
+
+    // Only touches the real preferences when nothing else was set
+    static Hardware.Preferences preferences() {
+        Hardware.Preferences preferences = PREFERENCES;
+        if (preferences == null) {
+            PREFERENCES = preferences = WPILibHardware.INSTANCE.getPreferences();
+        }
+        return preferences;
+    }
+
+    /**
+     * Writes every changed value back into {@link Preferences}, and returns
+     * them. They are no longer dirty afterwards, so the caller has to save them
+     * (or mark them dirty again if it can't).
+     *
+     * @return preferences that were dirty
+     */
+    static Preference[] takeDirty() {
+        Preference[] changed;
+        synchronized (lock) {
+            changed = new Preference[dirty.size()];
+            for (int x = 0; x < changed.length; x++) {
+                changed[x] = (Preference) dirty.get(x);
+                changed[x].isDirty = false;
+            }
+            dirty.clear();
+        }
+        for (int x = 0; x < changed.length; x++) {
+            changed[x].writeBack();
+        }
+        return changed;
+    }
+
+    /**
+     * Marks every preference that was edited in {@link Preferences} (from the
+     * SmartDashboard) as dirty, with the edited value, so that it gets saved.
+     * Preferences changed locally are left alone - the local value wins.
+     */
+    static void takeRemoteChanges() {
+        synchronized (lock) {
+            for (int x = 0; x < preferences.size(); x++) {
+                Preference p = (Preference) preferences.get(x);
+                if (!p.isDirty && p.isLoaded()) {
+                    String before = p.toFileValue();
+                    p.reload();
+                    if (!before.equals(p.toFileValue())) {
+                        p.markDirty();
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads every preference that has not been changed locally from
+     * {@link Preferences} again. Useful after they have been edited from the
+     * SmartDashboard.
+     */
+    public static void reloadAll() {
+        synchronized (lock) {
+            for (int x = 0; x < preferences.size(); x++) {
+                Preference p = (Preference) preferences.get(x);
+                if (!p.isDirty) {
+                    p.reload();
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns whether any preference has been changed but not saved.
+     *
+     * @return if there are changes waiting
+     */
+    public static boolean anyDirty() {
+        synchronized (lock) {
+            return !dirty.isEmpty();
+        }
+    }
+
+    /**
+     * Returns when a preference was last changed.
+     *
+     * @return time of last change (milliseconds), or 0 if never changed
+     */
+    public static long getLastChange() {
+        synchronized (lock) {
+            return lastChange;
+        }
     }
 
     /**
@@ -35,6 +160,65 @@ public class Preference {
      * @return if preference exists
      */
     public final boolean exists() {
-        return PREFERENCES.containsKey(key);
+        return preferences().containsKey(key);
+    }
+
+    /**
+     * Returns whether the local value has been changed but not saved to the
+     * file.
+     *
+     * @return if value is waiting to be saved
+     */
+    public final boolean isDirty() {
+        synchronized (lock) {
+            return isDirty;
+        }
+    }
+
+    /**
+     * Marks the local value as changed, so that it is saved by the next
+     * {@link PreferenceStore}.
+     */
+    final void markDirty() {
+        synchronized (lock) {
+            lastChange = Clock.currentTimeMillis();
+            if (!isDirty) {
+                isDirty = true;
+                dirty.add(this);
+            }
+        }
+    }
+
+    /**
+     * Writes the local value into {@link Preferences} right away. Used when
+     * creating preferences, so that {@link Preference#exists()} is correct. It
+     * stays dirty until saved.
+     */
+    final void writeNow() {
+        writeBack();
     }
+
+    /**
+     * Puts the local value into {@link Preferences}.
+     */
+    abstract void writeBack();
+
+    /**
+     * Reads the local value from {@link Preferences}.
+     */
+    abstract void reload();
+
+    /**
+     * Returns whether the local value has been read or set yet.
+     *
+     * @return if there is a local value
+     */
+    abstract boolean isLoaded();
+
+    /**
+     * Returns the local value the way it is written in the preferences file.
+     *
+     * @return value in the file
+     */
+    abstract String toFileValue();
 }
@@ -0,0 +1,339 @@
+package edu.first.utils.preferences;
+
+import edu.first.identifiers.ReturnableBoolean;
+import edu.first.utils.Clock;
+import edu.first.utils.FileSystem;
+import edu.first.utils.Logger;
+import edu.wpi.first.wpilibj.Preferences;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Hashtable;
+
+/**
+ * Saves changed preferences to the preferences file that {@link Preferences}
+ * loads from. Replaces {@link Preferences#save()}, which rewrites the whole
+ * file in place every time it is called. The store should be the only thing
+ * that writes the file, so robot code should never call
+ * {@link Preferences#save()} (saving from the SmartDashboard still does).
+ *
+ * <p> While started, the store checks every so often for preferences that
+ * are dirty ({@link Preference#isDirty()}). While the robot is idle, it also
+ * checks for preferences that were edited from the SmartDashboard, and marks
+ * them dirty. Only keys that have a {@link Preference} are saved. Dirty
+ * preferences are saved together once:
+ * <ul>
+ * <li> The robot is idle (given in the constructor, usually disabled mode).
+ * <li> No preference has changed for {@link PreferenceStore#setDebounce(long)}.
+ * <li> The last save was at least {@link PreferenceStore#setMinInterval(long)}
+ * ago.
+ * </ul>
+ * Changes that can't be saved yet are never thrown away, only held until the
+ * next chance.
+ *
+ * <p> Saving writes a new file next to the old one, with only the dirty keys
+ * changed, and then renames it over the old one. Lines the store doesn't know
+ * about (other keys, comments) are kept as they are. If a save fails, the
+ * preferences are marked dirty again.
+ *
+ * @author Joel Gallant
+ */
+public final class PreferenceStore {
+
+    /**
+     * Path to the preferences file.
+     */
+    public static final String PATH = "file:///wpilib-preferences.ini";
+    private static final String NAME = "wpilib-preferences.ini";
+    private static final String TEMP_PATH = "file:///wpilib-preferences.tmp";
+    private static final long checkInterval = 250L;
+    private final ReturnableBoolean idle;
+    private final Object lock = new Object();
+    private long debounce = 2000L;
+    private long minInterval = 10000L;
+    private long lastSave;
+    private long lastDuration, lastBytes, totalBytes;
+    private int saves, failures;
+    private Clock.Scheduler timer;
+
+    /**
+     * Constructs the store with when it is safe to save.
+     *
+     * @param idle whether the robot is idle (ex. disabled)
+     */
+    public PreferenceStore(ReturnableBoolean idle) {
+        if (idle == null) {
+            throw new NullPointerException();
+        }
+        this.idle = idle;
+        recover();
+    }
+
+    /**
+     * Starts checking for preferences to save. Does nothing if already
+     * started.
+     */
+    public void start() {
+        synchronized (lock) {
+            if (timer != null) {
+                return;
+            }
+            timer = Clock.newScheduler();
+            timer.schedule(new Runnable() {
+                public void run() {
+                    if (isSaveDue()) {
+                        save();
+                    }
+                }
+            }, checkInterval, checkInterval);
+        }
+    }
+
+    /**
+     * Stops checking for preferences to save. Anything dirty stays dirty.
+     */
+    public void stop() {
+        synchronized (lock) {
+            if (timer != null) {
+                timer.cancel();
+                timer = null;
+            }
+        }
+    }
+
+    private boolean isSaveDue() {
+        if (!idle.get()) {
+            return false;
+        }
+        Preference.takeRemoteChanges();
+        if (!Preference.anyDirty()) {
+            return false;
+        }
+        long now = Clock.currentTimeMillis();
+        synchronized (lock) {
+            return now - Preference.getLastChange() >= debounce && now - lastSave >= minInterval;
+        }
+    }
+
+    /**
+     * Saves every dirty preference right away, whether or not the robot is
+     * idle. Blocks until the file is written.
+     *
+     * @return if saving worked (or there was nothing to save)
+     */
+    public boolean save() {
+        synchronized (lock) {
+            long start = Clock.currentTimeMillis();
+            Preference[] changed = Preference.takeDirty();
+            if (changed.length == 0) {
+                return true;
+            }
+            try {
+                long bytes = write(changed);
+                lastSave = Clock.currentTimeMillis();
+                lastDuration = lastSave - start;
+                lastBytes = bytes;
+                totalBytes += bytes;
+                saves++;
+                Logger.log(Logger.Urgency.LOG, "Saved " + changed.length + " preferences ("
+                        + bytes + " bytes, " + lastDuration + "ms)");
+                return true;
+            } catch (IOException ex) {
+                // Not lost - try again next time
+                for (int x = 0; x < changed.length; x++) {
+                    changed[x].markDirty();
+                }
+                lastSave = Clock.currentTimeMillis();
+                failures++;
+                Logger.log(Logger.Urgency.USERMESSAGE, "Preferences not saved - " + ex.getMessage());
+                return false;
+            }
+        }
+    }
+
+    private long write(Preference[] changed) throws IOException {
+        Hashtable values = new Hashtable();
+        for (int x = 0; x < changed.length; x++) {
+            values.put(changed[x].getKey(), changed[x].toFileValue());
+        }
+
+        String old = "";
+        FileSystem.File connection = FileSystem.open(PATH, FileSystem.READ);
+        try {
+            if (connection.exists()) {
+                old = Logger.getTextFromFile(connection);
+            }
+        } finally {
+            connection.close();
+        }
+
+        StringBuffer text = new StringBuffer(old.length() + 64);
+        int start = 0;
+        while (start < old.length()) {
+            int end = old.indexOf('\n', start);
+            if (end < 0) {
+                end = old.length();
+            }
+            String line = old.substring(start, end);
+            int equals = line.indexOf('=');
+            String key = equals < 0 ? null : line.substring(0, equals).trim();
+            if (key != null && values.containsKey(key)) {
+                text.append(key).append(" = ").append(values.get(key)).append('\n');
+                values.remove(key);
+            } else if (line.trim().length() > 0) {
+                text.append(line).append('\n');
+            }
+            start = end + 1;
+        }
+        if (text.length() == 0) {
+            text.append("[Preferences]\n");
+        }
+        // Keys that were not in the file yet
+        for (int x = 0; x < changed.length; x++) {
+            String key = changed[x].getKey();
+            if (values.containsKey(key)) {
+                text.append(key).append(" = ").append(values.get(key)).append('\n');
+            }
+        }
+        byte[] bytes = text.toString().getBytes();
+
+        FileSystem.File temp = FileSystem.open(TEMP_PATH, FileSystem.READ_WRITE);
+        OutputStream stream = null;
+        try {
+            if (temp.exists()) {
+                temp.delete();
+                temp.close();
+                temp = FileSystem.open(TEMP_PATH, FileSystem.READ_WRITE);
+            }
+            temp.create();
+            stream = temp.openOutputStream();
+            stream.write(bytes);
+            stream.flush();
+            stream.close();
+            stream = null;
+            replace(temp);
+        } finally {
+            if (stream != null) {
+                stream.close();
+            }
+            temp.close();
+        }
+        return bytes.length;
+    }
+
+    // Moves a complete temporary file over the real one
+    private void replace(FileSystem.File temp) throws IOException {
+        FileSystem.File file = FileSystem.open(PATH, FileSystem.READ_WRITE);
+        try {
+            if (file.exists()) {
+                file.delete();
+            }
+        } finally {
+            file.close();
+        }
+        temp.rename(NAME);
+    }
+
+    // A save that stopped between delete and rename leaves only the new file
+    private void recover() {
+        try {
+            FileSystem.File file = FileSystem.open(PATH, FileSystem.READ);
+            boolean exists;
+            try {
+                exists = file.exists();
+            } finally {
+                file.close();
+            }
+            if (!exists) {
+                FileSystem.File temp = FileSystem.open(TEMP_PATH, FileSystem.READ_WRITE);
+                try {
+                    if (temp.exists()) {
+                        temp.rename(NAME);
+                        Logger.log(Logger.Urgency.USERMESSAGE, "Recovered preferences - restart to load them");
+                    }
+                } finally {
+                    temp.close();
+                }
+            }
+        } catch (IOException ex) {
+            ex.printStackTrace();
+        }
+    }
+
+    /**
+     * Sets how long preferences have to stay unchanged before saving.
+     *
+     * @param debounce quiet time before saving (milliseconds)
+     */
+    public void setDebounce(long debounce) {
+        synchronized (lock) {
+            this.debounce = debounce;
+        }
+    }
+
+    /**
+     * Sets the shortest time allowed between saves. Limits wear on the flash
+     * memory.
+     *
+     * @param minInterval minimum time between saves (milliseconds)
+     */
+    public void setMinInterval(long minInterval) {
+        synchronized (lock) {
+            this.minInterval = minInterval;
+        }
+    }
+
+    /**
+     * Returns how long the last save took.
+     *
+     * @return duration of last save (milliseconds)
+     */
+    public long getLastSaveDuration() {
+        synchronized (lock) {
+            return lastDuration;
+        }
+    }
+
+    /**
+     * Returns how many bytes the last save wrote.
+     *
+     * @return size of last save (bytes)
+     */
+    public long getLastSaveBytes() {
+        synchronized (lock) {
+            return lastBytes;
+        }
+    }
+
+    /**
+     * Returns how many bytes have been written since the robot started.
+     *
+     * @return total bytes written
+     */
+    public long getTotalBytesWritten() {
+        synchronized (lock) {
+            return totalBytes;
+        }
+    }
+
+    /**
+     * Returns how many saves have worked since the robot started.
+     *
+     * @return amount of saves
+     */
+    public int getSaveCount() {
+        synchronized (lock) {
+            return saves;
+        }
+    }
+
+    /**
+     * Returns how many saves have failed since the robot started.
+     *
+     * @return amount of failed saves
+     */
+    public int getFailureCount() {
+        synchronized (lock) {
+            return failures;
+        }
+    }
+}
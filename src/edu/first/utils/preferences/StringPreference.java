@@ -11,6 +11,8 @@ import edu.wpi.first.wpilibj.Preferences;
 public final class StringPreference extends Preference {
 
     private final String defaultValue;
+    private volatile String value;
+    private volatile boolean loaded;
 
     /**
      * Constructs the preference with its key used to access it in
@@ -25,22 +27,31 @@ public final class StringPreference extends Preference {
     }
 
     /**
-     * Sets the value of the preference. Will not save over reboot.
+     * Sets the value of the preference. Only the local value changes, until
+     * a {@link PreferenceStore} saves it over reboot.
      *
      * @param value new value of preference
      */
     public void set(String value) {
         Logger.log(Logger.Urgency.LOG, "Setting " + getKey() + " to " + value);
-        PREFERENCES.putString(getKey(), value);
+        synchronized (lock) {
+            this.value = value;
+            loaded = true;
+            markDirty();
+        }
     }
 
     /**
-     * Returns the current value of the preference.
+     * Returns the current value of the preference. Does not go to
+     * {@link Preferences} unless the value has never been read.
      *
      * @return value of preference
      */
     public String get() {
-        return PREFERENCES.getString(getKey(), defaultValue);
+        if (!loaded) {
+            reload();
+        }
+        return value;
     }
 
     /**
@@ -50,6 +61,35 @@ public final class StringPreference extends Preference {
     public void create() {
         if (!exists()) {
             set(defaultValue);
+            writeNow();
+        }
+    }
+
+    void writeBack() {
+        preferences().putString(getKey(), value);
+    }
+
+    void reload() {
+        value = preferences().getString(getKey(), defaultValue);
+        loaded = true;
+    }
+
+    boolean isLoaded() {
+        return loaded;
+    }
+
+    // Quoted, with quotes and backslashes escaped so the line can be read back
+    String toFileValue() {
+        String text = String.valueOf(value);
+        StringBuffer buffer = new StringBuffer(text.length() + 2);
+        buffer.append('"');
+        for (int x = 0; x < text.length(); x++) {
+            char c = text.charAt(x);
+            if (c == '"' || c == '\\') {
+                buffer.append('\\');
+            }
+            buffer.append(c);
         }
+        return buffer.append('"').toString();
     }
 }
@@ -0,0 +1,264 @@
+import edu.gordian.Gordian;
+import edu.gordian.Variable;
+import edu.gordian.method.BooleanReturningMethod;
+import edu.gordian.method.Method;
+import edu.gordian.method.NumberReturningMethod;
+import edu.gordian.method.RunningMethod;
+import edu.gordian.variable.NumberInterface;
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.Hashtable;
+
+/**
+ * Desktop tool that measures how fast {@link Gordian} runs autonomous scripts,
+ * from parsing to the last method call. Each benchmark is a script like the
+ * ones in auto/*.txt, run against stub methods with the same names as
+ * {@link edu.ata.autonomous.GordianAuto}, so no hardware is touched. Is not
+ * part of the robot build.
+ *
+ * <pre>
+ * javac -cp wpilibj.jar -sourcepath ../src -d . GordianBenchmark.java
+ * java -cp wpilibj.jar:. GordianBenchmark [millis] [baseline.csv] &gt; results.csv
+ * </pre>
+ *
+ * Every benchmark is warmed up and then run for the given time (default 2000
+ * milliseconds). Results are printed as CSV: runs per second, bytes allocated
+ * per run (counted by the JVM for this thread, which is much steadier than the
+ * time), and method calls per run as a check that the script did what it
+ * should. If results from an earlier run are given as a baseline, the tool
+ * exits with an error when any benchmark is more than
+ * {@link GordianBenchmark#maxSlowdown} slower, or allocates more than
+ * {@link GordianBenchmark#maxGrowth} more.
+ *
+ * @author Joel Gallant
+ */
+public final class GordianBenchmark {
+
+    private static final double maxSlowdown = 0.30;
+    private static final double maxGrowth = 0.10;
+    private static final int pollsPerWait = 20;
+    private static final String[] names = {"methods", "if", "for", "while", "arithmetic", "auto"};
+    private static final String[] scripts = {
+        // Straight-line method calls
+        "setFirstGear()\n"
+        + "setShooter(4000)\n"
+        + "setWinchPosition(5)\n"
+        + "alignOut()\n"
+        + "driveDistance(10)\n"
+        + "turnToAngle(90)\n"
+        + "setLoaderOut()\n"
+        + "fireLoader()\n"
+        + "fireLoader()\n"
+        + "fireLoader()\n"
+        + "setShooter(0)\n"
+        + "setLoaderIn()\n",
+        // Nested if / else
+        "if (atPressure()) [\n"
+        + "if (isFirstGear()) [\n"
+        + "setSecondGear()\n"
+        + "]\n"
+        + "else [\n"
+        + "setFirstGear()\n"
+        + "]\n"
+        + "if (getShooterRPM() > 3900) [\n"
+        + "fireLoader()\n"
+        + "]\n"
+        + "]\n"
+        + "else [\n"
+        + "compressorOn()\n"
+        + "]\n",
+        // For loops
+        "shots = 0\n"
+        + "for (10) [\n"
+        + "setShooter(4000)\n"
+        + "fireLoader()\n"
+        + "shots++\n"
+        + "]\n",
+        // While loop polling a condition
+        "while (!shooterPastSetpoint()) [\n"
+        + "setWinchSpeed(0.5)\n"
+        + "]\n"
+        + "fireLoader()\n",
+        // Arithmetic
+        "x = 1.5\n"
+        + "y = x * 2 + 3 / 4 - 1\n"
+        + "distance = y * 12 + x / 3\n"
+        + "angle = distance / 2 + x * y - 7\n"
+        + "setShooter(distance * 100 + 4000)\n"
+        + "turnToAngle(angle * 3 + 45)\n",
+        // A whole autonomous, shooting three and driving back
+        "setShooter(4000)\n"
+        + "setWinchPosition(5)\n"
+        + "setFirstGear()\n"
+        + "shots = 0\n"
+        + "for (3) [\n"
+        + "while (!shooterPastSetpoint()) [\n"
+        + "delay(0.02)\n"
+        + "]\n"
+        + "if (isLoaderOut()) [\n"
+        + "setLoaderIn()\n"
+        + "]\n"
+        + "fireLoader()\n"
+        + "shots++\n"
+        + "]\n"
+        + "setShooter(0)\n"
+        + "back = 0 - 10\n"
+        + "driveDistance(back * 1.5)\n"
+        + "turnToAngle(180)\n"
+    };
+    private static long calls;
+    private static int polls;
+    private static boolean firstGear;
+    private static double sink;
+
+    public static void main(String[] args) throws IOException {
+        long millis = args.length > 0 ? Long.parseLong(args[0]) : 2000;
+        Hashtable baseline = args.length > 1 ? readBaseline(args[1]) : new Hashtable();
+        Method[] methods = createMethods();
+        com.sun.management.ThreadMXBean threads = allocationCounter();
+
+        boolean failed = false;
+        System.out.println("benchmark,runsPerSecond,bytesPerRun,callsPerRun");
+        for (int x = 0; x < names.length; x++) {
+            String script = scripts[x];
+            // Warm up for as long as measuring, so the JIT is done
+            measure(script, methods, millis, null);
+            long start = calls;
+            double[] result = measure(script, methods, millis, threads);
+            double runsPerSecond = result[0];
+            double bytesPerRun = result[1];
+            double callsPerRun = (calls - start) / result[2];
+            System.out.println(names[x] + "," + Math.round(runsPerSecond) + ","
+                    + (bytesPerRun < 0 ? "n/a" : String.valueOf(Math.round(bytesPerRun))) + ","
+                    + Math.round(callsPerRun));
+
+            double[] old = (double[]) baseline.get(names[x]);
+            if (old != null) {
+                if (runsPerSecond < old[0] * (1 - maxSlowdown)) {
+                    System.err.println(names[x] + " is slower: " + Math.round(runsPerSecond)
+                            + " runs/s, was " + Math.round(old[0]));
+                    failed = true;
+                }
+                if (bytesPerRun >= 0 && old[1] >= 0 && bytesPerRun > old[1] * (1 + maxGrowth)) {
+                    System.err.println(names[x] + " allocates more: " + Math.round(bytesPerRun)
+                            + " bytes/run, was " + Math.round(old[1]));
+                    failed = true;
+                }
+            }
+        }
+        System.exit(failed ? 1 : 0);
+    }
+
+    // Runs, bytes per run (-1 if not measured) and amount of runs
+    private static double[] measure(String script, Method[] methods, long millis,
+            com.sun.management.ThreadMXBean threads) {
+        long thread = Thread.currentThread().getId();
+        long bytes = threads != null ? threads.getThreadAllocatedBytes(thread) : 0;
+        long start = System.nanoTime();
+        long end = start + millis * 1000000L;
+        long runs = 0;
+        long now;
+        do {
+            // Checking the time every run would be measured too
+            for (int x = 0; x < 16; x++) {
+                polls = 0;
+                new Gordian(script, methods).run();
+            }
+            runs += 16;
+            now = System.nanoTime();
+        } while (now < end);
+        double seconds = (now - start) / 1e9;
+        double bytesPerRun = threads != null
+                ? (threads.getThreadAllocatedBytes(thread) - bytes) / (double) runs : -1;
+        return new double[]{runs / seconds, bytesPerRun, runs};
+    }
+
+    private static com.sun.management.ThreadMXBean allocationCounter() {
+        try {
+            com.sun.management.ThreadMXBean threads =
+                    (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+            if (threads.isThreadAllocatedMemorySupported()) {
+                threads.setThreadAllocatedMemoryEnabled(true);
+                return threads;
+            }
+        } catch (ClassCastException ex) {
+        }
+        System.err.println("Allocation is not measured by this JVM");
+        return null;
+    }
+
+    private static Hashtable readBaseline(String file) throws IOException {
+        Hashtable baseline = new Hashtable();
+        BufferedReader reader = new BufferedReader(new FileReader(file));
+        try {
+            String line = reader.readLine();
+            while ((line = reader.readLine()) != null) {
+                String[] parts = line.split(",");
+                if (parts.length >= 3) {
+                    baseline.put(parts[0], new double[]{Double.parseDouble(parts[1]),
+                        parts[2].equals("n/a") ? -1 : Double.parseDouble(parts[2])});
+                }
+            }
+        } finally {
+            reader.close();
+        }
+        return baseline;
+    }
+
+    private static Method[] createMethods() {
+        String[] running = {"log", "print", "delay", "arcade", "tank", "alignIn", "alignOut",
+            "alignLeft", "alignRight", "bitchBarIn", "switchBitchBar", "compressorOn",
+            "compressorOff", "switchCompressor", "setFirstGear", "setSecondGear", "switchGear",
+            "setLoaderIn", "setLoaderOut", "fireLoader", "driveDistance", "turnToAngle",
+            "turnByAngle", "driveArc", "setShooter", "setDashboard", "setWinchSpeed",
+            "setWinchPosition", "setWiperSpeed"};
+        Method[] methods = new Method[running.length + 5];
+        for (int x = 0; x < running.length; x++) {
+            methods[x] = new RunningMethod(running[x]) {
+                public void run(Variable[] args) {
+                    calls++;
+                    // Arguments are read the way the real methods would
+                    for (int i = 0; i < args.length; i++) {
+                        if (args[i] instanceof NumberInterface) {
+                            sink += ((NumberInterface) args[i]).doubleValue();
+                        }
+                    }
+                }
+            };
+        }
+        int x = running.length;
+        methods[x++] = new BooleanReturningMethod("atPressure") {
+            public boolean getBoolean() {
+                return true;
+            }
+        };
+        methods[x++] = new BooleanReturningMethod("isFirstGear") {
+            public boolean getBoolean() {
+                return firstGear = !firstGear;
+            }
+        };
+        methods[x++] = new BooleanReturningMethod("isLoaderOut") {
+            public boolean getBoolean() {
+                return false;
+            }
+        };
+        // Comes up to speed after a while, every time it is waited for
+        methods[x++] = new BooleanReturningMethod("shooterPastSetpoint") {
+            public boolean getBoolean() {
+                if (++polls >= pollsPerWait) {
+                    polls = 0;
+                    return true;
+                }
+                return false;
+            }
+        };
+        methods[x++] = new NumberReturningMethod("getShooterRPM") {
+            public double getDouble() {
+                return 3950;
+            }
+        };
+        return methods;
+    }
+}
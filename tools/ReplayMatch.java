@@ -0,0 +1,230 @@
+import edu.ata.murdock.Murdock;
+import edu.first.module.hardware.SimHardware;
+import edu.first.simulation.ArmModel;
+import edu.first.simulation.DriverstationReplay;
+import edu.first.simulation.FlywheelModel;
+import edu.first.simulation.IterativeRunner;
+import edu.first.simulation.Simulation;
+import edu.first.simulation.SkidSteerModel;
+import edu.first.utils.Clock;
+import edu.first.utils.DriverstationInfo;
+import edu.first.utils.DriverstationReader;
+import edu.first.utils.FileSystem;
+import edu.first.utils.Logger;
+import edu.first.utils.MemoryFileSystem;
+import edu.first.utils.VirtualClock;
+import edu.wpi.first.wpilibj.SpeedController;
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Desktop tool that plays a driver station recording (driverstation-auto.bin
+ * or driverstation-teleop.bin from the cRIO, written by
+ * {@link edu.first.utils.DriverstationRecorder}) through
+ * Murdock on simulated hardware, and prints what every output was doing as
+ * CSV. Runs on a {@link VirtualClock}, so the same recording and code always
+ * give the same output, and two versions of the code can be compared with
+ * diff. Is not part of the robot build.
+ *
+ * <pre>
+ * javac -cp wpilibj.jar -sourcepath ../src -d . ReplayMatch.java
+ * java -cp wpilibj.jar:. ReplayMatch driverstation.bin [output.csv] [robot files]
+ * </pre>
+ *
+ * Only the WPILib interfaces and value classes are used, so the desktop
+ * wpilibj.jar (or anything else with the same classes) is enough - no Squawk
+ * or cRIO libraries. The robot's files are in memory: everything in the robot
+ * files directory (PortMap.txt, autonomous scripts, wpilib-preferences.ini,
+ * copied off the cRIO) is put in before Murdock starts, and whatever Murdock
+ * writes (logs, recordings) stays in memory, so the recording being replayed
+ * is never written over. Without the directory Murdock uses its default ports
+ * and preferences.
+ *
+ * Every line is taken when a packet arrives, before the robot sees it, so it
+ * shows the robot's response to all of the packets before.
+ *
+ * <p> The clock is shown the JVM's thread states, and time only moves once
+ * every robot thread is waiting, so threads that the
+ * clock doesn't know about (commands, subsystems, writers) and slow ones (the
+ * first run of anything, while classes load) still see the same times every
+ * run.
+ *
+ * @author Joel Gallant
+ */
+public final class ReplayMatch {
+
+    private static final long step = 1;
+    private static final long giveUpTimeout = 10000;
+    private static final int pwmChannels = 10;
+    private static final int solenoidChannels = 8;
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: ReplayMatch driverstation.bin [output.csv] [robot files]");
+            System.exit(2);
+        }
+        DriverstationReader reader = new DriverstationReader(new BufferedInputStream(new FileInputStream(args[0])));
+        PrintStream output = args.length > 1 ? new PrintStream(new FileOutputStream(args[1])) : System.out;
+        MemoryFileSystem files = new MemoryFileSystem();
+        if (args.length > 2) {
+            putFiles(files, new File(args[2]), "file:///");
+        }
+        FileSystem.setFileSystem(files);
+
+        VirtualClock clock = new VirtualClock(0, new Threads(giveUpTimeout));
+        Clock.setClock(clock);
+        SimHardware hardware = new SimHardware();
+        byte[] preferences = files.get("file:///wpilib-preferences.ini");
+        if (preferences != null) {
+            hardware.getSimPreferences().load(new String(preferences, StandardCharsets.UTF_8));
+        }
+        Simulation simulation = new Simulation(hardware, clock);
+        addModels(simulation, hardware);
+
+        Murdock.setHardware(hardware);
+        IterativeRunner runner = new IterativeRunner(Murdock.getInstance().getRobot(), hardware.getDriverStation());
+        runner.start();
+        DriverstationReplay replay = new DriverstationReplay(reader, simulation, step);
+
+        StringBuffer line = new StringBuffer("time,packet,mode");
+        for (int x = 1; x <= pwmChannels; x++) {
+            line.append(",PWM ").append(x);
+        }
+        for (int x = 1; x <= solenoidChannels; x++) {
+            line.append(",Solenoid ").append(x);
+        }
+        line.append(",Relay 1");
+        output.println(line.toString());
+
+        int packets = 0;
+        while (replay.next()) {
+            line.setLength(0);
+            line.append(reader.getTime()).append(',').append(reader.getPacketNumber())
+                    .append(',').append(DriverstationInfo.getGamePeriod());
+            for (int x = 1; x <= pwmChannels; x++) {
+                line.append(',').append(hardware.getMotor(x).get());
+            }
+            for (int x = 1; x <= solenoidChannels; x++) {
+                line.append(',').append(hardware.getSimSolenoid(x).get() ? 1 : 0);
+            }
+            line.append(',').append(hardware.getSimRelay(1).get().value);
+            output.println(line.toString());
+            packets++;
+        }
+        runner.stop();
+        Logger.shutdown();
+        output.flush();
+
+        System.err.println(packets + " packets replayed, " + runner.getErrors() + " errors");
+        System.exit(runner.getErrors() == 0 ? 0 : 1);
+    }
+
+    private static void putFiles(MemoryFileSystem files, File directory, String path) throws IOException {
+        File[] contents = directory.listFiles();
+        if (contents == null) {
+            throw new IOException(directory + " is not a directory");
+        }
+        for (File file : contents) {
+            if (file.isDirectory()) {
+                putFiles(files, file, path + file.getName() + "/");
+            } else {
+                files.put(path + file.getName(), Files.readAllBytes(file.toPath()));
+            }
+        }
+    }
+
+    // Same ports as the defaults in Murdock
+    private static void addModels(Simulation simulation, SimHardware hardware) {
+        simulation.add(new FlywheelModel(hardware.getMotor(1), hardware.getSimCounter(1), 5500, 0.8));
+        // The winch raises the arm with negative outputs
+        ArmModel arm = new ArmModel(hardware.getMotor(2), hardware.getSimAnalogInput(1), -2, 0.1, 0.5, 9.5);
+        arm.setGravity(-0.1);
+        simulation.add(arm);
+        SkidSteerModel drive = new SkidSteerModel(
+                new SpeedController[]{hardware.getMotor(5), hardware.getMotor(6)},
+                new SpeedController[]{hardware.getMotor(3), hardware.getMotor(4)}, 12, 0.2, 2);
+        drive.setEncoders(hardware.getSimEncoder(2), null, 100);
+        drive.setGyro(hardware.getSimGyro(2));
+        simulation.add(drive);
+    }
+
+    /**
+     * Sees threads through the JVM: every thread in the stepping thread's group
+     * is running unless it is waiting, or blocked on a thread that is. Gives up
+     * on a thread that has been running for too long, until it waits again.
+     */
+    private static final class Threads implements VirtualClock.Activity {
+
+        private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        private final Set<Long> ignored = new HashSet<Long>();
+        private final long timeout;
+        private long since;
+
+        private Threads(long timeout) {
+            this.timeout = timeout;
+        }
+
+        public boolean isRunning(Thread stepper) {
+            ThreadInfo running = running(stepper);
+            if (running == null) {
+                since = 0;
+                return false;
+            }
+            long now = System.currentTimeMillis();
+            if (since == 0) {
+                since = now;
+            } else if (now - since >= timeout) {
+                System.err.println("Gave up waiting for " + running.getThreadName() + " at "
+                        + Clock.currentTimeMillis() + "ms, the output may change between runs");
+                ignored.add(running.getThreadId());
+                since = 0;
+            }
+            return true;
+        }
+
+        private ThreadInfo running(Thread stepper) {
+            ThreadGroup group = stepper.getThreadGroup();
+            Thread[] list = new Thread[group.activeCount() + 8];
+            int count = group.enumerate(list);
+            long[] ids = new long[count];
+            for (int x = 0; x < count; x++) {
+                ids[x] = list[x].getId();
+            }
+            ThreadInfo running = null;
+            for (ThreadInfo info : threads.getThreadInfo(ids)) {
+                if (info == null || info.getThreadId() == stepper.getId()) {
+                    continue;
+                }
+                if (!isRunning(info)) {
+                    ignored.remove(info.getThreadId());
+                } else if (running == null && !ignored.contains(info.getThreadId())) {
+                    running = info;
+                }
+            }
+            return running;
+        }
+
+        private boolean isRunning(ThreadInfo info) {
+            // Follows lock owners a few threads deep, a deadlock never runs again
+            for (int x = 0; x < 8 && info.getThreadState() == Thread.State.BLOCKED; x++) {
+                long owner = info.getLockOwnerId();
+                // No owner yet means the lock is being handed over
+                if (owner <= 0 || (info = threads.getThreadInfo(owner)) == null) {
+                    return true;
+                }
+            }
+            return info.getThreadState() == Thread.State.RUNNABLE;
+        }
+    }
+}
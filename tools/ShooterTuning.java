@@ -0,0 +1,91 @@
+import edu.first.module.hardware.SimHardware;
+import edu.first.module.sensor.HallEffectModule;
+import edu.first.module.speedcontroller.SpeedControllerModule;
+import edu.first.module.target.BangBangModule;
+import edu.first.simulation.FlywheelModel;
+import edu.first.simulation.ResponseTimer;
+import edu.first.simulation.Simulation;
+import edu.first.utils.Clock;
+import edu.first.utils.VirtualClock;
+
+/**
+ * Desktop tool that runs the shooter's {@link BangBangModule} against a
+ * simulated flywheel, and prints spin-up, settle and shot-recovery times. Runs
+ * on a {@link VirtualClock}, so it takes a fraction of a second and gives the
+ * same answer every time. Is not part of the robot build.
+ *
+ * <pre>
+ * javac -cp wpilibj.jar -sourcepath ../src -d . ShooterTuning.java
+ * java -cp wpilibj.jar:. ShooterTuning [rpm] [shots] [toleranceRPM] [maxSettleMillis]
+ * </pre>
+ *
+ * If a maximum settle time is given, the tool exits with an error when any
+ * spin-up or recovery takes longer, so it can be used as a regression test.
+ *
+ * @author Joel Gallant
+ */
+public final class ShooterTuning {
+
+    private static final long step = 1;
+    private static final long settleWindow = 500;
+    private static final long timeout = 10000;
+    private static final double freeSpeed = 5500;
+    private static final double timeConstant = 0.8;
+    private static final double shotLoss = 0.15;
+
+    public static void main(String[] args) {
+        double rpm = args.length > 0 ? Double.parseDouble(args[0]) : 4000;
+        int shots = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        double tolerance = args.length > 2 ? Double.parseDouble(args[2]) : 250;
+        long maxSettle = args.length > 3 ? Long.parseLong(args[3]) : -1;
+
+        VirtualClock clock = new VirtualClock();
+        Clock.setClock(clock);
+        SimHardware hardware = new SimHardware();
+        Simulation simulation = new Simulation(hardware, clock);
+        FlywheelModel flywheel = new FlywheelModel(hardware.getMotor(1), hardware.getSimCounter(1),
+                freeSpeed, timeConstant);
+        simulation.add(flywheel);
+
+        HallEffectModule hallEffect = new HallEffectModule(hardware.getCounter(1));
+        SpeedControllerModule shooter = new SpeedControllerModule(hardware.getTalon(1));
+        BangBangModule bangBang = new BangBangModule(hallEffect, shooter, 0, false);
+        ResponseTimer response = new ResponseTimer(flywheel, tolerance);
+
+        bangBang.enable();
+        bangBang.setSetpoint(rpm);
+
+        boolean failed = false;
+        for (int x = 0; x <= shots; x++) {
+            if (x > 0) {
+                flywheel.shoot(shotLoss);
+            }
+            response.start(simulation.getTime(), rpm);
+            long settle = measure(simulation, response);
+            System.out.println((x == 0 ? "Spin-up" : "Recovery " + x)
+                    + ": rise " + response.getRiseTime() + "ms, settle " + settle
+                    + "ms, overshoot " + Math.round(response.getOvershoot()) + "RPM");
+            if (settle < 0 || (maxSettle >= 0 && settle > maxSettle)) {
+                failed = true;
+            }
+        }
+
+        bangBang.disable();
+        System.exit(failed ? 1 : 0);
+    }
+
+    // Waits until the response has settled for a while, or gives up
+    private static long measure(Simulation simulation, ResponseTimer response) {
+        long start = simulation.getTime();
+        while (simulation.getTime() - start < timeout) {
+            simulation.step(step);
+            long now = simulation.getTime();
+            response.update(now);
+            long settle = response.getSettleTime();
+            if (settle >= 0 && now - start - settle >= settleWindow) {
+                return settle;
+            }
+        }
+        return -1;
+    }
+}
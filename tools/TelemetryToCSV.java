@@ -0,0 +1,42 @@
+import edu.first.utils.TelemetryDecoder;
+import java.io.BufferedInputStream;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+
+/**
+ * Desktop tool that converts a telemetry file pulled off the cRIO (through FTP)
+ * into CSV. Is not part of the robot build.
+ *
+ * <pre>
+ * javac -d . TelemetryToCSV.java ../src/edu/first/utils/TelemetryDecoder.java
+ * java -cp . TelemetryToCSV telemetry.bin telemetry.csv
+ * </pre>
+ *
+ * If no output file is given, the CSV is printed.
+ *
+ * @author Joel Gallant
+ */
+public final class TelemetryToCSV {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: TelemetryToCSV <telemetry.bin> [output.csv]");
+            System.exit(1);
+        }
+        InputStream input = new BufferedInputStream(new FileInputStream(args[0]));
+        PrintStream output = args.length > 1 ? new PrintStream(new FileOutputStream(args[1])) : System.out;
+        try {
+            int rows = TelemetryDecoder.decode(input, output);
+            System.err.println(rows + " rows");
+        } finally {
+            input.close();
+            output.flush();
+            if (output != System.out) {
+                output.close();
+            }
+        }
+    }
+}
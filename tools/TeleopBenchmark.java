@@ -0,0 +1,288 @@
+import edu.ata.modules.XboxController;
+import edu.ata.subsystems.Drivetrain;
+import edu.ata.subsystems.Driving;
+import edu.first.bindings.AxisBind;
+import edu.first.command.Command;
+import edu.first.identifiers.Function;
+import edu.first.module.driving.RobotDriveModule;
+import edu.first.module.hardware.SimHardware;
+import edu.first.module.joystick.BindableJoystick;
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.Hashtable;
+
+/**
+ * Desktop tool that measures the work done every teleop tick: running binds,
+ * reading deadbanded axes from {@link XboxController}, applying
+ * {@link Function} chains, and running {@link Drivetrain} with and without
+ * {@link Driving}.
+ * Joysticks and motors are from {@link SimHardware}, and commands do nothing,
+ * so only the framework is measured. Is not part of the robot build.
+ *
+ * <pre>
+ * javac -cp wpilibj.jar -sourcepath ../src -d . TeleopBenchmark.java
+ * java -cp wpilibj.jar:. TeleopBenchmark [millis] [baseline.csv] &gt; results.csv
+ * </pre>
+ *
+ * Every tick starts by moving the joysticks, like a new packet would, so
+ * buttons get pressed and released and axes cross the deadband. The "inputs"
+ * benchmark is only that, so it can be taken away from the others. Binds are
+ * measured at 10, 30 (about what Murdock has) and 60 binds, and functions at
+ * 1, 4 and 16 deep, to show how the cost grows.
+ *
+ * <p> Results are printed as CSV: nanoseconds per tick and bytes allocated per
+ * tick (counted by the JVM for this thread). If results from an earlier run
+ * are given as a baseline, the tool exits with an error when any benchmark is
+ * more than {@link TeleopBenchmark#maxSlowdown} slower, or allocates more than
+ * {@link TeleopBenchmark#maxGrowth} more.
+ *
+ * @author Joel Gallant
+ */
+public final class TeleopBenchmark {
+
+    private static final double maxSlowdown = 0.30;
+    private static final double maxGrowth = 0.10;
+    private static final int batch = 64;
+    private static final int[] bindCounts = {10, 30, 60};
+    private static final int[] functionDepths = {1, 4, 16};
+    private static final SimHardware hardware = new SimHardware();
+    private static final SimHardware.Joystick stick1 = hardware.getSimJoystick(1);
+    private static final SimHardware.Joystick stick2 = hardware.getSimJoystick(2);
+    private static final XboxController joystick1 = new XboxController(hardware.getJoystick(1));
+    private static final XboxController joystick2 = new XboxController(hardware.getJoystick(2));
+    private static final Command nothing = new Command() {
+        public void run() {
+        }
+    };
+    private static final AxisBind ignore = new AxisBind() {
+        public void set(double axisValue) {
+            sink += axisValue;
+        }
+    };
+    private static double sink;
+
+    private static abstract class Benchmark {
+
+        private final String name;
+
+        private Benchmark(String name) {
+            this.name = name;
+        }
+
+        abstract void tick(int tick);
+    }
+
+    public static void main(String[] args) throws IOException {
+        long millis = args.length > 0 ? Long.parseLong(args[0]) : 2000;
+        Hashtable baseline = args.length > 1 ? readBaseline(args[1]) : new Hashtable();
+        com.sun.management.ThreadMXBean threads = allocationCounter();
+        joystick1.enable();
+        joystick2.enable();
+
+        Benchmark[] benchmarks = createBenchmarks();
+        boolean failed = false;
+        System.out.println("benchmark,nanosPerTick,bytesPerTick");
+        for (int x = 0; x < benchmarks.length; x++) {
+            Benchmark benchmark = benchmarks[x];
+            // Warm up for as long as measuring, so the JIT is done
+            measure(benchmark, millis, null);
+            double[] result = measure(benchmark, millis, threads);
+            System.out.println(benchmark.name + "," + round(result[0]) + ","
+                    + (result[1] < 0 ? "n/a" : String.valueOf(round(result[1]))));
+
+            double[] old = (double[]) baseline.get(benchmark.name);
+            if (old != null) {
+                if (result[0] > old[0] / (1 - maxSlowdown)) {
+                    System.err.println(benchmark.name + " is slower: " + round(result[0])
+                            + " ns/tick, was " + round(old[0]));
+                    failed = true;
+                }
+                if (result[1] >= 0 && old[1] >= 0 && result[1] > old[1] * (1 + maxGrowth) + 1) {
+                    System.err.println(benchmark.name + " allocates more: " + round(result[1])
+                            + " bytes/tick, was " + round(old[1]));
+                    failed = true;
+                }
+            }
+        }
+        System.exit(failed ? 1 : 0);
+    }
+
+    private static Benchmark[] createBenchmarks() {
+        Benchmark[] benchmarks = new Benchmark[5 + bindCounts.length + functionDepths.length];
+        int b = 0;
+        // Only moving the joysticks, to subtract from the others
+        benchmarks[b++] = new Benchmark("inputs") {
+            void tick(int tick) {
+                move(tick);
+            }
+        };
+        benchmarks[b++] = new Benchmark("axes") {
+            void tick(int tick) {
+                move(tick);
+                for (int axis = 1; axis <= 8; axis++) {
+                    sink += joystick1.getRawAxis(axis);
+                }
+            }
+        };
+        for (int x = 0; x < bindCounts.length; x++) {
+            final BindableJoystick binds = createBinds(bindCounts[x]);
+            benchmarks[b++] = new Benchmark("binds " + bindCounts[x]) {
+                void tick(int tick) {
+                    move(tick);
+                    binds.doBinds();
+                }
+            };
+        }
+        for (int x = 0; x < functionDepths.length; x++) {
+            final Function function = createFunction(functionDepths[x]);
+            benchmarks[b++] = new Benchmark("function " + functionDepths[x]) {
+                void tick(int tick) {
+                    sink += function.apply((tick & 63) / 32.0 - 1);
+                }
+            };
+        }
+
+        // Aligned, so that only the benchmark runs them
+        final Drivetrain teleop = createDrivetrain();
+        teleop.setPacketAligned(true);
+        new Driving(teleop, joystick1, joystick2).enable();
+        final Drivetrain commanded = createDrivetrain();
+        commanded.setPacketAligned(true);
+        commanded.enable();
+        final BindableJoystick binds = createBinds(30);
+        benchmarks[b++] = new Benchmark("driving") {
+            void tick(int tick) {
+                move(tick);
+                teleop.run();
+            }
+        };
+        benchmarks[b++] = new Benchmark("drivetrain") {
+            void tick(int tick) {
+                commanded.arcadeDrive((tick & 63) / 32.0 - 1, 0.25);
+                commanded.run();
+            }
+        };
+        // Everything a packet causes in Murdock
+        benchmarks[b++] = new Benchmark("tick") {
+            void tick(int tick) {
+                move(tick);
+                binds.doBinds();
+                teleop.run();
+            }
+        };
+        return benchmarks;
+    }
+
+    private static Drivetrain createDrivetrain() {
+        return new Drivetrain(new RobotDriveModule(hardware.getRobotDrive(hardware.getMotor(6), hardware.getMotor(5),
+                hardware.getMotor(4), hardware.getMotor(3)), false, true));
+    }
+
+    // Buttons go through press / release cycles, axes sweep past the deadband
+    private static void move(int tick) {
+        double sweep = (tick & 63) / 32.0 - 1;
+        for (int axis = 1; axis <= SimHardware.Joystick.axes; axis++) {
+            stick1.setAxis(axis, axis % 2 == 0 ? sweep : -sweep);
+            stick2.setAxis(axis, sweep * 0.5);
+        }
+        for (int button = 1; button <= 10; button++) {
+            boolean pressed = ((tick + button) & 7) < 2;
+            stick1.setButton(button, pressed);
+            stick2.setButton(button, !pressed);
+        }
+    }
+
+    // Same mix as Murdock: mostly buttons, some axes and axes used as buttons
+    private static BindableJoystick createBinds(int count) {
+        BindableJoystick binds = new BindableJoystick(hardware.getJoystick(8));
+        for (int x = 0; x < count; x++) {
+            XboxController joystick = x % 2 == 0 ? joystick1 : joystick2;
+            if (x % 10 == 8) {
+                binds.addAxis(joystick.getTriggers(), ignore, new Function.SquaredFunction());
+            } else if (x % 10 == 9) {
+                binds.addWhenPressed(joystick.getAxisAsButton(XboxController.TRIGGERS, 0.7), nothing);
+            } else {
+                binds.addWhenPressed(joystick.getButton(x % 10 + 1), nothing);
+            }
+        }
+        return binds;
+    }
+
+    private static Function createFunction(int depth) {
+        Function[] functions = new Function[depth];
+        for (int x = 0; x < depth; x++) {
+            switch (x % 4) {
+                case 0:
+                    functions[x] = new Function.ProductFunction(0.9);
+                    break;
+                case 1:
+                    functions[x] = new Function.SumFunction(0.01);
+                    break;
+                case 2:
+                    functions[x] = new Function.SquaredFunction();
+                    break;
+                default:
+                    functions[x] = new Function.OppositeFunction();
+            }
+        }
+        return new Function.CompoundFunction(functions);
+    }
+
+    // Nanoseconds and bytes (-1 if not measured) per tick
+    private static double[] measure(Benchmark benchmark, long millis, com.sun.management.ThreadMXBean threads) {
+        long thread = Thread.currentThread().getId();
+        long bytes = threads != null ? threads.getThreadAllocatedBytes(thread) : 0;
+        long start = System.nanoTime();
+        long end = start + millis * 1000000L;
+        int ticks = 0;
+        long now;
+        do {
+            // Checking the time every tick would be measured too
+            for (int x = 0; x < batch; x++) {
+                benchmark.tick(ticks++);
+            }
+            now = System.nanoTime();
+        } while (now < end);
+        double bytesPerTick = threads != null
+                ? (threads.getThreadAllocatedBytes(thread) - bytes) / (double) ticks : -1;
+        return new double[]{(now - start) / (double) ticks, bytesPerTick};
+    }
+
+    private static String round(double value) {
+        return value < 10 ? String.valueOf(Math.round(value * 10) / 10.0) : String.valueOf(Math.round(value));
+    }
+
+    private static com.sun.management.ThreadMXBean allocationCounter() {
+        try {
+            com.sun.management.ThreadMXBean threads =
+                    (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+            if (threads.isThreadAllocatedMemorySupported()) {
+                threads.setThreadAllocatedMemoryEnabled(true);
+                return threads;
+            }
+        } catch (ClassCastException ex) {
+        }
+        System.err.println("Allocation is not measured by this JVM");
+        return null;
+    }
+
+    private static Hashtable readBaseline(String file) throws IOException {
+        Hashtable baseline = new Hashtable();
+        BufferedReader reader = new BufferedReader(new FileReader(file));
+        try {
+            String line = reader.readLine();
+            while ((line = reader.readLine()) != null) {
+                String[] parts = line.split(",");
+                if (parts.length >= 3) {
+                    baseline.put(parts[0], new double[]{Double.parseDouble(parts[1]),
+                        parts[2].equals("n/a") ? -1 : Double.parseDouble(parts[2])});
+                }
+            }
+        } finally {
+            reader.close();
+        }
+        return baseline;
+    }
+}